@@ -346,6 +346,20 @@ public class CoreMessages extends NLS {
     public static String pref_page_query_manager_label_days_to_store_log;
     public static String pref_page_query_manager_label_entries_per_page;
     public static String pref_page_query_manager_log_file_hint;
+    public static String query_manager_view_tab_log;
+    public static String query_manager_view_tab_workload;
+    public static String query_manager_workload_column_query;
+    public static String query_manager_workload_column_query_tip;
+    public static String query_manager_workload_column_executions;
+    public static String query_manager_workload_column_errors;
+    public static String query_manager_workload_column_total_time;
+    public static String query_manager_workload_column_avg_time;
+    public static String query_manager_workload_column_median_time;
+    public static String query_manager_workload_column_p99_time;
+    public static String query_manager_workload_column_max_time;
+    public static String query_manager_workload_column_rows;
+    public static String query_manager_workload_button_refresh;
+    public static String query_manager_workload_button_clear;
 
     public static String pref_page_ui_general_checkbox_automatic_updates;
     public static String pref_page_ui_general_group_browser;
@@ -142,6 +142,7 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
 
         this.qmLogWriter = new QMLogFileWriter();
         this.queryManager.registerMetaListener(qmLogWriter);
+        this.queryManager.setHistoryBrowser(qmLogWriter);
 
         super.initialize();
 
@@ -177,6 +178,7 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
 
         if (this.qmLogWriter != null) {
             this.queryManager.unregisterMetaListener(qmLogWriter);
+            this.queryManager.setHistoryBrowser(null);
             this.qmLogWriter.dispose();
             this.qmLogWriter = null;
         }
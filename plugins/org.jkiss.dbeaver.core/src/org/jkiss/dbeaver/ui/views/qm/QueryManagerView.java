@@ -16,10 +16,15 @@
  */
 package org.jkiss.dbeaver.ui.views.qm;
 
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CTabFolder;
+import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.model.IWorkbenchAdapter;
 import org.eclipse.ui.model.WorkbenchAdapter;
 import org.eclipse.ui.part.ViewPart;
+import org.jkiss.dbeaver.core.CoreMessages;
 import org.jkiss.dbeaver.ui.IHelpContextIds;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.querylog.QueryLogViewer;
@@ -29,7 +34,9 @@ public class QueryManagerView extends ViewPart
 {
     public static final String VIEW_ID = "org.jkiss.dbeaver.core.queryManager";
 
+    private CTabFolder tabFolder;
     private QueryLogViewer queryLogViewer;
+    private QueryWorkloadViewer workloadViewer;
 
     public QueryLogViewer getQueryLogViewer()
     {
@@ -39,16 +46,36 @@ public class QueryManagerView extends ViewPart
     @Override
     public void createPartControl(Composite parent)
     {
-        Composite group = UIUtils.createPlaceholder(parent, 1);
+        tabFolder = new CTabFolder(parent, SWT.BOTTOM | SWT.FLAT);
 
+        Composite group = UIUtils.createPlaceholder(tabFolder, 1);
         queryLogViewer = new QueryLogViewer(group, getSite(), null, true, false);
-        UIUtils.setHelp(group, IHelpContextIds.CTX_QUERY_MANAGER);
+        CTabItem logItem = new CTabItem(tabFolder, SWT.NONE);
+        logItem.setText(CoreMessages.query_manager_view_tab_log);
+        logItem.setControl(group);
+
+        workloadViewer = new QueryWorkloadViewer(tabFolder);
+        CTabItem workloadItem = new CTabItem(tabFolder, SWT.NONE);
+        workloadItem.setText(CoreMessages.query_manager_view_tab_workload);
+        workloadItem.setControl(workloadViewer.getControl());
+
+        tabFolder.setSelection(logItem);
+        tabFolder.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+            if (e.item == workloadItem) {
+                workloadViewer.refresh();
+            }
+        }));
+        UIUtils.setHelp(tabFolder, IHelpContextIds.CTX_QUERY_MANAGER);
     }
 
     @Override
     public void setFocus()
     {
-        queryLogViewer.getControl().setFocus();
+        if (tabFolder.getSelectionIndex() == 0) {
+            queryLogViewer.getControl().setFocus();
+        } else {
+            workloadViewer.getControl().setFocus();
+        }
     }
 
     public void openFilterDialog()
@@ -0,0 +1,146 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.views.qm;
+
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionListener;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.model.qm.QMMCollector;
+import org.jkiss.dbeaver.model.qm.QMQueryStatistics;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.controls.ViewerColumnController;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Query workload viewer.
+ * Shows executed queries grouped by fingerprint, so it is easy to see which query shapes dominate.
+ */
+public class QueryWorkloadViewer {
+
+    private static final int REFRESH_PERIOD = 2000;
+
+    private final Composite composite;
+    private final TableViewer viewer;
+    private final ViewerColumnController<Object, Object> columnController;
+
+    public QueryWorkloadViewer(@NotNull Composite parent) {
+        composite = UIUtils.createPlaceholder(parent, 1);
+
+        viewer = new TableViewer(composite, SWT.BORDER | SWT.MULTI | SWT.FULL_SELECTION);
+        viewer.getTable().setLayoutData(GridDataFactory.fillDefaults().grab(true, true).create());
+        viewer.getTable().setHeaderVisible(true);
+        viewer.getTable().setLinesVisible(true);
+        viewer.setContentProvider(new ArrayContentProvider());
+        ColumnViewerToolTipSupport.enableFor(viewer);
+
+        columnController = new ViewerColumnController<>("QueryWorkloadViewer", viewer);
+        columnController.addColumn(
+            CoreMessages.query_manager_workload_column_query, CoreMessages.query_manager_workload_column_query_tip,
+            SWT.LEFT, true, true,
+            new ColumnLabelProvider() {
+                @Override
+                public String getText(Object element) {
+                    return ((QMQueryStatistics) element).fingerprint();
+                }
+
+                @Override
+                public String getToolTipText(Object element) {
+                    return ((QMQueryStatistics) element).sampleQuery();
+                }
+            });
+        addNumberColumn(CoreMessages.query_manager_workload_column_executions, true, QMQueryStatistics::executeCount);
+        addNumberColumn(CoreMessages.query_manager_workload_column_errors, true, QMQueryStatistics::errorCount);
+        addNumberColumn(CoreMessages.query_manager_workload_column_total_time, true, QMQueryStatistics::totalTime);
+        addNumberColumn(CoreMessages.query_manager_workload_column_avg_time, false, QMQueryStatistics::getAverageTime);
+        addNumberColumn(CoreMessages.query_manager_workload_column_median_time, true, QMQueryStatistics::medianTime);
+        addNumberColumn(CoreMessages.query_manager_workload_column_p99_time, true, QMQueryStatistics::p99Time);
+        addNumberColumn(CoreMessages.query_manager_workload_column_max_time, false, QMQueryStatistics::maxTime);
+        addNumberColumn(CoreMessages.query_manager_workload_column_rows, true, QMQueryStatistics::rowCount);
+        columnController.createColumns(false);
+
+        Composite buttons = UIUtils.createPlaceholder(composite, 2, 5);
+        UIUtils.createDialogButton(buttons, CoreMessages.query_manager_workload_button_refresh,
+            SelectionListener.widgetSelectedAdapter(e -> refresh()));
+        UIUtils.createDialogButton(buttons, CoreMessages.query_manager_workload_button_clear,
+            SelectionListener.widgetSelectedAdapter(e -> {
+                QMMCollector collector = getCollector();
+                if (collector != null) {
+                    collector.clearQueryStatistics();
+                }
+                refresh();
+            }));
+
+        refresh();
+        // Sort by total time
+        columnController.sortByColumn(3, SWT.DOWN);
+        scheduleRefresh();
+    }
+
+    @NotNull
+    public Control getControl() {
+        return composite;
+    }
+
+    public void refresh() {
+        if (viewer.getControl().isDisposed()) {
+            return;
+        }
+        QMMCollector collector = getCollector();
+        List<QMQueryStatistics> statistics = collector == null ? Collections.emptyList() : collector.getQueryStatistics();
+        viewer.setInput(statistics);
+    }
+
+    private void scheduleRefresh() {
+        UIUtils.timerExec(REFRESH_PERIOD, () -> {
+            if (viewer.getControl().isDisposed()) {
+                return;
+            }
+            if (viewer.getControl().isVisible()) {
+                refresh();
+            }
+            scheduleRefresh();
+        });
+    }
+
+    private void addNumberColumn(@NotNull String name, boolean defaultVisible, @NotNull ToLongFunction<QMQueryStatistics> valueProvider) {
+        columnController.addColumn(
+            name, null, SWT.RIGHT, defaultVisible, false, true, null,
+            new ColumnLabelProvider() {
+                @Override
+                public String getText(Object element) {
+                    return String.valueOf(valueProvider.applyAsLong((QMQueryStatistics) element));
+                }
+            },
+            null);
+    }
+
+    private static QMMCollector getCollector() {
+        return DBWorkbench.getPlatform().getQueryManager().getMetaCollector();
+    }
+}
@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.tools.sql.task;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -32,10 +33,10 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.model.sql.SQLScriptCommitType;
 import org.jkiss.dbeaver.model.sql.SQLScriptContext;
-import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.SQLScriptErrorHandling;
+import org.jkiss.dbeaver.model.sql.exec.SQLInsertBatch;
 import org.jkiss.dbeaver.model.sql.exec.SQLScriptProcessor;
-import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.model.task.*;
@@ -47,6 +48,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -117,7 +119,6 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
         for (String filePath : settings.getScriptFiles()) {
             try {
                 for (DBPDataSourceContainer dataSourceContainer : dataSources) {
-                    var sqlScriptContent = readScriptContents(monitor, task.getProject(), filePath);
                     if (!dataSourceContainer.isConnected()) {
                         dataSourceContainer.connect(monitor, true, true);
                     }
@@ -140,7 +141,10 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
                         }
                     }
 
-                    processScript(monitor, task, settings, executionContext, filePath, sqlScriptContent, log, logStream);
+                    // Script is read and executed statement by statement
+                    try (Reader scriptReader = openScriptReader(monitor, task.getProject(), filePath)) {
+                        processScript(monitor, task, settings, executionContext, scriptReader, log, logStream);
+                    }
                 }
             } catch (Throwable e) {
                 Throwable error = e instanceof InvocationTargetException ? ((InvocationTargetException) e).getTargetException() : e;
@@ -149,16 +153,19 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
         }
     }
 
-    private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, String filePath, String sqlScriptContent, Log log, PrintStream logStream) throws DBException {
+    private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, Reader scriptReader, Log log, PrintStream logStream) throws DBException {
         PrintWriter logWriter = new PrintWriter(logStream, true);
-        List<SQLScriptElement> scriptElements = SQLScriptParser.parseScript(executionContext.getDataSource(), sqlScriptContent);
+        SQLScriptStreamParser scriptParser = new SQLScriptStreamParser(executionContext.getDataSource(), scriptReader);
         SQLScriptContext scriptContext = new SQLScriptContext(null, () -> executionContext, null, logWriter, null);
         scriptContext.setVariables(DBTaskUtils.getVariables(task));
         SQLScriptDataReceiver dataReceiver = new SQLScriptDataReceiver();
-        SQLScriptProcessor scriptProcessor = new SQLScriptProcessor(executionContext, scriptElements, scriptContext, dataReceiver, log);
+        SQLScriptProcessor scriptProcessor = new SQLScriptProcessor(executionContext, scriptParser, scriptContext, dataReceiver, log);
 
         scriptProcessor.setCommitType(settings.isAutoCommit() ? SQLScriptCommitType.AUTOCOMMIT : SQLScriptCommitType.AT_END);
         scriptProcessor.setErrorHandling(settings.isIgnoreErrors() ? SQLScriptErrorHandling.IGNORE : SQLScriptErrorHandling.STOP_ROLLBACK);
+        if (executionContext.getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.SCRIPT_BATCH_INSERTS)) {
+            scriptProcessor.setInsertBatchSize(SQLInsertBatch.DEFAULT_MAX_ROWS);
+        }
         if (settings.isDumpQueryResultsToLog()) {
             dataReceiver.setDumpWriter(logWriter);
         }
@@ -172,25 +179,34 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
         @NotNull DBRProgressMonitor monitor,
         @NotNull DBPProject project,
         @NotNull String filePath
+    ) throws DBException, IOException {
+        try (Reader fileReader = openScriptReader(monitor, project, filePath)) {
+            return IOUtils.readToString(fileReader);
+        }
+    }
+
+    @NotNull
+    public static Reader openScriptReader(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPProject project,
+        @NotNull String filePath
     ) throws DBException, IOException {
         java.nio.file.Path nioPath = DBFUtils.resolvePathFromString(monitor, project, filePath);
         if (!IOUtils.isLocalPath(nioPath)) {
             // Remote file
-            return Files.readString(nioPath);
+            return Files.newBufferedReader(nioPath);
         }
 
         RMControllerProvider rmControllerProvider = DBUtils.getAdapter(RMControllerProvider.class, project);
         if (rmControllerProvider != null) {
             var rmController = rmControllerProvider.getResourceController();
-            return new String(rmController.getResourceContents(project.getId(), filePath), StandardCharsets.UTF_8);
+            return new StringReader(new String(rmController.getResourceContents(project.getId(), filePath), StandardCharsets.UTF_8));
         }
         var sqlFile = DTUtils.findProjectFile(project, filePath);
         if (sqlFile == null) {
             throw new DBException("File " + filePath + " is not found in project " + project.getId());
         }
-        try (Reader fileReader = Files.newBufferedReader(sqlFile)) {
-            return IOUtils.readToString(fileReader);
-        }
+        return Files.newBufferedReader(sqlFile);
     }
 
 }
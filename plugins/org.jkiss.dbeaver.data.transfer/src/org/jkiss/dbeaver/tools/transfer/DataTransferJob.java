@@ -130,7 +130,9 @@ public class DataTransferJob extends AbstractJob {
             //consumer.initTransfer(producer.getDatabaseObject(), consumerSettings, );
 
             IDataTransferProcessor processor = settings.getProcessor() == null ? null : settings.getProcessor().getInstance();
+            long startTime = System.currentTimeMillis();
             producer.transferData(monitor, consumer, processor, nodeSettings, task);
+            transferPipe.recordMetrics(settings, System.currentTimeMillis() - startTime);
 
             totalStatistics.accumulate(producer.getStatistics());
             totalStatistics.accumulate(consumer.getStatistics());
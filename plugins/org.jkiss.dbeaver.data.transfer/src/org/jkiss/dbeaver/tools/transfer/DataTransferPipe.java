@@ -17,6 +17,9 @@
 package org.jkiss.dbeaver.tools.transfer;
 
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.metrics.DBMetricsRegistry;
+import org.jkiss.dbeaver.tools.transfer.registry.DataTransferNodeDescriptor;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferProcessorDescriptor;
 
 import java.util.Date;
@@ -80,4 +83,26 @@ public class DataTransferPipe {
             producer == null ? null : producer.getProject());
 
     }
+
+    /**
+     * Records transfer time and transferred rows in the metrics registry (if it is enabled)
+     */
+    public void recordMetrics(DataTransferSettings settings, long transferTime) {
+        DBMetricsRegistry registry = DBMetricsRegistry.getInstance();
+        if (!registry.isEnabled() || producer == null) {
+            return;
+        }
+        DataTransferNodeDescriptor consumerNode = settings.getConsumer();
+        String[] labels = {"consumer", consumerNode == null ? "" : consumerNode.getId()};
+        DBCStatistics statistics = producer.getStatistics();
+        long rows = statistics == null ? 0 : statistics.getRowsFetched();
+        registry.getHistogram("dbeaver_transfer_seconds", "Data transfer time", 0.001, labels)
+            .record(transferTime);
+        registry.getCounter("dbeaver_transfer_rows_total", "Total transferred rows", labels)
+            .add(rows);
+        if (rows > 0 && transferTime > 0) {
+            registry.getHistogram("dbeaver_transfer_rows_per_second", "Data transfer rate", 1.0, labels)
+                .record(rows * 1000 / transferTime);
+        }
+    }
 }
@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -209,7 +210,13 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                     throw new DBCException("Can't retrieve execution context from data container " + dataContainer);
                 }
                 if (!selectiveExportFromUI && newConnection) {
-                    context = DBUtils.getObjectOwnerInstance(getDatabaseObject()).openIsolatedContext(monitor, "Data transfer producer", context);
+                    DBSInstance ownerInstance = DBUtils.getObjectOwnerInstance(getDatabaseObject());
+                    if (GeneralUtils.adapt(dataContainer, SQLQueryContainer.class) != null) {
+                        // Custom queries may change the session state, which is not restored in the pool
+                        context = ownerInstance.openIsolatedContext(monitor, "Data transfer producer", context);
+                    } else {
+                        context = ownerInstance.openPooledContext(monitor, "Data transfer producer", context);
+                    }
                     DBExecUtils.setExecutionContextDefaults(monitor, dataSource, context, defaultCatalog, null, defaultSchema);
                 }
                 if (task != null) {
@@ -24,6 +24,7 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.dpi.model.DPIConstants;
 import org.jkiss.dbeaver.dpi.model.client.ConfigUtils;
+import org.jkiss.dbeaver.dpi.server.DPIMetricsServer;
 import org.jkiss.dbeaver.dpi.server.DPIRestServer;
 import org.jkiss.dbeaver.model.app.DBPApplication;
 import org.jkiss.dbeaver.model.app.DBPPlatform;
@@ -91,15 +92,33 @@ public class DPIApplication extends BaseApplicationImpl implements DBPApplicatio
     private void runServer(IApplicationContext appContext, DBPApplication application) throws IOException {
         int portNumber = IOUtils.findFreePort(20000, 65000);
         DPIRestServer server = new DPIRestServer(application, portNumber);
+        DPIMetricsServer metricsServer = startMetricsServer();
         saveServerInfo(portNumber);
         try {
             log.debug("Started DPI Server at " + portNumber);
             server.join();
         } finally {
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
             deleteServerInfo();
         }
     }
 
+    @Nullable
+    private DPIMetricsServer startMetricsServer() {
+        String metricsPort = getCommandLineArgument(DPIConstants.ARG_METRICS_PORT);
+        if (CommonUtils.isEmpty(metricsPort)) {
+            return null;
+        }
+        try {
+            return new DPIMetricsServer(Integer.parseInt(metricsPort));
+        } catch (Exception e) {
+            log.error("Error starting metrics server at port " + metricsPort, e);
+            return null;
+        }
+    }
+
     private void saveServerInfo(int portNumber) throws IOException {
         Path serverIniFile = getServerIniFile();
         try (BufferedWriter out = Files.newBufferedWriter(serverIniFile, StandardOpenOption.CREATE)) {
@@ -25,6 +25,7 @@ public class DPIConstants {
     public static final String PARAM_SERVER_PORT = "serverPort";
 
     public static final String ARG_ENABLE_ENV = "-envVariablesEnabled";
+    public static final String ARG_METRICS_PORT = "-metricsPort";
 
     public static final String SERVER_INI_FILE = "server.ini";
 }
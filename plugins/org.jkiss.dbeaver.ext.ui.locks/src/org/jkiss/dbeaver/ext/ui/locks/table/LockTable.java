@@ -132,7 +132,7 @@ public class LockTable extends DatabaseObjectListControl<DBAServerLock> {
             throws InvocationTargetException, InterruptedException
         {
             try {
-                try (DBCExecutionContext isolatedContext = lockManager.getDataSource().getDefaultInstance().openIsolatedContext(monitor, "View Locks", null)) {
+                try (DBCExecutionContext isolatedContext = lockManager.getDataSource().getDefaultInstance().openPooledContext(monitor, "View Locks", null)) {
                     try (DBCSession session = isolatedContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Retrieve server locks")) {
                         return lockManager.getLocks(session, null).values();
                     }
@@ -160,7 +160,7 @@ public class LockTable extends DatabaseObjectListControl<DBAServerLock> {
             throws InvocationTargetException, InterruptedException
         {
             try {
-                try (DBCExecutionContext isolatedContext = lockManager.getDataSource().getDefaultInstance().openIsolatedContext(monitor, "View locks", null)) {
+                try (DBCExecutionContext isolatedContext = lockManager.getDataSource().getDefaultInstance().openPooledContext(monitor, "View locks", null)) {
                     try (DBCSession session = isolatedContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Kill server session by lock")) {
                     		lockManager.alterSession(session, this.lock, options);	                       
                         return null;
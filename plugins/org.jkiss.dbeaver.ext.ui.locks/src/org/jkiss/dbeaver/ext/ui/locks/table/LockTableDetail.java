@@ -115,7 +115,7 @@ public class LockTableDetail extends DatabaseObjectListControl<DBAServerLockItem
             throws InvocationTargetException, InterruptedException
         {
             try {
-                try (DBCExecutionContext isolatedContext = lockManager.getDataSource().getDefaultInstance().openIsolatedContext(monitor, "View Lock item", null)) {
+                try (DBCExecutionContext isolatedContext = lockManager.getDataSource().getDefaultInstance().openPooledContext(monitor, "View Lock item", null)) {
                     try (DBCSession session = isolatedContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Retrieve server lock detail")) {
                         return lockManager.getLockItems(session, options);
                     }
@@ -0,0 +1,113 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dashboard.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * History of dashboard series. It is kept while dashboard is open and can be saved to a file,
+ * so charts are not empty after restart.
+ */
+public class DashboardHistory {
+
+    private static final int FILE_MAGIC = 0x44424844; // DBHD
+    private static final int FILE_VERSION = 1;
+    private static final int MAX_SERIES = 1000;
+
+    private final Map<String, DashboardTimeSeries> series = new LinkedHashMap<>();
+
+    @NotNull
+    public synchronized DashboardTimeSeries getSeries(@NotNull String name) {
+        return series.computeIfAbsent(name, k -> new DashboardTimeSeries());
+    }
+
+    @Nullable
+    public synchronized DashboardTimeSeries findSeries(@NotNull String name) {
+        return series.get(name);
+    }
+
+    @NotNull
+    public synchronized Map<String, DashboardTimeSeries> getAllSeries() {
+        return new LinkedHashMap<>(series);
+    }
+
+    public synchronized void add(@NotNull String name, long time, double value) {
+        DashboardTimeSeries timeSeries = series.get(name);
+        if (timeSeries == null) {
+            if (series.size() >= MAX_SERIES) {
+                // Dashboard with generated series names, do not grow forever
+                return;
+            }
+            timeSeries = new DashboardTimeSeries();
+            series.put(name, timeSeries);
+        }
+        timeSeries.add(time, value);
+    }
+
+    public synchronized void clear() {
+        series.clear();
+    }
+
+    public synchronized void save(@NotNull Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(series.size());
+            for (Map.Entry<String, DashboardTimeSeries> entry : series.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public synchronized void load(@NotNull Path file) throws IOException {
+        series.clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Bad dashboard history file " + file);
+            }
+            int version = in.readInt();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported dashboard history version " + version);
+            }
+            int seriesCount = in.readInt();
+            if (seriesCount < 0 || seriesCount > MAX_SERIES) {
+                throw new IOException("Corrupted dashboard history file " + file);
+            }
+            for (int i = 0; i < seriesCount; i++) {
+                String name = in.readUTF();
+                DashboardTimeSeries timeSeries = new DashboardTimeSeries();
+                timeSeries.read(in);
+                series.put(name, timeSeries);
+            }
+        } catch (IOException e) {
+            series.clear();
+            throw e;
+        }
+    }
+}
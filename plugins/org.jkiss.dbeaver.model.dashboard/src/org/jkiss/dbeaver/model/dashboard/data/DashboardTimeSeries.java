@@ -0,0 +1,358 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dashboard.data;
+
+import org.jkiss.code.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Dashboard series history with bounded memory.
+ * <p>
+ * Values are kept in three ring buffers of primitive arrays: raw values, 1 minute and 1 hour rollups.
+ * Rollups keep minimum, maximum and average of values in their interval, so long ranges are rendered
+ * from a few points. When a ring is full the oldest points are overwritten.
+ */
+public class DashboardTimeSeries {
+
+    public static final long MINUTE = 60 * 1000L;
+    public static final long HOUR = 60 * MINUTE;
+
+    public static final int DEFAULT_RAW_CAPACITY = 3600;
+    // One day of minutes
+    public static final int DEFAULT_MINUTE_CAPACITY = 24 * 60;
+    // 90 days of hours
+    public static final int DEFAULT_HOUR_CAPACITY = 90 * 24;
+
+    /**
+     * Series samples. Raw samples have the same minimum, maximum and average.
+     */
+    public record Samples(@NotNull long[] times, @NotNull double[] min, @NotNull double[] max, @NotNull double[] avg, int size) {
+    }
+
+    private final Ring raw;
+    private final Ring minutes;
+    private final Ring hours;
+
+    public DashboardTimeSeries() {
+        this(DEFAULT_RAW_CAPACITY, DEFAULT_MINUTE_CAPACITY, DEFAULT_HOUR_CAPACITY);
+    }
+
+    public DashboardTimeSeries(int rawCapacity, int minuteCapacity, int hourCapacity) {
+        this.raw = new Ring(0, rawCapacity);
+        this.minutes = new Ring(MINUTE, minuteCapacity);
+        this.hours = new Ring(HOUR, hourCapacity);
+    }
+
+    /**
+     * Adds value. Values older than the last one are ignored, value with the same time replaces the last one in raw values.
+     */
+    public void add(long time, double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (raw.size > 0 && raw.getTime(raw.size - 1) == time) {
+            // Rollups already have the replaced value, correct them instead of adding one more value
+            double replacedValue = raw.replaceLast(time, value);
+            minutes.replaceLast(time, replacedValue, value);
+            hours.replaceLast(time, replacedValue, value);
+            return;
+        }
+        if (raw.add(time, value)) {
+            minutes.add(time, value);
+            hours.add(time, value);
+        }
+    }
+
+    public boolean isEmpty() {
+        return raw.size == 0;
+    }
+
+    public long getLastTime() {
+        return raw.size > 0 ? raw.getTime(raw.size - 1) : 0;
+    }
+
+    /**
+     * Returns samples in the time range, at most maxPoints of them.
+     * The finest resolution which has all values of the range is used, neighbour samples are merged if there are too many of them.
+     */
+    @NotNull
+    public Samples getSamples(long fromTime, long toTime, int maxPoints) {
+        // Samples of the finest ring are merged, so the result has exact minimum, maximum and average
+        Ring source = hours;
+        for (Ring ring : new Ring[] {raw, minutes}) {
+            if (ring.covers(fromTime)) {
+                source = ring;
+                break;
+            }
+        }
+        return source.getSamples(fromTime, toTime, Math.max(maxPoints, 1));
+    }
+
+    public void write(@NotNull DataOutput out) throws IOException {
+        raw.write(out);
+        minutes.write(out);
+        hours.write(out);
+    }
+
+    public void read(@NotNull DataInput in) throws IOException {
+        raw.read(in);
+        minutes.read(in);
+        hours.read(in);
+    }
+
+    /**
+     * Ring of samples. Arrays grow up to the capacity, so short series do not take much memory.
+     * Raw ring (zero resolution) keeps values in the avg array only.
+     */
+    private static class Ring {
+        private static final int INITIAL_SIZE = 64;
+
+        private final long resolution;
+        private final int capacity;
+        private long[] times = new long[0];
+        private double[] min = new double[0];
+        private double[] max = new double[0];
+        private double[] avg = new double[0];
+        private int[] counts = new int[0];
+        // Index of the oldest sample
+        private int head;
+        private int size;
+        // Total number of samples ever added, it is greater than size when ring has overwritten samples
+        private long count;
+
+        Ring(long resolution, int capacity) {
+            this.resolution = resolution;
+            this.capacity = Math.max(capacity, 1);
+        }
+
+        /**
+         * Adds value to the last sample or appends a new one.
+         * Returns false if the value was ignored: it is older than the last sample or it has the same time in the raw ring.
+         */
+        boolean add(long time, double value) {
+            long sampleTime = align(time);
+            if (size > 0) {
+                int last = index(size - 1);
+                long lastTime = times[last];
+                if (sampleTime < lastTime || (sampleTime == lastTime && resolution == 0)) {
+                    return false;
+                }
+                if (sampleTime == lastTime) {
+                    min[last] = Math.min(min[last], value);
+                    max[last] = Math.max(max[last], value);
+                    counts[last]++;
+                    avg[last] += (value - avg[last]) / counts[last];
+                    return true;
+                }
+            }
+            int slot = nextSlot();
+            times[slot] = sampleTime;
+            avg[slot] = value;
+            if (resolution != 0) {
+                min[slot] = value;
+                max[slot] = value;
+                counts[slot] = 1;
+            }
+            count++;
+            return true;
+        }
+
+        /**
+         * Replaces the last raw value with the same time, returns the replaced value
+         */
+        double replaceLast(long time, double value) {
+            int last = index(size - 1);
+            double replacedValue = avg[last];
+            avg[last] = value;
+            return replacedValue;
+        }
+
+        /**
+         * Replaces one of the values of the last rollup sample.
+         * Average is exact, minimum and maximum may still include the replaced value.
+         */
+        void replaceLast(long time, double replacedValue, double value) {
+            if (size == 0) {
+                return;
+            }
+            int last = index(size - 1);
+            if (times[last] != align(time)) {
+                // Sample with the replaced value was overwritten
+                return;
+            }
+            min[last] = Math.min(min[last], value);
+            max[last] = Math.max(max[last], value);
+            avg[last] += (value - replacedValue) / counts[last];
+        }
+
+        /**
+         * Start time of the sample which contains the given time
+         */
+        private long align(long time) {
+            return resolution == 0 ? time : time - Math.floorMod(time, resolution);
+        }
+
+        private int nextSlot() {
+            if (size < capacity) {
+                if (size == times.length) {
+                    grow();
+                }
+                return index(size++);
+            }
+            // Overwrite the oldest sample
+            int slot = head;
+            head = (head + 1) % times.length;
+            return slot;
+        }
+
+        private void grow() {
+            int newLength = Math.min(Math.max(times.length * 2, INITIAL_SIZE), capacity);
+            // Ring is not full yet, so it starts at zero
+            times = Arrays.copyOf(times, newLength);
+            avg = Arrays.copyOf(avg, newLength);
+            if (resolution != 0) {
+                min = Arrays.copyOf(min, newLength);
+                max = Arrays.copyOf(max, newLength);
+                counts = Arrays.copyOf(counts, newLength);
+            }
+        }
+
+        private int index(int position) {
+            return (head + position) % times.length;
+        }
+
+        /**
+         * Ring has all values since the given time if it has not overwritten anything or if its oldest sample is older
+         */
+        boolean covers(long time) {
+            return size == count || (size > 0 && getTime(0) <= align(time));
+        }
+
+        long getTime(int position) {
+            return times[index(position)];
+        }
+
+        /**
+         * Position of the first sample with time >= the given one
+         */
+        private int lowerBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (getTime(mid) < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @NotNull
+        Samples getSamples(long fromTime, long toTime, int maxPoints) {
+            int first = lowerBound(align(fromTime));
+            int total = lowerBound(toTime + 1) - first;
+            int resultSize = Math.min(total, maxPoints);
+            long[] resTimes = new long[resultSize];
+            double[] resMin = new double[resultSize];
+            double[] resMax = new double[resultSize];
+            double[] resAvg = new double[resultSize];
+            for (int i = 0; i < resultSize; i++) {
+                // Merge samples [start, end) into one point
+                int start = first + (int) ((long) i * total / resultSize);
+                int end = first + (int) ((long) (i + 1) * total / resultSize);
+                double sampleMin = Double.MAX_VALUE;
+                double sampleMax = -Double.MAX_VALUE;
+                double sum = 0;
+                long weight = 0;
+                for (int k = start; k < end; k++) {
+                    int slot = index(k);
+                    int sampleCount = resolution == 0 ? 1 : counts[slot];
+                    sampleMin = Math.min(sampleMin, resolution == 0 ? avg[slot] : min[slot]);
+                    sampleMax = Math.max(sampleMax, resolution == 0 ? avg[slot] : max[slot]);
+                    sum += avg[slot] * sampleCount;
+                    weight += sampleCount;
+                }
+                resTimes[i] = getTime(start);
+                resMin[i] = sampleMin;
+                resMax[i] = sampleMax;
+                resAvg[i] = sum / weight;
+            }
+            return new Samples(resTimes, resMin, resMax, resAvg, resultSize);
+        }
+
+        void write(@NotNull DataOutput out) throws IOException {
+            out.writeInt(size);
+            out.writeLong(count);
+            for (int i = 0; i < size; i++) {
+                int slot = index(i);
+                out.writeLong(times[slot]);
+                out.writeDouble(avg[slot]);
+                if (resolution != 0) {
+                    out.writeDouble(min[slot]);
+                    out.writeDouble(max[slot]);
+                    out.writeInt(counts[slot]);
+                }
+            }
+        }
+
+        void read(@NotNull DataInput in) throws IOException {
+            int storedSize = in.readInt();
+            long storedCount = in.readLong();
+            if (storedSize < 0 || storedCount < storedSize) {
+                throw new IOException("Corrupted series data");
+            }
+            // Keep the newest samples if capacity was decreased
+            int skip = Math.max(storedSize - capacity, 0);
+            head = 0;
+            size = 0;
+            times = new long[0];
+            min = new double[0];
+            max = new double[0];
+            avg = new double[0];
+            counts = new int[0];
+            for (int i = 0; i < storedSize; i++) {
+                long time = in.readLong();
+                double value = in.readDouble();
+                double sampleMin = value, sampleMax = value;
+                int sampleCount = 1;
+                if (resolution != 0) {
+                    sampleMin = in.readDouble();
+                    sampleMax = in.readDouble();
+                    sampleCount = in.readInt();
+                }
+                if (i < skip) {
+                    continue;
+                }
+                int slot = nextSlot();
+                times[slot] = time;
+                avg[slot] = value;
+                if (resolution != 0) {
+                    min[slot] = sampleMin;
+                    max[slot] = sampleMax;
+                    counts[slot] = sampleCount;
+                }
+            }
+            count = storedCount;
+        }
+    }
+}
@@ -572,9 +572,22 @@ public abstract class JDBCDataSource extends AbstractDataSource
     @Override
     public DBSObject refreshObject(@NotNull DBRProgressMonitor monitor) throws DBException {
         this.dataSourceInfo = new JDBCDataSourceInfo(container);
+        invalidateStatementCaches();
         return this;
     }
 
+    /**
+     * Closes cached prepared statements of all contexts.
+     * Called on metadata refresh and after DDL execution, cached statements may refer to changed objects.
+     */
+    public void invalidateStatementCaches() {
+        for (JDBCRemoteInstance instance : getAvailableInstances()) {
+            for (JDBCExecutionContext context : instance.getAllContexts()) {
+                context.invalidateStatementCache();
+            }
+        }
+    }
+
     protected JDBCExecutionContext createExecutionContext(JDBCRemoteInstance instance, String type) {
         return new JDBCExecutionContext(instance, type);
     }
@@ -22,12 +22,15 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPAdaptable;
 import org.jkiss.dbeaver.model.DBPTransactionIsolation;
+import org.jkiss.dbeaver.model.dpi.DPIElement;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCSavepointImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCStatementCache;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
@@ -64,6 +67,16 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
     private transient volatile boolean txnIsolationLevelReadInProgress;
+    @Nullable
+    private volatile JDBCStatementCache statementCache;
+    // Pool which owns this context and the state which is restored when context is returned to the pool
+    @Nullable
+    private volatile JDBCExecutionContextPool pool;
+    @Nullable
+    private volatile JDBCExecutionContextPool.InitialState poolInitialState;
+    // Purpose of the task which currently uses the pooled context
+    @Nullable
+    private volatile String pooledPurpose;
     private final ReentrantLock queryExecutionLock;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
@@ -107,7 +120,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     protected void connect(@NotNull DBRProgressMonitor monitor, Boolean autoCommit, @Nullable Integer txnLevel, JDBCExecutionContext initFrom, boolean addContext) throws DBCException {
         if (connection != null && addContext) {
             log.error("Reopening not-closed connection");
-            close();
+            closeContext(true);
         }
         boolean connectionReadOnly = dataSource.getContainer().isConnectionReadOnly();
         final JDBCRemoteInstance currentInstance = this.instance;
@@ -120,6 +133,8 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
             if (this.connection == null) {
                 throw new DBCException("Null connection returned");
             }
+            int statementCacheSize = dataSource.getContainer().getPreferenceStore().getInt(ModelPreferences.CONNECTION_STATEMENT_CACHE_SIZE);
+            this.statementCache = statementCacheSize > 0 ? new JDBCStatementCache(statementCacheSize) : null;
             monitor.subTask("Set connection defaults");
             // Get defaults from preferences
             if (autoCommit == null) {
@@ -200,6 +215,12 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         synchronized (this) {
+            JDBCStatementCache cache = this.statementCache;
+            if (cache != null) {
+                // Do not reuse statements of the closed connection
+                cache.close();
+                this.statementCache = null;
+            }
             // If we cannot determine if connection is in autocommit mode, assume that it is not
             if (connection != null && !dataSource.closeConnection(connection, purpose, !isAutoCommit(false))) {
                 log.debug("Connection close timeout");
@@ -235,6 +256,24 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         return connection;
     }
 
+    /**
+     * Prepared statements cache of the current connection or null if caching is disabled
+     */
+    @Nullable
+    public JDBCStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Closes cached prepared statements. Should be called when connection state which affects statements is changed.
+     */
+    public void invalidateStatementCache() {
+        JDBCStatementCache cache = this.statementCache;
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
     @NotNull
     @Override
     public JDBCSession openSession(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionPurpose purpose, @NotNull String taskTitle) {
@@ -269,9 +308,44 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
 
     @Override
     public void close() {
+        JDBCExecutionContextPool contextPool = this.pool;
+        if (contextPool != null && contextPool.release(this)) {
+            return;
+        }
         closeContext(true);
     }
 
+    void attachToPool(@NotNull JDBCExecutionContextPool pool, @NotNull JDBCExecutionContextPool.InitialState initialState) {
+        this.pool = pool;
+        this.poolInitialState = initialState;
+    }
+
+    void detachFromPool() {
+        this.pool = null;
+        this.poolInitialState = null;
+        this.pooledPurpose = null;
+    }
+
+    /**
+     * Sets purpose of the task which took this context from the pool, so it is reported by the context name
+     */
+    void setPooledPurpose(@NotNull String purpose) {
+        this.pooledPurpose = purpose;
+    }
+
+    @DPIElement
+    @NotNull
+    @Override
+    public String getContextName() {
+        String pooledPurpose = this.pooledPurpose;
+        return pooledPurpose != null ? pooledPurpose : super.getContextName();
+    }
+
+    @Nullable
+    JDBCExecutionContextPool.InitialState getPoolInitialState() {
+        return poolInitialState;
+    }
+
     private void closeContext(boolean removeContext) {
         // We remove context before it is actually closed.
         // Because disconnect may (potentially) hang in socket forever
@@ -503,7 +577,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     }
 
     public void reconnect(DBRProgressMonitor monitor) throws DBCException {
-        close();
+        closeContext(true);
         connect(monitor, null, null, this, true);
     }
 
@@ -0,0 +1,250 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Pool of idle execution contexts of a remote instance.
+ * <p>
+ * Contexts are opened for short background tasks and returned to the pool when they are closed.
+ * The pool validates connection when a context is borrowed. On return it rolls back the open transaction
+ * and resets auto-commit and default catalog/schema, contexts which can't be reset are closed.
+ * Contexts which were idle longer than the idle timeout are closed by the reaper job.
+ */
+class JDBCExecutionContextPool {
+
+    private static final Log log = Log.getLog(JDBCExecutionContextPool.class);
+
+    /**
+     * Context defaults right after the context was opened
+     */
+    record InitialState(@Nullable DBSCatalog catalog, @Nullable DBSSchema schema) {
+    }
+
+    private static class IdleContext {
+        final JDBCExecutionContext context;
+        final long releaseTime;
+
+        IdleContext(JDBCExecutionContext context, long releaseTime) {
+            this.context = context;
+            this.releaseTime = releaseTime;
+        }
+    }
+
+    @NotNull
+    private final JDBCRemoteInstance instance;
+    private final int maxIdle;
+    private final long idleTimeout;
+    private final Deque<IdleContext> idleContexts = new ArrayDeque<>();
+    private final ReaperJob reaperJob = new ReaperJob();
+    private volatile boolean closed;
+
+    JDBCExecutionContextPool(@NotNull JDBCRemoteInstance instance, int maxIdle, long idleTimeout) {
+        this.instance = instance;
+        this.maxIdle = maxIdle;
+        this.idleTimeout = idleTimeout;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Registers newly opened context in the pool, it will be returned to the pool on close
+     */
+    void attach(@NotNull JDBCExecutionContext context) {
+        DBCExecutionContextDefaults<?, ?> defaults = context.getContextDefaults();
+        context.attachToPool(this, defaults == null ?
+            new InitialState(null, null) :
+            new InitialState(defaults.getDefaultCatalog(), defaults.getDefaultSchema()));
+    }
+
+    /**
+     * Returns validated idle context or null if the pool is empty
+     */
+    @Nullable
+    JDBCExecutionContext borrow(@NotNull DBRProgressMonitor monitor) {
+        for (;;) {
+            IdleContext idle;
+            synchronized (idleContexts) {
+                // Most recently used context is most likely alive
+                idle = closed ? null : idleContexts.pollLast();
+            }
+            if (idle == null) {
+                return null;
+            }
+            if (isExpired(idle, System.currentTimeMillis()) || !isAlive(monitor, idle.context)) {
+                closeContext(idle.context);
+                continue;
+            }
+            return idle.context;
+        }
+    }
+
+    /**
+     * Resets context state and puts it to the pool.
+     * Returns false if context can't be pooled and must be closed.
+     */
+    boolean release(@NotNull JDBCExecutionContext context) {
+        if (closed || maxIdle <= 0 || !context.isConnected()) {
+            return false;
+        }
+        synchronized (idleContexts) {
+            if (idleContexts.size() >= maxIdle) {
+                return false;
+            }
+        }
+        if (!resetContext(new VoidProgressMonitor(), context)) {
+            return false;
+        }
+        synchronized (idleContexts) {
+            if (closed || idleContexts.size() >= maxIdle) {
+                return false;
+            }
+            idleContexts.addLast(new IdleContext(context, System.currentTimeMillis()));
+        }
+        reaperJob.schedule(idleTimeout);
+        return true;
+    }
+
+    /**
+     * Closes all idle contexts. Contexts which are in use are closed instead of return to the pool.
+     */
+    void close() {
+        closed = true;
+        reaperJob.cancel();
+        closeIdleContexts(true);
+    }
+
+    private void closeIdleContexts(boolean all) {
+        List<JDBCExecutionContext> toClose = new ArrayList<>();
+        long currentTime = System.currentTimeMillis();
+        synchronized (idleContexts) {
+            for (Iterator<IdleContext> iter = idleContexts.iterator(); iter.hasNext(); ) {
+                IdleContext idle = iter.next();
+                if (all || isExpired(idle, currentTime)) {
+                    toClose.add(idle.context);
+                    iter.remove();
+                }
+            }
+        }
+        for (JDBCExecutionContext context : toClose) {
+            closeContext(context);
+        }
+    }
+
+    private boolean isExpired(@NotNull IdleContext idle, long currentTime) {
+        return currentTime - idle.releaseTime >= idleTimeout;
+    }
+
+    private boolean isAlive(@NotNull DBRProgressMonitor monitor, @NotNull JDBCExecutionContext context) {
+        try {
+            return JDBCUtils.isConnectionAlive(instance.getDataSource(), context.getConnection(monitor, false));
+        } catch (Throwable e) {
+            log.debug("Error validating pooled connection", e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean resetContext(@NotNull DBRProgressMonitor monitor, @NotNull JDBCExecutionContext context) {
+        InitialState initialState = context.getPoolInitialState();
+        if (initialState == null) {
+            return false;
+        }
+        try {
+            boolean defaultAutoCommit = instance.getDataSource().getContainer().isDefaultAutoCommit();
+            if (!context.isAutoCommit()) {
+                Connection connection = context.getConnection(monitor, false);
+                if (connection == null) {
+                    return false;
+                }
+                connection.rollback();
+            }
+            if (context.isAutoCommit() != defaultAutoCommit) {
+                context.setAutoCommit(monitor, defaultAutoCommit);
+            }
+
+            DBCExecutionContextDefaults defaults = context.getContextDefaults();
+            if (defaults != null) {
+                DBSCatalog catalog = initialState.catalog();
+                DBSSchema schema = initialState.schema();
+                if (defaults.getDefaultCatalog() != catalog) {
+                    if (catalog == null || !defaults.supportsCatalogChange()) {
+                        return false;
+                    }
+                    defaults.setDefaultCatalog(monitor, catalog, schema);
+                }
+                if (defaults.getDefaultSchema() != schema) {
+                    if (schema == null || !defaults.supportsSchemaChange()) {
+                        return false;
+                    }
+                    defaults.setDefaultSchema(monitor, schema);
+                }
+            }
+            return context.isAutoCommit() == defaultAutoCommit;
+        } catch (Throwable e) {
+            log.debug("Error resetting pooled context '" + context.getContextName() + "'", e);
+            return false;
+        }
+    }
+
+    private static void closeContext(@NotNull JDBCExecutionContext context) {
+        context.detachFromPool();
+        context.close();
+    }
+
+    private class ReaperJob extends AbstractJob {
+        ReaperJob() {
+            super("Close idle connections");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            closeIdleContexts(false);
+            boolean hasIdle;
+            synchronized (idleContexts) {
+                hasIdle = !idleContexts.isEmpty();
+            }
+            if (hasIdle && !closed) {
+                schedule(idleTimeout);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.impl.SimpleExclusiveLock;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -53,6 +54,8 @@ public class JDBCRemoteInstance implements DBSInstance {
     @NotNull
     private final List<JDBCExecutionContext> allContexts = new ArrayList<>();
     private final DBPExclusiveResource exclusiveLock = new SimpleExclusiveLock();
+    @Nullable
+    private JDBCExecutionContextPool contextPool;
 
     protected JDBCRemoteInstance(@NotNull DBRProgressMonitor monitor, @NotNull JDBCDataSource dataSource, boolean initContext)
         throws DBException {
@@ -169,6 +172,53 @@ public class JDBCRemoteInstance implements DBSInstance {
         return context;
     }
 
+    @NotNull
+    @Override
+    public DBCExecutionContext openPooledContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException {
+        if (sharedInstance != null) {
+            return sharedInstance.openPooledContext(monitor, purpose, initFrom);
+        }
+        JDBCExecutionContextPool pool = getContextPool();
+        if (pool == null) {
+            return openIsolatedContext(monitor, purpose, initFrom);
+        }
+        JDBCExecutionContext context = pool.borrow(monitor);
+        if (context != null) {
+            context.setPooledPurpose(purpose);
+            if (initFrom instanceof JDBCExecutionContext) {
+                dataSource.initializeContextState(monitor, context, (JDBCExecutionContext) initFrom);
+            }
+            return context;
+        }
+        DBCExecutionContext newContext = openIsolatedContext(monitor, purpose, null);
+        if (newContext instanceof JDBCExecutionContext jdbcContext) {
+            // Remember the initial state, so it can be restored on return
+            pool.attach(jdbcContext);
+            if (initFrom instanceof JDBCExecutionContext) {
+                dataSource.initializeContextState(monitor, jdbcContext, (JDBCExecutionContext) initFrom);
+            }
+        }
+        return newContext;
+    }
+
+    @Nullable
+    private JDBCExecutionContextPool getContextPool() {
+        synchronized (allContexts) {
+            if (contextPool == null || contextPool.isClosed()) {
+                DBPPreferenceStore preferenceStore = dataSource.getContainer().getPreferenceStore();
+                int maxIdle = preferenceStore.getInt(ModelPreferences.CONNECTION_POOL_MAX_IDLE);
+                if (maxIdle <= 0) {
+                    return null;
+                }
+                contextPool = new JDBCExecutionContextPool(
+                    this,
+                    maxIdle,
+                    preferenceStore.getLong(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT));
+            }
+            return contextPool;
+        }
+    }
+
     @NotNull
     @Override
     public JDBCExecutionContext[] getAllContexts() {
@@ -227,6 +277,15 @@ public class JDBCRemoteInstance implements DBSInstance {
     public void shutdown(DBRProgressMonitor monitor, boolean keepMeta) {
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
+        JDBCExecutionContextPool pool;
+        synchronized (allContexts) {
+            pool = contextPool;
+            contextPool = null;
+        }
+        if (pool != null) {
+            // Close idle contexts. Contexts which are in use won't be returned to the closed pool
+            pool.close();
+        }
         List<JDBCExecutionContext> ctxCopy;
         synchronized (allContexts) {
             ctxCopy = new ArrayList<>(allContexts);
@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 
 import java.sql.*;
 import java.util.Map;
@@ -261,7 +262,11 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
     public JDBCPreparedStatement prepareStatement(String sql)
         throws SQLException
     {
-        return createPreparedStatementImpl(getOriginal().prepareStatement(sql), sql);
+        return prepareStatementImpl(
+            sql,
+            ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY,
+            connection -> connection.prepareStatement(sql));
     }
 
     @NotNull
@@ -422,9 +427,11 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
     public JDBCPreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
         throws SQLException
     {
-        return createPreparedStatementImpl(
-            getOriginal().prepareStatement(sql, resultSetType, resultSetConcurrency),
-            sql);
+        return prepareStatementImpl(
+            sql,
+            resultSetType,
+            resultSetConcurrency,
+            connection -> connection.prepareStatement(sql, resultSetType, resultSetConcurrency));
     }
 
     @NotNull
@@ -741,6 +748,62 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
         return context.getDataSource().getJdbcFactory().createPreparedStatement(this, original, sql, !isLoggingEnabled());
     }
 
+    /**
+     * Takes statement from the connection statement cache if it is enabled.
+     * User queries are never cached, they may change statement settings or the database objects they refer to.
+     */
+    private JDBCPreparedStatement prepareStatementImpl(
+        @Nullable String sql,
+        int resultSetType,
+        int resultSetConcurrency,
+        @NotNull StatementPreparer preparer
+    ) throws SQLException {
+        Connection connection = getOriginal();
+        JDBCStatementCache cache = getPurpose().isUser() ? null : context.getStatementCache();
+        if (cache == null || sql == null) {
+            return createPreparedStatementImpl(preparer.prepare(connection), sql);
+        }
+        JDBCStatementCache.StatementKey key = new JDBCStatementCache.StatementKey(
+            sql, resultSetType, resultSetConcurrency, getContextDefaultsName());
+        int cacheGeneration = cache.getGeneration();
+        PreparedStatement original = cache.acquire(key);
+        if (original != null && isStatementClosed(original)) {
+            original = null;
+        }
+        if (original == null) {
+            original = preparer.prepare(connection);
+            if (original == null) {
+                throw new IllegalArgumentException("Null statement");
+            }
+        }
+        return new JDBCPreparedStatementCachedImpl(this, original, cache, key, cacheGeneration, !isLoggingEnabled());
+    }
+
+    @Nullable
+    private String getContextDefaultsName() {
+        DBCExecutionContextDefaults<?, ?> contextDefaults = context.getContextDefaults();
+        if (contextDefaults == null) {
+            return null;
+        }
+        DBSObject catalog = contextDefaults.getDefaultCatalog();
+        DBSObject schema = contextDefaults.getDefaultSchema();
+        return (catalog == null ? "" : catalog.getName()) + "/" + (schema == null ? "" : schema.getName());
+    }
+
+    private static boolean isStatementClosed(@NotNull PreparedStatement statement) {
+        try {
+            return statement.isClosed();
+        } catch (Throwable e) {
+            // Not supported by old drivers
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementPreparer {
+        PreparedStatement prepare(@NotNull Connection connection) throws SQLException;
+    }
+
     protected JDBCCallableStatement createCallableStatementImpl(CallableStatement original, @Nullable String sql)
         throws SQLException,IllegalArgumentException
     {
@@ -0,0 +1,80 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.metrics.DBMetricsRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement execution and result set fetch metrics.
+ * Series are labeled by data source, driver and execution purpose.
+ */
+class JDBCExecutionMetrics {
+
+    static final String STATEMENT_EXECUTE_SECONDS = "dbeaver_statement_execute_seconds";
+    static final String STATEMENT_ERRORS_TOTAL = "dbeaver_statement_errors_total";
+    static final String RESULT_SET_FETCH_SECONDS = "dbeaver_resultset_fetch_seconds";
+    static final String RESULT_SET_ROWS = "dbeaver_resultset_rows";
+    static final String RESULT_SET_ROWS_PER_SECOND = "dbeaver_resultset_rows_per_second";
+    static final String RESULT_SET_ROWS_TOTAL = "dbeaver_resultset_rows_total";
+
+    private static final double MICROS_TO_SECONDS = 1e-6;
+
+    static boolean isEnabled() {
+        return DBMetricsRegistry.getInstance().isEnabled();
+    }
+
+    static void recordExecute(@NotNull JDBCSession session, long executeNanos, boolean failed) {
+        DBMetricsRegistry registry = DBMetricsRegistry.getInstance();
+        String[] labels = getLabels(session);
+        registry.getHistogram(STATEMENT_EXECUTE_SECONDS, "Statement execution time", MICROS_TO_SECONDS, labels)
+            .record(TimeUnit.NANOSECONDS.toMicros(executeNanos));
+        if (failed) {
+            registry.getCounter(STATEMENT_ERRORS_TOTAL, "Failed statement executions", labels).increment();
+        }
+    }
+
+    static void recordFetch(@NotNull JDBCSession session, long fetchNanos, long rows) {
+        DBMetricsRegistry registry = DBMetricsRegistry.getInstance();
+        String[] labels = getLabels(session);
+        long fetchMicros = TimeUnit.NANOSECONDS.toMicros(fetchNanos);
+        registry.getHistogram(RESULT_SET_FETCH_SECONDS, "Result set fetch time", MICROS_TO_SECONDS, labels)
+            .record(fetchMicros);
+        registry.getHistogram(RESULT_SET_ROWS, "Rows fetched from a result set", 1.0, labels)
+            .record(rows);
+        registry.getCounter(RESULT_SET_ROWS_TOTAL, "Total fetched rows", labels)
+            .add(rows);
+        if (rows > 0 && fetchMicros > 0) {
+            registry.getHistogram(RESULT_SET_ROWS_PER_SECOND, "Result set fetch rate", 1.0, labels)
+                .record(rows * 1_000_000 / fetchMicros);
+        }
+    }
+
+    @NotNull
+    private static String[] getLabels(@NotNull JDBCSession session) {
+        DBPDataSourceContainer container = session.getDataSource().getContainer();
+        return new String[] {
+            "datasource", container.getId(),
+            "driver", container.getDriver().getId(),
+            "purpose", session.getPurpose().name()
+        };
+    }
+}
@@ -16,20 +16,186 @@
  */
 package org.jkiss.dbeaver.model.impl.jdbc.exec;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepared statement taken from the connection {@link JDBCStatementCache}.
+ * close() returns original statement back to the cache. Statement settings changed by the caller
+ * and result sets left open are closed before that. Statements which failed or which state can't be restored are closed.
+ */
 public class JDBCPreparedStatementCachedImpl extends JDBCPreparedStatementImpl {
 
-	public JDBCPreparedStatementCachedImpl(JDBCPreparedStatementImpl statment){
-		super(statment.getSession(), statment.original, statment.query, statment.disableLogging);
-	}
-
-	@Override
-	public void close() {
-		// For cached statement close() do nothing
-	}
-	
-	public void drop(){
-		super.close();
-	}
-	
+    @NotNull
+    private final JDBCStatementCache cache;
+    @NotNull
+    private final JDBCStatementCache.StatementKey key;
+    private final int cacheGeneration;
+    private boolean reusable = true;
+    // Result sets opened by the caller, they are closed before the statement is returned to the cache
+    private final List<ResultSet> openedResultSets = new ArrayList<>();
+
+    private Integer initialMaxRows;
+    private Integer initialFetchSize;
+    private Integer initialFetchDirection;
+    private Integer initialQueryTimeout;
+    private Integer initialMaxFieldSize;
+
+    public JDBCPreparedStatementCachedImpl(
+        @NotNull JDBCSession session,
+        @NotNull PreparedStatement original,
+        @NotNull JDBCStatementCache cache,
+        @NotNull JDBCStatementCache.StatementKey key,
+        int cacheGeneration,
+        boolean disableLogging
+    ) {
+        super(session, original, key.sql(), disableLogging);
+        this.cache = cache;
+        this.key = key;
+        this.cacheGeneration = cacheGeneration;
+    }
+
+    /**
+     * Closes the original statement, it won't be returned to the cache
+     */
+    public void drop() {
+        reusable = false;
+        close();
+    }
+
+    @Override
+    protected SQLException handleExecuteError(Throwable ex) {
+        // Statement may be broken (e.g. referenced objects were changed)
+        reusable = false;
+        return super.handleExecuteError(ex);
+    }
+
+    @Nullable
+    @Override
+    protected JDBCResultSet makeResultSet(@Nullable ResultSet resultSet) throws SQLException {
+        if (resultSet != null) {
+            openedResultSets.add(resultSet);
+        }
+        return super.makeResultSet(resultSet);
+    }
+
+    @Override
+    protected void closeOriginal() throws SQLException {
+        PreparedStatement statement = getOriginal();
+        if (reusable) {
+            try {
+                for (ResultSet resultSet : openedResultSets) {
+                    // Closing of a closed result set is a no-op
+                    resultSet.close();
+                }
+                openedResultSets.clear();
+                statement.clearParameters();
+                statement.clearWarnings();
+                if (initialMaxRows != null) {
+                    statement.setMaxRows(initialMaxRows);
+                }
+                if (initialFetchSize != null) {
+                    statement.setFetchSize(initialFetchSize);
+                }
+                if (initialFetchDirection != null) {
+                    statement.setFetchDirection(initialFetchDirection);
+                }
+                if (initialQueryTimeout != null) {
+                    statement.setQueryTimeout(initialQueryTimeout);
+                }
+                if (initialMaxFieldSize != null) {
+                    statement.setMaxFieldSize(initialMaxFieldSize);
+                }
+            } catch (Throwable e) {
+                reusable = false;
+            }
+        }
+        if (reusable) {
+            cache.release(key, statement, cacheGeneration);
+        } else {
+            statement.close();
+        }
+    }
+
+    ////////////////////////////////////
+    // Settings
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        if (initialMaxRows == null) {
+            initialMaxRows = getOriginal().getMaxRows();
+        }
+        super.setMaxRows(max);
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        if (initialFetchSize == null) {
+            initialFetchSize = getOriginal().getFetchSize();
+        }
+        super.setFetchSize(rows);
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        if (initialFetchDirection == null) {
+            initialFetchDirection = getOriginal().getFetchDirection();
+        }
+        super.setFetchDirection(direction);
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        if (initialQueryTimeout == null) {
+            initialQueryTimeout = getOriginal().getQueryTimeout();
+        }
+        super.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        if (initialMaxFieldSize == null) {
+            initialMaxFieldSize = getOriginal().getMaxFieldSize();
+        }
+        super.setMaxFieldSize(max);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        reusable = false;
+        super.addBatch();
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        // There is no way to read the current value
+        reusable = false;
+        super.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        reusable = false;
+        super.setCursorName(name);
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        reusable = false;
+        super.setPoolable(poolable);
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        reusable = false;
+        super.closeOnCompletion();
+    }
 }
@@ -50,6 +50,8 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     private long maxRows = -1;
     private final boolean fake;
     private final boolean disableLogging;
+    private final boolean collectMetrics;
+    private long fetchTime;
 
     public static JDBCResultSet makeResultSet(@NotNull JDBCSession session, @Nullable JDBCStatement statement, @NotNull ResultSet original, String description, boolean disableLogging)
         throws SQLException
@@ -64,6 +66,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         this.disableLogging = disableLogging;
         this.description = description;
         this.fake = statement == null;
+        this.collectMetrics = JDBCExecutionMetrics.isEnabled();
 
         if (!disableLogging) {
             // Notify handler
@@ -269,6 +272,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         }
 
         this.beforeFetch();
+        long fetchStartTime = collectMetrics ? System.nanoTime() : 0;
         try {
             // Fetch next row
             boolean fetched = original.next();
@@ -282,6 +286,9 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
             return fetched;
         }
         finally {
+            if (collectMetrics) {
+                fetchTime += System.nanoTime() - fetchStartTime;
+            }
             this.afterFetch();
         }
     }
@@ -303,6 +310,9 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
                 // Handle close
                 QMUtils.getDefaultHandler().handleResultSetClose(this, rowsFetched);
             }
+            if (collectMetrics && !fake) {
+                JDBCExecutionMetrics.recordFetch(session, fetchTime, rowsFetched);
+            }
 
             // Close result set
             try {
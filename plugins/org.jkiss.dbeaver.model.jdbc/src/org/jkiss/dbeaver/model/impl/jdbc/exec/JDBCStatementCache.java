@@ -0,0 +1,143 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of prepared statements of one JDBC connection.
+ * <p>
+ * Statements are keyed by SQL text, result set type and concurrency.
+ * Hit and miss counters can be used to check the cache efficiency.
+ * Cached statement is removed from the cache while it is in use, so it is never shared between sessions.
+ * When the statement is closed it is returned back, the least recently used statements are closed when cache is full.
+ * {@link #invalidate()} closes all idle statements, statements which are in use at this moment are closed on release.
+ */
+public class JDBCStatementCache {
+
+    private static final Log log = Log.getLog(JDBCStatementCache.class);
+
+    /**
+     * @param contextDefaults default catalog and schema of the connection, statements may depend on them
+     */
+    public record StatementKey(@NotNull String sql, int resultSetType, int resultSetConcurrency, @Nullable String contextDefaults) {
+    }
+
+    private final int maxSize;
+    private final Map<StatementKey, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    // Incremented on invalidation, statements acquired before it are not returned back
+    private int generation;
+    private boolean closed;
+    private long hitCount;
+    private long missCount;
+
+    public JDBCStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns cached statement or null if there is no idle statement with the same key.
+     * Returned statement must be returned with {@link #release} or closed.
+     */
+    @Nullable
+    public synchronized PreparedStatement acquire(@NotNull StatementKey key) {
+        PreparedStatement statement = closed ? null : statements.remove(key);
+        if (statement != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return statement;
+    }
+
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns statement to the cache. Statement is closed if it was acquired before the cache invalidation
+     * or if there is another idle statement with the same key.
+     */
+    public void release(@NotNull StatementKey key, @NotNull PreparedStatement statement, int acquireGeneration) {
+        List<PreparedStatement> toClose = new ArrayList<>();
+        synchronized (this) {
+            if (closed || acquireGeneration != generation || statements.containsKey(key)) {
+                toClose.add(statement);
+            } else {
+                statements.put(key, statement);
+                for (Iterator<PreparedStatement> iter = statements.values().iterator(); statements.size() > maxSize; ) {
+                    toClose.add(iter.next());
+                    iter.remove();
+                }
+            }
+        }
+        closeStatements(toClose);
+    }
+
+    /**
+     * Closes all idle statements. Statements which are in use are closed when they are released.
+     */
+    public void invalidate() {
+        List<PreparedStatement> toClose;
+        synchronized (this) {
+            generation++;
+            toClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        closeStatements(toClose);
+    }
+
+    /**
+     * Disables caching. Idle statements are not closed here, they are released together with the connection.
+     */
+    public synchronized void close() {
+        closed = true;
+        generation++;
+        statements.clear();
+    }
+
+    public synchronized int getSize() {
+        return statements.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private static void closeStatements(@NotNull List<PreparedStatement> statements) {
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            } catch (Throwable e) {
+                log.debug("Error closing cached statement", e);
+            }
+        }
+    }
+}
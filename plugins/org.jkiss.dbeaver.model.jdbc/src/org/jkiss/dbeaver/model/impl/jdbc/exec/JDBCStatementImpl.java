@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
@@ -32,6 +33,7 @@ import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.DBSQLException;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.sql.*;
@@ -56,6 +58,8 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
 
     private long updateCount;
     private Throwable executeError;
+    // Execution start time for metrics, 0 if metrics are disabled
+    private long executeStartTime;
 
     public JDBCStatementImpl(@NotNull JDBCSession connection, @NotNull STATEMENT original, boolean disableLogging)
     {
@@ -311,15 +315,41 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
             JDBCTrace.traceQueryBegin(getQueryString());
         }
         this.startBlock();
+        this.executeStartTime = JDBCExecutionMetrics.isEnabled() ? System.nanoTime() : 0;
     }
 
     protected void afterExecute() {
+        if (this.executeStartTime != 0) {
+            JDBCExecutionMetrics.recordExecute(connection, System.nanoTime() - executeStartTime, executeError != null);
+            this.executeStartTime = 0;
+        }
         this.connection.getExecutionContext().unlockQueryExecution();
 
         this.endBlock();
         if (isQMLoggingEnabled()) {
             QMUtils.getDefaultHandler().handleStatementExecuteEnd(this, this.updateCount, this.executeError);
         }
+        if (executeError == null && isStructureModified()) {
+            // Cached statements may refer to changed objects
+            connection.getDataSource().invalidateStatementCaches();
+        }
+    }
+
+    /**
+     * Checks whether the executed query changed the database structure.
+     * Metadata reads are never DDL, so they are not checked.
+     */
+    private boolean isStructureModified() {
+        if (CommonUtils.isEmpty(query) || connection.getPurpose() == DBCExecutionPurpose.META ||
+            connection.getExecutionContext().getStatementCache() == null) {
+            return false;
+        }
+        try {
+            return SQLUtils.isDDLQuery(connection.getDataSource().getSQLDialect(), query);
+        } catch (Throwable e) {
+            log.debug("Error checking query type", e);
+            return false;
+        }
     }
 
     ////////////////////////////////////
@@ -500,13 +530,17 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
 
         // Close statement
         try {
-            getOriginal().close();
+            closeOriginal();
         }
         catch (Throwable e) {
             log.error("Can't close statement", e); //$NON-NLS-1$
         }
     }
 
+    protected void closeOriginal() throws SQLException {
+        getOriginal().close();
+    }
+
     ////////////////////////////////////
     // Other
 
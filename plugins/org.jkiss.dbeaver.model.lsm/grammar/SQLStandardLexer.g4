@@ -75,6 +75,16 @@ lexer grammar SQLStandardLexer;
         this.customNamedParamPrefixes = parameters.namedParameterPrefixes();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        // Lexer may be reused for another input
+        this.lastIdentifierStart = 0;
+        this.lastIdentifierEnd = 0;
+        this.lastIdentifierLength = 0;
+        this.lastNamedParameterPrefixEnd = -1;
+    }
+
     private class QuottedIdentifierConsumer {
         private final CharStream input;
         private int pos;
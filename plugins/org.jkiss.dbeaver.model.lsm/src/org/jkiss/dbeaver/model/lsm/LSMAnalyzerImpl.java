@@ -16,26 +16,38 @@
  */
 package org.jkiss.dbeaver.model.lsm;
 
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.Lexer;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.stm.STMErrorListener;
 import org.jkiss.dbeaver.model.stm.STMParserOverrides;
 import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base analyzer.
+ * Query is parsed in two stages: fast SLL prediction first and full LL prediction only if SLL failed.
+ * DFA caches of generated parsers are static, so they are shared (and warmed) by all analyzers of the same grammar.
+ * Lexer and parser instances are pooled per thread.
+ */
 public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMParserOverrides> implements LSMAnalyzer {
 
     private static final Log log = Log.getLog(LSMAnalyzerImpl.class);
-    
+
+    private static final int MAX_POOLED_PARSERS = 8;
+
+    private static final ThreadLocal<Map<ParserKey, Pair<? extends Lexer, ? extends STMParserOverrides>>> parserPool =
+        ThreadLocal.withInitial(HashMap::new);
+
     private final LSMAnalyzerParameters parameters;
-    
+
     public LSMAnalyzerImpl(@NotNull LSMAnalyzerParameters parameters) {
         this.parameters = parameters;
     }
@@ -46,36 +58,69 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     @NotNull
     protected abstract STMTreeRuleNode parseSqlQueryImpl(@NotNull TParser parser);
 
-    @NotNull
-    protected TParser prepareParser(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
-        Pair<TLexer, TParser> pair = this.createParser(source, this.parameters);
-        TLexer lexer = pair.getFirst();
-        TParser parser = pair.getSecond();
-        
-        if (errorListener != null) {
-            lexer.removeErrorListener(ConsoleErrorListener.INSTANCE);
-            lexer.addErrorListener(errorListener);
-            parser.removeErrorListener(ConsoleErrorListener.INSTANCE);
-            parser.addErrorListener(errorListener);
-        }
-        
-        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
-        
-        return parser;
-    }
-
     @Nullable
     @Override
     public STMTreeRuleNode parseSqlQueryTree(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
+        ParserKey key = new ParserKey(getClass(), parameters);
+        Pair<TLexer, TParser> pair = acquireParser(key, source);
+        TLexer lexer = pair.getFirst();
+        TParser parser = pair.getSecond();
         try {
-            TParser parser = prepareParser(source, errorListener);
-            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            ANTLRErrorListener listener = errorListener != null ? errorListener : ConsoleErrorListener.INSTANCE;
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(listener);
+            parser.removeErrorListeners();
+
+            STMTreeRuleNode result;
+            // Stage 1: SLL prediction, stop on the first syntax error
+            parser.setErrorHandler(new BailErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            try {
+                result = parseSqlQueryImpl(parser);
+            } catch (ParseCancellationException e) {
+                // Stage 2: full LL prediction with error recovery and reporting. Already read tokens are reused
+                parser.reset();
+                parser.addErrorListener(listener);
+                parser.setErrorHandler(new DefaultErrorStrategy());
+                parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                result = parseSqlQueryImpl(parser);
+            }
             result.fixup(parser);
             return result;
         } catch (RecognitionException e) {
             log.debug("Recognition exception occurred while trying to parse the query", e);
             return null;
+        } finally {
+            releaseParser(key, pair);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private Pair<TLexer, TParser> acquireParser(@NotNull ParserKey key, @NotNull STMSource source) {
+        // Parser is removed from the pool while in use, so nested parsing gets its own instance
+        Pair<TLexer, TParser> pair = (Pair<TLexer, TParser>) parserPool.get().remove(key);
+        if (pair == null) {
+            return this.createParser(source, this.parameters);
         }
+        TLexer lexer = pair.getFirst();
+        lexer.setInputStream(source.getStream());
+        pair.getSecond().setTokenStream(new CommonTokenStream(lexer));
+        return pair;
+    }
+
+    private void releaseParser(@NotNull ParserKey key, @NotNull Pair<TLexer, TParser> pair) {
+        // Do not hold the last parsed text
+        pair.getFirst().setInputStream(CharStreams.fromString(""));
+        pair.getSecond().setTokenStream(new CommonTokenStream(pair.getFirst()));
+        Map<ParserKey, Pair<? extends Lexer, ? extends STMParserOverrides>> pool = parserPool.get();
+        if (pool.size() >= MAX_POOLED_PARSERS) {
+            pool.clear();
+        }
+        pool.put(key, pair);
+    }
+
+    private record ParserKey(@NotNull Class<?> analyzerClass, @NotNull LSMAnalyzerParameters parameters) {
     }
 
 }
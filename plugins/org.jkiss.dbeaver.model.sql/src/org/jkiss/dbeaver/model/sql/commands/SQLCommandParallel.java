@@ -0,0 +1,61 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.commands;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLControlCommandHandler;
+import org.jkiss.dbeaver.model.sql.SQLScriptContext;
+import org.jkiss.utils.CommonUtils;
+
+/**
+ * Control command handler.
+ * Sets the number of connections used to execute the following script queries concurrently.
+ * {@code @parallel off} (or {@code 1}) returns to the sequential execution.
+ */
+public class SQLCommandParallel implements SQLControlCommandHandler {
+
+    public static final String DATA_PARALLEL_CONNECTIONS = "parallelConnections";
+
+    public static final int MAX_CONNECTIONS = 32;
+
+    @Override
+    public boolean handleCommand(SQLControlCommand command, SQLScriptContext scriptContext) throws DBException {
+        String parameter = CommonUtils.notEmpty(command.getParameter()).trim();
+        int connections;
+        if (parameter.isEmpty() || parameter.equalsIgnoreCase("off")) {
+            connections = 1;
+        } else {
+            connections = CommonUtils.toInt(parameter, -1);
+            if (connections < 1 || connections > MAX_CONNECTIONS) {
+                throw new DBException("Invalid syntax. Use '@parallel <connections>' (1.." + MAX_CONNECTIONS + ") or '@parallel off'");
+            }
+        }
+        scriptContext.setData(DATA_PARALLEL_CONNECTIONS, connections);
+
+        return true;
+    }
+
+    /**
+     * Number of connections set by the last {@code @parallel} command, 1 if queries must be executed sequentially
+     */
+    public static int getParallelConnections(@NotNull SQLScriptContext scriptContext) {
+        Integer connections = scriptContext.getData(DATA_PARALLEL_CONNECTIONS);
+        return connections == null ? 1 : connections;
+    }
+}
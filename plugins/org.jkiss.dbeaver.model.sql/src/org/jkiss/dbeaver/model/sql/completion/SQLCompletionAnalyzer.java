@@ -1078,33 +1078,43 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                 }
             }
             StringBuilder combinedMatch = new StringBuilder();
-            for (DBSObject child : children) {
-                if (DBUtils.isHiddenObject(child)) {
-                    // Skip hidden
-                    continue;
-                }
-                if (DBUtils.isVirtualObject(child)) {
+            SQLCompletionNameIndex nameIndex = allObjects || dataSource == null || request.getContext().isSearchInsideNames() ?
+                null : SQLCompletionNameIndex.getIndex(dataSource.getContainer(), parent, children);
+            if (nameIndex != null) {
+                // Large container, use the prefix index instead of scanning all the children
+                for (DBSObject child : nameIndex.getVirtualObjects()) {
                     makeProposalsFromChildren(child, startPart, addFirst, Collections.emptyMap());
-                    continue;
                 }
-                if (allObjects) {
-                    if (!combinedMatch.isEmpty()) {
-                        combinedMatch.append(", ");
-                        if (objPrefix != null) combinedMatch.append(objPrefix);
+                matchedObjects.addAll(nameIndex.findByPrefix(startPart, !request.getContext().isSortAlphabetically()));
+            } else {
+                for (DBSObject child : children) {
+                    if (DBUtils.isHiddenObject(child)) {
+                        // Skip hidden
+                        continue;
                     }
-                    combinedMatch.append(DBUtils.getQuotedIdentifier(child));
-                } else {
-                    if (dataSource != null && !request.getContext().isSearchInsideNames()) {
-                        // startsWith
-                        if (CommonUtils.isEmpty(startPart) || CommonUtils.startsWithIgnoreCase(child.getName(), startPart)) {
-                            matchedObjects.add(child);
+                    if (DBUtils.isVirtualObject(child)) {
+                        makeProposalsFromChildren(child, startPart, addFirst, Collections.emptyMap());
+                        continue;
+                    }
+                    if (allObjects) {
+                        if (!combinedMatch.isEmpty()) {
+                            combinedMatch.append(", ");
+                            if (objPrefix != null) combinedMatch.append(objPrefix);
                         }
+                        combinedMatch.append(DBUtils.getQuotedIdentifier(child));
                     } else {
-                        // Use fuzzy search for contains
-                        int score = CommonUtils.isEmpty(startPart) ? 1 : TextUtils.fuzzyScore(child.getName(), startPart);
-                        if (score > 0) {
-                            matchedObjects.add(child);
-                            scoredMatches.put(child.getName(), score);
+                        if (dataSource != null && !request.getContext().isSearchInsideNames()) {
+                            // startsWith
+                            if (CommonUtils.isEmpty(startPart) || CommonUtils.startsWithIgnoreCase(child.getName(), startPart)) {
+                                matchedObjects.add(child);
+                            }
+                        } else {
+                            // Use fuzzy search for contains
+                            int score = CommonUtils.isEmpty(startPart) ? 1 : TextUtils.fuzzyScore(child.getName(), startPart);
+                            if (score > 0) {
+                                matchedObjects.add(child);
+                                scoredMatches.put(child.getName(), score);
+                            }
                         }
                     }
                 }
@@ -0,0 +1,253 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Names of the container children sorted for the prefix search.
+ * <p>
+ * Indexes are kept per data source, an index is dropped on the object events of its container or its children.
+ * Index is also rebuilt if the container returns other children (e.g. after cache reload).
+ * Containers may return a new collection on each call, so children are compared by identity of the elements.
+ */
+class SQLCompletionNameIndex {
+
+    /**
+     * Smaller containers are just scanned
+     */
+    static final int MIN_INDEXED_CHILDREN = 1000;
+
+    private static final Map<DBPDataSourceContainer, DataSourceIndexes> dataSourceIndexes = new IdentityHashMap<>();
+
+    // All children in the source order
+    @NotNull
+    private final DBSObject[] sourceChildren;
+    // Upper-case names in the ascending order
+    @NotNull
+    private final String[] keys;
+    @NotNull
+    private final DBSObject[] objects;
+    // Positions of objects in the source collection (without hidden and virtual objects)
+    @NotNull
+    private final int[] positions;
+    @NotNull
+    private final DBSObject[] sourceObjects;
+    @NotNull
+    private final List<DBSObject> virtualObjects;
+
+    SQLCompletionNameIndex(@NotNull Collection<? extends DBSObject> children) {
+        this.sourceChildren = children.toArray(new DBSObject[0]);
+
+        List<Integer> order = new ArrayList<>(sourceChildren.length);
+        List<DBSObject> indexedObjects = new ArrayList<>(sourceChildren.length);
+        List<String> indexedKeys = new ArrayList<>(sourceChildren.length);
+        List<DBSObject> virtual = new ArrayList<>();
+        for (DBSObject child : sourceChildren) {
+            if (DBUtils.isHiddenObject(child)) {
+                continue;
+            }
+            if (DBUtils.isVirtualObject(child)) {
+                virtual.add(child);
+                continue;
+            }
+            order.add(indexedObjects.size());
+            indexedObjects.add(child);
+            indexedKeys.add(CommonUtils.notEmpty(child.getName()).toUpperCase(Locale.ENGLISH));
+        }
+        order.sort(Comparator.comparing(indexedKeys::get));
+
+        int count = order.size();
+        this.keys = new String[count];
+        this.objects = new DBSObject[count];
+        this.positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            int position = order.get(i);
+            keys[i] = indexedKeys.get(position);
+            objects[i] = indexedObjects.get(position);
+            positions[i] = position;
+        }
+        this.sourceObjects = indexedObjects.toArray(new DBSObject[0]);
+        this.virtualObjects = virtual.isEmpty() ? Collections.emptyList() : virtual;
+    }
+
+    /**
+     * Returns index of children of the specified parent, or null if there are too few children to index them.
+     */
+    @Nullable
+    static SQLCompletionNameIndex getIndex(
+        @NotNull DBPDataSourceContainer dataSourceContainer,
+        @NotNull Object parent,
+        @NotNull Collection<? extends DBSObject> children
+    ) {
+        if (children.size() < MIN_INDEXED_CHILDREN) {
+            return null;
+        }
+        DataSourceIndexes indexes;
+        synchronized (dataSourceIndexes) {
+            indexes = dataSourceIndexes.get(dataSourceContainer);
+            if (indexes == null) {
+                indexes = new DataSourceIndexes(dataSourceContainer);
+                dataSourceIndexes.put(dataSourceContainer, indexes);
+            }
+        }
+        return indexes.getIndex(parent, children);
+    }
+
+    /**
+     * Checks that the children are the same objects in the same order as the indexed ones
+     */
+    boolean isValidFor(@NotNull Collection<? extends DBSObject> children) {
+        if (children.size() != sourceChildren.length) {
+            return false;
+        }
+        int i = 0;
+        for (DBSObject child : children) {
+            if (i >= sourceChildren.length || child != sourceChildren[i++]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Virtual children, their own children are proposed instead of them
+     */
+    @NotNull
+    List<DBSObject> getVirtualObjects() {
+        return virtualObjects;
+    }
+
+    /**
+     * Returns objects which names start with the specified upper-case prefix (all objects if prefix is empty).
+     * Objects are returned in the order of names or in the order of the source collection.
+     */
+    @NotNull
+    List<DBSObject> findByPrefix(@Nullable String prefix, boolean sourceOrder) {
+        int start = 0;
+        int end = keys.length;
+        if (!CommonUtils.isEmpty(prefix)) {
+            start = lowerBound(prefix);
+            end = start;
+            while (end < keys.length && keys[end].startsWith(prefix)) {
+                end++;
+            }
+        }
+        if (start == end) {
+            return Collections.emptyList();
+        }
+        if (sourceOrder) {
+            int[] matchedPositions = Arrays.copyOfRange(positions, start, end);
+            Arrays.sort(matchedPositions);
+            List<DBSObject> result = new ArrayList<>(matchedPositions.length);
+            for (int position : matchedPositions) {
+                result.add(sourceObjects[position]);
+            }
+            return result;
+        }
+        return Arrays.asList(objects).subList(start, end);
+    }
+
+    private int lowerBound(@NotNull String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class DataSourceIndexes implements DBPEventListener {
+        @NotNull
+        private final DBPDataSourceContainer dataSourceContainer;
+        @Nullable
+        private final DBPDataSourceRegistry registry;
+        @NotNull
+        private final Map<Object, SQLCompletionNameIndex> indexes = new IdentityHashMap<>();
+
+        DataSourceIndexes(@NotNull DBPDataSourceContainer dataSourceContainer) {
+            this.dataSourceContainer = dataSourceContainer;
+            this.registry = dataSourceContainer.getRegistry();
+            if (registry != null) {
+                registry.addDataSourceListener(this);
+            }
+        }
+
+        @NotNull
+        SQLCompletionNameIndex getIndex(@NotNull Object parent, @NotNull Collection<? extends DBSObject> children) {
+            synchronized (indexes) {
+                SQLCompletionNameIndex index = indexes.get(parent);
+                if (index != null && index.isValidFor(children)) {
+                    return index;
+                }
+            }
+            // Build it outside of the lock, concurrent requests may build the same index twice
+            SQLCompletionNameIndex index = new SQLCompletionNameIndex(children);
+            synchronized (indexes) {
+                indexes.put(parent, index);
+            }
+            return index;
+        }
+
+        @Override
+        public void handleDataSourceEvent(DBPEvent event) {
+            DBSObject object = event.getObject();
+            if (object == null) {
+                return;
+            }
+            if (object == dataSourceContainer) {
+                // Connect, disconnect, refresh or removal of the whole data source
+                synchronized (indexes) {
+                    indexes.clear();
+                }
+                if (event.getAction() == DBPEvent.Action.OBJECT_REMOVE) {
+                    synchronized (dataSourceIndexes) {
+                        dataSourceIndexes.remove(dataSourceContainer);
+                    }
+                    if (registry != null) {
+                        registry.removeDataSourceListener(this);
+                    }
+                }
+                return;
+            }
+            if (object.getDataSource() == null || object.getDataSource().getContainer() != dataSourceContainer) {
+                return;
+            }
+            synchronized (indexes) {
+                if (!indexes.isEmpty()) {
+                    indexes.remove(object);
+                    indexes.remove(object.getParentObject());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSavepoint;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consecutive single-row INSERT statements with the same target and column list.
+ * They are executed as one multi-row INSERT, so it can be used only with dialects
+ * which support {@link SQLDialect.MultiValueInsertMode#GROUP_ROWS}.
+ */
+public class SQLInsertBatch {
+
+    private static final Log log = Log.getLog(SQLInsertBatch.class);
+
+    public static final int DEFAULT_MAX_ROWS = 100;
+
+    private static final String KEYWORD_INSERT = "INSERT";
+    private static final String KEYWORD_VALUES = "VALUES";
+    private static final String KEYWORD_SELECT = "SELECT";
+
+    /**
+     * Executes the multi-row INSERT of the batch
+     */
+    @FunctionalInterface
+    public interface QueryExecutor {
+        /**
+         * Returns execution error or null
+         */
+        @Nullable
+        Throwable executeQuery(@NotNull SQLQuery query);
+    }
+
+    public enum ExecuteResult {
+        /**
+         * All batch rows were inserted
+         */
+        SUCCESS,
+        /**
+         * Batch failed and it is unknown which rows were inserted.
+         * The error must be reported for the first query of the batch.
+         */
+        FAILED,
+        /**
+         * Batch failed and none of its rows were inserted: it was rolled back to a savepoint
+         * or the failed statement was rolled back by the auto-commit.
+         * Its queries can be executed one by one to find the failed one.
+         */
+        ROLLED_BACK
+    }
+
+    @NotNull
+    private final SQLDialect dialect;
+    private final int maxRows;
+    @NotNull
+    private final List<SQLQuery> queries = new ArrayList<>();
+    @NotNull
+    private final StringBuilder values = new StringBuilder();
+    @Nullable
+    private String insertPrefix;
+
+    public SQLInsertBatch(@NotNull SQLDialect dialect, int maxRows) {
+        this.dialect = dialect;
+        this.maxRows = Math.max(maxRows, 1);
+    }
+
+    public static boolean isSupported(@NotNull SQLDialect dialect) {
+        return dialect.getDefaultMultiValueInsertMode() == SQLDialect.MultiValueInsertMode.GROUP_ROWS;
+    }
+
+    /**
+     * Checks that the failed batch can be repeated row by row in the current transaction mode.
+     * It is possible in auto-commit mode (failed statement is rolled back as a whole) and in manual commit mode
+     * with savepoints. Otherwise queries must not be batched as it would be impossible to find the failed one.
+     */
+    public static boolean isSupported(@Nullable DBCTransactionManager txnManager) {
+        try {
+            return txnManager == null || !txnManager.isSupportsTransactions() ||
+                txnManager.isAutoCommit() || txnManager.supportsSavepoints();
+        } catch (DBCException e) {
+            log.debug("Can't read transaction mode", e);
+            return false;
+        }
+    }
+
+    /**
+     * Adds query to the batch.
+     * Returns false if the query is not a single-row INSERT or if it has other target than queries already in the batch.
+     */
+    public boolean add(@NotNull SQLQuery query) {
+        if (isFull() || !CommonUtils.isEmpty(query.getParameters())) {
+            return false;
+        }
+        String text = query.getText();
+        int valuesStart = getValuesStart(text, dialect.getStringEscapeCharacter());
+        if (valuesStart < 0) {
+            return false;
+        }
+        String prefix = text.substring(0, valuesStart);
+        if (insertPrefix == null) {
+            insertPrefix = prefix;
+        } else if (!insertPrefix.equals(prefix)) {
+            return false;
+        } else {
+            values.append(",\n");
+        }
+        values.append(text, valuesStart, text.length());
+        queries.add(query);
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return queries.isEmpty();
+    }
+
+    public boolean isFull() {
+        return queries.size() >= maxRows;
+    }
+
+    /**
+     * Original queries in the order of execution
+     */
+    @NotNull
+    public List<SQLQuery> getQueries() {
+        return queries;
+    }
+
+    /**
+     * Multi-row INSERT which covers all the batch queries
+     */
+    @NotNull
+    public SQLQuery createQuery(@Nullable DBPDataSource dataSource) {
+        SQLQuery firstQuery = queries.get(0);
+        if (queries.size() == 1) {
+            return firstQuery;
+        }
+        SQLQuery lastQuery = queries.get(queries.size() - 1);
+        return new SQLQuery(
+            dataSource,
+            insertPrefix + values,
+            firstQuery.getOffset(),
+            lastQuery.getOffset() + lastQuery.getLength() - firstQuery.getOffset());
+    }
+
+    /**
+     * Executes the batch as one multi-row INSERT. The batch is not cleared.
+     * <p>
+     * Failed batch can be repeated row by row if it was executed in auto-commit mode (multi-row INSERT
+     * is a single statement, so it is rolled back as a whole) or under a savepoint in manual commit mode.
+     */
+    @NotNull
+    public ExecuteResult execute(
+        @NotNull DBCSession session,
+        @Nullable DBCTransactionManager txnManager,
+        @NotNull QueryExecutor executor
+    ) {
+        DBCSavepoint savepoint = null;
+        boolean autoCommit = true;
+        try {
+            if (queries.size() > 1 && txnManager != null && txnManager.isSupportsTransactions() &&
+                !txnManager.isAutoCommit()
+            ) {
+                autoCommit = false;
+                if (txnManager.supportsSavepoints()) {
+                    savepoint = txnManager.setSavepoint(session.getProgressMonitor(), null);
+                }
+            }
+        } catch (Throwable e) {
+            log.debug("Can't set savepoint for INSERT batch", e);
+        }
+        Throwable error = executor.executeQuery(createQuery(session.getDataSource()));
+        if (savepoint == null) {
+            if (error == null) {
+                return ExecuteResult.SUCCESS;
+            }
+            return autoCommit ? ExecuteResult.ROLLED_BACK : ExecuteResult.FAILED;
+        }
+        if (error == null) {
+            try {
+                txnManager.releaseSavepoint(session.getProgressMonitor(), savepoint);
+            } catch (Throwable e) {
+                log.debug("Can't release savepoint of INSERT batch", e);
+            }
+            return ExecuteResult.SUCCESS;
+        }
+        try {
+            txnManager.rollback(session, savepoint);
+        } catch (DBCException e) {
+            log.debug("Can't rollback INSERT batch", e);
+            return ExecuteResult.FAILED;
+        }
+        return ExecuteResult.ROLLED_BACK;
+    }
+
+    public void clear() {
+        queries.clear();
+        values.setLength(0);
+        insertPrefix = null;
+    }
+
+    /**
+     * Returns position of the row values if the statement is an INSERT of exactly one row, -1 otherwise.
+     * Rows with subqueries are not supported: they may depend on the rows inserted by the previous statements.
+     * Prefix before this position is the same for INSERTs with the same target and column list.
+     */
+    static int getValuesStart(@NotNull String text, char escapeChar) {
+        int length = text.length();
+        while (length > 0 && Character.isWhitespace(text.charAt(length - 1))) {
+            length--;
+        }
+        if (length <= KEYWORD_INSERT.length() || text.charAt(length - 1) != ')' ||
+            !text.regionMatches(true, 0, KEYWORD_INSERT, 0, KEYWORD_INSERT.length()) ||
+            Character.isUnicodeIdentifierPart(text.charAt(KEYWORD_INSERT.length()))
+        ) {
+            return -1;
+        }
+        int depth = 0;
+        int valuesStart = -1;
+        for (int i = KEYWORD_INSERT.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(text, i, length, c == '\'' ? escapeChar : 0);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth < 0) {
+                    return -1;
+                }
+                if (depth == 0 && valuesStart >= 0) {
+                    // Must be the end of statement
+                    return i == length - 1 ? valuesStart : -1;
+                }
+            } else if (depth == 0 && valuesStart < 0 && isKeywordAt(text, i, length, KEYWORD_VALUES)) {
+                i += KEYWORD_VALUES.length();
+                while (i < length && Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                if (i >= length || text.charAt(i) != '(') {
+                    return -1;
+                }
+                valuesStart = i;
+                i--;
+            } else if (depth == 0 && valuesStart >= 0 && !Character.isWhitespace(c)) {
+                return -1;
+            } else if (valuesStart >= 0 && isKeywordAt(text, i, length, KEYWORD_SELECT)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipQuoted(@NotNull String text, int start, int length, char escapeChar) {
+        char quote = text.charAt(start);
+        for (int i = start + 1; i < length; i++) {
+            char c = text.charAt(i);
+            if (escapeChar != 0 && c == escapeChar && escapeChar != quote) {
+                i++;
+            } else if (c == quote) {
+                if (i + 1 < length && text.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isKeywordAt(@NotNull String text, int offset, int length, @NotNull String keyword) {
+        int end = offset + keyword.length();
+        return end <= length &&
+            text.regionMatches(true, offset, keyword, 0, keyword.length()) &&
+            !Character.isUnicodeIdentifierPart(text.charAt(offset - 1)) &&
+            (end == length || !Character.isUnicodeIdentifierPart(text.charAt(end)));
+    }
+}
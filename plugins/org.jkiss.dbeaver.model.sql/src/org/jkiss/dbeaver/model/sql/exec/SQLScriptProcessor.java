@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.model.sql.exec;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBFetchProgress;
@@ -28,9 +29,13 @@ import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -38,9 +43,13 @@ import java.util.List;
  */
 public class SQLScriptProcessor {
     private static final String STAT_LOG_PREFIX = "-----------------> ";
+    private static final int STREAM_PROGRESS_STEP = 1000;
 
     private final DBCExecutionContext executionContext;
+    @Nullable
     private final List<SQLScriptElement> queries;
+    @Nullable
+    private final SQLScriptStreamParser scriptParser;
     private final SQLScriptContext scriptContext;
     private final DBDDataReceiver dataReceiver;
     private final Log log;
@@ -54,6 +63,8 @@ public class SQLScriptProcessor {
     private long fetchFlags;
     private SQLScriptCommitType commitType = SQLScriptCommitType.AUTOCOMMIT;
     private SQLScriptErrorHandling errorHandling = SQLScriptErrorHandling.STOP_ROLLBACK;
+    private int insertBatchSize;
+    private SQLInsertBatch insertBatch;
 
     public SQLScriptProcessor(
         @NotNull DBCExecutionContext executionContext,
@@ -63,6 +74,25 @@ public class SQLScriptProcessor {
         @NotNull Log log) {
         this.executionContext = executionContext;
         this.queries = queries;
+        this.scriptParser = null;
+        this.scriptContext = scriptContext;
+        this.dataReceiver = dataReceiver;
+        this.log = log;
+    }
+
+    /**
+     * Executes queries as they are read by the script parser, so the script is never kept in memory entirely.
+     * Parser is closed at the end of execution.
+     */
+    public SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull SQLScriptStreamParser scriptParser,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
+        this.executionContext = executionContext;
+        this.queries = null;
+        this.scriptParser = scriptParser;
         this.scriptContext = scriptContext;
         this.dataReceiver = dataReceiver;
         this.log = log;
@@ -92,6 +122,18 @@ public class SQLScriptProcessor {
         this.errorHandling = errorHandling;
     }
 
+    public int getInsertBatchSize() {
+        return insertBatchSize;
+    }
+
+    /**
+     * Consecutive single-row INSERTs into the same table are executed as multi-row INSERTs of up to the specified
+     * number of rows. Zero disables batching. Has no effect if the dialect doesn't support multi-row INSERTs.
+     */
+    public void setInsertBatchSize(int insertBatchSize) {
+        this.insertBatchSize = insertBatchSize;
+    }
+
     public void runScript(DBRProgressMonitor monitor) throws DBCException {
         RuntimeUtils.setThreadName("SQL script execution");
         statistics = new DBCStatistics();
@@ -108,15 +150,24 @@ public class SQLScriptProcessor {
                 if (txnManager != null && txnManager.isSupportsTransactions() && oldAutoCommit != newAutoCommit) {
                     txnManager.setAutoCommit(monitor, newAutoCommit);
                 }
+                SQLDialect dialect = session.getDataSource().getSQLDialect();
+                insertBatch = insertBatchSize > 1 && SQLInsertBatch.isSupported(dialect) && SQLInsertBatch.isSupported(txnManager) ?
+                    new SQLInsertBatch(dialect, insertBatchSize) : null;
 
-                monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                if (queries != null) {
+                    monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                } else {
+                    monitor.beginTask("Execute queries", 1);
+                }
 
-                for (SQLScriptElement query : queries) {
+                Iterator<SQLScriptElement> queryIterator = queries == null ? null : queries.iterator();
+                int queryCount = 0;
+                for (SQLScriptElement query = nextQuery(queryIterator); query != null; query = nextQuery(queryIterator)) {
                     if (monitor.isCanceled()) {
                         break;
                     }
                     // Execute query
-                    boolean runNext = executeSingleQuery(session, query);
+                    boolean runNext = executeElement(session, query);
                     if (!runNext) {
                         if (lastError == null) {
                             // Execution cancel
@@ -130,7 +181,20 @@ public class SQLScriptProcessor {
                         }
                     }
 
-                    monitor.worked(1);
+                    queryCount++;
+                    if (queries != null) {
+                        monitor.worked(1);
+                    } else if (queryCount % STREAM_PROGRESS_STEP == 0) {
+                        monitor.subTask(queryCount + " queries executed");
+                    }
+                }
+                if (insertBatch != null && !monitor.isCanceled() &&
+                    (lastError == null || errorHandling == SQLScriptErrorHandling.IGNORE)
+                ) {
+                    // Remaining INSERTs
+                    if (!executeInsertBatch(session) && lastError != null) {
+                        log.error(lastError);
+                    }
                 }
                 monitor.done();
 
@@ -162,6 +226,15 @@ public class SQLScriptProcessor {
             }
         } catch (Throwable ex) {
             throw new DBCException("Error during SQL script execution", ex);
+        } finally {
+            insertBatch = null;
+            if (scriptParser != null) {
+                try {
+                    scriptParser.close();
+                } catch (IOException e) {
+                    log.debug("Error closing script reader", e);
+                }
+            }
         }
 
         if (lastError != null && errorHandling != SQLScriptErrorHandling.IGNORE) {
@@ -169,6 +242,65 @@ public class SQLScriptProcessor {
         }
     }
 
+    @Nullable
+    private SQLScriptElement nextQuery(@Nullable Iterator<SQLScriptElement> queryIterator) throws IOException {
+        if (queryIterator != null) {
+            return queryIterator.hasNext() ? queryIterator.next() : null;
+        }
+        return scriptParser == null ? null : scriptParser.nextElement();
+    }
+
+    private boolean executeElement(@NotNull DBCSession session, @NotNull SQLScriptElement element) {
+        if (insertBatch != null) {
+            if (element instanceof SQLQuery query && insertBatch.add(query)) {
+                return !insertBatch.isFull() || executeInsertBatch(session);
+            }
+            if (!executeInsertBatch(session)) {
+                return false;
+            }
+            if (element instanceof SQLQuery query && insertBatch.add(query)) {
+                return true;
+            }
+        }
+        return executeSingleQuery(session, element);
+    }
+
+    private boolean executeInsertBatch(@NotNull DBCSession session) {
+        if (insertBatch.isEmpty()) {
+            return true;
+        }
+        List<SQLQuery> batchQueries = new ArrayList<>(insertBatch.getQueries());
+        SQLInsertBatch.ExecuteResult result = insertBatch.execute(
+            session,
+            DBUtils.getTransactionManager(session.getExecutionContext()),
+            query -> {
+                executeSingleQuery(session, query);
+                return lastError;
+            });
+        insertBatch.clear();
+        switch (result) {
+            case ROLLED_BACK -> {
+                // Repeat it row by row to find the failed statement
+                log.debug("Batch of " + batchQueries.size() + " INSERT statements failed, execute them one by one");
+                for (SQLQuery query : batchQueries) {
+                    if (!executeSingleQuery(session, query)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case FAILED -> {
+                if (batchQueries.size() > 1) {
+                    lastError = new DBSQLException(batchQueries.get(0).getText(), lastError, session.getExecutionContext());
+                }
+                return errorHandling == SQLScriptErrorHandling.IGNORE;
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
     private boolean executeSingleQuery(@NotNull DBCSession session, @NotNull SQLScriptElement element) {
         if (element instanceof SQLControlCommand) {
             log.debug(STAT_LOG_PREFIX + "Execute command\n" + element.getText());
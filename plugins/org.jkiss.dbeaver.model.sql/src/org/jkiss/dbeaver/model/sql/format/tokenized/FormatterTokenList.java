@@ -0,0 +1,125 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.format.tokenized;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Token list optimized for the formatter access pattern.
+ * <p>
+ * Formatter walks through the tokens and inserts or removes tokens near the current position.
+ * Elements are kept in a gap buffer, the gap follows the last modification, so such changes
+ * do not shift the rest of the list and the whole formatting pass stays linear.
+ */
+class FormatterTokenList extends AbstractList<FormatterToken> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private FormatterToken[] items;
+    private int gapStart;
+    private int gapEnd;
+
+    FormatterTokenList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    FormatterTokenList(int capacity) {
+        items = new FormatterToken[Math.max(capacity, DEFAULT_CAPACITY)];
+        gapStart = 0;
+        gapEnd = items.length;
+    }
+
+    @Override
+    public int size() {
+        return items.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public FormatterToken get(int index) {
+        Objects.checkIndex(index, size());
+        return items[index < gapStart ? index : index + gapEnd - gapStart];
+    }
+
+    @Override
+    public FormatterToken set(int index, FormatterToken element) {
+        Objects.checkIndex(index, size());
+        int position = index < gapStart ? index : index + gapEnd - gapStart;
+        FormatterToken oldElement = items[position];
+        items[position] = element;
+        return oldElement;
+    }
+
+    @Override
+    public void add(int index, FormatterToken element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (gapStart == gapEnd) {
+            grow();
+        }
+        moveGap(index);
+        items[gapStart++] = element;
+        modCount++;
+    }
+
+    @Override
+    public FormatterToken remove(int index) {
+        Objects.checkIndex(index, size());
+        moveGap(index);
+        FormatterToken element = items[gapEnd];
+        items[gapEnd++] = null;
+        modCount++;
+        return element;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, null);
+        gapStart = 0;
+        gapEnd = items.length;
+        modCount++;
+    }
+
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(items, index, items, gapEnd - count, count);
+            Arrays.fill(items, index, Math.min(gapStart, gapEnd - count), null);
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(items, gapEnd, items, gapStart, count);
+            Arrays.fill(items, Math.max(gapEnd, index), gapEnd + count, null);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    private void grow() {
+        int tailLength = items.length - gapEnd;
+        FormatterToken[] newItems = new FormatterToken[items.length * 2];
+        System.arraycopy(items, 0, newItems, 0, gapStart);
+        System.arraycopy(items, gapEnd, newItems, newItems.length - tailLength, tailLength);
+        items = newItems;
+        gapEnd = newItems.length - tailLength;
+    }
+}
@@ -120,15 +120,12 @@ class SQLTokensParser {
         char fChar = fBefore.charAt(fPos);
 
         if (isSpace(fChar)) {
-            StringBuilder workString = new StringBuilder();
             for (; fPos < fBefore.length(); fPos++) {
-                fChar = fBefore.charAt(fPos);
-                if (!isSpace(fChar)) {
+                if (!isSpace(fBefore.charAt(fPos))) {
                     break;
                 }
-                workString.append(fChar);
             }
-            return new FormatterToken(TokenType.SPACE, workString.toString(), start_pos);
+            return new FormatterToken(TokenType.SPACE, fBefore.substring(start_pos, fPos), start_pos);
         } else if (fChar == ';') {
             fPos++;
             return new FormatterToken(TokenType.SYMBOL, ";", start_pos);
@@ -167,7 +164,7 @@ class SQLTokensParser {
             fPos++;
             String commentString = null;
             for (String slc : singleLineComments) {
-                if (fBefore.length() >= start_pos + slc.length() && slc.equals(fBefore.substring(start_pos, start_pos + slc.length()))) {
+                if (fBefore.startsWith(slc, start_pos)) {
                     commentString = slc;
                     break;
                 }
@@ -178,7 +175,7 @@ class SQLTokensParser {
             fPos += commentString.length() - 1;
             while (fPos < fBefore.length()) {
                 fPos++;
-                if (fBefore.substring(fPos).startsWith(System.lineSeparator())) {
+                if (fBefore.startsWith(System.lineSeparator(), fPos)) {
                     break;
                 }
             }
@@ -186,20 +183,16 @@ class SQLTokensParser {
             return new FormatterToken(TokenType.COMMENT, commentString, start_pos);
         }
         else if (isLetter(fChar)) {
-            StringBuilder s = new StringBuilder();
-            fPos = readWord(s, fPos);
-            String word = s.toString();
+            fPos = readWord(fPos);
+            String word = fBefore.substring(start_pos, fPos);
             if (commands.contains(word.toUpperCase(Locale.ENGLISH))) {
-                s.setLength(0);
                 for (; fPos < fBefore.length(); fPos++) {
                     fChar = fBefore.charAt(fPos);
                     if (fChar == '\n' || fChar == '\r') {
                         break;
-                    } else {
-                        s.append(fChar);
                     }
                 }
-                return new FormatterToken(TokenType.COMMAND, word + s.toString(), start_pos);
+                return new FormatterToken(TokenType.COMMAND, fBefore.substring(start_pos, fPos), start_pos);
             }
             if (configuration.getSyntaxManager().getDialect().getKeywordType(word) == DBPKeywordType.KEYWORD) {
                 return new FormatterToken(TokenType.KEYWORD, word, start_pos);
@@ -285,20 +278,17 @@ class SQLTokensParser {
     
     @NotNull
     private FormatterToken parseNameStartWithDigit(int startPosition) {
-        StringBuilder s = new StringBuilder();
-        fPos = readWord(s, startPosition);
-        String word = s.toString();
-        return new FormatterToken(TokenType.NAME, word, startPosition);
+        fPos = readWord(startPosition);
+        return new FormatterToken(TokenType.NAME, fBefore.substring(startPosition, fPos), startPosition);
     }
 
-    private int readWord(@NotNull StringBuilder s, int startPosition) {
+    private int readWord(int startPosition) {
         char firstChar = fBefore.charAt(startPosition);
         int position = startPosition;
         while (isLetter(firstChar) || isDigit(firstChar)
             || (firstChar == '*' && position > 0 && fBefore.charAt(position - 1) == structSeparator)
             || structSeparator == firstChar || catalogSeparator.indexOf(firstChar) != -1
         ) {
-            s.append(firstChar);
             position++;
             if (position >= fBefore.length()) {
                 break;
@@ -323,7 +313,8 @@ class SQLTokensParser {
         fPos = 0;
         fBefore = argSql;
 
-        final List<FormatterToken> list = new ArrayList<>();
+        // Formatter inserts and removes tokens in the middle of the list
+        final List<FormatterToken> list = new FormatterTokenList(argSql.length() / 4);
         for (;;) {
             final FormatterToken token = nextToken();
             if (token.getType() == TokenType.END) {
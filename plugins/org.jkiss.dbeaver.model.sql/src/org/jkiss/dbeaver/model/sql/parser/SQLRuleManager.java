@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.model.DBPKeywordType;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.SQLWordTable;
 import org.jkiss.dbeaver.model.sql.parser.rules.*;
 import org.jkiss.dbeaver.model.sql.parser.tokens.*;
 import org.jkiss.dbeaver.model.sql.registry.SQLCommandHandlerDescriptor;
@@ -39,9 +40,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.Pair;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 /**
  * SQLRuleManager.
@@ -53,6 +52,11 @@ public class SQLRuleManager {
 
     private static final Log log = Log.getLog(SQLRuleManager.class);
 
+    // Compiled dialect words shared by all rule managers, keyed by the content stamp of the words
+    private static final Map<SQLDialect, Map<Long, SQLWordTable<Integer>>> dialectWords = new WeakHashMap<>();
+    // Dialects shared by several data sources may have a different set of data types for each of them
+    private static final int MAX_WORD_TABLES_PER_DIALECT = 4;
+
     @NotNull
     private TPRule[] allRules = new TPRule[0];
     @NotNull
@@ -88,6 +92,87 @@ public class SQLRuleManager {
         return rules.toArray(new TPRule[0]);
     }
 
+    /**
+     * Returns compiled keywords, functions, types, and block bounds of the dialect.
+     * Tables are cached by the content stamp of the dialect words, so they are rebuilt only if
+     * the words change (e.g. after driver settings load) and are shared by all data sources with the same words.
+     */
+    @NotNull
+    static SQLWordTable<Integer> getDialectWords(@NotNull SQLDialect dialect, @Nullable DBPDataSource dataSource) {
+        Collection<String> reservedWords = dialect.getReservedWords();
+        Collection<String> types = dataSource == null ? Collections.emptyList() : dialect.getDataTypes(dataSource);
+        Collection<String> functions = dataSource == null ? Collections.emptyList() : dialect.getFunctions();
+        final String[] blockHeaderStrings = dialect.getBlockHeaderStrings();
+        final String[][] blockBounds = dialect.getBlockBoundStrings();
+        long stamp = getWordsStamp(reservedWords);
+        stamp = stamp * 31 + getWordsStamp(types);
+        stamp = stamp * 31 + getWordsStamp(functions);
+        stamp = stamp * 31 + Arrays.hashCode(blockHeaderStrings);
+        stamp = stamp * 31 + Arrays.deepHashCode(blockBounds);
+        synchronized (dialectWords) {
+            Map<Long, SQLWordTable<Integer>> tables = dialectWords.get(dialect);
+            SQLWordTable<Integer> compiled = tables == null ? null : tables.get(stamp);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+
+        SQLWordTable.Builder<Integer> builder = SQLWordTable.builder();
+        for (String reservedWord : reservedWords) {
+            DBPKeywordType keywordType = dialect.getKeywordType(reservedWord);
+            // Functions without parentheses has type 'DBPKeywordType.OTHER' (#8710)
+            if (keywordType == DBPKeywordType.FUNCTION || keywordType == DBPKeywordType.OTHER) {
+                builder.merge(reservedWord, SQLWordRule.WORD_FUNCTION, SQLWordRule::mergeWordFlags);
+            } else {
+                builder.merge(reservedWord, SQLWordRule.WORD_KEYWORD, SQLWordRule::mergeWordFlags);
+            }
+        }
+        for (String type : types) {
+            builder.merge(type, SQLWordRule.WORD_TYPE, SQLWordRule::mergeWordFlags);
+        }
+        for (String function : functions) {
+            builder.merge(function, SQLWordRule.WORD_FUNCTION, SQLWordRule::mergeWordFlags);
+        }
+        if (!ArrayUtils.isEmpty(blockHeaderStrings)) {
+            for (String bhs : blockHeaderStrings) {
+                builder.merge(bhs, SQLWordRule.WORD_BLOCK_HEADER, SQLWordRule::mergeWordFlags);
+            }
+        }
+        if (blockBounds != null) {
+            for (String[] block : blockBounds) {
+                if (block.length != 2) {
+                    continue;
+                }
+                builder.merge(block[0], SQLWordRule.WORD_BLOCK_BEGIN, SQLWordRule::mergeWordFlags);
+                builder.merge(block[1], SQLWordRule.WORD_BLOCK_END, SQLWordRule::mergeWordFlags);
+            }
+        }
+        SQLWordTable<Integer> words = builder.build();
+        synchronized (dialectWords) {
+            dialectWords.computeIfAbsent(dialect, d -> new LinkedHashMap<>(MAX_WORD_TABLES_PER_DIALECT * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, SQLWordTable<Integer>> eldest) {
+                    return size() > MAX_WORD_TABLES_PER_DIALECT;
+                }
+            }).put(stamp, words);
+        }
+        return words;
+    }
+
+    /**
+     * Order-independent stamp of the word set content. String hashes are cached, so it is cheap to compute.
+     */
+    private static long getWordsStamp(@NotNull Collection<String> words) {
+        long sum = 0;
+        long mix = 0;
+        for (String word : words) {
+            int hash = word.hashCode();
+            sum += hash;
+            mix ^= hash * 0x9E3779B97F4A7C15L;
+        }
+        return (sum * 31 + mix) * 31 + words.size();
+    }
+
     public void loadRules() {
         loadRules(null, false);
     }
@@ -230,40 +315,14 @@ public class SQLRuleManager {
 
         if (!minimalRules) {
             // Add word rule for keywords, functions, types, and constants.
-            SQLWordRule wordRule = new SQLWordRule(delimRule, functionToken, otherToken, dialect);
-            for (String reservedWord : dialect.getReservedWords()) {
-                DBPKeywordType keywordType = dialect.getKeywordType(reservedWord);
-                // Functions without parentheses has type 'DBPKeywordType.OTHER' (#8710)
-                if (keywordType == DBPKeywordType.FUNCTION || keywordType == DBPKeywordType.OTHER) {
-                    wordRule.addFunction(reservedWord);
-                } else {
-                    wordRule.addWord(reservedWord, keywordToken);
-                }
-            }
-            if (dataSource != null) {
-                for (String type : dialect.getDataTypes(dataSource)) {
-                    wordRule.addWord(type, typeToken);
-                }
-                for (String function : dialect.getFunctions()) {
-                    wordRule.addFunction(function);
-                }
-            }
-            final String[] blockHeaderStrings = dialect.getBlockHeaderStrings();
-            if (!ArrayUtils.isEmpty(blockHeaderStrings)) {
-                for (String bhs : blockHeaderStrings) {
-                    wordRule.addWord(bhs, blockHeaderToken);
-                }
-            }
-            String[][] blockBounds = dialect.getBlockBoundStrings();
-            if (blockBounds != null) {
-                for (String[] block : blockBounds) {
-                    if (block.length != 2) {
-                        continue;
-                    }
-                    wordRule.addWord(block[0], blockBeginToken);
-                    wordRule.addWord(block[1], blockEndToken);
-                }
-            }
+            TPToken[] wordTokens = new TPToken[SQLWordRule.WORD_BLOCK_END + 1];
+            wordTokens[SQLWordRule.WORD_KEYWORD] = keywordToken;
+            wordTokens[SQLWordRule.WORD_TYPE] = typeToken;
+            wordTokens[SQLWordRule.WORD_BLOCK_HEADER] = blockHeaderToken;
+            wordTokens[SQLWordRule.WORD_BLOCK_BEGIN] = blockBeginToken;
+            wordTokens[SQLWordRule.WORD_BLOCK_END] = blockEndToken;
+            SQLWordRule wordRule = new SQLWordRule(
+                delimRule, getDialectWords(dialect, dataSource), wordTokens, functionToken, otherToken, dialect);
             rules.add(wordRule);
         }
 
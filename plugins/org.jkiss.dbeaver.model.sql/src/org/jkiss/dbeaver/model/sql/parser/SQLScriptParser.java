@@ -60,7 +60,7 @@ public class SQLScriptParser {
 
     private static final String CLI_ARG_DEBUG_DISABLE_SKIP_TOKEN_EVALUATION = "dbeaver.debug.sql.disable-skip-token-evaluation";
 
-    private static boolean isPredicateEvaluationEnabled() {
+    static boolean isPredicateEvaluationEnabled() {
         String property = System.getProperty(CLI_ARG_DEBUG_DISABLE_SKIP_TOKEN_EVALUATION); // Turn off processor settings save.
         return CommonUtils.isEmpty(property);
     }
@@ -87,7 +87,7 @@ public class SQLScriptParser {
         return tryExpandElement(parseQueryImpl(context, startPos, endPos, currentPos, scriptMode, keepDelimiters), context);
     }
 
-    private static SQLScriptElement parseQueryImpl(
+    static SQLScriptElement parseQueryImpl(
         @NotNull final SQLParserContext context,
         final int startPos,
         final int endPos,
@@ -401,7 +401,7 @@ public class SQLScriptParser {
         return SQLScriptParser.extractQueryAtPos(parserContext, cursorPosition);
     }
 
-    private static boolean needsDelimiterAfterBlock(String firstKeyword, String lastKeyword, SQLDialect dialect) {
+    static boolean needsDelimiterAfterBlock(String firstKeyword, String lastKeyword, SQLDialect dialect) {
         if (dialect.needsDelimiterFor(firstKeyword, lastKeyword)) {
             // SQL Server needs delimiters after MERGE
             return true;
@@ -870,6 +870,21 @@ public class SQLScriptParser {
             }
         }
 
+        return parseVariables(context, queryOffset, queryLength, parameters);
+    }
+
+    @Nullable
+    static List<SQLQueryParameter> parseVariables(
+        @NotNull SQLParserContext context,
+        int queryOffset,
+        int queryLength,
+        @Nullable List<SQLQueryParameter> parameters
+    ) {
+        SQLSyntaxManager syntaxManager = context.getSyntaxManager();
+        IDocument document = context.getDocument();
+        if (queryOffset + queryLength > document.getLength()) {
+            queryLength = document.getLength() - queryOffset;
+        }
         if (syntaxManager.isVariablesEnabled()) {
             try {
                 // Find variables in strings, comments, etc
@@ -949,20 +964,51 @@ public class SQLScriptParser {
             return queryList;
         }
 
+        // Scripts are split without the rule-based scanner where possible, it is much faster on large scripts
+        SQLScriptSplitter splitter = scriptMode ? SQLScriptSplitter.create(parserContext) : null;
         parserContext.startScriptEvaluation();
         try {
-            for (int queryOffset = startOffset; ; ) {
-                SQLScriptElement query = parseQueryImpl(parserContext, queryOffset, startOffset + length, queryOffset, scriptMode, keepDelimiters);
-                if (query == null) {
-                    break;
-                }
-                queryList.add(query);
-                queryOffset = query.getOffset() + query.getLength();
-            }
+            splitScriptQueries(parserContext, splitter, startOffset, startOffset + length, scriptMode, keepDelimiters, queryList);
         } finally {
             parserContext.endScriptEvaluation();
         }
+        completeScriptQueries(parserContext, splitter, queryList, parseParameters);
+        return queryList;
+    }
+
+    /**
+     * Splits the document range into queries. Script evaluation must be started by the caller.
+     */
+    static void splitScriptQueries(
+        @NotNull SQLParserContext parserContext,
+        @Nullable SQLScriptSplitter splitter,
+        int startOffset,
+        int endOffset,
+        boolean scriptMode,
+        boolean keepDelimiters,
+        @NotNull List<SQLScriptElement> queryList
+    ) {
+        for (int queryOffset = startOffset; ; ) {
+            SQLScriptElement query = splitter != null ?
+                splitter.parseQuery(queryOffset, endOffset, keepDelimiters) :
+                parseQueryImpl(parserContext, queryOffset, endOffset, queryOffset, scriptMode, keepDelimiters);
+            if (query == null) {
+                break;
+            }
+            queryList.add(query);
+            queryOffset = query.getOffset() + query.getLength();
+        }
+    }
 
+    /**
+     * Joins continued queries and parses query parameters
+     */
+    static void completeScriptQueries(
+        @NotNull SQLParserContext parserContext,
+        @Nullable SQLScriptSplitter splitter,
+        @NotNull List<SQLScriptElement> queryList,
+        boolean parseParameters
+    ) {
         if (parserContext.getSyntaxManager().getStatementDelimiterMode().useSmart) {
             expandQueries(parserContext, queryList);
         }
@@ -971,11 +1017,15 @@ public class SQLScriptParser {
             // Parse parameters
             for (SQLScriptElement element : queryList) {
                 if (element instanceof SQLQuery query) {
-                    query.setParameters(parseParametersAndVariables(parserContext, query.getOffset(), query.getLength()));
+                    if (splitter != null && splitter.isSplitElement(query)) {
+                        // There are no parameter tokens in such queries
+                        query.setParameters(parseVariables(parserContext, query.getOffset(), query.getLength(), null));
+                    } else {
+                        query.setParameters(parseParametersAndVariables(parserContext, query.getOffset(), query.getLength()));
+                    }
                 }
             }
         }
-        return queryList;
     }
 
     private static void expandQueries(@NotNull SQLParserContext parserContext, @NotNull List<SQLScriptElement> queryList) {
@@ -0,0 +1,820 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.sql.*;
+import org.jkiss.dbeaver.model.sql.parser.rules.*;
+import org.jkiss.dbeaver.model.sql.parser.tokens.SQLTokenType;
+import org.jkiss.dbeaver.model.text.parser.TPCharacterScanner;
+import org.jkiss.dbeaver.model.text.parser.TPRule;
+import org.jkiss.dbeaver.model.text.parser.TPToken;
+import org.jkiss.dbeaver.model.text.parser.TPTokenDefault;
+import org.jkiss.dbeaver.model.text.parser.rules.EndOfLineRule;
+import org.jkiss.dbeaver.model.text.parser.rules.MultiLineRule;
+import org.jkiss.dbeaver.model.text.parser.rules.NumberRule;
+import org.jkiss.dbeaver.model.text.parser.rules.WhitespaceRule;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.Pair;
+
+import java.util.*;
+
+/**
+ * Single pass script splitter.
+ * <p>
+ * Recognizes whitespaces, words, numbers, quoted strings, comments, brackets and delimiters directly in the script text
+ * instead of running the rule-based scanner token by token. Dialect rules unknown to the splitter are still evaluated
+ * at token starts, in the same order as the scanner does.
+ * Statements which contain blocks, control commands, parameters, variables or dollar quotes
+ * are parsed by {@link SQLScriptParser}, so the resulting script elements are the same in both cases.
+ */
+class SQLScriptSplitter {
+
+    private static final int TOKEN_NONE = 0;
+    private static final int TOKEN_WHITESPACE = 1;
+    private static final int TOKEN_COMMENT = 2;
+    private static final int TOKEN_DELIMITER = 3;
+    private static final int TOKEN_KEYWORD = 4;
+    private static final int TOKEN_VALUE = 5;
+    // Token which requires the rule-based parser
+    private static final int TOKEN_COMPLEX = 6;
+
+    private static final int STEP_PATTERN = 1;
+    private static final int STEP_NESTED_PATTERN = 2;
+    private static final int STEP_WHITESPACE = 3;
+    private static final int STEP_NUMBER = 4;
+    private static final int STEP_DELIMITER = 5;
+    private static final int STEP_WORD = 6;
+    private static final int STEP_RULE = 7;
+
+    @NotNull
+    private final SQLParserContext context;
+    @NotNull
+    private final SQLDialect dialect;
+    @NotNull
+    private final SQLDialect rulesDialect;
+    @NotNull
+    private final CharSequence text;
+    @NotNull
+    private final Step[] steps;
+    @NotNull
+    private final SQLDelimiterRule delimiterRule;
+    @NotNull
+    private final SQLWordRule wordRule;
+    @NotNull
+    private final String complexTokenStarts;
+    @Nullable
+    private final String delimiterRedefiner;
+    @NotNull
+    private final RuleScanner ruleScanner;
+    @NotNull
+    private final Set<SQLScriptElement> splitElements = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private int end;
+    private int tokenEnd;
+    private boolean requiresParser;
+    private char[] delimiterBuffer = new char[0];
+
+    /**
+     * Tokenization step, corresponds to one of the scanner rules
+     */
+    private static class Step {
+        final int kind;
+        final int tokenKind;
+        final char[] start;
+        final char[] end;
+        final char escape;
+        final boolean breaksOnEOL;
+        final TPRule rule;
+
+        Step(int kind) {
+            this(kind, TOKEN_NONE, null, null, (char) 0, false, null);
+        }
+
+        Step(@NotNull TPRule rule) {
+            this(STEP_RULE, TOKEN_NONE, null, null, (char) 0, false, rule);
+        }
+
+        Step(int kind, int tokenKind, char[] start, char[] end, char escape, boolean breaksOnEOL, TPRule rule) {
+            this.kind = kind;
+            this.tokenKind = tokenKind;
+            this.start = start;
+            this.end = end;
+            this.escape = escape;
+            this.breaksOnEOL = breaksOnEOL;
+            this.rule = rule;
+        }
+    }
+
+    private SQLScriptSplitter(
+        @NotNull SQLParserContext context,
+        @NotNull Step[] steps,
+        @NotNull SQLDelimiterRule delimiterRule,
+        @NotNull SQLWordRule wordRule,
+        @NotNull String complexTokenStarts,
+        @Nullable String delimiterRedefiner
+    ) {
+        this.context = context;
+        this.dialect = context.getDialect();
+        this.rulesDialect = context.getSyntaxManager().getDialect();
+        this.text = new DocumentText(context.getDocument());
+        this.steps = steps;
+        this.delimiterRule = delimiterRule;
+        this.wordRule = wordRule;
+        this.complexTokenStarts = complexTokenStarts;
+        this.delimiterRedefiner = delimiterRedefiner;
+        this.ruleScanner = new RuleScanner(text, context.getDocument().getLegalLineDelimiters());
+    }
+
+    /**
+     * Creates splitter for the script mode parsing of the context document.
+     * Returns null if the context uses rules which can't be processed without the scanner.
+     */
+    @Nullable
+    static SQLScriptSplitter create(@NotNull SQLParserContext context) {
+        SQLSyntaxManager syntaxManager = context.getSyntaxManager();
+        SQLDialect dialect = syntaxManager.getDialect();
+        SQLTokenPredicateSet predicates = context.getDialect().getSkipTokenPredicates();
+        if (!SQLScriptParser.isPredicateEvaluationEnabled() ||
+            predicates.getMaxPrefixLength() > 0 || predicates.getMaxSuffixLength() > 0 ||
+            ArrayUtils.contains(syntaxManager.getStatementDelimiters(), "\n")
+        ) {
+            return null;
+        }
+        for (String lineComment : dialect.getSingleLineComments()) {
+            if (lineComment.startsWith("^")) {
+                return null;
+            }
+        }
+
+        StringBuilder complexTokenStarts = new StringBuilder("$");
+        String commandPrefix = syntaxManager.getControlCommandPrefix();
+        Iterator<Step> patterns = createPatternSteps(syntaxManager, dialect).iterator();
+        SQLDelimiterRule delimiterRule = null;
+        SQLWordRule wordRule = null;
+        String delimiterRedefiner = null;
+        List<Step> steps = new ArrayList<>();
+        for (TPRule rule : context.getRuleManager().getAllRules()) {
+            if (rule instanceof SQLCommandRule) {
+                if (CommonUtils.isEmpty(commandPrefix)) {
+                    return null;
+                }
+                complexTokenStarts.append(commandPrefix.charAt(0));
+            } else if (rule instanceof ScriptParameterRule) {
+                complexTokenStarts.append(syntaxManager.getAnonymousParameterMark());
+                for (String prefix : syntaxManager.getNamedParameterPrefixes()) {
+                    if (!prefix.isEmpty()) {
+                        complexTokenStarts.append(prefix.charAt(0));
+                    }
+                }
+            } else if (rule instanceof ScriptVariableRule || rule instanceof SQLDollarQuoteRule) {
+                // Starts with dollar sign
+            } else if (rule instanceof SQLDelimiterSetRule) {
+                delimiterRedefiner = dialect.getScriptDelimiterRedefiner();
+            } else if (rule.getClass() == MultiLineRule.class || rule.getClass() == NestedMultiLineRule.class ||
+                rule.getClass() == EndOfLineRule.class
+            ) {
+                if (!patterns.hasNext()) {
+                    return null;
+                }
+                Step pattern = patterns.next();
+                if ((pattern.kind == STEP_NESTED_PATTERN) != (rule instanceof NestedMultiLineRule)) {
+                    return null;
+                }
+                steps.add(pattern);
+            } else if (rule instanceof WhitespaceRule) {
+                steps.add(new Step(STEP_WHITESPACE));
+            } else if (rule instanceof NumberRule) {
+                steps.add(new Step(STEP_NUMBER));
+            } else if (rule instanceof SQLDelimiterRule) {
+                delimiterRule = (SQLDelimiterRule) rule;
+                steps.add(new Step(STEP_DELIMITER));
+            } else if (rule instanceof SQLWordRule) {
+                wordRule = (SQLWordRule) rule;
+                steps.add(new Step(STEP_WORD));
+            } else if (rule instanceof LineCommentRule) {
+                return null;
+            } else {
+                steps.add(new Step(rule));
+            }
+        }
+        if (patterns.hasNext() || delimiterRule == null || wordRule == null) {
+            return null;
+        }
+        return new SQLScriptSplitter(
+            context,
+            steps.toArray(new Step[0]),
+            delimiterRule,
+            wordRule,
+            complexTokenStarts.toString(),
+            CommonUtils.isEmpty(delimiterRedefiner) ? null : delimiterRedefiner);
+    }
+
+    /**
+     * Quote and comment patterns in the same order as they are registered by {@link SQLRuleManager}
+     */
+    @NotNull
+    private static List<Step> createPatternSteps(@NotNull SQLSyntaxManager syntaxManager, @NotNull SQLDialect dialect) {
+        List<Step> patterns = new ArrayList<>();
+        char escapeChar = syntaxManager.getEscapeChar();
+        String[][] identifierQuoteStrings = syntaxManager.getIdentifierQuoteStrings();
+        String[][] stringQuoteStrings = syntaxManager.getStringQuoteStrings();
+        boolean hasDoubleQuoteRule = false;
+        if (!ArrayUtils.isEmpty(identifierQuoteStrings)) {
+            for (String[] quotes : identifierQuoteStrings) {
+                patterns.add(createPattern(STEP_PATTERN, TOKEN_VALUE, quotes[0], quotes[1], escapeChar, false));
+                if (quotes[1].equals(SQLConstants.STR_QUOTE_DOUBLE) && quotes[0].equals(quotes[1])) {
+                    hasDoubleQuoteRule = true;
+                }
+            }
+        }
+        if (!ArrayUtils.isEmpty(stringQuoteStrings)) {
+            for (String[] quotes : stringQuoteStrings) {
+                patterns.add(createPattern(STEP_PATTERN, TOKEN_VALUE, quotes[0], quotes[1], escapeChar, false));
+            }
+        }
+        if (!hasDoubleQuoteRule) {
+            patterns.add(createPattern(
+                STEP_PATTERN, TOKEN_VALUE, SQLConstants.STR_QUOTE_DOUBLE, SQLConstants.STR_QUOTE_DOUBLE, escapeChar, false));
+        }
+        for (String lineComment : dialect.getSingleLineComments()) {
+            patterns.add(createPattern(STEP_PATTERN, TOKEN_COMMENT, lineComment, null, (char) 0, true));
+        }
+        Pair<String, String> multiLineComments = dialect.getMultiLineComments();
+        if (multiLineComments != null) {
+            patterns.add(createPattern(
+                dialect.supportsNestedComments() ? STEP_NESTED_PATTERN : STEP_PATTERN,
+                TOKEN_COMMENT,
+                multiLineComments.getFirst(),
+                multiLineComments.getSecond(),
+                (char) 0,
+                false));
+        }
+        return patterns;
+    }
+
+    @NotNull
+    private static Step createPattern(int kind, int tokenKind, String start, String end, char escape, boolean breaksOnEOL) {
+        return new Step(
+            kind,
+            tokenKind,
+            start.toCharArray(),
+            end == null ? new char[0] : end.toCharArray(),
+            escape,
+            breaksOnEOL,
+            null);
+    }
+
+    /**
+     * Tells whether the element was split without the rule-based parser.
+     * Such elements do not contain parameter tokens.
+     */
+    boolean isSplitElement(@NotNull SQLScriptElement element) {
+        return splitElements.contains(element);
+    }
+
+    /**
+     * Same as the rule-based parsing of the query in script mode
+     */
+    @Nullable
+    SQLScriptElement parseQuery(int startPos, int endPos, boolean keepDelimiters) {
+        int length = endPos - startPos;
+        if (length <= 0 || length > text.length()) {
+            return null;
+        }
+        requiresParser = false;
+        SQLScriptElement element = splitQuery(startPos, Math.min(endPos, text.length()), keepDelimiters);
+        if (requiresParser) {
+            return SQLScriptParser.parseQueryImpl(context, startPos, endPos, startPos, true, keepDelimiters);
+        }
+        if (element != null) {
+            splitElements.add(element);
+        }
+        return element;
+    }
+
+    @Nullable
+    private SQLScriptElement splitQuery(int startPos, int endPos, boolean keepDelimiters) {
+        this.end = endPos;
+        int statementStart = startPos;
+        boolean hasValuableTokens = false;
+        int bracketDepth = 0;
+        int firstKeywordStart = -1, firstKeywordEnd = -1;
+        int lastKeywordStart = -1, lastKeywordEnd = -1;
+        for (int tokenOffset = startPos; ; tokenOffset = tokenEnd) {
+            if (tokenOffset >= endPos) {
+                if (!hasValuableTokens) {
+                    return null;
+                }
+                while (statementStart < endPos && Character.isWhitespace(text.charAt(statementStart))) {
+                    statementStart++;
+                }
+                if (statementStart == endPos) {
+                    return null;
+                }
+                SQLQuery query = new SQLQuery(
+                    context.getDataSource(),
+                    SQLUtils.fixLineFeeds(text.subSequence(statementStart, endPos).toString()),
+                    statementStart,
+                    endPos - statementStart);
+                query.setEndsWithDelimiter(false);
+                return query;
+            }
+            int tokenKind = nextToken(tokenOffset);
+            if (tokenKind == TOKEN_COMPLEX) {
+                requiresParser = true;
+                return null;
+            }
+            int tokenLength = tokenEnd - tokenOffset;
+            boolean isDelimiter = tokenKind == TOKEN_DELIMITER;
+            if (tokenLength == 1) {
+                char c = text.charAt(tokenOffset);
+                if (c == '(' || c == '{' || c == '[') {
+                    bracketDepth++;
+                } else if ((c == ')' || c == '}' || c == ']') && bracketDepth > 0) {
+                    bracketDepth--;
+                }
+            }
+            if (isDelimiter && bracketDepth > 0) {
+                // Delimiter in brackets
+                continue;
+            }
+            boolean isWhitespace = tokenKind == TOKEN_WHITESPACE;
+            if (tokenKind == TOKEN_KEYWORD && tokenLength > 0) {
+                lastKeywordStart = tokenOffset;
+                lastKeywordEnd = tokenEnd;
+                if (firstKeywordStart < 0) {
+                    firstKeywordStart = tokenOffset;
+                    firstKeywordEnd = tokenEnd;
+                }
+            }
+            if (bracketDepth > 0 && tokenLength > 0 && !isWhitespace) {
+                if (!hasValuableTokens) {
+                    // Statement may start with a bracket
+                    hasValuableTokens = tokenKind != TOKEN_COMMENT || dialect.supportsCommentQuery();
+                }
+                continue;
+            }
+            if (hasValuableTokens && isDelimiter) {
+                while (statementStart < tokenOffset && Character.isWhitespace(text.charAt(statementStart))) {
+                    statementStart++;
+                }
+                if (tokenOffset == statementStart) {
+                    statementStart = tokenEnd;
+                    continue;
+                }
+                String queryText = SQLUtils.fixLineFeeds(text.subSequence(statementStart, tokenOffset).toString());
+                String delimiterText = text.subSequence(tokenOffset, tokenEnd).toString();
+                if (delimiterText.equals(SQLConstants.DEFAULT_STATEMENT_DELIMITER) && (keepDelimiters ||
+                    SQLScriptParser.needsDelimiterAfterBlock(
+                        firstKeywordStart < 0 ? null : text.subSequence(firstKeywordStart, firstKeywordEnd).toString(),
+                        lastKeywordStart < 0 ? null : text.subSequence(lastKeywordStart, lastKeywordEnd).toString(),
+                        dialect))
+                ) {
+                    queryText += delimiterText;
+                }
+                SQLQuery query = new SQLQuery(context.getDataSource(), queryText, statementStart, tokenEnd - statementStart);
+                query.setEndsWithDelimiter(true);
+                return query;
+            }
+            if (isDelimiter) {
+                statementStart = tokenEnd;
+                firstKeywordStart = -1;
+                hasValuableTokens = false;
+            }
+            if (!hasValuableTokens && !isWhitespace) {
+                hasValuableTokens = tokenKind != TOKEN_COMMENT || dialect.supportsCommentQuery();
+            }
+        }
+    }
+
+    /**
+     * Reads the token at the specified position and sets its end offset
+     */
+    private int nextToken(int pos) {
+        char c = text.charAt(pos);
+        if (complexTokenStarts.indexOf(c) >= 0 || isDelimiterRedefinition(pos)) {
+            return TOKEN_COMPLEX;
+        }
+        for (Step step : steps) {
+            int tokenKind = switch (step.kind) {
+                case STEP_PATTERN -> readPattern(step, pos);
+                case STEP_NESTED_PATTERN -> readNestedPattern(step, pos);
+                case STEP_WHITESPACE -> readWhitespace(pos);
+                case STEP_NUMBER -> readNumber(pos);
+                case STEP_DELIMITER -> readDelimiter(pos);
+                case STEP_WORD -> readWord(pos);
+                case STEP_RULE -> evaluateRule(step.rule, pos);
+                default -> TOKEN_NONE;
+            };
+            if (tokenKind != TOKEN_NONE) {
+                return tokenKind;
+            }
+        }
+        tokenEnd = pos + 1;
+        return TOKEN_VALUE;
+    }
+
+    private int charAt(int pos) {
+        return pos < end ? text.charAt(pos) : TPCharacterScanner.EOF;
+    }
+
+    private boolean isDelimiterRedefinition(int pos) {
+        if (delimiterRedefiner == null || (pos > 0 && text.charAt(pos - 1) != '\n' && text.charAt(pos - 1) != '\r')) {
+            return false;
+        }
+        int length = delimiterRedefiner.length();
+        if (pos + length > end) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(text.charAt(pos + i)) != Character.toUpperCase(delimiterRedefiner.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the sequence (except its first character) is at the specified position
+     */
+    private boolean isSequenceAt(int pos, @NotNull char[] sequence, boolean eofAllowed) {
+        for (int i = 1; i < sequence.length; i++) {
+            int c = charAt(pos + i - 1);
+            if (c == TPCharacterScanner.EOF && eofAllowed) {
+                return true;
+            }
+            if (c != sequence[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readPattern(@NotNull Step step, int pos) {
+        if (text.charAt(pos) != step.start[0] || !isSequenceAt(pos + 1, step.start, false)) {
+            return TOKEN_NONE;
+        }
+        char[] endSequence = step.end;
+        int offset = pos + step.start.length;
+        tokenEnd = end;
+        while (offset < end) {
+            char c = text.charAt(offset++);
+            if (c == step.escape) {
+                offset++;
+            } else if (endSequence.length > 0 && c == endSequence[0]) {
+                if (isSequenceAt(offset, endSequence, true)) {
+                    tokenEnd = Math.min(offset + endSequence.length - 1, end);
+                    break;
+                }
+            } else if (step.breaksOnEOL && (c == '\n' || c == '\r')) {
+                // Line delimiter is not a part of the token
+                tokenEnd = offset - 1;
+                break;
+            }
+        }
+        return step.tokenKind;
+    }
+
+    private int readNestedPattern(@NotNull Step step, int pos) {
+        char[] startSequence = step.start;
+        char[] endSequence = step.end;
+        if (text.charAt(pos) != startSequence[0] || !isSequenceAt(pos + 1, startSequence, false)) {
+            return TOKEN_NONE;
+        }
+        int offset = pos + startSequence.length;
+        int nestingLevel = 1;
+        while (offset < end) {
+            char c = text.charAt(offset++);
+            if (c == startSequence[0]) {
+                if (isSequenceAt(offset, startSequence, true)) {
+                    nestingLevel++;
+                    offset += startSequence.length - 1;
+                }
+            } else if (endSequence.length > 0 && c == endSequence[0]) {
+                if (isSequenceAt(offset, endSequence, true)) {
+                    nestingLevel--;
+                    offset += endSequence.length - 1;
+                }
+            }
+            if (nestingLevel <= 0) {
+                break;
+            }
+        }
+        tokenEnd = Math.min(offset, end);
+        return step.tokenKind;
+    }
+
+    private int readWhitespace(int pos) {
+        if (!Character.isWhitespace(text.charAt(pos))) {
+            return TOKEN_NONE;
+        }
+        int offset = pos + 1;
+        while (offset < end && Character.isWhitespace(text.charAt(offset))) {
+            offset++;
+        }
+        tokenEnd = offset;
+        return TOKEN_WHITESPACE;
+    }
+
+    /**
+     * Same as {@link NumberRule}
+     */
+    private int readNumber(int pos) {
+        int ch = text.charAt(pos);
+        int offset = pos + 1;
+        if (!CommonUtils.isDigit(ch, NumberRule.RADIX_DECIMAL)) {
+            return TOKEN_NONE;
+        }
+        boolean seenDecimalSeparator = false;
+        boolean seenScientificNotation = false;
+        int radix = NumberRule.RADIX_DECIMAL;
+        if (ch == '0') {
+            int ch1 = charAt(offset++);
+            if (ch1 == 'x' || ch1 == 'X') {
+                ch1 = charAt(offset++);
+                if (CommonUtils.isDigit(ch1, NumberRule.RADIX_HEXADECIMAL)) {
+                    radix = NumberRule.RADIX_HEXADECIMAL;
+                } else {
+                    return TOKEN_NONE;
+                }
+            } else {
+                offset--;
+            }
+        }
+        while (true) {
+            if (radix == NumberRule.RADIX_DECIMAL && ch == '.') {
+                if (seenDecimalSeparator) {
+                    return TOKEN_NONE;
+                }
+                ch = charAt(offset++);
+                if (ch < '0' || ch > '9') {
+                    return TOKEN_NONE;
+                }
+                seenDecimalSeparator = true;
+                continue;
+            }
+            if (radix == NumberRule.RADIX_DECIMAL && (ch == 'e' || ch == 'E')) {
+                if (seenScientificNotation) {
+                    return TOKEN_NONE;
+                }
+                ch = charAt(offset++);
+                if (ch == '+' || ch == '-') {
+                    ch = charAt(offset++);
+                }
+                if (ch < '0' || ch > '9') {
+                    return TOKEN_NONE;
+                }
+                seenScientificNotation = true;
+                continue;
+            }
+            if (!CommonUtils.isDigit(ch, radix)) {
+                tokenEnd = Math.min(offset - 1, end);
+                return TOKEN_VALUE;
+            }
+            ch = charAt(offset++);
+        }
+    }
+
+    /**
+     * Same as {@link SQLDelimiterRule}
+     */
+    private int readDelimiter(int pos) {
+        char[][] delimiters = delimiterRule.getDelimiters();
+        for (int i = 0; ; i++) {
+            int c = charAt(pos + i);
+            boolean matches = false;
+            if (c != TPCharacterScanner.EOF) {
+                c = Character.toUpperCase(c);
+                for (char[] delimiter : delimiters) {
+                    if (i < delimiter.length && delimiter[i] == c) {
+                        if (delimiterBuffer.length <= i) {
+                            delimiterBuffer = Arrays.copyOf(delimiterBuffer, i + 1);
+                        }
+                        delimiterBuffer[i] = (char) c;
+                        if (i == delimiter.length - 1 && Arrays.equals(delimiterBuffer, 0, i + 1, delimiter, 0, i + 1)) {
+                            if (Character.isLetterOrDigit(c) && Character.isUnicodeIdentifierPart(charAt(pos + i + 1))) {
+                                continue;
+                            }
+                            tokenEnd = pos + i + 1;
+                            return TOKEN_DELIMITER;
+                        }
+                        matches = true;
+                        break;
+                    }
+                }
+            }
+            if (!matches) {
+                return TOKEN_NONE;
+            }
+        }
+    }
+
+    /**
+     * Same as {@link SQLWordRule}
+     */
+    private int readWord(int pos) {
+        char prevC = text.charAt(pos);
+        if (!rulesDialect.isWordStart(prevC)) {
+            return TOKEN_NONE;
+        }
+        char[][] delimiters = delimiterRule.getDelimiters();
+        int offset = pos + 1;
+        while (offset < end) {
+            char c = text.charAt(offset);
+            if (!rulesDialect.isWordPart(c) && c != '$') {
+                break;
+            }
+            if (c == '$' && prevC == '$') {
+                // Double dollar, previous dollar is not a part of the word
+                offset--;
+                break;
+            }
+            if (isWordDelimiter(c, offset, delimiters)) {
+                break;
+            }
+            prevC = c;
+            offset++;
+        }
+        tokenEnd = offset;
+
+        TPToken token = wordRule.getWordToken(text, pos, offset);
+        if (wordRule.hasFunction(text, pos, offset)) {
+            int next = offset;
+            while (next < end && Character.isWhitespace(text.charAt(next))) {
+                next++;
+            }
+            if (token == null || charAt(next) == '(') {
+                return TOKEN_VALUE;
+            }
+        }
+        return token == null ? TOKEN_VALUE : getTokenKind(token);
+    }
+
+    private boolean isWordDelimiter(char c, int pos, @NotNull char[][] delimiters) {
+        for (char[] delimiter : delimiters) {
+            if (!Character.isLetter(c) && c == delimiter[0]) {
+                if (delimiter.length == 1) {
+                    return true;
+                }
+                boolean matches = true;
+                for (int i = 1; i < delimiter.length; i++) {
+                    int c2 = charAt(pos + i);
+                    if (c2 == TPCharacterScanner.EOF) {
+                        break;
+                    }
+                    if (c2 != delimiter[i]) {
+                        matches = false;
+                        break;
+                    }
+                }
+                if (matches) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int evaluateRule(@NotNull TPRule rule, int pos) {
+        ruleScanner.reset(pos, end);
+        TPToken token = rule.evaluate(ruleScanner);
+        if (token.isUndefined()) {
+            return TOKEN_NONE;
+        }
+        tokenEnd = Math.min(ruleScanner.getOffset(), end);
+        if (tokenEnd <= pos || token.isEOF()) {
+            return TOKEN_COMPLEX;
+        }
+        if (token.isWhitespace()) {
+            return TOKEN_WHITESPACE;
+        }
+        return token instanceof TPTokenDefault ? getTokenKind(token) : TOKEN_VALUE;
+    }
+
+    private static int getTokenKind(@NotNull TPToken token) {
+        if (!(token.getData() instanceof SQLTokenType tokenType)) {
+            return TOKEN_COMPLEX;
+        }
+        return switch (tokenType) {
+            case T_KEYWORD -> TOKEN_KEYWORD;
+            case T_COMMENT -> TOKEN_COMMENT;
+            case T_STRING, T_QUOTED, T_TYPE, T_NUMBER, T_TABLE, T_TABLE_ALIAS, T_COLUMN, T_COLUMN_DERIVED, T_SCHEMA,
+                T_COMPOSITE_FIELD, T_FUNCTION, T_OTHER -> TOKEN_VALUE;
+            default -> TOKEN_COMPLEX;
+        };
+    }
+
+    /**
+     * Scanner for the dialect rules. Behaves as the rule-based scanner at the end of range.
+     */
+    private static class RuleScanner implements TPCharacterScanner {
+        private final CharSequence text;
+        private final char[][] lineDelimiters;
+        private int offset;
+        private int end;
+
+        RuleScanner(@NotNull CharSequence text, @NotNull String[] lineDelimiters) {
+            this.text = text;
+            this.lineDelimiters = new char[lineDelimiters.length][];
+            for (int i = 0; i < lineDelimiters.length; i++) {
+                this.lineDelimiters[i] = lineDelimiters[i].toCharArray();
+            }
+        }
+
+        void reset(int offset, int end) {
+            this.offset = offset;
+            this.end = end;
+        }
+
+        @Override
+        public char[][] getLegalLineDelimiters() {
+            return lineDelimiters;
+        }
+
+        @Override
+        public int getColumn() {
+            int lineStart = offset;
+            while (lineStart > 0 && text.charAt(lineStart - 1) != '\n' && text.charAt(lineStart - 1) != '\r') {
+                lineStart--;
+            }
+            return offset - lineStart;
+        }
+
+        @Override
+        public int getOffset() {
+            return offset;
+        }
+
+        @Override
+        public int read() {
+            int c = offset < end ? text.charAt(offset) : EOF;
+            offset++;
+            return c;
+        }
+
+        @Override
+        public void unread() {
+            offset--;
+        }
+    }
+
+    /**
+     * Document text without copying
+     */
+    private static class DocumentText implements CharSequence {
+        private final IDocument document;
+
+        DocumentText(@NotNull IDocument document) {
+            this.document = document;
+        }
+
+        @Override
+        public int length() {
+            return document.getLength();
+        }
+
+        @Override
+        public char charAt(int index) {
+            try {
+                return document.getChar(index);
+            } catch (BadLocationException e) {
+                throw new IndexOutOfBoundsException(index);
+            }
+        }
+
+        @NotNull
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            try {
+                return document.get(start, end - start);
+            } catch (BadLocationException e) {
+                throw new IndexOutOfBoundsException(start);
+            }
+        }
+
+        @NotNull
+        @Override
+        public String toString() {
+            return document.get();
+        }
+    }
+}
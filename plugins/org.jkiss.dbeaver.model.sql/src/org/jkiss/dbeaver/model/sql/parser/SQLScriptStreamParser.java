@@ -0,0 +1,197 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Incremental script parser.
+ * <p>
+ * Reads the script in chunks and returns its elements one by one, so only the text of the statements
+ * which were not returned yet is kept in memory. Chunks are parsed up to the last line feed,
+ * and the last element of a chunk is parsed again with the next chunk as it may be incomplete.
+ * <p>
+ * Element offsets are relative to the chunk, use {@link #getElementOffset()} to get the offset in the script.
+ */
+public class SQLScriptStreamParser implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    @NotNull
+    private final Reader reader;
+    @NotNull
+    private final SQLParserContext parserContext;
+    @NotNull
+    private final Document document;
+    @NotNull
+    private final char[] readBuffer;
+    @NotNull
+    private final StringBuilder chunk = new StringBuilder();
+    @NotNull
+    private final Deque<SQLScriptElement> elements = new ArrayDeque<>();
+    @NotNull
+    private final Deque<Long> elementOffsets = new ArrayDeque<>();
+
+    // Offset of the chunk start in the script
+    private long chunkOffset;
+    // Parsing starts here, previous characters are kept for the rules which check the line start
+    private int parseOffset;
+    private long elementOffset = -1;
+    private boolean endOfScript;
+    private boolean evaluationStarted;
+
+    public SQLScriptStreamParser(@NotNull DBPDataSource dataSource, @NotNull Reader reader) {
+        this(dataSource, reader, DEFAULT_CHUNK_SIZE);
+    }
+
+    public SQLScriptStreamParser(@NotNull DBPDataSource dataSource, @NotNull Reader reader, int chunkSize) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dataSource.getSQLDialect(), dataSource.getContainer().getPreferenceStore());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+
+        this.reader = reader;
+        this.document = new Document();
+        this.parserContext = new SQLParserContext(dataSource, syntaxManager, ruleManager, document);
+        this.readBuffer = new char[Math.max(chunkSize, 1)];
+    }
+
+    /**
+     * Returns the next script element or null if the end of script was reached.
+     */
+    @Nullable
+    public SQLScriptElement nextElement() throws IOException {
+        while (elements.isEmpty()) {
+            if (endOfScript && parseOffset >= chunk.length()) {
+                elementOffset = -1;
+                return null;
+            }
+            parseChunk();
+        }
+        elementOffset = elementOffsets.poll();
+        return elements.poll();
+    }
+
+    /**
+     * Offset of the last returned element in the script
+     */
+    public long getElementOffset() {
+        return elementOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (evaluationStarted) {
+            parserContext.endScriptEvaluation();
+            evaluationStarted = false;
+        }
+        reader.close();
+    }
+
+    private void parseChunk() throws IOException {
+        // Read at least as much as we already have, so long statements are not re-parsed too many times
+        int charsToRead = Math.max(readBuffer.length, chunk.length());
+        while (!endOfScript && charsToRead > 0) {
+            int count = reader.read(readBuffer, 0, Math.min(readBuffer.length, charsToRead));
+            if (count < 0) {
+                endOfScript = true;
+            } else {
+                chunk.append(readBuffer, 0, count);
+                charsToRead -= count;
+            }
+        }
+
+        int parseEnd = chunk.length();
+        if (!endOfScript) {
+            // Control commands end at the line end, so they are never split between chunks
+            int lastLineFeed = chunk.lastIndexOf("\n");
+            if (lastLineFeed < parseOffset) {
+                // Very long line, wait for its end
+                return;
+            }
+            parseEnd = lastLineFeed + 1;
+        }
+        if (parseOffset >= parseEnd) {
+            return;
+        }
+
+        document.set(chunk.toString());
+        if (!evaluationStarted) {
+            parserContext.startScriptEvaluation();
+            evaluationStarted = true;
+        }
+        SQLScriptSplitter splitter = SQLScriptSplitter.create(parserContext);
+        List<SQLScriptElement> queries = new LinkedList<>();
+        SQLScriptParser.splitScriptQueries(parserContext, splitter, parseOffset, parseEnd, true, false, queries);
+
+        int completeCount = queries.size();
+        if (!endOfScript) {
+            completeCount = getCompleteCount(queries);
+            if (completeCount == 0) {
+                return;
+            }
+            queries.subList(completeCount, queries.size()).clear();
+        }
+        SQLScriptParser.completeScriptQueries(parserContext, splitter, queries, true);
+        for (SQLScriptElement element : queries) {
+            elements.add(element);
+            elementOffsets.add(chunkOffset + element.getOffset());
+        }
+
+        if (endOfScript) {
+            parseOffset = chunk.length();
+        } else {
+            SQLScriptElement lastElement = queries.get(queries.size() - 1);
+            int parsedLength = lastElement.getOffset() + lastElement.getLength();
+            // Keep one character before the remaining text, rules may check for the line start
+            int removeLength = Math.max(parsedLength - 1, 0);
+            chunk.delete(0, removeLength);
+            chunkOffset += removeLength;
+            parseOffset = parsedLength - removeLength;
+        }
+    }
+
+    /**
+     * Number of leading elements which won't change when more text is read.
+     * The last query may be incomplete, in smart delimiter mode queries without delimiter before it may be joined with it.
+     */
+    private int getCompleteCount(@NotNull List<SQLScriptElement> queries) {
+        int count = queries.size();
+        if (count > 0 && !(queries.get(count - 1) instanceof SQLControlCommand)) {
+            count--;
+            boolean joinsQueries = parserContext.getSyntaxManager().getStatementDelimiterMode().useSmart;
+            while (joinsQueries && count > 0 && queries.get(count - 1) instanceof SQLQuery query && !query.isEndsWithDelimiter()) {
+                count--;
+            }
+        }
+        return count;
+    }
+}
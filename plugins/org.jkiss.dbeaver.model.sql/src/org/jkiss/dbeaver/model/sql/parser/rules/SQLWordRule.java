@@ -17,53 +17,104 @@
 package org.jkiss.dbeaver.model.sql.parser.rules;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLWordTable;
 import org.jkiss.dbeaver.model.text.parser.TPCharacterScanner;
 import org.jkiss.dbeaver.model.text.parser.TPRule;
 import org.jkiss.dbeaver.model.text.parser.TPToken;
 import org.jkiss.dbeaver.model.text.parser.TPTokenAbstract;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
 
 /**
- * Smart word detector
+ * Smart word detector.
+ * <p>
+ * Words are looked up in the compiled word table, its values are word kinds ({@code WORD_*} constants)
+ * optionally combined with the {@link #WORD_FUNCTION} flag. Tokens for the word kinds are supplied by the rule owner,
+ * so the same table can be shared by all rules of the dialect.
  */
 public class SQLWordRule implements TPRule {
 
+    public static final int WORD_KEYWORD = 1;
+    public static final int WORD_TYPE = 2;
+    public static final int WORD_BLOCK_HEADER = 3;
+    public static final int WORD_BLOCK_BEGIN = 4;
+    public static final int WORD_BLOCK_END = 5;
+    public static final int WORD_KIND_MASK = 0xFF;
+    /**
+     * Function name flag, it is combined with the word kind
+     */
+    public static final int WORD_FUNCTION = 1 << 8;
+
     private final SQLDelimiterRule delimRule;
+    private final SQLWordTable<Integer> words;
+    private final TPToken[] wordTokens;
     private final TPToken functionToken;
     private final TPToken defaultToken;
-    private final Map<String, TPToken> words = new HashMap<>();
-    private final Set<String> functions = new HashSet<>();
     private final StringBuilder buffer = new StringBuilder();
     private final SQLDialect dialect;
     private char[][] delimiters;
 
-    public SQLWordRule(SQLDelimiterRule delimRule, TPToken functionToken, TPToken defaultToken, @NotNull SQLDialect dialect) {
+    /**
+     * @param wordTokens tokens indexed by the word kind
+     */
+    public SQLWordRule(
+        SQLDelimiterRule delimRule,
+        @NotNull SQLWordTable<Integer> words,
+        @NotNull TPToken[] wordTokens,
+        TPToken functionToken,
+        TPToken defaultToken,
+        @NotNull SQLDialect dialect
+    ) {
         this.delimRule = delimRule;
+        this.words = words;
+        this.wordTokens = wordTokens;
         this.functionToken = functionToken;
         this.defaultToken = defaultToken;
         this.dialect = dialect;
     }
 
+    /**
+     * Combines flags of the same word added several times: the last word kind wins, function flag is kept
+     */
+    public static int mergeWordFlags(int oldFlags, int newFlags) {
+        if ((newFlags & WORD_KIND_MASK) != 0) {
+            oldFlags &= ~WORD_KIND_MASK;
+        }
+        return oldFlags | newFlags;
+    }
+
     public boolean hasWord(String word) {
-        return words.containsKey(word.toLowerCase());
+        return getWordToken(word) != null;
     }
 
-    public void addWord(String word, TPToken token) {
-        words.put(word.toLowerCase(), token);
+    @Nullable
+    public TPToken getWordToken(String word) {
+        return getWordToken(word, 0, word.length());
+    }
+
+    @Nullable
+    public TPToken getWordToken(@NotNull CharSequence text, int start, int end) {
+        return getKindToken(getWordFlags(text, start, end));
     }
 
     public boolean hasFunction(String function) {
-        return functions.contains(function);
+        return hasFunction(function, 0, function.length());
+    }
+
+    public boolean hasFunction(@NotNull CharSequence text, int start, int end) {
+        return (getWordFlags(text, start, end) & WORD_FUNCTION) != 0;
+    }
+
+    private int getWordFlags(@NotNull CharSequence text, int start, int end) {
+        Integer flags = words.get(text, start, end);
+        return flags == null ? 0 : flags;
     }
 
-    public void addFunction(String function) {
-        functions.add(function.toLowerCase());
+    @Nullable
+    private TPToken getKindToken(int flags) {
+        int kind = flags & WORD_KIND_MASK;
+        return kind < wordTokens.length ? wordTokens[kind] : null;
     }
 
     @Override
@@ -80,10 +131,10 @@ public class SQLWordRule implements TPRule {
             } while (c != TPCharacterScanner.EOF && isWordPart((char) c, prevC, scanner));
             scanner.unread();
 
-            String buffer = this.buffer.toString().toLowerCase();
-            TPToken token = words.get(buffer);
+            int flags = getWordFlags(this.buffer, 0, this.buffer.length());
+            TPToken token = getKindToken(flags);
 
-            if (functions.contains(buffer)) {
+            if ((flags & WORD_FUNCTION) != 0) {
                 int length = 0;
                 while (c != TPCharacterScanner.EOF && Character.isWhitespace(c)) {
                     c = scanner.read();
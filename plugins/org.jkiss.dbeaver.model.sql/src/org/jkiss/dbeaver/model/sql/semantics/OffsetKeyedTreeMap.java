@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.model.sql.semantics;
 
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.utils.ListNode;
 
 import java.util.Iterator;
 import java.util.Set;
@@ -523,7 +524,9 @@ public class OffsetKeyedTreeMap<T> {
                 public boolean next() {
                     if (this.initial && initialLocation.node.isSentinel()) {
                         // the exact initial position not found, so proceed with its parent
-                        NodeAndOffset<T> parentLocation = new NodeAndOffset<>(initialLocation.parent, position - initialLocation.offset);
+                        NodeAndOffset<T> parentLocation = new NodeAndOffset<>(
+                            initialLocation.parent, position - initialLocation.offset - (initialLocation.isLeft ? 0 : initialLocation.parent.offset)
+                        );
                         this.currentLocation = initialLocation.isLeft ? parentLocation : findNext(parentLocation);
                     } else if (this.afterLast) {
                         return false;
@@ -945,12 +948,17 @@ public class OffsetKeyedTreeMap<T> {
         if (delta == 0) {
             return;
         }
-        if (delta < 0) {
-            throw new UnsupportedOperationException("Negative delta not supported at the moment");
-        }
         if (this.size == 0) {
             return;
         }
+        if (delta < 0) {
+            // fragment [position, position - delta) is being removed, entries after it are moved to its start
+            this.removeRange(position, position - delta);
+            position -= delta;
+            if (this.size == 0) {
+                return;
+            }
+        }
 
         NodeAndParentAtOffset<T> location = this.findImpl(position);
         if (location.node.isSentinel() && location.isLeft) {
@@ -1046,6 +1054,55 @@ public class OffsetKeyedTreeMap<T> {
         return sb.toString();
     }
 
+    /**
+     * Remove all the entries with keys in the range [from, to)
+     */
+    public void removeRange(int from, int to) {
+        ListNode<Integer> keyOffsetsToRemove = null;
+        NodesIterator<T> it = this.nodesIteratorAt(from);
+        if (it.getCurrValue() != null) {
+            keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
+        }
+        while (it.next() && it.getCurrOffset() < to) {
+            keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
+        }
+        for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
+            this.removeAt(kn.data);
+        }
+        if (this.tombstonesCount > 0 && this.hasNodesInRange(from, to)) {
+            // tombstones would break keys order when the following nodes are moved over them
+            this.compact();
+        }
+    }
+
+    private boolean hasNodesInRange(int from, int to) {
+        Node<T> node = this.root;
+        int base = 0;
+        while (node.isNotSentinel()) {
+            int key = base + node.offset;
+            if (key < from) {
+                base = key;
+                node = node.right;
+            } else if (key >= to) {
+                node = node.left;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compact() {
+        var t = new OffsetKeyedTreeMap<T>();
+        NodesIterator<T> it = this.nodesIteratorAt(Integer.MAX_VALUE);
+        while (it.prev()) {
+            t.put(it.getCurrOffset(), it.getCurrValue());
+        }
+        this.root = t.root;
+        this.size = t.size;
+        this.tombstonesCount = 0;
+    }
+
     public boolean removeAt(int position) {
         NodeAndParentAtOffset<T> location = this.findImpl(position);
         if (location.node.isNotSentinel()) {
@@ -1079,14 +1136,7 @@ public class OffsetKeyedTreeMap<T> {
                 z.content = null;
                 this.tombstonesCount++;
                 if (this.tombstonesCount > this.size / 2) {
-                    var t = new OffsetKeyedTreeMap<T>();
-                    NodesIterator<T> it = this.nodesIteratorAt(Integer.MAX_VALUE);
-                    while (it.prev()) {
-                        t.put(it.getCurrOffset(), it.getCurrValue());
-                    }
-                    this.root = t.root;
-                    this.size = t.size;
-                    this.tombstonesCount = 0;
+                    this.compact();
                 }
                 return;
             }
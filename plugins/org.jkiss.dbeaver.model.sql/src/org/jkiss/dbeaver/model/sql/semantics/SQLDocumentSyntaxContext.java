@@ -184,6 +184,7 @@ public class SQLDocumentSyntaxContext {
             length
         );
         scriptItem.setHasContextBoundaryAtLength(hasContextBoundaryAtLength);
+        this.dropOverlappedScriptItems(offset, length);
         SQLDocumentScriptItemSyntaxContext oldScriptItem = this.scriptItems.put(offset, scriptItem);
         if (oldScriptItem != scriptItem && oldScriptItem != null) {
             this.forEachListener(l -> l.onScriptItemInvalidated(oldScriptItem));
@@ -192,6 +193,28 @@ public class SQLDocumentSyntaxContext {
         return scriptItem;
     }
 
+    /**
+     * Find script item registered exactly at the given offset
+     */
+    @Nullable
+    public SQLDocumentScriptItemSyntaxContext findScriptItemAt(int offset) {
+        return this.scriptItems.find(offset);
+    }
+
+    private void dropOverlappedScriptItems(int offset, int length) {
+        // items which were separate before the modification may become a part of the new one
+        ListNode<Integer> keyOffsetsToRemove = null;
+        NodesIterator<SQLDocumentScriptItemSyntaxContext> it = this.scriptItems.nodesIteratorAt(offset);
+        while (it.next() && it.getCurrOffset() < offset + length) {
+            SQLDocumentScriptItemSyntaxContext item = it.getCurrValue();
+            keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
+            this.forEachListener(l -> l.onScriptItemInvalidated(item));
+        }
+        for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
+            this.scriptItems.removeAt(kn.data);
+        }
+    }
+
     /**
      * Update script items according to the document text changes
      */
@@ -199,63 +222,41 @@ public class SQLDocumentSyntaxContext {
     public IRegion applyDelta(int offset, int oldLength, int newLength) {
         IRegion affectedRegion;
         if (oldLength > 0) {
-            // TODO:
-            //   if oldLength fits in one scriptItem, them remove some part of it using split-join operation
-            //   otherwise, drop all the scriptItems in oldLength range and apply newLength-oldLength as offset for all the tailing
-
-            int delta = newLength - oldLength;
-
-            // temporary solution - just explicitly drop what was invalidated starting at the current position
-            {
-                // otherwise just drop the whole tail being affected
-                ListNode<Integer> keyOffsetsToRemove = null;
-                NodesIterator<SQLDocumentScriptItemSyntaxContext> it = this.scriptItems.nodesIteratorAt(offset);
-                SQLDocumentScriptItemSyntaxContext currItem = it.getCurrValue();
-                int currOffset = it.getCurrOffset();
-                int lastAffectedOffset = currOffset;
-                if (currItem != null) {
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, currOffset);
-                    this.forEachListener(l -> l.onScriptItemInvalidated(currItem));
-                    lastAffectedOffset = currOffset + currItem.length();
-                } else if (it.prev() && it.getCurrValue() != null) {
-                    currOffset = it.getCurrOffset();
-                    SQLDocumentScriptItemSyntaxContext currItem2 = it.getCurrValue();
-                    if (currOffset <= offset && currOffset + currItem2.length() > offset) {
-                        keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, currOffset);
-                        this.forEachListener(l -> l.onScriptItemInvalidated(currItem2));
-                        lastAffectedOffset = currOffset + currItem2.length();
-                    }
-                } else {
-                    lastAffectedOffset = offset + oldLength;
-                }
-                while (it.next() && it.getCurrValue() != null && (delta < 0 || lastAffectedOffset <= (offset + oldLength))) {
-                    currOffset = it.getCurrOffset();
-                    SQLDocumentScriptItemSyntaxContext currItem3 = it.getCurrValue();
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, currOffset);
-                    this.forEachListener(l -> l.onScriptItemInvalidated(currItem3));
-                    lastAffectedOffset = currOffset + currItem3.length();
-                }
-                int firstAffectedOffset = 0;
-                for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
-                    firstAffectedOffset = kn.data;
-                    this.scriptItems.removeAt(kn.data);
-                }
-                if (delta > 0) { // when delta is non-negative, we are dropping only the affected region and applying offset for the rest
-                    this.scriptItems.applyOffset(offset, delta);
-                }
-
-                if (keyOffsetsToRemove != null) {
-                    affectedRegion = new Region(firstAffectedOffset, lastAffectedOffset - firstAffectedOffset - oldLength + newLength);
-                } else {
-                    affectedRegion = null;
+            // drop the script items touched by the modified fragment and move the following ones
+            int removedEnd = offset + oldLength;
+            ListNode<Integer> keyOffsetsToRemove = null;
+            int firstAffectedOffset = offset;
+            int lastAffectedOffset = removedEnd;
+            NodesIterator<SQLDocumentScriptItemSyntaxContext> it = this.scriptItems.nodesIteratorAt(offset);
+            if (it.getCurrValue() == null && it.prev()) {
+                SQLDocumentScriptItemSyntaxContext prevItem = it.getCurrValue();
+                if (it.getCurrOffset() + prevItem.length() > offset) {
+                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
+                    this.forEachListener(l -> l.onScriptItemInvalidated(prevItem));
+                    firstAffectedOffset = it.getCurrOffset();
+                    lastAffectedOffset = Math.max(lastAffectedOffset, it.getCurrOffset() + prevItem.length());
                 }
+                it = this.scriptItems.nodesIteratorAt(offset);
+            }
+            // the item starting right at the end of the fragment may join the modified one
+            boolean hasItem = it.getCurrValue() != null || it.next();
+            while (hasItem && it.getCurrOffset() <= removedEnd) {
+                SQLDocumentScriptItemSyntaxContext currItem = it.getCurrValue();
+                keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
+                this.forEachListener(l -> l.onScriptItemInvalidated(currItem));
+                lastAffectedOffset = Math.max(lastAffectedOffset, it.getCurrOffset() + currItem.length());
+                hasItem = it.next();
+            }
+            for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
+                this.scriptItems.removeAt(kn.data);
             }
-            // TODO removeAtRange(..) is needed either way
+            this.scriptItems.applyOffset(offset, newLength - oldLength);
 
+            affectedRegion = new Region(firstAffectedOffset, lastAffectedOffset - firstAffectedOffset - oldLength + newLength);
         } else { // simple insertion
             SQLScriptItemAtOffset scriptItem = this.findScriptItem(offset);
             if (scriptItem != null) {
-                scriptItem.item.applyDelta(offset, oldLength, newLength);
+                scriptItem.item.applyDelta(offset - scriptItem.offset, oldLength, newLength);
                 int affectedStart = Math.min(scriptItem.offset, offset);
                 int affectedEnd = Math.max(scriptItem.offset + scriptItem.item.length(), offset + newLength);
                 affectedRegion = new Region(affectedStart, affectedEnd - affectedStart);
@@ -286,6 +286,10 @@ public class SQLQueryModelRecognizer {
             && this.executionContext.getDataSource() instanceof DBSObjectContainer
             && this.executionContext.getDataSource().getSQLDialect() instanceof BasicSQLDialect basicSQLDialect
         ) {
+            SQLQueryDataContext sharedContext = this.recognitionContext.getSharedDataSourceContext();
+            if (sharedContext != null) {
+                return sharedContext;
+            }
             Map<String, SQLQueryResultPseudoColumn> globalPseudoColumns = Stream.of(basicSQLDialect.getGlobalVariables())
                 .map(v -> new SQLQueryResultPseudoColumn(
                     new SQLQuerySymbol(SQLUtils.identifierToCanonicalForm(basicSQLDialect, v.name(), false, false)),
@@ -305,12 +309,17 @@ public class SQLQueryModelRecognizer {
                     );
                 } catch (DBException e) {
                     this.recognitionContext.appendError(root, "Failed to obtain global pseudo-columns information", e);
-                    rowsetPseudoColumns = s -> Collections.emptyList();
+                    // don't share the incomplete context, so the next query would try again
+                    return new SQLQueryDataSourceContext(this.dialect, this.executionContext, globalPseudoColumns, s -> Collections.emptyList());
                 }
             } else {
                 rowsetPseudoColumns = s -> Collections.emptyList();
             }
-            return new SQLQueryDataSourceContext(this.dialect, this.executionContext, globalPseudoColumns, rowsetPseudoColumns);
+            SQLQueryDataContext dataSourceContext = new SQLQueryDataSourceContext(
+                this.dialect, this.executionContext, globalPseudoColumns, rowsetPseudoColumns
+            );
+            this.recognitionContext.setSharedDataSourceContext(dataSourceContext);
+            return dataSourceContext;
         } else {
             Set<String> allColumnNames = new HashSet<>();
             Set<List<String>> allTableNames = new HashSet<>();
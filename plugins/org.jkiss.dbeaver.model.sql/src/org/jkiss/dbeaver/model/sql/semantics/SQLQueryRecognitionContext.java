@@ -23,12 +23,14 @@ import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.semantics.context.SQLQueryDataContext;
 import org.jkiss.dbeaver.model.stm.STMTreeNode;
 
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Accumulates the statistics about recognition process
@@ -52,6 +54,12 @@ public class SQLQueryRecognitionContext {
     @NotNull
     private final Deque<SQLQueryRecognitionProblemInfo> problems = new LinkedList<>();
 
+    /**
+     * Root data context with the database metadata access, shared by all the queries recognized with this context and its forks
+     */
+    @NotNull
+    private final AtomicReference<SQLQueryDataContext> sharedDataSourceContext;
+
     private boolean errorsAsWarnings = false;
 
     public SQLQueryRecognitionContext(
@@ -66,6 +74,26 @@ public class SQLQueryRecognitionContext {
         this.useRealMetadata = useRealMetadata;
         this.syntaxManager = syntaxManager;
         this.dialect = dialect;
+        this.sharedDataSourceContext = new AtomicReference<>();
+    }
+
+    private SQLQueryRecognitionContext(@NotNull SQLQueryRecognitionContext parent, @NotNull DBRProgressMonitor monitor) {
+        this.monitor = monitor;
+        this.executionContext = parent.executionContext;
+        this.useRealMetadata = parent.useRealMetadata;
+        this.syntaxManager = parent.syntaxManager;
+        this.dialect = parent.dialect;
+        this.errorsAsWarnings = parent.errorsAsWarnings;
+        this.sharedDataSourceContext = parent.sharedDataSourceContext;
+    }
+
+    /**
+     * Prepare the context for recognition of another query in parallel with this one.
+     * The problems are collected separately, while the database metadata context is shared.
+     */
+    @NotNull
+    public SQLQueryRecognitionContext fork(@NotNull DBRProgressMonitor monitor) {
+        return new SQLQueryRecognitionContext(this, monitor);
     }
 
     public void setTreatErrorAsWarnings(boolean errorsAsWarnings) {
@@ -100,6 +128,15 @@ public class SQLQueryRecognitionContext {
         return this.dialect;
     }
 
+    @Nullable
+    SQLQueryDataContext getSharedDataSourceContext() {
+        return this.sharedDataSourceContext.get();
+    }
+
+    void setSharedDataSourceContext(@NotNull SQLQueryDataContext dataSourceContext) {
+        this.sharedDataSourceContext.compareAndSet(null, dataSourceContext);
+    }
+
     @NotNull
     public List<SQLQueryRecognitionProblemInfo> getProblems() {
         return new ArrayList<>(this.problems);
@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.transformers;
+
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.sql.*;
+import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.List;
+
+/**
+ * SQLQueryTransformerAggregate.
+ * Wraps SQL query into SELECT with aggregate expressions (e.g. SUM(col), COUNT(DISTINCT col)).
+ * Aggregates are evaluated by the server over the whole query result.
+*/
+public class SQLQueryTransformerAggregate implements SQLQueryTransformer {
+
+    private static final Log log = Log.getLog(SQLQueryTransformerAggregate.class);
+
+    private static final String AGGREGATE_WRAP_ALIAS = "dbvragg";
+
+    @NotNull
+    private final List<String> expressions;
+
+    public SQLQueryTransformerAggregate(@NotNull List<String> expressions) {
+        this.expressions = expressions;
+    }
+
+    @Override
+    public SQLQuery transformQuery(DBPDataSource dataSource, SQLSyntaxManager syntaxManager, SQLQuery query) throws DBException {
+        if (expressions.isEmpty()) {
+            throw new DBException("No aggregate expressions");
+        }
+        if (!dataSource.getSQLDialect().supportsSubqueries()) {
+            throw new DBException("Aggregation of query results requires subqueries support");
+        }
+        String queryText = null;
+        try {
+            // Orderings do not affect aggregates but may be expensive
+            Statement statement = SQLSemanticProcessor.parseQuery(query.getText());
+            if (statement instanceof Select) {
+                SelectBody selectBody = ((Select) statement).getSelectBody();
+                if (selectBody instanceof PlainSelect && !CommonUtils.isEmpty(((PlainSelect) selectBody).getOrderByElements())) {
+                    ((PlainSelect) selectBody).setOrderByElements(null);
+                    queryText = statement.toString();
+                }
+            }
+        } catch (Throwable e) {
+            log.debug("Error parsing query for aggregate transformation: " + e.getMessage());
+        }
+        if (queryText == null) {
+            queryText = query.getText();
+        }
+        String srcQuery = SQLUtils.trimQueryStatement(syntaxManager, queryText, true);
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < expressions.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(expressions.get(i));
+        }
+        sql.append(" FROM (\n").append(srcQuery).append("\n) ").append(AGGREGATE_WRAP_ALIAS);
+        return new SQLQuery(dataSource, sql.toString(), query, false);
+    }
+}
@@ -185,10 +185,14 @@ public final class ModelPreferences
     public static final String CONNECTION_VALIDATION_TIMEOUT = "connection.validation.timeout"; //$NON-NLS-1$
     public static final String CONNECTION_CLOSE_ON_SLEEP = "connection.closeOnSleep"; //$NON-NLS-1$
     public static final String CONNECTION_CLOSE_TIMEOUT = "connection.close.timeout"; //$NON-NLS-1$
+    public static final String CONNECTION_STATEMENT_CACHE_SIZE = "connection.statement.cache.size"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_MAX_IDLE = "connection.pool.maxIdle"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_IDLE_TIMEOUT = "connection.pool.idleTimeout"; //$NON-NLS-1$
 
     public static final String SCRIPT_STATEMENT_DELIMITER = "script.sql.delimiter"; //$NON-NLS-1$
     public static final String SCRIPT_IGNORE_NATIVE_DELIMITER = "script.sql.ignoreNativeDelimiter"; //$NON-NLS-1$
     public static final String SCRIPT_STATEMENT_DELIMITER_BLANK = "script.sql.delimiter.blank"; //$NON-NLS-1$
+    public static final String SCRIPT_BATCH_INSERTS = "script.batch.inserts"; //$NON-NLS-1$
     public static final String QUERY_REMOVE_TRAILING_DELIMITER = "script.sql.query.remove.trailing.delimiter"; //$NON-NLS-1$
 
     public static final String MEMORY_CONTENT_MAX_SIZE = "content.memory.maxsize"; //$NON-NLS-1$
@@ -314,11 +318,15 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_VALIDATION_TIMEOUT, 10000);
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_CLOSE_ON_SLEEP, RuntimeUtils.isMacOS());
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_CLOSE_TIMEOUT, 5000);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_STATEMENT_CACHE_SIZE, 50);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_MAX_IDLE, 2);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_IDLE_TIMEOUT, 300000);
 
         // SQL execution
         PrefUtils.setDefaultPreferenceValue(store, SCRIPT_STATEMENT_DELIMITER, SQLConstants.DEFAULT_STATEMENT_DELIMITER);
         PrefUtils.setDefaultPreferenceValue(store, SCRIPT_IGNORE_NATIVE_DELIMITER, false);
         PrefUtils.setDefaultPreferenceValue(store, SCRIPT_STATEMENT_DELIMITER_BLANK, SQLScriptStatementDelimiterMode.BLANK_LINE_AND_SEPARATOR);
+        PrefUtils.setDefaultPreferenceValue(store, SCRIPT_BATCH_INSERTS, false);
         PrefUtils.setDefaultPreferenceValue(store, QUERY_REMOVE_TRAILING_DELIMITER, true);
 
         PrefUtils.setDefaultPreferenceValue(store, MEMORY_CONTENT_MAX_SIZE, 10000);
@@ -362,6 +370,7 @@ public final class ModelPreferences
 
         // QM
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_HISTORY_DAYS, 90);
+        PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_HISTORY_MAX_SIZE, 512);
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_ENTRIES_PER_PAGE, 200);
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_OBJECT_TYPES,
             QMObjectType.toString(Arrays.asList(QMObjectType.txn, QMObjectType.query)));
@@ -20,18 +20,32 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * FunctionCountDistinct
+ * FunctionCountDistinct.
+ * Counts exactly until {@link #EXACT_THRESHOLD} distinct values, then switches to HyperLogLog estimation.
  */
 public class FunctionCountDistinct implements IAggregateFunction {
 
+    public static final int EXACT_THRESHOLD = 100_000;
+
     private int count = 0;
     private Set<Object> cache = new HashSet<>();
+    private CardinalityEstimator estimator;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
-        if (!cache.contains(value)) {
+        if (estimator != null) {
+            estimator.add(value);
+            return true;
+        }
+        if (cache.add(value)) {
             count++;
-            cache.add(value);
+            if (count > EXACT_THRESHOLD) {
+                estimator = new CardinalityEstimator();
+                for (Object cachedValue : cache) {
+                    estimator.add(cachedValue);
+                }
+                cache = null;
+            }
             return true;
         }
         return false;
@@ -39,6 +53,9 @@ public class FunctionCountDistinct implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (estimator != null) {
+            return estimator.estimate();
+        }
         return count;
     }
 }
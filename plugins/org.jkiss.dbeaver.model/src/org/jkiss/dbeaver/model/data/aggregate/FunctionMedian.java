@@ -22,26 +22,57 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Median
+ * Median.
+ * Exact until {@link #EXACT_THRESHOLD} numeric values, then approximated with {@link QuantileDigest}.
  */
 public class FunctionMedian implements IAggregateFunction {
 
     private static final Log log = Log.getLog(FunctionMedian.class);
 
-    private final List<Comparable<?>> cache = new ArrayList<>();
+    public static final int EXACT_THRESHOLD = 100_000;
+
+    private List<Comparable<?>> cache = new ArrayList<>();
+    private QuantileDigest digest;
+    private boolean hasNonNumeric;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
         value = FunctionNumeric.getComparable(value, aggregateAsStrings);
-        if (value != null) {
-            cache.add((Comparable<?>) value);
-            return true;
+        if (value == null) {
+            return false;
+        }
+        if (digest != null) {
+            if (value instanceof Number) {
+                digest.add(((Number) value).doubleValue());
+                return true;
+            }
+            // Mixed values can't be estimated
+            return false;
+        }
+        if (!(value instanceof Number)) {
+            // Non-numeric values are compared as is, keep exact calculation
+            hasNonNumeric = true;
+        }
+        cache.add((Comparable<?>) value);
+        if (!hasNonNumeric && cache.size() > EXACT_THRESHOLD) {
+            switchToDigest();
         }
-        return false;
+        return true;
+    }
+
+    private void switchToDigest() {
+        digest = new QuantileDigest();
+        for (Comparable<?> cachedValue : cache) {
+            digest.add(((Number) cachedValue).doubleValue());
+        }
+        cache = null;
     }
 
     @Override
     public Object getResult(int valueCount) {
+        if (digest != null) {
+            return digest.quantile(0.5);
+        }
         try {
             cache.sort(AggregateUtils::compareValues);
         } catch (Exception e) {
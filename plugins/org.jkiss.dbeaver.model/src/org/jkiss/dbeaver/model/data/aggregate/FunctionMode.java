@@ -16,15 +16,19 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Mode
  */
 public class FunctionMode implements IAggregateFunction {
 
-    private final List<Object> cache = new ArrayList<>();
+    // Value -> [count, first occurrence]
+    private final Map<Object, int[]> counts = new HashMap<>();
+    private int valueIndex;
+    private Object maxValue;
+    private int[] maxCount;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
@@ -33,7 +37,14 @@ public class FunctionMode implements IAggregateFunction {
             value = num;
         }
         if (value != null) {
-            cache.add(value);
+            int index = valueIndex++;
+            int[] count = counts.computeIfAbsent(value, k -> new int[] { 0, index });
+            count[0]++;
+            // On ties the value which occurred first wins
+            if (maxCount == null || count[0] > maxCount[0] || (count[0] == maxCount[0] && count[1] < maxCount[1])) {
+                maxCount = count;
+                maxValue = value;
+            }
             return true;
         }
         return false;
@@ -41,24 +52,6 @@ public class FunctionMode implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
-        Object maxValue = null;
-        int maxCount = 0;
-
-        for (int i = 0; i < cache.size(); ++i) {
-            int count = 0;
-            for (int j = 0; j < cache.size(); ++j) {
-                if (cache.get(j).equals(cache.get(i))) {
-                    count++;
-                }
-            }
-            if (count > maxCount) {
-                maxCount = count;
-                maxValue = cache.get(i);
-            }
-        }
-//        if (maxCount <= 1) {
-//            return null;
-//        }
         return maxValue;
     }
 }
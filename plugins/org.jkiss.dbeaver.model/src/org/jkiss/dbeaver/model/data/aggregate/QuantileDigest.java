@@ -0,0 +1,166 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest. Approximates quantiles of a numeric stream in constant memory.
+ * Centroids near the tails are kept small, so extreme quantiles stay accurate while the median
+ * is typically within a fraction of a percent of the exact value.
+ */
+public class QuantileDigest {
+
+    private static final int DEFAULT_COMPRESSION = 200;
+
+    private final double compression;
+
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+
+    private final double[] buffer;
+    private int bufferSize;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public QuantileDigest(int compression) {
+        this.compression = compression;
+        this.means = new double[compression * 2];
+        this.weights = new double[compression * 2];
+        this.buffer = new double[compression * 10];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferSize == buffer.length) {
+            flush();
+        }
+        buffer[bufferSize++] = value;
+        totalWeight++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long size() {
+        return (long) totalWeight;
+    }
+
+    public double quantile(double q) {
+        flush();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        double index = q * totalWeight;
+        if (index <= weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        double cumulative = 0;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double leftCenter = cumulative + weights[i] / 2;
+            double rightCenter = cumulative + weights[i] + weights[i + 1] / 2;
+            if (index <= rightCenter) {
+                double fraction = (index - leftCenter) / (rightCenter - leftCenter);
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += weights[i];
+        }
+        int last = centroidCount - 1;
+        double lastCenter = totalWeight - weights[last] / 2;
+        double fraction = (index - lastCenter) / (totalWeight - lastCenter);
+        return means[last] + (max - means[last]) * Math.min(1.0, fraction);
+    }
+
+    private void flush() {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+
+        int mergedCount = centroidCount + bufferSize;
+        double[] newMeans = new double[Math.max(means.length, 16)];
+        double[] newWeights = new double[newMeans.length];
+        int newCount = 0;
+
+        // Merge sorted centroids with sorted buffer
+        int ci = 0, bi = 0;
+        double curMean = 0, curWeight = 0, weightSoFar = 0;
+        for (int i = 0; i < mergedCount; i++) {
+            double mean, weight;
+            if (bi >= bufferSize || (ci < centroidCount && means[ci] <= buffer[bi])) {
+                mean = means[ci];
+                weight = weights[ci];
+                ci++;
+            } else {
+                mean = buffer[bi];
+                weight = 1;
+                bi++;
+            }
+            if (curWeight == 0) {
+                curMean = mean;
+                curWeight = weight;
+                continue;
+            }
+            double q = (weightSoFar + curWeight + weight) / totalWeight;
+            double limit = 4 * totalWeight * q * (1 - q) / compression;
+            if (curWeight + weight <= Math.max(1, limit)) {
+                curWeight += weight;
+                curMean += (mean - curMean) * weight / curWeight;
+            } else {
+                if (newCount == newMeans.length) {
+                    newMeans = Arrays.copyOf(newMeans, newCount * 2);
+                    newWeights = Arrays.copyOf(newWeights, newCount * 2);
+                }
+                newMeans[newCount] = curMean;
+                newWeights[newCount] = curWeight;
+                newCount++;
+                weightSoFar += curWeight;
+                curMean = mean;
+                curWeight = weight;
+            }
+        }
+        if (curWeight > 0) {
+            if (newCount == newMeans.length) {
+                newMeans = Arrays.copyOf(newMeans, newCount + 1);
+                newWeights = Arrays.copyOf(newWeights, newCount + 1);
+            }
+            newMeans[newCount] = curMean;
+            newWeights[newCount] = curWeight;
+            newCount++;
+        }
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = newCount;
+        bufferSize = 0;
+    }
+
+}
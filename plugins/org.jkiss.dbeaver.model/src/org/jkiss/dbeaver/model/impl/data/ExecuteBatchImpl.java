@@ -33,6 +33,8 @@ import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -51,6 +53,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
     protected final List<Object[]> values = new ArrayList<>();
     protected final DBDDataReceiver keysReceiver;
     protected final boolean reuseStatement;
+    private int failedRowIndex = -1;
 
     /**
      * Constructs new batch
@@ -119,6 +122,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
         DBCStatistics statistics = new DBCStatistics();
         DBCStatement statement = null;
+        failedRowIndex = -1;
 
         try {
             // Here we'll try to reuse prepared statement.
@@ -129,6 +133,8 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             boolean[] prevNulls = new boolean[attributes.length];
             boolean[] nulls = new boolean[attributes.length];
             int statementsInBatch = 0;
+            // Batch is flushed each time the statement changes, so update counts are relative to this row
+            int batchStartRow = 0;
 
             for (int rowIndex = 0; rowIndex < values.size(); rowIndex++) {
                 Object[] rowValues = values.get(rowIndex);
@@ -151,11 +157,12 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                     if (!reuse && statementsInBatch > 0) {
                         // Flush batch
                         if (actions == null) {
-                            flushBatch(statistics, statement);
+                            flushBatch(statistics, statement, batchStartRow, statementsInBatch);
                         }
                         statement.close();
                         statement = null;
                         statementsInBatch = 0;
+                        batchStartRow = rowIndex;
                         reuse = true;
                     }
                 }
@@ -175,7 +182,12 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                         } else {
                             // Execute each row separately
                             long startTime = System.currentTimeMillis();
-                            executeStatement(statistics, statement);
+                            try {
+                                executeStatement(statistics, statement);
+                            } catch (DBCException e) {
+                                failedRowIndex = rowIndex;
+                                throw e;
+                            }
                             statistics.addExecuteTime(System.currentTimeMillis() - startTime);
 
                             long rowCount = statement.getUpdateRowCount();
@@ -208,7 +220,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
             if (statementsInBatch > 0) {
                 if (actions == null) {
-                    flushBatch(statistics, statement);
+                    flushBatch(statistics, statement, batchStartRow, statementsInBatch);
                 }
                 statement.close();
                 statement = null;
@@ -285,6 +297,34 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return formatted.toString();
     }
 
+    private void flushBatch(DBCStatistics statistics, DBCStatement statement, int batchStartRow, int batchSize) throws DBCException {
+        try {
+            flushBatch(statistics, statement);
+        } catch (DBCException e) {
+            int failedIndex = getFailedBatchIndex(e, batchSize);
+            failedRowIndex = failedIndex < 0 ? -1 : batchStartRow + failedIndex;
+            throw e;
+        }
+    }
+
+    /**
+     * Drivers either stop on the first failed row or mark failed rows in update counts
+     */
+    private static int getFailedBatchIndex(@NotNull Throwable error, int batchSize) {
+        for (Throwable ex = error; ex != null; ex = ex.getCause()) {
+            if (ex instanceof BatchUpdateException bue && bue.getUpdateCounts() != null) {
+                int[] updateCounts = bue.getUpdateCounts();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                        return i;
+                    }
+                }
+                return updateCounts.length < batchSize ? updateCounts.length : -1;
+            }
+        }
+        return -1;
+    }
+
     void flushBatch(DBCStatistics statistics, DBCStatement statement) throws DBCException {
         long startTime = System.currentTimeMillis();
         long[] updatedRows = statement.executeStatementBatch();
@@ -320,6 +360,11 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         }
     }
 
+    @Override
+    public int getFailedRowIndex() {
+        return failedRowIndex;
+    }
+
     @Override
     public void close()
     {
@@ -77,6 +77,8 @@ public abstract class AbstractSQLDialect implements SQLDialect {
     }
     // Keywords
     private final TreeMap<String, KeywordHolder> allKeywords = new TreeMap<>();
+    // Compiled keyword types, reset on keywords change. Keywords and compiled types are guarded by allKeywords
+    private volatile SQLWordTable<DBPKeywordType> keywordTypes;
 
     // avoiding ConcurrentModificationException (CB-5521)
     private final ConcurrentNavigableMap<String, String> reservedWords = new ConcurrentSkipListMap<>();
@@ -130,13 +132,19 @@ public abstract class AbstractSQLDialect implements SQLDialect {
     protected void addSQLKeyword(String keyword) {
         String ciWord = keyword.toUpperCase(DEF_LOCALE);
         reservedWords.put(ciWord, keyword);
-        allKeywords.put(ciWord, new KeywordHolder(DBPKeywordType.KEYWORD, keyword));
+        synchronized (allKeywords) {
+            allKeywords.put(ciWord, new KeywordHolder(DBPKeywordType.KEYWORD, keyword));
+            keywordTypes = null;
+        }
     }
 
     protected void removeSQLKeyword(String keyword) {
         String ciWord = keyword.toUpperCase(DEF_LOCALE);
         reservedWords.remove(ciWord);
-        allKeywords.remove(ciWord);
+        synchronized (allKeywords) {
+            allKeywords.remove(ciWord);
+            keywordTypes = null;
+        }
     }
 
     protected void addSQLKeywords(Collection<String> allKeywords) {
@@ -202,15 +210,18 @@ public abstract class AbstractSQLDialect implements SQLDialect {
      */
     protected void addKeywords(Collection<String> set, DBPKeywordType type) {
         if (set != null) {
-            for (String keyword : set) {
-                String ciKeyword = keyword.toUpperCase(DEF_LOCALE);
-                reservedWords.put(ciKeyword, keyword);
-                KeywordHolder oldType = allKeywords.get(ciKeyword);
-                if (oldType == null || oldType.type != DBPKeywordType.KEYWORD) {
-                    // We can't mark keywords as functions or types because keywords are reserved and
-                    // if some identifier conflicts with keyword it must be quoted.
-                    allKeywords.put(ciKeyword, new KeywordHolder(type, keyword));
+            synchronized (allKeywords) {
+                for (String keyword : set) {
+                    String ciKeyword = keyword.toUpperCase(DEF_LOCALE);
+                    reservedWords.put(ciKeyword, keyword);
+                    KeywordHolder oldType = allKeywords.get(ciKeyword);
+                    if (oldType == null || oldType.type != DBPKeywordType.KEYWORD) {
+                        // We can't mark keywords as functions or types because keywords are reserved and
+                        // if some identifier conflicts with keyword it must be quoted.
+                        allKeywords.put(ciKeyword, new KeywordHolder(type, keyword));
+                    }
                 }
+                keywordTypes = null;
             }
         }
     }
@@ -239,8 +250,21 @@ public abstract class AbstractSQLDialect implements SQLDialect {
 
     @Override
     public DBPKeywordType getKeywordType(@NotNull String word) {
-        KeywordHolder keywordHolder = allKeywords.get(word.toUpperCase(DEF_LOCALE));
-        return keywordHolder == null ? null : keywordHolder.type;
+        SQLWordTable<DBPKeywordType> types = keywordTypes;
+        if (types == null) {
+            synchronized (allKeywords) {
+                types = keywordTypes;
+                if (types == null) {
+                    SQLWordTable.Builder<DBPKeywordType> builder = SQLWordTable.builder();
+                    for (Map.Entry<String, KeywordHolder> keyword : allKeywords.entrySet()) {
+                        builder.put(keyword.getKey(), keyword.getValue().type);
+                    }
+                    types = builder.build();
+                    keywordTypes = types;
+                }
+            }
+        }
+        return types.get(word);
     }
 
     @NotNull
@@ -248,11 +272,13 @@ public abstract class AbstractSQLDialect implements SQLDialect {
     public List<String> getMatchedKeywords(@NotNull String word) {
         word = word.toUpperCase(DEF_LOCALE);
         List<String> result = new ArrayList<>();
-        for (Map.Entry<String, KeywordHolder> keyword : allKeywords.tailMap(word).entrySet()) {
-            if (keyword.getKey().startsWith(word)) {
-                result.add(keyword.getValue().original);
-            } else {
-                break;
+        synchronized (allKeywords) {
+            for (Map.Entry<String, KeywordHolder> keyword : allKeywords.tailMap(word).entrySet()) {
+                if (keyword.getKey().startsWith(word)) {
+                    result.add(keyword.getValue().original);
+                } else {
+                    break;
+                }
             }
         }
         return result;
@@ -260,8 +286,10 @@ public abstract class AbstractSQLDialect implements SQLDialect {
 
     @Override
     public boolean isKeywordStart(@NotNull String word) {
-        SortedMap<String, KeywordHolder> map = allKeywords.tailMap(word.toUpperCase(DEF_LOCALE));
-        return !map.isEmpty() && map.firstKey().startsWith(word);
+        synchronized (allKeywords) {
+            SortedMap<String, KeywordHolder> map = allKeywords.tailMap(word.toUpperCase(DEF_LOCALE));
+            return !map.isEmpty() && map.firstKey().startsWith(word);
+        }
     }
 
     @Override
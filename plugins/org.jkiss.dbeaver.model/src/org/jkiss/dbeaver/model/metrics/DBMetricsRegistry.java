@@ -0,0 +1,236 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.metrics;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide metrics registry.
+ * <p>
+ * Metrics are grouped in families: all series of a family have the same name, type and label names.
+ * Recording is disabled by default, callers check {@link #isEnabled()} before measuring anything.
+ * It can be enabled with the {@code -Ddbeaver.metrics.enabled=true} command line argument (e.g. in headless runs)
+ * or by the application which exports metrics.
+ * Metrics are exported in the Prometheus text format, histograms are exported as summaries.
+ */
+public class DBMetricsRegistry {
+
+    private static final Log log = Log.getLog(DBMetricsRegistry.class);
+
+    /**
+     * System property which enables metrics recording on startup
+     */
+    public static final String PROP_METRICS_ENABLED = "dbeaver.metrics.enabled";
+
+    /**
+     * Maximum number of series in one family, protects from unbounded label values
+     */
+    public static final int MAX_FAMILY_SERIES = 1000;
+
+    private static final double[] EXPORTED_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final DBMetricsRegistry instance = new DBMetricsRegistry();
+
+    private final Map<String, Family<?>> families = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public static DBMetricsRegistry getInstance() {
+        return instance;
+    }
+
+    DBMetricsRegistry() {
+        this.enabled = CommonUtils.toBoolean(System.getProperty(PROP_METRICS_ENABLED));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns counter series
+     *
+     * @param labels label names and values: name1, value1, name2, value2...
+     */
+    @NotNull
+    public DBMetricsCounter getCounter(@NotNull String name, @NotNull String help, @NotNull String... labels) {
+        return this.<DBMetricsCounter>getFamily(name, help, Type.COUNTER, 1.0, labels).getSeries(labels, DBMetricsCounter::new);
+    }
+
+    /**
+     * Returns histogram series
+     *
+     * @param unitScale multiplier which converts recorded values to exported ones (e.g. 1e-6 for microseconds to seconds)
+     * @param labels label names and values: name1, value1, name2, value2...
+     */
+    @NotNull
+    public DBMetricsHistogram getHistogram(@NotNull String name, @NotNull String help, double unitScale, @NotNull String... labels) {
+        return this.<DBMetricsHistogram>getFamily(name, help, Type.HISTOGRAM, unitScale, labels).getSeries(labels, DBMetricsHistogram::new);
+    }
+
+    public void clear() {
+        families.clear();
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format
+     */
+    public void writePrometheus(@NotNull Appendable out) throws IOException {
+        List<Family<?>> sortedFamilies = new ArrayList<>(families.values());
+        sortedFamilies.sort(Comparator.comparing(family -> family.name));
+        for (Family<?> family : sortedFamilies) {
+            family.write(out);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private <T> Family<T> getFamily(@NotNull String name, @NotNull String help, @NotNull Type type, double unitScale, @NotNull String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        String[] labelNames = new String[labels.length / 2];
+        for (int i = 0; i < labelNames.length; i++) {
+            labelNames[i] = labels[i * 2];
+        }
+        Family<?> family = families.computeIfAbsent(name, n -> new Family<>(n, help, type, unitScale, labelNames));
+        if (family.type != type || !Arrays.equals(family.labelNames, labelNames)) {
+            throw new IllegalArgumentException("Metric '" + name + "' is already registered with other type or labels");
+        }
+        return (Family<T>) family;
+    }
+
+    private enum Type {
+        COUNTER("counter"),
+        HISTOGRAM("summary");
+
+        private final String exportName;
+
+        Type(String exportName) {
+            this.exportName = exportName;
+        }
+    }
+
+    private record SeriesKey(@NotNull List<String> labelValues) {
+    }
+
+    private static class Family<T> {
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final double unitScale;
+        private final String[] labelNames;
+        private final Map<SeriesKey, T> series = new ConcurrentHashMap<>();
+        private volatile boolean overflowReported;
+
+        Family(@NotNull String name, @NotNull String help, @NotNull Type type, double unitScale, @NotNull String[] labelNames) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.unitScale = unitScale;
+            this.labelNames = labelNames;
+        }
+
+        @NotNull
+        T getSeries(@NotNull String[] labels, @NotNull Supplier<T> factory) {
+            String[] values = new String[labelNames.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = String.valueOf(labels[i * 2 + 1]);
+            }
+            SeriesKey key = new SeriesKey(Arrays.asList(values));
+            T value = series.get(key);
+            if (value == null) {
+                if (series.size() >= MAX_FAMILY_SERIES) {
+                    if (!overflowReported) {
+                        overflowReported = true;
+                        log.debug("Too many series of metric '" + name + "', new series are not exported");
+                    }
+                    return factory.get();
+                }
+                value = series.computeIfAbsent(key, k -> factory.get());
+            }
+            return value;
+        }
+
+        void write(@NotNull Appendable out) throws IOException {
+            if (series.isEmpty()) {
+                return;
+            }
+            out.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type.exportName).append('\n');
+            for (Map.Entry<SeriesKey, T> entry : series.entrySet()) {
+                List<String> values = entry.getKey().labelValues();
+                if (entry.getValue() instanceof DBMetricsCounter counter) {
+                    writeSample(out, name, values, null, counter.getValue());
+                } else if (entry.getValue() instanceof DBMetricsHistogram histogram) {
+                    for (double quantile : EXPORTED_QUANTILES) {
+                        writeSample(out, name, values, String.valueOf(quantile), histogram.getValueAtPercentile(quantile * 100) * unitScale);
+                    }
+                    writeSample(out, name + "_sum", values, null, histogram.getSum() * unitScale);
+                    writeSample(out, name + "_count", values, null, histogram.getCount());
+                }
+            }
+        }
+
+        private void writeSample(@NotNull Appendable out, @NotNull String sampleName, @NotNull List<String> values, String quantile, double value) throws IOException {
+            out.append(sampleName);
+            if (!values.isEmpty() || quantile != null) {
+                out.append('{');
+                for (int i = 0; i < values.size(); i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    out.append(labelNames[i]).append("=\"").append(escapeLabelValue(values.get(i))).append('"');
+                }
+                if (quantile != null) {
+                    if (!values.isEmpty()) {
+                        out.append(',');
+                    }
+                    out.append("quantile=\"").append(quantile).append('"');
+                }
+                out.append('}');
+            }
+            out.append(' ');
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                out.append(Long.toString((long) value));
+            } else {
+                out.append(Double.toString(value));
+            }
+            out.append('\n');
+        }
+    }
+
+    @NotNull
+    private static String escapeHelp(@NotNull String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    @NotNull
+    private static String escapeLabelValue(@NotNull String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
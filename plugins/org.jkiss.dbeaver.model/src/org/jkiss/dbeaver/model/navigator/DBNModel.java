@@ -89,7 +89,7 @@ public class DBNModel {
     private final List<INavigatorListener> listeners = new ArrayList<>();
     private transient INavigatorListener[] listenersCopy = null;
     private final transient List<DBNEvent> eventCache = new ArrayList<>();
-    private final Map<DBSObject, Object> nodeMap = new HashMap<>();
+    private final DBNNodeMap nodeMap = new DBNNodeMap();
     private final List<Function<DBNNode, Boolean>> nodeFilters = new ArrayList<>();
 
     private SMSessionContext modelAuthContext;
@@ -141,9 +141,7 @@ public class DBNModel {
 
         if (root != null) {
             this.root.dispose(false);
-            synchronized (nodeMap) {
-                this.nodeMap.clear();
-            }
+            this.nodeMap.clear();
             this.root = null;
         }
         synchronized (this.listeners) {
@@ -184,33 +182,7 @@ public class DBNModel {
         }
         object = DBUtils.getPublicObjectContainer(object);
 
-        Object obj;
-        synchronized (nodeMap) {
-            obj = nodeMap.get(object);
-        }
-        if (obj == null) {
-            return null;
-        } else if (obj instanceof DBNDatabaseNode) {
-            return (DBNDatabaseNode)obj;
-        } else if (obj instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<DBNDatabaseNode> nodeList = (List<DBNDatabaseNode>) obj;
-            if (nodeList.isEmpty()) {
-                return null;
-            }
-            if (nodeList.size() > 1) {
-                for (DBNDatabaseNode node : nodeList) {
-                    if (node instanceof DBNDatabaseItem && !node.getMeta().isVirtual()) {
-                        return node;
-                    }
-                }
-            }
-            // Get just first one
-            return nodeList.get(0);
-        } else {
-            // Never be here
-            throw new IllegalStateException();
-        }
+        return nodeMap.get(object);
 /*
         if (node == null) {
             log.warn("Can't find tree node for object " + object.getName() + " (" + object.getClass().getName() + ")");
@@ -470,24 +442,7 @@ public class DBNModel {
 
     void addNode(DBNDatabaseNode node, boolean reflect)
     {
-        synchronized (nodeMap) {
-            Object obj = nodeMap.get(node.getObject());
-            if (obj == null) {
-                // New node
-                nodeMap.put(node.getObject(), node);
-            } else if (obj instanceof DBNNode) {
-                // Second node - make a list
-                List<DBNNode> nodeList = new ArrayList<>(2);
-                nodeList.add((DBNNode)obj);
-                nodeList.add(node);
-                nodeMap.put(node.getObject(), nodeList);
-            } else if (obj instanceof List) {
-                // Multiple nodes
-                @SuppressWarnings("unchecked")
-                List<DBNNode> nodeList = (List<DBNNode>) obj;
-                nodeList.add(node);
-            }
-        }
+        nodeMap.add(node);
         if (reflect) {
             this.fireNodeEvent(new DBNEvent(this, DBNEvent.Action.ADD, DBNEvent.NodeChange.LOAD, node));
         }
@@ -495,29 +450,7 @@ public class DBNModel {
 
     void removeNode(DBNDatabaseNode node, boolean reflect)
     {
-        boolean badNode = false;
-        synchronized (nodeMap) {
-            Object obj = nodeMap.get(node.getObject());
-            if (obj == null) {
-                // No found
-                badNode = true;
-            } else if (obj instanceof DBNNode) {
-                // Just remove it
-                if (nodeMap.remove(node.getObject()) != node) {
-                    badNode = true;
-                }
-            } else if (obj instanceof List) {
-                // Multiple nodes
-                @SuppressWarnings("unchecked")
-                List<DBNNode> nodeList = (List<DBNNode>) obj;
-                if (!nodeList.remove(node)) {
-                    badNode = true;
-                }
-                if (nodeList.isEmpty()) {
-                    nodeMap.remove(node.getObject());
-                }
-            }
-        }
+        boolean badNode = !nodeMap.remove(node);
         if (badNode) {
             log.warn("Remove unregistered meta node object " + node.getNodeDisplayName());
         } else {
@@ -616,6 +549,27 @@ public class DBNModel {
         return true;
     }
 
+    /**
+     * Removes duplicate events. The last occurrence of an event is kept, so state events
+     * (like BEFORE_LOAD and AFTER_LOAD of the same node) keep their final order.
+     */
+    @NotNull
+    static List<DBNEvent> coalesceEvents(@NotNull List<DBNEvent> events) {
+        if (events.size() < 2) {
+            return new ArrayList<>(events);
+        }
+        Map<EventKey, DBNEvent> uniqueEvents = new LinkedHashMap<>(events.size());
+        for (DBNEvent event : events) {
+            EventKey key = new EventKey(event.getSource(), event.getAction(), event.getNodeChange(), event.getNode());
+            uniqueEvents.remove(key);
+            uniqueEvents.put(key, event);
+        }
+        return new ArrayList<>(uniqueEvents.values());
+    }
+
+    private record EventKey(Object source, DBNEvent.Action action, DBNEvent.NodeChange nodeChange, DBNNode node) {
+    }
+
     private class EventProcessingJob extends Job {
 
         EventProcessingJob() {
@@ -635,21 +589,19 @@ public class DBNModel {
                 if (realListeners == null || realListeners.length == 0) {
                     continue;
                 }
-                final DBNEvent[] realEvents;
+                final List<DBNEvent> realEvents;
                 synchronized (eventCache) {
                     if (eventCache.isEmpty()) {
                         continue;
                     }
-                    realEvents = eventCache.toArray(new DBNEvent[0]);
+                    realEvents = coalesceEvents(eventCache);
                     eventCache.clear();
                 }
 
                 try {
                     DBWorkbench.getPlatformUI().executeWithProgress(() -> {
-                        for (int i = 0; i < realEvents.length; i++) {
-                            for (INavigatorListener listener : listenersCopy) {
-                                listener.nodeChanged(realEvents[i]);
-                            }
+                        for (INavigatorListener listener : realListeners) {
+                            listener.nodesChanged(realEvents);
                         }
                     });
                 } catch (Exception e) {
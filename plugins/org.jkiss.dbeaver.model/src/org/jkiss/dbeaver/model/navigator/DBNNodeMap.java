@@ -0,0 +1,99 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.ArrayUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Database object to navigator nodes map.
+ * <p>
+ * Reads do not lock. Value is either a single node or an immutable array of nodes, so the array is replaced
+ * on each change of a multi-node entry. The same object rarely has more than a couple of nodes.
+ */
+final class DBNNodeMap {
+
+    private final ConcurrentHashMap<DBSObject, Object> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns node of the object. If there are several nodes then the first non-virtual item node is preferred.
+     */
+    @Nullable
+    DBNDatabaseNode get(@Nullable DBSObject object) {
+        if (object == null) {
+            return null;
+        }
+        Object value = nodes.get(object);
+        if (value == null) {
+            return null;
+        } else if (value instanceof DBNDatabaseNode node) {
+            return node;
+        }
+        DBNDatabaseNode[] nodeList = (DBNDatabaseNode[]) value;
+        for (DBNDatabaseNode node : nodeList) {
+            if (node instanceof DBNDatabaseItem && !node.getMeta().isVirtual()) {
+                return node;
+            }
+        }
+        // Get just first one
+        return nodeList[0];
+    }
+
+    void add(@NotNull DBNDatabaseNode node) {
+        DBSObject object = node.getObject();
+        if (object == null) {
+            return;
+        }
+        nodes.merge(object, node, (oldValue, newValue) -> oldValue instanceof DBNDatabaseNode oldNode ?
+            new DBNDatabaseNode[] {oldNode, node} :
+            ArrayUtils.add(DBNDatabaseNode.class, (DBNDatabaseNode[]) oldValue, node));
+    }
+
+    /**
+     * Returns false if the node was not registered
+     */
+    boolean remove(@NotNull DBNDatabaseNode node) {
+        DBSObject object = node.getObject();
+        if (object == null) {
+            return true;
+        }
+        boolean[] removed = new boolean[1];
+        nodes.computeIfPresent(object, (key, value) -> {
+            if (value == node) {
+                removed[0] = true;
+                return null;
+            } else if (value instanceof DBNDatabaseNode[] nodeList) {
+                for (int i = 0; i < nodeList.length; i++) {
+                    if (nodeList[i] == node) {
+                        removed[0] = true;
+                        return nodeList.length == 2 ? nodeList[1 - i] : ArrayUtils.remove(DBNDatabaseNode.class, nodeList, i);
+                    }
+                }
+            }
+            return value;
+        });
+        return removed[0];
+    }
+
+    void clear() {
+        nodes.clear();
+    }
+}
@@ -17,6 +17,10 @@
 
 package org.jkiss.dbeaver.model.navigator;
 
+import org.jkiss.code.NotNull;
+
+import java.util.List;
+
 /**
  * INavigatorListener
  */
@@ -26,4 +30,15 @@ public interface INavigatorListener
      * Called in UI thread
      */
     void nodeChanged(DBNEvent event);
+
+    /**
+     * Called in UI thread with all events collected since the previous notification.
+     * Duplicate events are already removed, the order of events is kept.
+     * Listeners which update many controls should override it and apply all changes at once.
+     */
+    default void nodesChanged(@NotNull List<DBNEvent> events) {
+        for (DBNEvent event : events) {
+            nodeChanged(event);
+        }
+    }
 }
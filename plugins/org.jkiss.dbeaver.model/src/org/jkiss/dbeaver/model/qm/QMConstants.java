@@ -32,6 +32,7 @@ public class QMConstants {
     public static final String PROP_QUERY_TYPES = PROP_PREFIX + "queryTypes";
     public static final String PROP_ENTRIES_PER_PAGE = PROP_PREFIX + "maxEntries";
     public static final String PROP_HISTORY_DAYS = PROP_PREFIX + "historyDays";
+    public static final String PROP_HISTORY_MAX_SIZE = PROP_PREFIX + "historyMaxSize";
     public static final String PROP_STORE_LOG_FILE = PROP_PREFIX + "storeLogs";
     public static final String PROP_LOG_DIRECTORY = PROP_PREFIX + "logDirectory";
 
@@ -16,13 +16,24 @@
  */
 package org.jkiss.dbeaver.model.qm;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
 
+import java.util.List;
+
 /**
  * Query manager execution handler implementation
  */
 public interface QMMCollector extends QMExecutionHandler {
 
     QMMConnectionInfo getConnectionInfo(DBCExecutionContext context);
+
+    /**
+     * Statistics of recently executed queries grouped by fingerprint
+     */
+    @NotNull
+    List<QMQueryStatistics> getQueryStatistics();
+
+    void clearQueryStatistics();
 }
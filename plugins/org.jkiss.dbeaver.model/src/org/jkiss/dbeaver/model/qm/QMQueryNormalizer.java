@@ -0,0 +1,355 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.code.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query fingerprint builder.
+ * <p>
+ * Replaces literals and parameters with {@code ?}, collapses IN lists and multi-row VALUES,
+ * removes comments and normalizes whitespace and case of unquoted words.
+ * Queries which differ only in literal values have the same fingerprint.
+ * <p>
+ * The scanner is dialect-independent: it knows standard string and identifier quotes,
+ * PostgreSQL dollar quotes and common parameter styles.
+ */
+public class QMQueryNormalizer {
+
+    public static final String PARAMETER = "?";
+    public static final String ELLIPSIS = "...";
+
+    // Longer queries are truncated, fingerprints are used to group queries, not to restore them
+    public static final int MAX_FINGERPRINT_LENGTH = 4000;
+
+    private static final String[] OPERATORS = {"->>", "<>", "<=", ">=", "!=", "||", "::", ":=", "=>", "->"};
+
+    private QMQueryNormalizer() {
+    }
+
+    @NotNull
+    public static String getFingerprint(@NotNull String query) {
+        List<String> tokens = collapseLists(tokenize(query, MAX_FINGERPRINT_LENGTH));
+        StringBuilder result = new StringBuilder(Math.min(query.length(), MAX_FINGERPRINT_LENGTH));
+        String prevToken = null;
+        for (String token : tokens) {
+            if (prevToken != null && needsSpace(prevToken, token)) {
+                result.append(' ');
+            }
+            result.append(token);
+            if (result.length() >= MAX_FINGERPRINT_LENGTH) {
+                result.setLength(MAX_FINGERPRINT_LENGTH);
+                break;
+            }
+            prevToken = token;
+        }
+        return result.toString();
+    }
+
+    /**
+     * Splits the query into tokens. Stops once tokens are long enough to fill {@code maxLength} characters,
+     * the rest of a long query can't get into the fingerprint anyway.
+     */
+    @NotNull
+    static List<String> tokenize(@NotNull String query, int maxLength) {
+        List<String> tokens = new ArrayList<>();
+        int length = query.length();
+        int pos = 0;
+        int tokensLength = 0;
+        int tokenCount = 0;
+        while (pos < length) {
+            if (tokens.size() != tokenCount) {
+                // Count new tokens and a separator for each of them
+                for (int i = tokenCount; i < tokens.size(); i++) {
+                    tokensLength += tokens.get(i).length() + 1;
+                }
+                tokenCount = tokens.size();
+                if (tokensLength >= maxLength) {
+                    break;
+                }
+            }
+            char c = query.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '-' && query.startsWith("--", pos)) {
+                pos = skipLine(query, pos);
+            } else if (c == '/' && query.startsWith("/*", pos)) {
+                int end = query.indexOf("*/", pos + 2);
+                end = end < 0 ? length : end + 2;
+                if (query.startsWith("/*+", pos)) {
+                    // Optimizer hint changes the query plan
+                    tokens.add(query.substring(pos, end));
+                }
+                pos = end;
+            } else if (c == '\'') {
+                pos = skipQuoted(query, pos, '\'');
+                addParameter(tokens);
+            } else if (c == '"' || c == '`') {
+                int end = skipQuoted(query, pos, c);
+                tokens.add(query.substring(pos, end));
+                pos = end;
+            } else if (c == '[' && pos + 1 < length && isWordStart(query.charAt(pos + 1))) {
+                int end = query.indexOf(']', pos);
+                end = end < 0 ? length : end + 1;
+                tokens.add(query.substring(pos, end));
+                pos = end;
+            } else if (c == '$') {
+                pos = readDollar(query, pos, tokens);
+            } else if (Character.isDigit(c) || (c == '.' && pos + 1 < length && Character.isDigit(query.charAt(pos + 1)))) {
+                pos = skipNumber(query, pos);
+                addParameter(tokens);
+            } else if (c == '?') {
+                pos++;
+                addParameter(tokens);
+            } else if (c == ':' && pos + 1 < length && isWordStart(query.charAt(pos + 1)) &&
+                (pos == 0 || query.charAt(pos - 1) != ':')) {
+                // Named parameter
+                pos = skipWord(query, pos + 1);
+                addParameter(tokens);
+            } else if (isWordStart(c)) {
+                int end = skipWord(query, pos);
+                if (end < length && query.charAt(end) == '\'' && isLiteralPrefix(query, pos, end)) {
+                    // N'...', E'...', X'...' and similar literals
+                    pos = skipQuoted(query, end, '\'');
+                    addParameter(tokens);
+                } else {
+                    tokens.add(query.substring(pos, end).toLowerCase(Locale.ENGLISH));
+                    pos = end;
+                }
+            } else {
+                String operator = getOperator(query, pos);
+                tokens.add(operator);
+                pos += operator.length();
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Replaces IN lists of parameters with a single ellipsis and removes VALUES tuples which are the same as the first one
+     */
+    @NotNull
+    static List<String> collapseLists(@NotNull List<String> tokens) {
+        List<String> result = new ArrayList<>(tokens.size());
+        int size = tokens.size();
+        for (int i = 0; i < size; i++) {
+            String token = tokens.get(i);
+            result.add(token);
+            if (token.equals("in") && i + 1 < size && tokens.get(i + 1).equals("(")) {
+                int end = getParameterListEnd(tokens, i + 2);
+                if (end > 0) {
+                    result.add("(");
+                    result.add(ELLIPSIS);
+                    result.add(")");
+                    i = end;
+                }
+            } else if (token.equals("values") && i + 1 < size && tokens.get(i + 1).equals("(")) {
+                int tupleEnd = getTupleEnd(tokens, i + 1);
+                if (tupleEnd < 0) {
+                    continue;
+                }
+                List<String> tuple = tokens.subList(i + 1, tupleEnd + 1);
+                result.addAll(tuple);
+                int next = tupleEnd + 1;
+                boolean collapsed = false;
+                while (next + tuple.size() < size && tokens.get(next).equals(",") &&
+                    tokens.subList(next + 1, next + 1 + tuple.size()).equals(tuple)) {
+                    next += 1 + tuple.size();
+                    collapsed = true;
+                }
+                if (collapsed) {
+                    result.add(",");
+                    result.add(ELLIPSIS);
+                }
+                i = next - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns position of the closing parenthesis if tokens starting at the given position are parameters separated by commas
+     */
+    private static int getParameterListEnd(@NotNull List<String> tokens, int start) {
+        boolean expectParameter = true;
+        for (int i = start; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (expectParameter) {
+                if (!token.equals(PARAMETER)) {
+                    return -1;
+                }
+            } else if (token.equals(")")) {
+                return i;
+            } else if (!token.equals(",")) {
+                return -1;
+            }
+            expectParameter = !expectParameter;
+        }
+        return -1;
+    }
+
+    private static int getTupleEnd(@NotNull List<String> tokens, int start) {
+        int depth = 0;
+        for (int i = start; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token.equals("(")) {
+                depth++;
+            } else if (token.equals(")")) {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void addParameter(@NotNull List<String> tokens) {
+        // Signed numbers and concatenated literals are still a single parameter
+        int size = tokens.size();
+        if (size > 0 && tokens.get(size - 1).equals(PARAMETER)) {
+            return;
+        }
+        if (size > 1 && tokens.get(size - 1).equals("-") && isOperatorOrStart(tokens.get(size - 2))) {
+            tokens.set(size - 1, PARAMETER);
+            return;
+        }
+        tokens.add(PARAMETER);
+    }
+
+    private static boolean isOperatorOrStart(@NotNull String token) {
+        char c = token.charAt(0);
+        return token.equals("(") || token.equals(",") || (!isWordStart(c) && !Character.isDigit(c) &&
+            c != ')' && c != '"' && c != '`' && c != '[' && !token.equals(PARAMETER));
+    }
+
+    private static boolean needsSpace(@NotNull String prevToken, @NotNull String token) {
+        if (prevToken.equals("(") || prevToken.equals(".") || prevToken.equals("::")) {
+            return false;
+        }
+        if (token.equals(")") || token.equals(",") || token.equals(".") || token.equals(";") || token.equals("::")) {
+            return false;
+        }
+        return !token.equals("(") || !isWordStart(prevToken.charAt(0)) || prevToken.equals("in") || prevToken.equals("values");
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '@' || c == '#';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '@' || c == '#';
+    }
+
+    private static boolean isLiteralPrefix(@NotNull String query, int start, int end) {
+        String prefix = query.substring(start, end).toUpperCase(Locale.ENGLISH);
+        return switch (prefix) {
+            case "N", "E", "X", "B", "U", "Q" -> true;
+            default -> false;
+        };
+    }
+
+    private static int skipLine(@NotNull String query, int pos) {
+        int end = query.indexOf('\n', pos);
+        return end < 0 ? query.length() : end + 1;
+    }
+
+    private static int skipWord(@NotNull String query, int pos) {
+        int length = query.length();
+        while (pos < length && isWordPart(query.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipQuoted(@NotNull String query, int pos, char quote) {
+        int length = query.length();
+        for (int i = pos + 1; i < length; i++) {
+            if (query.charAt(i) == quote) {
+                if (i + 1 < length && query.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+        return length;
+    }
+
+    private static int skipNumber(@NotNull String query, int pos) {
+        int length = query.length();
+        if (query.charAt(pos) == '0' && pos + 1 < length && (query.charAt(pos + 1) == 'x' || query.charAt(pos + 1) == 'X')) {
+            pos += 2;
+            while (pos < length && Character.digit(query.charAt(pos), 16) >= 0) {
+                pos++;
+            }
+            return pos;
+        }
+        while (pos < length) {
+            char c = query.charAt(pos);
+            if ((c == 'e' || c == 'E') && pos + 1 < length) {
+                char next = query.charAt(pos + 1);
+                if (next == '+' || next == '-') {
+                    pos++;
+                }
+            } else if (!Character.isDigit(c) && c != '.') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int readDollar(@NotNull String query, int pos, @NotNull List<String> tokens) {
+        int length = query.length();
+        int end = pos + 1;
+        if (end < length && Character.isDigit(query.charAt(end))) {
+            // Positional parameter
+            while (end < length && Character.isDigit(query.charAt(end))) {
+                end++;
+            }
+            addParameter(tokens);
+            return end;
+        }
+        while (end < length && (Character.isLetterOrDigit(query.charAt(end)) || query.charAt(end) == '_')) {
+            end++;
+        }
+        if (end < length && query.charAt(end) == '$') {
+            // Dollar-quoted string
+            String tag = query.substring(pos, end + 1);
+            int close = query.indexOf(tag, end + 1);
+            addParameter(tokens);
+            return close < 0 ? length : close + tag.length();
+        }
+        tokens.add("$");
+        return pos + 1;
+    }
+
+    @NotNull
+    private static String getOperator(@NotNull String query, int pos) {
+        for (String operator : OPERATORS) {
+            if (query.startsWith(operator, pos)) {
+                return operator;
+            }
+        }
+        return String.valueOf(query.charAt(pos));
+    }
+}
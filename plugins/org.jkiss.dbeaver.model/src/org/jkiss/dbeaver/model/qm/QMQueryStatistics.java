@@ -0,0 +1,45 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Aggregated statistics of queries with the same fingerprint.
+ * Times are in milliseconds, percentiles are approximate.
+ *
+ * @param fingerprint normalized query, see {@link QMQueryNormalizer}
+ * @param sampleQuery text of the last executed query
+ * @param rowCount fetched and updated rows
+ */
+public record QMQueryStatistics(
+    @NotNull String fingerprint,
+    @NotNull String sampleQuery,
+    long executeCount,
+    long errorCount,
+    long totalTime,
+    long medianTime,
+    long p99Time,
+    long maxTime,
+    long rowCount,
+    long lastExecuteTime
+) {
+
+    public long getAverageTime() {
+        return executeCount == 0 ? 0 : totalTime / executeCount;
+    }
+}
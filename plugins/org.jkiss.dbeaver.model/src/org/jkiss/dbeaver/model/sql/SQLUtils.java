@@ -1047,6 +1047,13 @@ public final class SQLUtils {
         return false;
     }
 
+    /**
+     * Checks whether the query starts with one of the dialect DDL keywords
+     */
+    public static boolean isDDLQuery(@NotNull SQLDialect dialect, @NotNull String query) {
+        return ArrayUtils.containsIgnoreCase(dialect.getDDLKeywords(), getFirstKeyword(dialect, query));
+    }
+
     public static boolean isExecKeyword(SQLDialect dialect, String word) {
         return ArrayUtils.containsIgnoreCase(dialect.getExecuteKeywords(), word);
     }
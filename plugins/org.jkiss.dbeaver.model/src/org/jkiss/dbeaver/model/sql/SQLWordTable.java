@@ -0,0 +1,188 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * Immutable case-insensitive word table.
+ * <p>
+ * Words are kept in an open addressing hash table, so lookup doesn't allocate anything and can be done
+ * for a part of the text, e.g. for a token in the document.
+ * Tables are built once and can be shared between threads.
+ *
+ * @param <V> type of values
+ */
+public final class SQLWordTable<V> {
+
+    @NotNull
+    private final char[][] keys;
+    @NotNull
+    private final int[] hashes;
+    @NotNull
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+    private final int maxLength;
+
+    private SQLWordTable(@NotNull Map<String, V> words) {
+        int capacity = Integer.highestOneBit(Math.max(words.size(), 1) * 2 - 1) << 1;
+        this.keys = new char[capacity][];
+        this.hashes = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.size = words.size();
+
+        int maxLength = 0;
+        for (Map.Entry<String, V> entry : words.entrySet()) {
+            char[] key = entry.getKey().toCharArray();
+            int hash = hash(key, 0, key.length);
+            int index = hash & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            hashes[index] = hash;
+            values[index] = entry.getValue();
+            maxLength = Math.max(maxLength, key.length);
+        }
+        this.maxLength = maxLength;
+    }
+
+    @NotNull
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Nullable
+    public V get(@NotNull CharSequence word) {
+        return get(word, 0, word.length());
+    }
+
+    /**
+     * Returns value of the word located in the specified part of the text
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(@NotNull CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length > maxLength) {
+            return null;
+        }
+        int hash = hash(text, start, end);
+        for (int index = hash & mask; keys[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && matches(keys[index], text, start, length)) {
+                return (V) values[index];
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(@NotNull CharSequence text, int start, int end) {
+        return get(text, start, end) != null;
+    }
+
+    /**
+     * Case folding used by the table, it doesn't depend on the default locale
+     */
+    static char fold(char c) {
+        if (c < 128) {
+            return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        }
+        return Character.toUpperCase(c);
+    }
+
+    private static int hash(@NotNull CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fold(text.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(@NotNull char[] key, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + key[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(@NotNull char[] key, @NotNull CharSequence text, int start, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != fold(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static final class Builder<V> {
+        private final Map<String, V> words = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds the word, replaces value of the same word added before
+         */
+        @NotNull
+        public Builder<V> put(@NotNull String word, @NotNull V value) {
+            words.put(foldWord(word), value);
+            return this;
+        }
+
+        /**
+         * Adds the word, combines value with the value of the same word added before
+         */
+        @NotNull
+        public Builder<V> merge(@NotNull String word, @NotNull V value, @NotNull BinaryOperator<V> function) {
+            words.merge(foldWord(word), value, function);
+            return this;
+        }
+
+        @NotNull
+        public SQLWordTable<V> build() {
+            return new SQLWordTable<>(words);
+        }
+
+        @NotNull
+        private static String foldWord(@NotNull String word) {
+            char[] chars = word.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = fold(chars[i]);
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -57,6 +57,13 @@ public interface DBSDataManipulator extends DBSDataContainer {
 
         void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException;
 
+        /**
+         * Index of the added row which failed during the last execution or -1 if it is unknown
+         */
+        default int getFailedRowIndex() {
+            return -1;
+        }
+
         void close();
     }
 
@@ -63,6 +63,21 @@ public interface DBSInstance extends DBSObject
     @NotNull
     DBCExecutionContext openIsolatedContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException;
 
+    /**
+     * Opens execution context for a short-lived background task.
+     * Instance may take it from the pool of idle contexts, in this case closing the context returns it back to the pool.
+     * Caller must not leave session state (temporary objects, variables) in such context.
+     *
+     * @param monitor progress monitor
+     * @param purpose context purpose (just a descriptive string)
+     * @param initFrom initialize context parameters from specified context
+     * @return execution context
+     */
+    @NotNull
+    default DBCExecutionContext openPooledContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException {
+        return openIsolatedContext(monitor, purpose, initFrom);
+    }
+
     void shutdown(DBRProgressMonitor monitor);
 
     @NotNull
@@ -0,0 +1,140 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer of query manager events.
+ * <p>
+ * Any number of threads may add events, but only one thread may drain them at a time.
+ * Events are never blocked: if the buffer is full new event is dropped and counted.
+ */
+class QMEventRingBuffer<T> {
+
+    private final int mask;
+    private final Object[] items;
+    // Slot sequences: a slot is free for position p if its sequence is p and holds an item if its sequence is p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Modified by the consumer only
+    private volatile long head;
+
+    /**
+     * @param capacity buffer capacity, rounded up to the power of two
+     */
+    QMEventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.items = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int getCapacity() {
+        return items.length;
+    }
+
+    /**
+     * Adds item to the buffer. Returns false if the buffer is full, the item is counted as dropped then.
+     */
+    boolean offer(@NotNull T item) {
+        if (tryAdd(item)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Adds item to the buffer. Returns false if the buffer is full, the caller is responsible for the item then.
+     */
+    boolean tryAdd(@NotNull T item) {
+        long pos = tail.get();
+        for (;;) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[index] = item;
+                    // Publishes the item to the consumer
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // Slot wasn't consumed yet - buffer is full
+                return false;
+            } else {
+                // Other producer took this position
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to maxItems items to the target collection in the order they were added.
+     * Returns the number of moved items.
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(@NotNull Collection<? super T> target, int maxItems) {
+        long pos = head;
+        int count = 0;
+        while (count < maxItems) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                // Empty or the producer didn't publish the item yet
+                break;
+            }
+            T item = (T) items[index];
+            items[index] = null;
+            // Frees the slot for the next round
+            sequences.set(index, pos + mask + 1);
+            target.add(item);
+            pos++;
+            count++;
+        }
+        head = pos;
+        return count;
+    }
+
+    /**
+     * Approximate number of items in the buffer
+     */
+    int size() {
+        return (int) Math.min(tail.get() - head, items.length);
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    /**
+     * Number of items dropped because the buffer was full
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+}
@@ -0,0 +1,840 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMDateRange;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.filters.QMEventStatus;
+import org.jkiss.dbeaver.model.qm.meta.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only binary query history.
+ * <p>
+ * History is kept in segment files, each segment is a sequence of blocks. A block holds the events of one
+ * dispatch batch compressed together, its header keeps the event id range, time range and data source ids.
+ * Block headers of all segments are kept in memory and serve as the time and data source index:
+ * cursors skip blocks which do not match the criteria without reading them.
+ * <p>
+ * A new segment is started every day and when the current one is too big.
+ * Old segments are purged by age and by the total history size.
+ */
+class QMHistoryStore implements QMEventBrowser, AutoCloseable {
+
+    private static final Log log = Log.getLog(QMHistoryStore.class);
+
+    static final String SEGMENT_FILE_PREFIX = "qm_history_";
+    static final String SEGMENT_FILE_EXTENSION = ".qmh";
+
+    private static final DateTimeFormatter SEGMENT_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int BLOCK_MAGIC = 0x514D4842;
+    private static final int FORMAT_VERSION = 1;
+    private static final long MAX_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    @NotNull
+    private final Path directory;
+    private final int daysToKeep;
+    private final long maxTotalSize;
+    // Ordered by the first event id
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextEventId = 1;
+    @Nullable
+    private Segment activeSegment;
+    @Nullable
+    private FileChannel activeChannel;
+
+    QMHistoryStore(@NotNull Path directory, int daysToKeep, long maxTotalSize) throws IOException {
+        this.directory = directory;
+        this.daysToKeep = daysToKeep;
+        this.maxTotalSize = maxTotalSize;
+        Files.createDirectories(directory);
+        loadSegments();
+        purgeSegments();
+    }
+
+    /**
+     * Checks whether event is kept in the history. Only finished queries, transactions and session open/close are kept.
+     */
+    static boolean isStoredEvent(@NotNull QMEvent event) {
+        QMMObject object = event.getObject();
+        if (object instanceof QMMStatementExecuteInfo || object instanceof QMMTransactionInfo) {
+            return event.getAction() == QMEventAction.END;
+        } else if (object instanceof QMMConnectionInfo) {
+            return event.getAction() == QMEventAction.BEGIN || event.getAction() == QMEventAction.END;
+        }
+        return false;
+    }
+
+    /**
+     * Appends events to the history. Events which are not stored are skipped.
+     */
+    synchronized void append(@NotNull List<? extends QMMetaEvent> events) throws IOException {
+        ByteArrayOutputStream rawBuffer = new ByteArrayOutputStream(events.size() * 200);
+        DataOutputStream out = new DataOutputStream(rawBuffer);
+        long firstEventId = nextEventId;
+        int eventCount = 0;
+        long minTime = Long.MAX_VALUE, maxTime = Long.MIN_VALUE;
+        Set<String> containerIds = new LinkedHashSet<>();
+        for (QMMetaEvent event : events) {
+            if (!isStoredEvent(event)) {
+                continue;
+            }
+            QMMObject object = event.getObject();
+            writeEvent(out, firstEventId + eventCount, event);
+            eventCount++;
+            long time = getEventTime(object);
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            QMMConnectionInfo connection = object.getConnection();
+            if (connection != null && connection.getContainerId() != null) {
+                containerIds.add(connection.getContainerId());
+            }
+        }
+        if (eventCount == 0) {
+            return;
+        }
+        out.flush();
+        byte[] raw = rawBuffer.toByteArray();
+        byte[] compressed = compress(raw);
+
+        ByteArrayOutputStream headerBuffer = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBuffer);
+        header.writeInt(FORMAT_VERSION);
+        header.writeLong(firstEventId);
+        header.writeInt(eventCount);
+        header.writeLong(minTime);
+        header.writeLong(maxTime);
+        header.writeInt(containerIds.size());
+        for (String containerId : containerIds) {
+            header.writeUTF(containerId);
+        }
+        header.writeInt(raw.length);
+        header.writeInt(compressed.length);
+        header.flush();
+
+        FileChannel channel = getActiveChannel(firstEventId);
+        Segment segment = Objects.requireNonNull(activeSegment);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + headerBuffer.size() + compressed.length);
+        buffer.putInt(BLOCK_MAGIC);
+        buffer.putInt(headerBuffer.size());
+        buffer.put(headerBuffer.toByteArray());
+        long payloadOffset = segment.size + buffer.position();
+        buffer.put(compressed);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, segment.size + buffer.position());
+        }
+        // Block becomes visible to cursors only when it is completely written
+        segment.addBlock(new BlockInfo(
+            payloadOffset, compressed.length, raw.length, firstEventId, eventCount, minTime, maxTime, containerIds));
+        nextEventId = firstEventId + eventCount;
+
+        if (segment.size >= MAX_SEGMENT_SIZE) {
+            closeActiveSegment();
+            purgeSegments();
+        }
+    }
+
+    @NotNull
+    @Override
+    public QMEventCursor getQueryHistoryCursor(@NotNull QMCursorFilter cursorFilter) {
+        List<BlockRef> blocks = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                for (BlockInfo block : segment.getBlocks()) {
+                    blocks.add(new BlockRef(segment.file, block));
+                }
+            }
+        }
+        return new HistoryCursor(blocks, cursorFilter);
+    }
+
+    synchronized long getTotalSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeActiveSegment();
+    }
+
+    private void loadSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String fileName = file.getFileName().toString();
+                if (!fileName.startsWith(SEGMENT_FILE_PREFIX) || !fileName.endsWith(SEGMENT_FILE_EXTENSION)) {
+                    return;
+                }
+                try {
+                    Segment segment = readSegment(file);
+                    if (segment.getBlocks().isEmpty()) {
+                        Files.delete(file);
+                    } else {
+                        segments.add(segment);
+                    }
+                } catch (IOException e) {
+                    log.debug("Error reading query history segment '" + file + "': " + e.getMessage());
+                }
+            });
+        }
+        segments.sort(Comparator.comparingLong(Segment::getFirstEventId));
+        for (Segment segment : segments) {
+            nextEventId = Math.max(nextEventId, segment.getLastEventId() + 1);
+        }
+    }
+
+    /**
+     * Reads block headers of the segment. Incomplete block at the end of the file (e.g. after a crash) is ignored.
+     */
+    @NotNull
+    private static Segment readSegment(@NotNull Path file) throws IOException {
+        Segment segment = new Segment(file);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long position = 0;
+            long fileSize = Files.size(file);
+            while (position + 8 <= fileSize) {
+                if (in.readInt() != BLOCK_MAGIC) {
+                    log.debug("Corrupted query history segment '" + file + "' at " + position);
+                    break;
+                }
+                int headerLength = in.readInt();
+                long payloadOffset = position + 8 + headerLength;
+                if (headerLength <= 0 || payloadOffset > fileSize) {
+                    break;
+                }
+                byte[] headerBytes = new byte[headerLength];
+                in.readFully(headerBytes);
+                DataInputStream header = new DataInputStream(new ByteArrayInputStream(headerBytes));
+                if (header.readInt() != FORMAT_VERSION) {
+                    log.debug("Unsupported query history segment '" + file + "' format");
+                    break;
+                }
+                long firstEventId = header.readLong();
+                int eventCount = header.readInt();
+                long minTime = header.readLong();
+                long maxTime = header.readLong();
+                int containerCount = header.readInt();
+                Set<String> containerIds = new LinkedHashSet<>();
+                for (int i = 0; i < containerCount; i++) {
+                    containerIds.add(header.readUTF());
+                }
+                int rawLength = header.readInt();
+                int compressedLength = header.readInt();
+                if (payloadOffset + compressedLength > fileSize) {
+                    break;
+                }
+                in.skipNBytes(compressedLength);
+                segment.addBlock(new BlockInfo(
+                    payloadOffset, compressedLength, rawLength, firstEventId, eventCount, minTime, maxTime, containerIds));
+                position = payloadOffset + compressedLength;
+            }
+        } catch (EOFException e) {
+            // Incomplete block
+        }
+        return segment;
+    }
+
+    @NotNull
+    private FileChannel getActiveChannel(long firstEventId) throws IOException {
+        LocalDate today = LocalDate.now();
+        if (activeSegment != null && !activeSegment.date.equals(today)) {
+            closeActiveSegment();
+            purgeSegments();
+        }
+        if (activeChannel == null) {
+            // Segments are never appended after reopen, so a partially written block can only be at the end
+            Path file = directory.resolve(
+                SEGMENT_FILE_PREFIX + SEGMENT_DATE_FORMAT.format(today) + "_" + firstEventId + SEGMENT_FILE_EXTENSION);
+            activeChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            activeSegment = new Segment(file);
+            segments.add(activeSegment);
+        }
+        return activeChannel;
+    }
+
+    private void closeActiveSegment() {
+        if (activeChannel != null) {
+            try {
+                activeChannel.close();
+            } catch (IOException e) {
+                log.debug("Error closing query history segment: " + e.getMessage());
+            }
+            activeChannel = null;
+        }
+        activeSegment = null;
+    }
+
+    private void purgeSegments() {
+        long minTime = System.currentTimeMillis() - Duration.ofDays(daysToKeep).toMillis();
+        long totalSize = getTotalSize();
+        for (Iterator<Segment> iter = segments.iterator(); iter.hasNext(); ) {
+            Segment segment = iter.next();
+            if (segment == activeSegment) {
+                continue;
+            }
+            boolean lastSegment = segment == segments.get(segments.size() - 1);
+            // Size limit never purges the whole history
+            if (segment.getMaxTime() >= minTime && (totalSize <= maxTotalSize || lastSegment)) {
+                // Segments are ordered by time, all the next ones are newer
+                break;
+            }
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                // Probably it is being read right now. Will be deleted next time.
+                log.debug("Unable to purge query history segment '" + segment.file + "': " + e.getMessage());
+                break;
+            }
+            totalSize -= segment.size;
+            iter.remove();
+        }
+    }
+
+    private static long getEventTime(@NotNull QMMObject object) {
+        return object.getCloseTime() > 0 ? object.getCloseTime() : object.getOpenTime();
+    }
+
+    @NotNull
+    private static byte[] compress(@NotNull byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream result = new ByteArrayOutputStream(raw.length / 3 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                result.write(buffer, 0, count);
+            }
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @NotNull
+    private static byte[] decompress(@NotNull byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int count = inflater.inflate(raw, length, rawLength - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += count;
+            }
+            if (length != rawLength) {
+                throw new IOException("Corrupted query history block");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted query history block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+    // Serialization
+
+    private static void writeEvent(@NotNull DataOutput out, long eventId, @NotNull QMMetaEvent event) throws IOException {
+        QMMObject object = event.getObject();
+        out.writeLong(eventId);
+        out.writeByte(event.getAction().getId());
+        writeString(out, event.getSessionId());
+        writeConnection(out, object.getConnection());
+        if (object instanceof QMMConnectionInfo) {
+            out.writeByte(QMConstants.EVENT_TYPE_SESSION);
+        } else if (object instanceof QMMTransactionInfo transaction) {
+            out.writeByte(QMConstants.EVENT_TYPE_TXN);
+            out.writeLong(transaction.getOpenTime());
+            out.writeLong(transaction.getCloseTime());
+            out.writeBoolean(transaction.isCommitted());
+        } else if (object instanceof QMMStatementExecuteInfo execute) {
+            out.writeByte(QMConstants.EVENT_TYPE_EXECUTE);
+            QMMStatementInfo statement = execute.getStatement();
+            writeString(out, statement.getPurpose().name());
+            out.writeLong(statement.getOpenTime());
+            out.writeLong(statement.getCloseTime());
+            out.writeLong(execute.getOpenTime());
+            out.writeLong(execute.getCloseTime());
+            writeString(out, execute.getQueryString());
+            out.writeLong(execute.getFetchRowCount());
+            out.writeInt(execute.getErrorCode());
+            writeString(out, execute.getErrorMessage());
+            out.writeLong(execute.getFetchBeginTime());
+            out.writeLong(execute.getFetchEndTime());
+            out.writeBoolean(execute.isTransactional());
+            writeString(out, execute.getSchema());
+            writeString(out, execute.getCatalog());
+        } else {
+            throw new IOException("Unsupported query history object: " + object);
+        }
+    }
+
+    private static void writeConnection(@NotNull DataOutput out, @NotNull QMMConnectionInfo connection) throws IOException {
+        QMMProjectInfo projectInfo = connection.getProjectInfo();
+        writeString(out, projectInfo == null ? null : projectInfo.getId());
+        writeString(out, projectInfo == null ? null : projectInfo.getName());
+        writeString(out, connection.getContainerId());
+        writeString(out, connection.getContainerName());
+        writeString(out, connection.getDriverId());
+        writeString(out, connection.getInstanceId());
+        writeString(out, connection.getContextName());
+        writeString(out, connection.getConnectionUserName());
+        writeString(out, connection.getConnectionUrl());
+        out.writeLong(connection.getOpenTime());
+        out.writeLong(connection.getCloseTime());
+        out.writeBoolean(connection.isTransactional());
+    }
+
+    @NotNull
+    private static QMMetaEventEntity readEvent(@NotNull DataInput in) throws IOException {
+        long eventId = in.readLong();
+        QMEventAction action = QMEventAction.getById(in.readByte());
+        String sessionId = readString(in);
+        QMMConnectionInfo connection = readConnection(in);
+        QMMObject object;
+        int type = in.readByte();
+        switch (type) {
+            case QMConstants.EVENT_TYPE_SESSION:
+                object = connection;
+                break;
+            case QMConstants.EVENT_TYPE_TXN:
+                object = new QMMTransactionInfo(connection, in.readLong(), in.readLong(), in.readBoolean());
+                break;
+            case QMConstants.EVENT_TYPE_EXECUTE: {
+                DBCExecutionPurpose purpose = getPurpose(readString(in));
+                QMMStatementInfo statement = new QMMStatementInfo(in.readLong(), in.readLong(), connection, purpose);
+                object = new QMMStatementExecuteInfo(
+                    in.readLong(),
+                    in.readLong(),
+                    statement,
+                    readString(in),
+                    in.readLong(),
+                    in.readInt(),
+                    readString(in),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readBoolean(),
+                    readString(in),
+                    readString(in));
+                break;
+            }
+            default:
+                throw new IOException("Unsupported query history event type: " + type);
+        }
+        return new QMMetaEventEntity(object, action, eventId, sessionId, null);
+    }
+
+    @NotNull
+    private static QMMConnectionInfo readConnection(@NotNull DataInput in) throws IOException {
+        String projectId = readString(in);
+        String projectName = readString(in);
+        return QMMConnectionInfo.builder()
+            .setProjectInfo(projectId == null ? null : QMMProjectInfo.builder().setId(projectId).setName(projectName).build())
+            .setContainerId(readString(in))
+            .setContainerName(readString(in))
+            .setDriverId(readString(in))
+            .setInstanceId(readString(in))
+            .setContextName(readString(in))
+            .setConnectionUserName(readString(in))
+            .setConnectionUrl(readString(in))
+            .setOpenTime(in.readLong())
+            .setCloseTime(in.readLong())
+            .setTransactional(in.readBoolean())
+            .build();
+    }
+
+    @NotNull
+    private static DBCExecutionPurpose getPurpose(@Nullable String name) {
+        if (name != null) {
+            try {
+                return DBCExecutionPurpose.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                // Purpose was removed
+            }
+        }
+        return DBCExecutionPurpose.UTIL;
+    }
+
+    private static void writeString(@NotNull DataOutput out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    ///////////////////////////////////////////////////////////////////
+    // Index
+
+    private record BlockInfo(
+        long payloadOffset,
+        int compressedLength,
+        int rawLength,
+        long firstEventId,
+        int eventCount,
+        long minTime,
+        long maxTime,
+        @NotNull Set<String> containerIds
+    ) {
+    }
+
+    private record BlockRef(@NotNull Path file, @NotNull BlockInfo block) {
+    }
+
+    private static class Segment {
+        @NotNull
+        private final Path file;
+        @NotNull
+        private final LocalDate date;
+        private final List<BlockInfo> blocks = new ArrayList<>();
+        private long size;
+        private long maxTime;
+
+        Segment(@NotNull Path file) {
+            this.file = file;
+            this.date = getSegmentDate(file);
+        }
+
+        synchronized List<BlockInfo> getBlocks() {
+            return new ArrayList<>(blocks);
+        }
+
+        synchronized void addBlock(@NotNull BlockInfo block) {
+            blocks.add(block);
+            size = block.payloadOffset + block.compressedLength;
+            maxTime = Math.max(maxTime, block.maxTime);
+        }
+
+        synchronized long getFirstEventId() {
+            return blocks.isEmpty() ? Long.MAX_VALUE : blocks.get(0).firstEventId;
+        }
+
+        synchronized long getLastEventId() {
+            if (blocks.isEmpty()) {
+                return 0;
+            }
+            BlockInfo lastBlock = blocks.get(blocks.size() - 1);
+            return lastBlock.firstEventId + lastBlock.eventCount - 1;
+        }
+
+        synchronized long getMaxTime() {
+            return maxTime;
+        }
+
+        @NotNull
+        private static LocalDate getSegmentDate(@NotNull Path file) {
+            String name = file.getFileName().toString();
+            int start = SEGMENT_FILE_PREFIX.length();
+            int end = name.indexOf('_', start);
+            try {
+                return LocalDate.parse(name.substring(start, end < 0 ? start : end), SEGMENT_DATE_FORMAT);
+            } catch (DateTimeParseException e) {
+                return LocalDate.MIN;
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////
+    // Cursor
+
+    private static class HistoryCursor implements QMEventCursor {
+        @NotNull
+        private final List<BlockRef> blocks;
+        @NotNull
+        private final QMEventCriteria criteria;
+        @Nullable
+        private final QMEventFilter filter;
+        @Nullable
+        private final String searchString;
+        private final long minTime;
+        private final long maxTime;
+        private final Map<Path, FileChannel> channels = new HashMap<>();
+        private int blockIndex;
+        @NotNull
+        private List<QMMetaEventEntity> blockEvents = Collections.emptyList();
+        private int eventIndex;
+        @Nullable
+        private QMMetaEventEntity nextEvent;
+
+        HistoryCursor(@NotNull List<BlockRef> blocks, @NotNull QMCursorFilter cursorFilter) {
+            this.criteria = cursorFilter.getCriteria();
+            this.filter = cursorFilter.getFilter();
+            this.searchString = CommonUtils.isEmpty(criteria.getSearchString()) ? null : criteria.getSearchString().toLowerCase();
+            QMDateRange dateRange = criteria.getStartDateRange();
+            Long from = dateRange == null ? null : parseTime(dateRange.getFrom());
+            Long to = dateRange == null ? null : parseTime(dateRange.getTo());
+            this.minTime = from == null ? Long.MIN_VALUE : from;
+            this.maxTime = to == null ? Long.MAX_VALUE : to;
+            List<BlockRef> matchingBlocks = new ArrayList<>();
+            for (BlockRef block : blocks) {
+                if (matchesBlock(block.block)) {
+                    matchingBlocks.add(block);
+                }
+            }
+            if (criteria.isDesc()) {
+                Collections.reverse(matchingBlocks);
+            }
+            this.blocks = matchingBlocks;
+        }
+
+        /**
+         * Upper bound of the number of events in the cursor
+         */
+        @Override
+        public long getTotalSize() {
+            long size = 0;
+            for (BlockRef block : blocks) {
+                size += block.block.eventCount;
+            }
+            return size;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException {
+            for (int i = 0; i < position; i++) {
+                if (!hasNextEvent(monitor)) {
+                    throw new DBException("Position is out of range (" + position + ")");
+                }
+                nextEvent = null;
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException {
+            while (nextEvent == null) {
+                if (eventIndex < blockEvents.size()) {
+                    QMMetaEventEntity event = blockEvents.get(eventIndex++);
+                    if (matchesEvent(event)) {
+                        nextEvent = event;
+                    }
+                } else if (blockIndex < blocks.size() && !monitor.isCanceled()) {
+                    blockEvents = readBlock(blocks.get(blockIndex++));
+                    eventIndex = 0;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public QMMetaEventEntity nextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events");
+            }
+            QMMetaEventEntity event = nextEvent;
+            nextEvent = null;
+            return event;
+        }
+
+        @Override
+        public void close() {
+            for (FileChannel channel : channels.values()) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("Error closing query history segment: " + e.getMessage());
+                }
+            }
+            channels.clear();
+        }
+
+        @NotNull
+        private List<QMMetaEventEntity> readBlock(@NotNull BlockRef blockRef) throws DBException {
+            BlockInfo block = blockRef.block;
+            try {
+                FileChannel channel = channels.get(blockRef.file);
+                if (channel == null) {
+                    channel = FileChannel.open(blockRef.file, StandardOpenOption.READ);
+                    channels.put(blockRef.file, channel);
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(block.compressedLength);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, block.payloadOffset + buffer.position()) < 0) {
+                        throw new EOFException();
+                    }
+                }
+                byte[] raw = decompress(buffer.array(), block.rawLength);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+                List<QMMetaEventEntity> events = new ArrayList<>(block.eventCount);
+                for (int i = 0; i < block.eventCount; i++) {
+                    events.add(readEvent(in));
+                }
+                if (criteria.isDesc()) {
+                    Collections.reverse(events);
+                }
+                return events;
+            } catch (NoSuchFileException e) {
+                // Segment was purged
+                return Collections.emptyList();
+            } catch (IOException e) {
+                throw new DBException("Error reading query history", e);
+            }
+        }
+
+        private boolean matchesBlock(@NotNull BlockInfo block) {
+            if (block.maxTime < minTime || block.minTime > maxTime) {
+                return false;
+            }
+            if (criteria.hasLastEventId()) {
+                long lastEventId = criteria.getLastEventId();
+                if (criteria.isDesc() ? block.firstEventId >= lastEventId : block.firstEventId + block.eventCount <= lastEventId) {
+                    return false;
+                }
+            }
+            return criteria.getContainerId() == null || block.containerIds.contains(criteria.getContainerId());
+        }
+
+        private boolean matchesEvent(@NotNull QMMetaEventEntity event) {
+            QMMObject object = event.getObject();
+            QMMConnectionInfo connection = object.getConnection();
+            long time = getEventTime(object);
+            if (time < minTime || time > maxTime) {
+                return false;
+            }
+            if (criteria.hasLastEventId() &&
+                (criteria.isDesc() ? event.getId() >= criteria.getLastEventId() : event.getId() <= criteria.getLastEventId())) {
+                return false;
+            }
+            if (criteria.getContainerId() != null && !criteria.getContainerId().equals(connection.getContainerId())) {
+                return false;
+            }
+            if (criteria.hasDriverIds() && !criteria.getDriverIds().contains(connection.getDriverId())) {
+                return false;
+            }
+            if (criteria.hasProjectIds() &&
+                (connection.getProjectInfo() == null || !criteria.getProjectIds().contains(connection.getProjectInfo().getId()))) {
+                return false;
+            }
+            if (criteria.hasObjectTypes() && !ArrayUtils.contains(criteria.getObjectTypes(), getObjectType(object))) {
+                return false;
+            }
+            if (object instanceof QMMStatementExecuteInfo execute) {
+                if (criteria.hasQueryTypes() && !criteria.hasQueryType(execute.getStatement().getPurpose())) {
+                    return false;
+                }
+                if (criteria.isSkipEmptyQueries() && CommonUtils.isEmpty(execute.getQueryString())) {
+                    return false;
+                }
+                if (criteria.hasEventStatuses() &&
+                    !criteria.getEventStatuses().contains(execute.hasError() ? QMEventStatus.FAILED : QMEventStatus.SUCCESS)) {
+                    return false;
+                }
+            }
+            if (searchString != null) {
+                String text = object.getText();
+                if (text == null || !text.toLowerCase().contains(searchString)) {
+                    return false;
+                }
+            }
+            return filter == null || filter.accept(event);
+        }
+
+        @NotNull
+        private static QMObjectType getObjectType(@NotNull QMMObject object) {
+            if (object instanceof QMMConnectionInfo) {
+                return QMObjectType.session;
+            } else if (object instanceof QMMTransactionInfo) {
+                return QMObjectType.txn;
+            } else {
+                return QMObjectType.query;
+            }
+        }
+
+        /**
+         * Parses date range bound: epoch millis, ISO instant, local date-time or local date
+         */
+        @Nullable
+        private static Long parseTime(@Nullable String value) {
+            if (CommonUtils.isEmptyTrimmed(value)) {
+                return null;
+            }
+            value = value.trim();
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                // Not a timestamp
+            }
+            try {
+                return Instant.parse(value).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Not an instant
+            }
+            try {
+                return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Not a date-time
+            }
+            try {
+                return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                log.debug("Unsupported query history date '" + value + "'");
+                return null;
+            }
+        }
+    }
+
+}
@@ -18,11 +18,14 @@ package org.jkiss.dbeaver.runtime.qm;
 
 import org.eclipse.core.runtime.IStatus;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
 import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -39,24 +42,29 @@ import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
 import java.util.stream.Stream;
 
 /**
- * Query manager log writer
+ * Query manager log writer.
+ * Besides the text log it keeps the binary query history, which is used as the query history browser.
  */
-public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
+public class QMLogFileWriter implements QMMetaListener, QMEventBrowser, DBPPreferenceListener {
 
     private static final Log log = Log.getLog(QMLogFileWriter.class);
     private static final DateTimeFormatter LOG_FILENAME_FORMATTER = DateTimeFormatter
         .ofPattern("'dbeaver_sql_'" + GeneralUtils.DEFAULT_DATE_PATTERN + "'.log'", Locale.ENGLISH);
+    private static final String HISTORY_FOLDER = "qm_history";
 
     private File logFile;
     private boolean enabled;
 
     private Writer logWriter;
+    @Nullable
+    private volatile QMHistoryStore historyStore;
     private QMEventFilter eventFilter;
     private final String lineSeparator;
 
@@ -70,6 +78,7 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
     public void dispose()
     {
         DBWorkbench.getPlatform().getPreferenceStore().removePropertyChangeListener(this);
+        closeHistoryStore();
     }
 
     private synchronized void initLogFile()
@@ -100,11 +109,21 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
             } catch (IOException e) {
                 log.error("Can't open log writer", e);
             }
+            closeHistoryStore();
+            try {
+                historyStore = new QMHistoryStore(
+                    logFolder.toPath().resolve(HISTORY_FOLDER),
+                    daysToKeepLogs,
+                    preferences.getLong(QMConstants.PROP_HISTORY_MAX_SIZE) * 1024 * 1024);
+            } catch (IOException e) {
+                log.error("Can't open query history", e);
+            }
         } else {
             if (logWriter != null) {
                 ContentUtils.close(logWriter);
                 logWriter = null;
             }
+            closeHistoryStore();
         }
         eventFilter = new DefaultEventFilter();
     }
@@ -133,28 +152,63 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
         }
     }
 
+    private synchronized void closeHistoryStore() {
+        QMHistoryStore store = historyStore;
+        if (store != null) {
+            historyStore = null;
+            store.close();
+        }
+    }
+
     @Override
     public synchronized void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events)
     {
-        if (!enabled || logWriter == null) {
+        if (!enabled) {
             return;
         }
 
         StringBuilder logBuffer = new StringBuilder(4000);
+        List<QMMetaEvent> historyEvents = new ArrayList<>(events.size());
         for (QMMetaEvent event : events) {
             if (eventFilter.accept(event)) {
                 writeEvent(logBuffer, event);
+                if (QMHistoryStore.isStoredEvent(event)) {
+                    historyEvents.add(event);
+                }
+            }
+        }
+
+        if (logWriter != null) {
+            try {
+                logWriter.write(logBuffer.toString());
+                logWriter.flush();
+            } catch (IOException e) {
+                log.warn("IO error writing QM log. Disable log file writer", e);
+                ContentUtils.close(logWriter);
+                logWriter = null;
+            }
+        }
+        QMHistoryStore store = historyStore;
+        if (store != null && !historyEvents.isEmpty()) {
+            try {
+                store.append(historyEvents);
+            } catch (IOException e) {
+                log.warn("IO error writing query history. Disable query history", e);
+                closeHistoryStore();
             }
         }
+    }
 
-        try {
-            logWriter.write(logBuffer.toString());
-            logWriter.flush();
-        } catch (IOException e) {
-            log.warn("IO error writing QM log. Disable log file writer", e);
-            ContentUtils.close(logWriter);
-            logWriter = null;
+    @NotNull
+    @Override
+    public QMEventCursor getQueryHistoryCursor(@NotNull QMCursorFilter cursorFilter) throws DBException {
+        QMHistoryStore store = historyStore;
+        if (store == null) {
+            // History is not stored, use events of the current session
+            QMEventBrowser sessionBrowser = QMUtils.getEventBrowser(true);
+            return sessionBrowser == null ? new QMUtils.EmptyCursorImpl() : sessionBrowser.getQueryHistoryCursor(cursorFilter);
         }
+        return store.getQueryHistoryCursor(cursorFilter);
     }
 
     @Override
@@ -31,47 +31,73 @@ import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
-import org.jkiss.utils.LongKeyMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ * <p>
+ * Handlers do not lock the collector: connection meta info is modified under the connection info lock,
+ * events are added to lock-free ring buffers sharded by connection, so events of one connection keep their order.
+ * The dispatcher is woken up when a buffer is half full. Buffers are bounded, events which do not fit are dropped
+ * and counted, except END events: they are kept in the overflow queue, so no object stays open in the history.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
     private static final Log log = Log.getLog(QMMCollectorImpl.class);
 
     private static final int MAX_HISTORY_EVENTS = 10000;
+    private static final int MAX_EVENT_SHARDS = 16;
+    private static final int EVENT_SHARD_CAPACITY = 4096;
+    private static final int DISPATCH_BATCH_SIZE = 1000;
 
     // Session map
-    private LongKeyMap<QMMConnectionInfo> connectionMap = new LongKeyMap<>();
-    private List<Long> closedConnections = new ArrayList<>();
+    private final Map<Long, QMMConnectionInfo> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedConnections = new ConcurrentLinkedQueue<>();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
     // Temporary event pool
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
+    private final QMEventRingBuffer<QMMetaEvent>[] eventShards;
+    // END events which didn't fit into their shard
+    private final Queue<QMMetaEvent> overflowEvents = new ConcurrentLinkedQueue<>();
+    private final EventDispatcher eventDispatcher = new EventDispatcher();
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    // Events which wait for the QM session id. Accessed by dispatcher only
+    private List<QMMetaEvent> pendingEvents = new ArrayList<>();
+    private long reportedDroppedEvents;
     // Sync object
     private final Object historySync = new Object();
     // History (may be purged when limit reached)
     private List<QMMetaEvent> pastEvents = new ArrayList<>();
+    private final QMWorkloadAggregator workloadAggregator = new QMWorkloadAggregator();
     private boolean running = true;
     private long eventDispatchPeriod = 250;
 
+    @SuppressWarnings("unchecked")
     public QMMCollectorImpl() {
+        int shardCount = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), MAX_EVENT_SHARDS));
+        eventShards = new QMEventRingBuffer[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            eventShards[i] = new QMEventRingBuffer<>(EVENT_SHARD_CAPACITY);
+        }
         var application = DBWorkbench.getPlatform().getApplication();
         var qmConfigurationProvider = DBUtils.getAdapter(QMConfigurationProvider.class, application);
         if (qmConfigurationProvider != null) {
             eventDispatchPeriod = qmConfigurationProvider.getEventDispatchPeriod();
         }
-        new EventDispatcher().schedule(eventDispatchPeriod);
+        eventDispatcher.schedule(eventDispatchPeriod);
     }
 
-    public synchronized void dispose() {
+    public void dispose() {
         if (!connectionMap.isEmpty()) {
             List<QMMConnectionInfo> openSessions = new ArrayList<>();
             for (QMMConnectionInfo connection : connectionMap.values()) {
@@ -128,22 +154,56 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
+    private void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
         try {
             String sessionId = QMUtils.getQmSessionId(context);
-            eventPool.add(new QMMetaEvent(object, action, sessionId));
+            // Events of the same context always go to the same shard
+            long contextId = context.getContextId();
+            QMEventRingBuffer<QMMetaEvent> shard = eventShards[(int) (contextId ^ (contextId >>> 32)) & (eventShards.length - 1)];
+            QMMetaEvent event = new QMMetaEvent(object, action, sessionId);
+            if (action == QMEventAction.END) {
+                if (!shard.tryAdd(event)) {
+                    overflowEvents.add(event);
+                }
+            } else {
+                shard.offer(event);
+            }
+            if (shard.size() >= EVENT_SHARD_CAPACITY / 2 && isRunning() && dispatchRequested.compareAndSet(false, true)) {
+                // Do not wait for the dispatch period: dispatcher sleeps or runs and must repeat
+                eventDispatcher.wakeUp();
+                eventDispatcher.schedule();
+            }
         } catch (DBException e) {
             log.error("Failed to fire qm meta event", e);
         }
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents() {
-        if (eventPool.isEmpty()) {
+    /**
+     * Returns next batch of events or empty list if there are no events ready for dispatch.
+     * Must be called by the dispatcher only.
+     */
+    private List<QMMetaEvent> obtainEvents() {
+        List<QMMetaEvent> events = pendingEvents;
+        for (QMEventRingBuffer<QMMetaEvent> shard : eventShards) {
+            if (events.size() >= DISPATCH_BATCH_SIZE) {
+                break;
+            }
+            shard.drainTo(events, DISPATCH_BATCH_SIZE - events.size());
+        }
+        // Overflow END events follow events of their shards
+        while (events.size() < DISPATCH_BATCH_SIZE) {
+            QMMetaEvent event = overflowEvents.poll();
+            if (event == null) {
+                break;
+            }
+            events.add(event);
+        }
+        if (events.isEmpty()) {
             return Collections.emptyList();
         }
         // qm session id might be null if database migration is in progress for single user product
         if (DBWorkbench.getPlatform().getApplication() instanceof QMSessionProvider qmSessionProvider) {
-            for (QMMetaEvent event : eventPool) {
+            for (QMMetaEvent event : events) {
                 if (event.getSessionId() != null) {
                     continue;
                 }
@@ -153,17 +213,40 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 }
                 var sessionId = qmSessionProvider.getQmSessionId();
                 if (sessionId == null) {
+                    // Keep events until the next dispatch
                     return Collections.emptyList();
                 }
                 event.setSessionId(sessionId);
             }
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
+        pendingEvents = new ArrayList<>();
         return events;
     }
 
-    public synchronized QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
+    private boolean hasEvents() {
+        if (!overflowEvents.isEmpty()) {
+            return true;
+        }
+        for (QMEventRingBuffer<QMMetaEvent> shard : eventShards) {
+            if (!shard.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of events which were dropped because the dispatcher didn't keep up with them
+     */
+    public long getDroppedEventCount() {
+        long count = 0;
+        for (QMEventRingBuffer<QMMetaEvent> shard : eventShards) {
+            count += shard.getDroppedCount();
+        }
+        return count;
+    }
+
+    public QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
         QMMConnectionInfo connectionInfo = connectionMap.get(context.getContextId());
         if (connectionInfo == null) {
             log.debug("Can't find connectionInfo meta information: " + context.getContextId() + " (" + context.getContextName() + ")");
@@ -178,132 +261,192 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
         final long contextId = context.getContextId();
         QMMConnectionInfo connection = connectionMap.get(contextId);
         if (connection == null) {
-            connection = new QMMConnectionInfo(
+            connection = connectionMap.computeIfAbsent(contextId, id -> new QMMConnectionInfo(
                 context,
-                transactional);
-            connectionMap.put(contextId, connection);
+                transactional));
         } else {
             // This session may already be in cache in case of reconnect/invalidate
             // (when context closed and reopened without new context object creation)
-            connection.reopen(context);
+            synchronized (connection) {
+                connection.reopen(context);
+            }
         }
 
         // Remove from closed sessions (in case of re-opened connection)
         closedConnections.remove(contextId);
-        tryFireMetaEvent(connection, QMEventAction.BEGIN, context);
+        synchronized (connection) {
+            tryFireMetaEvent(connection, QMEventAction.BEGIN, context);
+        }
         // Notify
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context) {
+    public void handleContextClose(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            session.close();
-            tryFireMetaEvent(session, QMEventAction.END, context);
+            synchronized (session) {
+                session.close();
+                tryFireMetaEvent(session, QMEventAction.END, context);
+            }
         }
         closedConnections.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
+                tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
             }
-            tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement) {
+    public void handleStatementOpen(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows) {
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                tryFireMetaEvent(stat, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    tryFireMetaEvent(stat, QMEventAction.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+                }
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<QMQueryStatistics> getQueryStatistics() {
+        return workloadAggregator.getStatistics();
+    }
+
+    @Override
+    public void clearQueryStatistics() {
+        workloadAggregator.clear();
+    }
+
+    private void dispatchEvents(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        try {
+            workloadAggregator.process(events);
+        } catch (Throwable e) {
+            log.error("Error aggregating query statistics", e);
+        }
+        final List<QMMetaListener> listeners = getListeners();
+        // Dispatch all events
+        for (QMMetaListener listener : listeners) {
+            try {
+                listener.metaInfoChanged(monitor, events);
+            } catch (Throwable e) {
+                log.error("Error notifying event listener", e);
+            }
+        }
+        synchronized (historySync) {
+            pastEvents.addAll(events);
+            int size = pastEvents.size();
+            if (size > MAX_HISTORY_EVENTS) {
+                pastEvents = new ArrayList<>(pastEvents.subList(
+                    size - MAX_HISTORY_EVENTS,
+                    size));
             }
         }
     }
@@ -318,45 +461,38 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedConnections;
-                closedConnections.clear();
+            dispatchRequested.set(false);
+            // Contexts closed before this point have their END events in buffers already
+            List<Long> sessionsToClose = new ArrayList<>();
+            for (Long sessionId = closedConnections.poll(); sessionId != null; sessionId = closedConnections.poll()) {
+                sessionsToClose.add(sessionId);
             }
-            if (!events.isEmpty()) {
-                final List<QMMetaListener> listeners = getListeners();
-                if (!listeners.isEmpty() && !events.isEmpty()) {
-                    // Dispatch all events
-                    for (QMMetaListener listener : listeners) {
-                        try {
-                            listener.metaInfoChanged(monitor, events);
-                        } catch (Throwable e) {
-                            log.error("Error notifying event listener", e);
-                        }
-                    }
+            // Do not chase producers forever: dispatch at most as many events as buffers can hold
+            int maxBatches = eventShards.length * EVENT_SHARD_CAPACITY / DISPATCH_BATCH_SIZE + 1;
+            for (int i = 0; i < maxBatches; i++) {
+                final List<QMMetaEvent> events = obtainEvents();
+                if (events.isEmpty()) {
+                    break;
                 }
-                synchronized (historySync) {
-                    pastEvents.addAll(events);
-                    int size = pastEvents.size();
-                    if (size > MAX_HISTORY_EVENTS) {
-                        pastEvents = new ArrayList<>(pastEvents.subList(
-                            size - MAX_HISTORY_EVENTS,
-                            size));
-                    }
+                dispatchEvents(monitor, events);
+                if (!hasEvents()) {
+                    break;
                 }
             }
+            long droppedEvents = getDroppedEventCount();
+            if (droppedEvents > reportedDroppedEvents) {
+                log.warn((droppedEvents - reportedDroppedEvents) + " query manager events were dropped (event buffers are full)");
+                reportedDroppedEvents = droppedEvents;
+            }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMConnectionInfo session = connectionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
-                        // It is possible (rarely) that session was reopened before event dispatcher run
-                        // In that case just ignore it
-                        connectionMap.remove(sessionId);
+            for (Long sessionId : sessionsToClose) {
+                // It is possible (rarely) that session was reopened before event dispatcher run
+                // In that case just ignore it
+                connectionMap.computeIfPresent(sessionId, (id, session) -> {
+                    synchronized (session) {
+                        return session.isClosed() ? null : session;
                     }
-                }
+                });
             }
             if (isRunning()) {
                 this.schedule(eventDispatchPeriod);
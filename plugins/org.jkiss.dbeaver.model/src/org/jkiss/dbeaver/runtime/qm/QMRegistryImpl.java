@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.runtime.qm;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.qm.*;
@@ -46,6 +47,7 @@ public class QMRegistryImpl implements QMRegistry {
     private QMMCollectorImpl metaHandler;
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
+    private QMEventBrowser historyBrowser;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
 
     public QMRegistryImpl() {
@@ -95,13 +97,21 @@ public class QMRegistryImpl implements QMRegistry {
             eventBrowser = GeneralUtils.adapt(this, QMEventBrowser.class);
             if (eventBrowser == null) {
                 // Default browser
-                this.eventBrowser = defaultEventBrowser;
+                this.eventBrowser = historyBrowser != null ? historyBrowser : defaultEventBrowser;
             }
         }
 
         return eventBrowser;
     }
 
+    /**
+     * Sets browser of the persistent query history. It is used if there is no other browser provided by the application.
+     */
+    public synchronized void setHistoryBrowser(@Nullable QMEventBrowser historyBrowser) {
+        this.historyBrowser = historyBrowser;
+        this.eventBrowser = null;
+    }
+
     @Override
     public void registerHandler(QMExecutionHandler handler) {
         synchronized (handlers) {
@@ -0,0 +1,154 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.metrics.DBMetricsHistogram;
+import org.jkiss.dbeaver.model.qm.QMEventAction;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.QMQueryNormalizer;
+import org.jkiss.dbeaver.model.qm.QMQueryStatistics;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates executed queries by fingerprint.
+ * <p>
+ * Events are processed by the QM event dispatcher, so normalization does not slow down query execution.
+ * Only the most recently executed query shapes are kept.
+ */
+class QMWorkloadAggregator {
+
+    static final int MAX_QUERY_SHAPES = 500;
+    private static final int MAX_CACHED_FINGERPRINTS = 1000;
+    // Longer texts (scripts, bulk inserts) are not cached, the cache would keep them in memory
+    private static final int MAX_CACHED_QUERY_LENGTH = QMQueryNormalizer.MAX_FINGERPRINT_LENGTH;
+    private static final int MAX_SAMPLE_QUERY_LENGTH = QMQueryNormalizer.MAX_FINGERPRINT_LENGTH;
+    private static final int MAX_TRACKED_FETCHES = 1000;
+
+    private final Map<String, QueryShape> shapes = new LRUMap<>(MAX_QUERY_SHAPES);
+    // The same query text is executed many times, do not normalize it again
+    private final Map<String, String> fingerprintCache = new LRUMap<>(MAX_CACHED_FINGERPRINTS);
+    // Executions whose fetched rows were counted already
+    private final Map<Long, Boolean> countedFetches = new LRUMap<>(MAX_TRACKED_FETCHES);
+
+    synchronized void process(@NotNull List<QMMetaEvent> events) {
+        for (QMMetaEvent event : events) {
+            if (event.getObject() instanceof QMMStatementExecuteInfo exec && exec.getQueryString() != null) {
+                if (event.getAction() == QMEventAction.END) {
+                    QueryShape shape = shapes.computeIfAbsent(getFingerprint(exec.getQueryString()), QueryShape::new);
+                    shape.addExecution(exec);
+                } else if (event.getAction() == QMEventAction.UPDATE && exec.getFetchEndTime() > 0 &&
+                    countedFetches.put(exec.getObjectId(), Boolean.TRUE) == null) {
+                    // Result set is closed
+                    QueryShape shape = shapes.get(getFingerprint(exec.getQueryString()));
+                    if (shape != null) {
+                        shape.rowCount += exec.getFetchRowCount();
+                    }
+                }
+            }
+        }
+    }
+
+    @NotNull
+    synchronized List<QMQueryStatistics> getStatistics() {
+        List<QMQueryStatistics> result = new ArrayList<>(shapes.size());
+        for (QueryShape shape : shapes.values()) {
+            result.add(shape.toStatistics());
+        }
+        return result;
+    }
+
+    synchronized void clear() {
+        shapes.clear();
+        countedFetches.clear();
+    }
+
+    @NotNull
+    private String getFingerprint(@NotNull String query) {
+        if (query.length() > MAX_CACHED_QUERY_LENGTH) {
+            return QMQueryNormalizer.getFingerprint(query);
+        }
+        String fingerprint = fingerprintCache.get(query);
+        if (fingerprint == null) {
+            fingerprint = QMQueryNormalizer.getFingerprint(query);
+            fingerprintCache.put(query, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private static class QueryShape {
+        private final String fingerprint;
+        private final DBMetricsHistogram times = new DBMetricsHistogram();
+        @Nullable
+        private String sampleQuery;
+        private long errorCount;
+        private long rowCount;
+        private long lastExecuteTime;
+
+        QueryShape(@NotNull String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void addExecution(@NotNull QMMStatementExecuteInfo exec) {
+            times.record(Math.max(exec.getCloseTime() - exec.getOpenTime(), 0));
+            if (exec.hasError()) {
+                errorCount++;
+            }
+            if (exec.getUpdateRowCount() > 0) {
+                rowCount += exec.getUpdateRowCount();
+            }
+            sampleQuery = CommonUtils.truncateString(exec.getQueryString(), MAX_SAMPLE_QUERY_LENGTH);
+            lastExecuteTime = exec.getCloseTime();
+        }
+
+        @NotNull
+        QMQueryStatistics toStatistics() {
+            return new QMQueryStatistics(
+                fingerprint,
+                sampleQuery == null ? fingerprint : sampleQuery,
+                times.getCount(),
+                errorCount,
+                times.getSum(),
+                times.getValueAtPercentile(50),
+                times.getValueAtPercentile(99),
+                times.getMax(),
+                rowCount,
+                lastExecuteTime);
+        }
+    }
+
+    private static class LRUMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LRUMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -98,10 +98,11 @@ public class DashboardListViewer extends StructuredViewer implements DBPDataSour
 
         DBCExecutionContext context = isolatedContext;
         if (context != null) {
+            // Reset it first, so dashboard updater doesn't use the closed context
+            isolatedContext = null;
             if (context.isConnected()) {
                 context.close();
             }
-            isolatedContext = null;
         }
     }
 
@@ -29,12 +29,20 @@ import org.jfree.chart.ui.RectangleInsets;
 import org.jfree.data.time.*;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardFetchType;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardInterval;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardValueType;
+import org.jkiss.dbeaver.model.dashboard.DashboardConstants;
 import org.jkiss.dbeaver.model.dashboard.data.DashboardDataset;
 import org.jkiss.dbeaver.model.dashboard.data.DashboardDatasetRow;
+import org.jkiss.dbeaver.model.dashboard.data.DashboardHistory;
+import org.jkiss.dbeaver.model.dashboard.data.DashboardTimeSeries;
 import org.jkiss.dbeaver.model.dashboard.registry.DashboardItemConfiguration;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.AWTUtils;
 import org.jkiss.dbeaver.ui.UIStyles;
 import org.jkiss.dbeaver.ui.charts.BaseChartDrawingSupplier;
@@ -45,17 +53,28 @@ import org.jkiss.dbeaver.ui.dashboard.control.DashboardViewItem;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardContainer;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardItemContainer;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardItemViewSettings;
+import org.jkiss.utils.CommonUtils;
 
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Histogram dashboard renderer
  */
 public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart {
 
+    private static final Log log = Log.getLog(DashboardRendererTimeseries.class);
+
+    private static final String HISTORY_FOLDER = "dashboard-history";
+    private static final String HISTORY_FILE_EXT = ".dat";
+    private static final String DATA_HISTORY = "history";
+
     private static final Font DEFAULT_TICK_LABEL_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 8);
     public static final int MAX_TIMESERIES_RANGE_LABELS = 25;
 
@@ -181,6 +200,12 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
         DashboardChartComposite chartComposite = createChartComposite(composite, container, viewContainer, preferredSize);
         chartComposite.setChart(histogramChart);
 
+        DashboardHistory history = loadHistory(container);
+        chartComposite.setData(DATA_HISTORY, history);
+        if (dashboard.getFetchType() != DBDashboardFetchType.stats) {
+            fillFromHistory(container, plot, dataset, history);
+        }
+
         return chartComposite;
     }
 
@@ -207,6 +232,9 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
         }
 
         DashboardDatasetRow lastRow = (DashboardDatasetRow) chartComposite.getData("last_row");
+        // Stats are not time series, they are replaced on each update
+        DashboardHistory history = dashboard.getFetchType() == DBDashboardFetchType.stats ?
+            null : (DashboardHistory) chartComposite.getData(DATA_HISTORY);
 
         List<DashboardDatasetRow> rows = dataset.getRows();
 
@@ -214,14 +242,7 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
         for (int i = 0; i < srcSeries.length; i++) {
             String seriesName = srcSeries[i];
 
-            TimeSeries series = chartDataset.getSeries(seriesName);
-            if (series == null) {
-                series = new TimeSeries(seriesName);
-                series.setMaximumItemCount(container.getDashboardMaxItems());
-                series.setMaximumItemAge(container.getDashboardMaxAge());
-                chartDataset.addSeries(series);
-                plot.getRenderer().setSeriesStroke(chartDataset.getSeriesCount() - 1, plot.getRenderer().getDefaultStroke());
-            }
+            TimeSeries series = getOrCreateSeries(container, plot, chartDataset, seriesName);
 
             switch (dashboard.getCalcType()) {
                 case value: {
@@ -242,7 +263,10 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
                         }
                         Object value = row.getValues()[i];
                         if (value instanceof Number) {
-                            series.addOrUpdate(makeDataItem(container, row), (Number) value);
+                            series.addOrUpdate(makeDataItem(container, row.getTimestamp()), (Number) value);
+                            if (history != null) {
+                                history.add(seriesName, row.getTimestamp().getTime(), ((Number) value).doubleValue());
+                            }
                         }
                     }
                     break;
@@ -263,8 +287,11 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
                                     deltaValue = Math.round(deltaValue);
                                 }
                                 series.addOrUpdate(
-                                    makeDataItem(container, row),
+                                    makeDataItem(container, row.getTimestamp()),
                                     deltaValue);
+                                if (history != null) {
+                                    history.add(seriesName, row.getTimestamp().getTime(), deltaValue);
+                                }
                             }
                         }
                     }
@@ -278,19 +305,118 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
         }
     }
 
-    private RegularTimePeriod makeDataItem(DashboardItemContainer container, DashboardDatasetRow row) {
+    private TimeSeries getOrCreateSeries(DashboardItemContainer container, XYPlot plot, TimeSeriesCollection chartDataset, String seriesName) {
+        TimeSeries series = chartDataset.getSeries(seriesName);
+        if (series == null) {
+            series = new TimeSeries(seriesName);
+            series.setMaximumItemCount(container.getDashboardMaxItems());
+            series.setMaximumItemAge(container.getDashboardMaxAge());
+            chartDataset.addSeries(series);
+            plot.getRenderer().setSeriesStroke(chartDataset.getSeriesCount() - 1, plot.getRenderer().getDefaultStroke());
+        }
+        return series;
+    }
+
+    private RegularTimePeriod makeDataItem(DashboardItemContainer container, Date timestamp) {
         return switch (container.getItemDescriptor().getInterval()) {
-            case second -> new FixedMillisecond(row.getTimestamp().getTime());
-            case minute -> new Minute(row.getTimestamp());
-            case hour -> new Hour(row.getTimestamp());
-            case day -> new Day(row.getTimestamp());
-            case week -> new Week(row.getTimestamp());
-            case month -> new Month(row.getTimestamp());
-            case year -> new Year(row.getTimestamp());
-            default -> new FixedMillisecond(row.getTimestamp().getTime());
+            case second -> new FixedMillisecond(timestamp.getTime());
+            case minute -> new Minute(timestamp);
+            case hour -> new Hour(timestamp);
+            case day -> new Day(timestamp);
+            case week -> new Week(timestamp);
+            case month -> new Month(timestamp);
+            case year -> new Year(timestamp);
+            default -> new FixedMillisecond(timestamp.getTime());
         };
     }
 
+    /**
+     * Fills chart with the saved history. Long ranges are taken from the rollups, so chart gets at most max items points.
+     */
+    private void fillFromHistory(DashboardItemContainer container, XYPlot plot, TimeSeriesCollection chartDataset, DashboardHistory history) {
+        long currentTime = System.currentTimeMillis();
+        long fromTime = currentTime - container.getDashboardMaxAge();
+        for (Map.Entry<String, DashboardTimeSeries> entry : history.getAllSeries().entrySet()) {
+            DashboardTimeSeries.Samples samples = entry.getValue().getSamples(fromTime, currentTime, container.getDashboardMaxItems());
+            if (samples.size() == 0) {
+                continue;
+            }
+            TimeSeries series = getOrCreateSeries(container, plot, chartDataset, entry.getKey());
+            for (int i = 0; i < samples.size(); i++) {
+                series.addOrUpdate(makeDataItem(container, new Date(samples.times()[i])), samples.avg()[i]);
+            }
+        }
+    }
+
+    @NotNull
+    private DashboardHistory loadHistory(DashboardItemContainer container) {
+        DashboardHistory history = new DashboardHistory();
+        Path historyFile = getHistoryFile(container);
+        if (historyFile != null && Files.exists(historyFile)) {
+            try {
+                history.load(historyFile);
+            } catch (IOException e) {
+                log.debug("Error loading dashboard history from " + historyFile, e);
+            }
+        }
+        return history;
+    }
+
+    private void saveHistory(DashboardItemContainer container, DashboardHistory history) {
+        Path historyFile = getHistoryFile(container);
+        if (historyFile == null) {
+            return;
+        }
+        try {
+            if (history.getAllSeries().isEmpty()) {
+                // History was reset
+                Files.deleteIfExists(historyFile);
+            } else {
+                history.save(historyFile);
+            }
+        } catch (IOException e) {
+            log.debug("Error saving dashboard history to " + historyFile, e);
+        }
+    }
+
+    @Nullable
+    private Path getHistoryFile(DashboardItemContainer container) {
+        DBPDataSourceContainer dataSourceContainer = container.getDataSourceContainer();
+        DBPPreferenceStore store = dataSourceContainer != null ?
+            dataSourceContainer.getPreferenceStore() : DBWorkbench.getPlatform().getPreferenceStore();
+        DBPProject project = container.getProject();
+        if (!store.getBoolean(DashboardConstants.PREF_PERSIST_HISTORY) || project == null) {
+            return null;
+        }
+        String fileName = (dataSourceContainer == null ? "" : dataSourceContainer.getId() + "-") + container.getItemDescriptor().getId();
+        return project.getMetadataFolder(false)
+            .resolve(HISTORY_FOLDER)
+            .resolve(CommonUtils.escapeFileName(fileName) + HISTORY_FILE_EXT);
+    }
+
+    @Override
+    public void moveDashboardView(@NotNull DashboardViewItem toItem, @NotNull DashboardViewItem fromItem, boolean clearOriginal) {
+        super.moveDashboardView(toItem, fromItem, clearOriginal);
+        DashboardChartComposite fromComp = getChartComposite(fromItem);
+        DashboardChartComposite toComp = getChartComposite(toItem);
+        if (fromComp == null || toComp == null) {
+            return;
+        }
+        toComp.setData(DATA_HISTORY, fromComp.getData(DATA_HISTORY));
+        if (clearOriginal) {
+            fromComp.setData(DATA_HISTORY, null);
+        }
+    }
+
+    @Override
+    public void disposeDashboard(@NotNull DashboardItemContainer container) {
+        DashboardChartComposite chartComposite = getChartComposite(container);
+        if (chartComposite != null && chartComposite.getData(DATA_HISTORY) instanceof DashboardHistory history) {
+            saveHistory(container, history);
+        }
+        super.disposeDashboard(container);
+    }
+
     @Override
     public void resetDashboardData(@NotNull DashboardItemContainer container, Date lastUpdateTime) {
         XYPlot plot = getDashboardPlot(container);
@@ -298,6 +424,10 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
             TimeSeriesCollection chartDataset = (TimeSeriesCollection) plot.getDataset();
             chartDataset.removeAllSeries();
         }
+        DashboardChartComposite chartComposite = getChartComposite(container);
+        if (chartComposite != null && chartComposite.getData(DATA_HISTORY) instanceof DashboardHistory history) {
+            history.clear();
+        }
     }
 
     @Override
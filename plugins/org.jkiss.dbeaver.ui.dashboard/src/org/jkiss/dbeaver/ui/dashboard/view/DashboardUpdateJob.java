@@ -37,6 +37,8 @@ public class DashboardUpdateJob extends AbstractJob {
     private static DashboardUpdateJob updateJob;
     
     private final AtomicBoolean isSchedule = new AtomicBoolean(true);
+    // Keeps query statistics between runs
+    private final DashboardUpdater updater = new DashboardUpdater();
 
     private DashboardUpdateJob() {
         super("Dashboard update");
@@ -46,7 +48,7 @@ public class DashboardUpdateJob extends AbstractJob {
     protected IStatus run(DBRProgressMonitor monitor) {
 
         try {
-            if (new DashboardUpdater().updateDashboards(monitor)) {
+            if (updater.updateDashboards(monitor)) {
                 pauseDashboardUpdate();
             }
         } catch (Exception e) {
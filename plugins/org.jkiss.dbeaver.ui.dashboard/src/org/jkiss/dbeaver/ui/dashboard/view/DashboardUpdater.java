@@ -19,11 +19,12 @@ package org.jkiss.dbeaver.ui.dashboard.view;
 import org.apache.commons.jexl3.JexlContext;
 import org.eclipse.ui.*;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
-import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.DBPErrorAssistant;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardDataType;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardMapQuery;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardQuery;
@@ -33,8 +34,8 @@ import org.jkiss.dbeaver.model.dashboard.data.DashboardDatasetRow;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dashboard.control.DashboardListViewer;
-import org.jkiss.dbeaver.ui.dashboard.model.DashboardContainer;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardGroupContainer;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardItemContainer;
 import org.jkiss.dbeaver.utils.GeneralUtils;
@@ -44,25 +45,60 @@ import org.jkiss.utils.CommonUtils;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
+/**
+ * Dashboard update scheduler.
+ * <p>
+ * Dashboards which must be updated are grouped by execution context, each group is updated in a single session.
+ * Views which use separate connections have their own contexts, so their queries are executed separately.
+ * The same query used by several dashboards of the same context is executed once per update.
+ * Update period of expensive queries is increased, so dashboards do not load the database too much.
+ * Dashboards which are not visible are not updated.
+ */
 public class DashboardUpdater {
 
     private static final Log log = Log.getLog(DashboardUpdater.class);
+
+    // Query may take at most 1/COST_FACTOR of its update period
+    private static final int COST_FACTOR = 20;
+    private static final long MAX_ADAPTIVE_PERIOD = 5 * 60 * 1000;
+    // Statistics of queries which were not executed for this time are removed
+    private static final long QUERY_STATS_TTL = 10 * 60 * 1000;
+
     private final Map<DBPDataSourceContainer, List<MapQueryInfo>> mapQueries = new HashMap<>();
+    private final Map<QueryKey, QueryStats> queryStats = new HashMap<>();
 
     private static class MapQueryInfo {
         private final DashboardItemContainer dashboard;
-        private final DashboardContainer viewContainer;
         private final DBDashboardMapQuery mapQuery;
         public Date timestamp;
         private final Map<String, Object> mapValue = new HashMap<>();
 
-        public MapQueryInfo(DashboardItemContainer dashboard, DashboardContainer viewContainer, DBDashboardMapQuery mapQuery) {
+        public MapQueryInfo(DashboardItemContainer dashboard, DBDashboardMapQuery mapQuery) {
             this.dashboard = dashboard;
-            this.viewContainer = viewContainer;
             this.mapQuery = mapQuery;
         }
     }
 
+    private record QueryKey(@NotNull DBPDataSourceContainer dataSourceContainer, @NotNull String queryText) {
+    }
+
+    private static class QueryStats {
+        // Exponential moving average of query execution time
+        private long averageTime;
+        private long lastExecuteTime;
+
+        void addExecution(long time) {
+            averageTime = averageTime == 0 ? time : (averageTime * 3 + time) / 4;
+            lastExecuteTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Query result shared by all dashboards which use the query
+     */
+    private record QueryResult(@NotNull String[] columnNames, @NotNull List<DashboardDatasetRow> rows) {
+    }
+
     public DashboardUpdater() {
     }
 
@@ -75,168 +111,189 @@ public class DashboardUpdater {
         if (getDashboardsToUpdate(dashboards)) {
             return true;
         }
+        if (!dashboards.isEmpty()) {
+            updateDashboards(monitor, dashboards);
+        }
+        removeStaleQueryStats();
 
-        updateDashboards(monitor, dashboards);
-        
         return false;
     }
 
     private void updateDashboards(@NotNull DBRProgressMonitor monitor, @NotNull List<DashboardItemContainer> dashboards) {
-        monitor.beginTask("Update dashboards", dashboards.size());
+        Map<DBCExecutionContext, List<DashboardItemContainer>> dashboardsByContext = new LinkedHashMap<>();
+        for (DashboardItemContainer dashboard : dashboards) {
+            DBPDataSourceContainer dsContainer = dashboard.getDataSourceContainer();
+            if (dsContainer == null || dsContainer.getDataSource() == null || !dsContainer.isConnected()) {
+                continue;
+            }
+            // Views with separate connections use their own contexts. Context of a closing view may be already closed.
+            DBCExecutionContext executionContext = dashboard.getGroup().getView().getExecutionContext();
+            if (executionContext == null || !executionContext.isConnected()) {
+                continue;
+            }
+            dashboardsByContext.computeIfAbsent(executionContext, k -> new ArrayList<>()).add(dashboard);
+        }
+
+        monitor.beginTask("Update dashboards", dashboardsByContext.size());
+        for (Map.Entry<DBCExecutionContext, List<DashboardItemContainer>> entry : dashboardsByContext.entrySet()) {
+            if (monitor.isCanceled() || DBWorkbench.getPlatform().isShuttingDown()) {
+                break;
+            }
+            monitor.subTask("Read dashboard data");
+            updateContextDashboards(monitor, entry.getKey(), entry.getValue());
+            monitor.worked(1);
+        }
+        monitor.done();
+    }
 
-        // Get all map queries used by dashboards
+    private void updateContextDashboards(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext context,
+        @NotNull List<DashboardItemContainer> dashboards
+    ) {
+        DBPDataSource dataSource = context.getDataSource();
+        DBPDataSourceContainer dsContainer = dataSource.getContainer();
+        // Map queries first, dashboards read their values
+        List<MapQueryInfo> dsMapQueries = new ArrayList<>();
+        // Other queries and their subscribers, in the order of the first use
+        Map<String, List<DashboardItemContainer>> queryDashboards = new LinkedHashMap<>();
         for (DashboardItemContainer dashboard : dashboards) {
             DBDashboardMapQuery mapQuery = dashboard.getMapQuery();
             if (mapQuery != null) {
-                List<MapQueryInfo> queryList = mapQueries.computeIfAbsent(
-                    dashboard.getDataSourceContainer(), k -> new ArrayList<>());
-                boolean found = false;
-                for (MapQueryInfo mqi : queryList) {
-                    if (mqi.mapQuery == mapQuery) {
-                        found = true;
-                        break;
-                    }
+                MapQueryInfo mqi = getMapQueryData(dashboard);
+                if (mqi == null) {
+                    mqi = new MapQueryInfo(dashboard, mapQuery);
+                    mapQueries.computeIfAbsent(dsContainer, k -> new ArrayList<>()).add(mqi);
+                }
+                if (!dsMapQueries.contains(mqi)) {
+                    dsMapQueries.add(mqi);
                 }
-                if (!found) {
-                    queryList.add(new MapQueryInfo(dashboard, dashboard.getGroup().getView(), mapQuery));
+            } else {
+                for (DBDashboardQuery query : dashboard.getQueryList()) {
+                    queryDashboards.computeIfAbsent(query.getQueryText(), k -> new ArrayList<>()).add(dashboard);
                 }
             }
         }
 
-        for (Map.Entry<DBPDataSourceContainer, List<MapQueryInfo>> mqEntry : mapQueries.entrySet()) {
-            monitor.subTask("Read dashboard data");
-            DBPDataSourceContainer dsContainer = mqEntry.getKey();
-            DBPDataSource dataSource = dsContainer.getDataSource();
-            if (dataSource == null) {
-                continue;
-            }
-            try {
-                DBExecUtils.tryExecuteRecover(dashboards, dataSource, param -> {
-                    try {
-                        for (MapQueryInfo mqi : mqEntry.getValue()) {
-                            if (!mqi.dashboard.isAutoUpdateEnabled()) {
-                                continue;
-                            }
-
-                            try {
-                                readMapQueryData(monitor, mqi);
-                            } catch (DBCException e) {
-                                log.debug("Datasource '" + mqi.dashboard.getDataSourceContainer().getName() + "' dashboard query failed. Stopping update of dashboard queries for this datasource.");
-                                mqi.dashboard.disableAutoUpdate();
+        try {
+            DBExecUtils.tryExecuteRecover(dashboards, dataSource, param -> {
+                try (DBCSession session = context.openSession(
+                    monitor, DBCExecutionPurpose.UTIL, "Read dashboards data")) {
+                    session.enableLogging(false);
+                    for (MapQueryInfo mqi : dsMapQueries) {
+                        if (!mqi.dashboard.isAutoUpdateEnabled() || monitor.isCanceled()) {
+                            continue;
+                        }
+                        try {
+                            readMapQueryData(session, mqi);
+                        } catch (DBCException e) {
+                            if (isRecoverableError(dataSource, e)) {
                                 throw e;
                             }
+                            log.debug("Datasource '" + dsContainer.getName() + "' dashboard map query '" + mqi.mapQuery.getId() + "' failed. Stopping update of its dashboards.");
+                            disableMapQueryDashboards(dashboards, mqi.mapQuery);
                         }
-                    } catch (Throwable e) {
-                        throw new InvocationTargetException(e);
                     }
-                });
-            } catch (DBException e) {
-                log.debug("Error reading map query data for '" + dsContainer.getName() + "'", e);
-            }
+                    for (DashboardItemContainer dashboard : dashboards) {
+                        if (dashboard.getMapQuery() != null && dashboard.isAutoUpdateEnabled()) {
+                            fetchDashboardMapData(monitor, dashboard);
+                        }
+                    }
+                    for (Map.Entry<String, List<DashboardItemContainer>> queryEntry : queryDashboards.entrySet()) {
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        updateQueryDashboards(session, queryEntry.getKey(), queryEntry.getValue());
+                    }
+                } catch (Throwable e) {
+                    throw new InvocationTargetException(e);
+                }
+            });
+        } catch (DBException e) {
+            log.debug("Error reading dashboards data for '" + dsContainer.getName() + "': " + GeneralUtils.getRootCause(e).getMessage());
         }
+    }
 
+    /**
+     * Connection errors are rethrown, so the update is repeated after connection recovery
+     */
+    private void updateQueryDashboards(
+        @NotNull DBCSession session,
+        @NotNull String queryText,
+        @NotNull List<DashboardItemContainer> dashboards
+    ) throws DBCException {
+        int maxItems = 0;
         for (DashboardItemContainer dashboard : dashboards) {
-            if (!dashboard.isAutoUpdateEnabled()) {
-                continue;
-            }
-            DBPDataSource dataSource = dashboard.getDataSourceContainer().getDataSource();
-            if (dataSource == null) {
-                continue;
+            if (dashboard.isAutoUpdateEnabled()) {
+                maxItems = Math.max(maxItems, dashboard.getDashboardMaxItems());
             }
-            try {
-                DBExecUtils.tryExecuteRecover(dashboards, dataSource, param -> {
-                    try {
-                        updateDashboard(monitor, dashboard);
-                    } catch (Throwable e) {
-                        log.debug("Datasource '" + dashboard.getDataSourceContainer().getName() + "' dashboard query failed. Stopping update of dashboards for this datasource.");
-                        dashboard.disableAutoUpdate();
-                        throw new InvocationTargetException(e);
-                    }
-                });
-            } catch (DBException e) {
-                log.debug("Error reading dashboard '" + dashboard.getItemDescriptor().getId() + "' data: " + GeneralUtils.getRootCause(e).getMessage());
-            }
-            monitor.worked(1);
         }
-        monitor.done();
-    }
-
-    private void readMapQueryData(DBRProgressMonitor monitor, MapQueryInfo mqInfo) throws DBCException {
-        DBCExecutionContext executionContext = mqInfo.viewContainer.getExecutionContext();
-        if (executionContext == null) {
+        if (maxItems == 0) {
             return;
         }
-        try (DBCSession session = executionContext.openSession(
-            monitor, DBCExecutionPurpose.UTIL, "Read map query '" + mqInfo.mapQuery.getId() + "' data")) {
-            session.enableLogging(false);
-            try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, mqInfo.mapQuery.getQueryText(), false, false, false)) {
-                if (dbStat.executeStatement()) {
-                    try (DBCResultSet dbResults = dbStat.openResultSet()) {
-                        mqInfo.timestamp = new Date();
-                        while (dbResults.nextRow()) {
-                            String mapKey = CommonUtils.toString(dbResults.getAttributeValue(0));
-                            Object mapValue = dbResults.getAttributeValue(1);
-                            mqInfo.mapValue.put(mapKey, mapValue);
-                        }
-                    }
+        QueryResult result;
+        long startTime = System.currentTimeMillis();
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, queryText, false, false, false)) {
+            if (!dbStat.executeStatement()) {
+                return;
+            }
+            try (DBCResultSet dbResults = dbStat.openResultSet()) {
+                if (dbResults == null) {
+                    return;
                 }
+                result = readQueryResult(dbResults, maxItems);
             }
         } catch (Exception e) {
-            throw new DBCException("Error reading map query data", e);
+            if (isRecoverableError(session.getDataSource(), e)) {
+                throw e instanceof DBCException dbce ? dbce : new DBCException("Error reading dashboard data", e);
+            }
+            for (DashboardItemContainer dashboard : dashboards) {
+                log.debug("Error updating dashboard " + dashboard.getItemDescriptor().getId() + ": " + GeneralUtils.getRootCause(e).getMessage());
+                dashboard.disableAutoUpdate();
+            }
+            return;
+        } finally {
+            queryStats.computeIfAbsent(new QueryKey(session.getDataSource().getContainer(), queryText), k -> new QueryStats())
+                .addExecution(System.currentTimeMillis() - startTime);
+        }
+        for (DashboardItemContainer dashboard : dashboards) {
+            if (dashboard.isAutoUpdateEnabled()) {
+                updateDashboardData(dashboard, result);
+            }
         }
     }
 
-    private void updateDashboard(DBRProgressMonitor monitor, DashboardItemContainer dashboard) throws DBCException {
-        if (!dashboard.getDataSourceContainer().isConnected() || DBWorkbench.getPlatform().isShuttingDown()) {
-            return;
-        }
+    private static boolean isRecoverableError(@NotNull DBPDataSource dataSource, @NotNull Throwable error) {
+        DBPErrorAssistant.ErrorType errorType = DBExecUtils.discoverErrorType(dataSource, error);
+        return errorType == DBPErrorAssistant.ErrorType.CONNECTION_LOST || errorType == DBPErrorAssistant.ErrorType.TRANSACTION_ABORTED;
+    }
 
-        if (dashboard.getMapQuery() != null) {
-            fetchDashboardMapData(monitor, dashboard);
-            return;
-        }
-        List<? extends DBDashboardQuery> queries = dashboard.getQueryList();
-        if (queries.isEmpty()) {
-            return;
-        }
-        DashboardContainer view = dashboard.getGroup().getView();
-        DBCExecutionContext executionContext = view.getExecutionContext();
-        if (executionContext == null) {
-            return;
-        }
-        try (DBCSession session = executionContext.openSession(
-            monitor, DBCExecutionPurpose.UTIL, "Read dashboard '" + dashboard.getItemDescriptor().getName() + "' data")) {
-            session.enableLogging(false);
-
-            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
-            boolean revertTxn = false;
-            if (false) {
-                // FIXME: dashboards must be queued in auto-commit mode?
-                // FIXME: we can't switch to auto-commit because connection may be used by another tasks (e.g. SQL editor)
-                if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
-                    txnManager.setAutoCommit(monitor, true);
-                    revertTxn = true;
-                }
+    private void disableMapQueryDashboards(@NotNull List<DashboardItemContainer> dashboards, @NotNull DBDashboardMapQuery mapQuery) {
+        for (DashboardItemContainer dashboard : dashboards) {
+            if (dashboard.getMapQuery() == mapQuery) {
+                dashboard.disableAutoUpdate();
             }
-            try {
-                for (DBDashboardQuery query : queries) {
-                    try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.getQueryText(), false, false, false)) {
-                        if (dbStat.executeStatement()) {
-                            try (DBCResultSet dbResults = dbStat.openResultSet()) {
-                                if (dbResults != null) {
-                                    fetchDashboardData(dashboard, dbResults);
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        throw new DBCException("Error updating dashboard " + dashboard.getItemDescriptor().getId(), e, session.getExecutionContext());
+        }
+    }
+
+    private void readMapQueryData(@NotNull DBCSession session, @NotNull MapQueryInfo mqInfo) throws DBCException {
+        long startTime = System.currentTimeMillis();
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, mqInfo.mapQuery.getQueryText(), false, false, false)) {
+            if (dbStat.executeStatement()) {
+                try (DBCResultSet dbResults = dbStat.openResultSet()) {
+                    mqInfo.timestamp = new Date();
+                    while (dbResults.nextRow()) {
+                        String mapKey = CommonUtils.toString(dbResults.getAttributeValue(0));
+                        Object mapValue = dbResults.getAttributeValue(1);
+                        mqInfo.mapValue.put(mapKey, mapValue);
                     }
                 }
-            } finally {
-                if (revertTxn) {
-                    txnManager.setAutoCommit(monitor, false);
-                }
             }
+        } catch (Exception e) {
+            throw new DBCException("Error reading map query data", e);
+        } finally {
+            queryStats.computeIfAbsent(new QueryKey(session.getDataSource().getContainer(), mqInfo.mapQuery.getQueryText()), k -> new QueryStats())
+                .addExecution(System.currentTimeMillis() - startTime);
         }
     }
 
@@ -315,7 +372,8 @@ public class DashboardUpdater {
         }
     }
 
-    private void fetchDashboardData(DashboardItemContainer dashboardContainer, DBCResultSet dbResults) throws DBCException {
+    @NotNull
+    private QueryResult readQueryResult(@NotNull DBCResultSet dbResults, int maxItems) throws DBCException {
         DBCResultSetMetaData meta = dbResults.getMeta();
         List<? extends DBCAttributeMetaData> rsAttrs = meta.getAttributes();
         List<String> colNames = new ArrayList<>();
@@ -331,8 +389,7 @@ public class DashboardUpdater {
                 colNames.add(colName);
             }
         }
-        DashboardDataset dataset = new DashboardDataset(colNames.toArray(new String[0]));
-
+        List<DashboardDatasetRow> rows = new ArrayList<>();
         while (dbResults.nextRow()) {
             Object[] values = new Object[colNames.size()];
             Date timestamp;
@@ -344,10 +401,23 @@ public class DashboardUpdater {
             for (int i = 0; i < colNames.size(); i++) {
                 values[i] = dbResults.getAttributeValue(colNames.get(i));
             }
-            dataset.addRow(new DashboardDatasetRow(timestamp, values));
-            if (dataset.getRows().size() >= dashboardContainer.getDashboardMaxItems()) {
+            rows.add(new DashboardDatasetRow(timestamp, values));
+            if (rows.size() >= maxItems) {
+                break;
+            }
+        }
+        return new QueryResult(colNames.toArray(new String[0]), rows);
+    }
+
+    private void updateDashboardData(@NotNull DashboardItemContainer dashboardContainer, @NotNull QueryResult result) {
+        DashboardDataset dataset = new DashboardDataset(result.columnNames());
+        int maxItems = dashboardContainer.getDashboardMaxItems();
+        for (DashboardDatasetRow row : result.rows()) {
+            if (dataset.getRows().size() >= maxItems) {
                 break;
             }
+            // Rows may be modified by renderers, do not share them between dashboards
+            dataset.addRow(new DashboardDatasetRow(row.getTimestamp(), row.getValues().clone()));
         }
 
         switch (dashboardContainer.getItemDescriptor().getFetchType()) {
@@ -393,21 +463,26 @@ public class DashboardUpdater {
     }
 
     public boolean getDashboardsToUpdate(List<DashboardItemContainer> dashboards) {
-        boolean pauseDashboardUpdate = true;
-        for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
-            for (IWorkbenchPage page : window.getPages()) {
-                for (IViewReference view : page.getViewReferences()) {
-                    if (view.getId().equalsIgnoreCase(DataSourceDashboardView.VIEW_ID)) {
-                        IWorkbenchPart part = view.getPart(false);
-                        if (part instanceof DataSourceDashboardView dv && checkViewDashboards(dv)) {
-                            getViewDashboards(dv, dashboards);
-                            pauseDashboardUpdate = false;
+        boolean[] pauseDashboardUpdate = {true};
+        // Part and control visibility can be checked in UI thread only
+        UIUtils.syncExec(() -> {
+            for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
+                for (IWorkbenchPage page : window.getPages()) {
+                    for (IViewReference view : page.getViewReferences()) {
+                        if (view.getId().equalsIgnoreCase(DataSourceDashboardView.VIEW_ID)) {
+                            IWorkbenchPart part = view.getPart(false);
+                            if (part instanceof DataSourceDashboardView dv && checkViewDashboards(dv)) {
+                                if (page.isPartVisible(dv)) {
+                                    getViewDashboards(dv, dashboards);
+                                }
+                                pauseDashboardUpdate[0] = false;
+                            }
                         }
                     }
                 }
             }
-        }
-        return pauseDashboardUpdate;
+        });
+        return pauseDashboardUpdate[0];
     }
     
     private boolean checkViewDashboards(DataSourceDashboardView view) {
@@ -424,14 +499,57 @@ public class DashboardUpdater {
                     // Skip all provided
                     continue;
                 }
+                if (!dashboardContainer.isAutoUpdateEnabled() || !isDashboardVisible(dashboardContainer)) {
+                    continue;
+                }
                 Date lastUpdateTime = dashboardContainer.getLastUpdateTime();
-                if (lastUpdateTime == null || (currentTime - lastUpdateTime.getTime()) >= dashboardContainer.getUpdatePeriod()) {
+                if (lastUpdateTime == null || (currentTime - lastUpdateTime.getTime()) >= getEffectiveUpdatePeriod(dashboardContainer)) {
                     dashboards.add(dashboardContainer);
                 }
             }
         }
     }
 
+    private static boolean isDashboardVisible(@NotNull DashboardItemContainer dashboard) {
+        var control = dashboard.getDashboardControl();
+        return control == null || (!control.isDisposed() && control.isVisible());
+    }
+
+    /**
+     * Configured update period or greater if dashboard queries are expensive
+     */
+    private long getEffectiveUpdatePeriod(@NotNull DashboardItemContainer dashboard) {
+        long updatePeriod = dashboard.getUpdatePeriod();
+        DBPDataSourceContainer dsContainer = dashboard.getDataSourceContainer();
+        long queryTime = 0;
+        DBDashboardMapQuery mapQuery = dashboard.getMapQuery();
+        if (mapQuery != null) {
+            queryTime = getAverageQueryTime(dsContainer, mapQuery.getQueryText());
+        } else {
+            for (DBDashboardQuery query : dashboard.getQueryList()) {
+                queryTime += getAverageQueryTime(dsContainer, query.getQueryText());
+            }
+        }
+        return Math.max(updatePeriod, Math.min(queryTime * COST_FACTOR, MAX_ADAPTIVE_PERIOD));
+    }
+
+    private long getAverageQueryTime(@NotNull DBPDataSourceContainer dsContainer, @Nullable String queryText) {
+        if (queryText == null) {
+            return 0;
+        }
+        QueryStats stats = queryStats.get(new QueryKey(dsContainer, queryText));
+        return stats == null ? 0 : stats.averageTime;
+    }
+
+    private void removeStaleQueryStats() {
+        long minExecuteTime = System.currentTimeMillis() - QUERY_STATS_TTL;
+        queryStats.values().removeIf(stats -> stats.lastExecuteTime < minExecuteTime);
+        mapQueries.values().removeIf(queries -> {
+            queries.removeIf(mqi -> mqi.dashboard.getDashboardControl() == null || mqi.dashboard.getDashboardControl().isDisposed());
+            return queries.isEmpty();
+        });
+    }
+
     private MapQueryInfo getMapQueryData(DashboardItemContainer dashboard) {
         List<MapQueryInfo> mapQueryInfos = mapQueries.get(dashboard.getDataSourceContainer());
         if (mapQueryInfos != null) {
@@ -444,4 +562,4 @@ public class DashboardUpdater {
         return null;
     }
 
-}
\ No newline at end of file
+}
@@ -18,6 +18,7 @@
 package org.jkiss.dbeaver.registry.functions;
 
 import org.eclipse.core.runtime.IConfigurationElement;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
@@ -38,6 +39,7 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
     private final DBPImage icon;
     private final String type;
     private final boolean isDefault;
+    private final String sqlTemplate;
 
     public AggregateFunctionDescriptor(IConfigurationElement config)
     {
@@ -49,6 +51,7 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         this.icon = iconToImage(config.getAttribute("icon"));
         this.type = config.getAttribute("type");
         this.isDefault = CommonUtils.toBoolean(config.getAttribute("default"));
+        this.sqlTemplate = config.getAttribute("sqlTemplate");
     }
 
     public String getId() {
@@ -75,6 +78,15 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         return isDefault;
     }
 
+    /**
+     * SQL aggregate expression for server-side evaluation.
+     * {column} placeholder is replaced with quoted column name. Null if function can't be evaluated on server.
+     */
+    @Nullable
+    public String getSqlTemplate() {
+        return sqlTemplate;
+    }
+
     public IAggregateFunction createFunction()
         throws DBException
     {
@@ -23,7 +23,6 @@ import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.UIIcon;
-import org.jkiss.dbeaver.ui.UITextUtils;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.utils.CommonUtils;
 
@@ -90,6 +89,8 @@ class GridCellRenderer extends AbstractRenderer {
 
     protected Color colorLineFocused;
 
+    private final GridTextLayoutCache layoutCache = new GridTextLayoutCache();
+
     public GridCellRenderer(LightGrid grid)
     {
         super(grid);
@@ -164,21 +165,18 @@ class GridCellRenderer extends AbstractRenderer {
 
         // Get cell text
         if (!text.isEmpty()) {
-            // Get shortern version of string
-            text = UITextUtils.getShortString(grid.fontMetrics, text, width);
-            // Replace linefeeds with space
-            text = CommonUtils.getSingleLineString(text);
+            final Font font = cellInfo.font != null ? cellInfo.font : grid.normalFont;
+            gc.setFont(font);
 
-            final Font font = cellInfo.font;
-            gc.setFont(font != null ? font : grid.normalFont);
+            final GridTextLayoutCache.TextLayout textLayout = layoutCache.getLayout(grid.fontMetrics, col, row, text, font, width);
+            text = textLayout.text;
 
             switch (columnAlign) {
                 // Center
                 case IGridContentProvider.ALIGN_CENTER: {
-                    Point textSize = gc.textExtent(text);
                     gc.drawString(
                         text,
-                        bounds.x + (bounds.width - textSize.x) / 2,
+                        bounds.x + (bounds.width - textLayout.getTextWidth(gc)) / 2,
                         bounds.y + TEXT_TOP_MARGIN + TOP_MARGIN,
                         isTransparent
                     );
@@ -186,8 +184,8 @@ class GridCellRenderer extends AbstractRenderer {
                 }
                 case IGridContentProvider.ALIGN_RIGHT: {
                     // Right (numbers, datetimes)
-                    Point textSize = gc.textExtent(text);
-                    int valueWidth = textSize.x + INSIDE_MARGIN;
+                    final int textWidth = textLayout.getTextWidth(gc);
+                    int valueWidth = textWidth + INSIDE_MARGIN;
                     if (imageBounds != null) {
                         valueWidth += imageBounds.width + INSIDE_MARGIN;
                     }
@@ -208,7 +206,7 @@ class GridCellRenderer extends AbstractRenderer {
                     }
                     gc.drawString(
                         text,
-                        bounds.x + bounds.width - (textSize.x + RIGHT_MARGIN + imageMargin),
+                        bounds.x + bounds.width - (textWidth + RIGHT_MARGIN + imageMargin),
                         bounds.y + TEXT_TOP_MARGIN + TOP_MARGIN,
                         isTransparent
                     );
@@ -254,6 +252,13 @@ class GridCellRenderer extends AbstractRenderer {
         }
     }
 
+    /**
+     * Drops cached cell text layouts. Must be called when grid content changes.
+     */
+    void resetCache() {
+        layoutCache.clear();
+    }
+
     boolean isOverLink(GridColumn column, int row, int x, int y) {
         IGridRow rowElement = grid.getRow(row);
         if (rowElement == null) {
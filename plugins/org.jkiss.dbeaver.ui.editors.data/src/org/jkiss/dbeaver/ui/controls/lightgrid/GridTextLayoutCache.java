@@ -0,0 +1,114 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.GC;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.ui.UITextUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of cell text layouts.
+ * Shortening text to the column width and measuring it are the most expensive parts of cell painting,
+ * so results are reused until cell text, font or column width change. Must be used in UI thread only.
+ */
+class GridTextLayoutCache {
+
+    private static final int MAX_CACHED_CELLS = 20000;
+
+    static class TextLayout {
+        private final String sourceText;
+        private final Font font;
+        private final int width;
+        final String text;
+        private int textWidth = -1;
+
+        TextLayout(String sourceText, Font font, int width, String text) {
+            this.sourceText = sourceText;
+            this.font = font;
+            this.width = width;
+            this.text = text;
+        }
+
+        /**
+         * Text width. GC must have layout font set.
+         */
+        int getTextWidth(@NotNull GC gc) {
+            if (textWidth < 0) {
+                textWidth = gc.textExtent(text).x;
+            }
+            return textWidth;
+        }
+    }
+
+    private static class CellKey {
+        private final IGridColumn column;
+        private final IGridRow row;
+
+        CellKey(IGridColumn column, IGridRow row) {
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CellKey key && key.column == column && key.row == row;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(column) * 31 + System.identityHashCode(row);
+        }
+    }
+
+    private final Map<CellKey, TextLayout> layouts = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CellKey, TextLayout> eldest) {
+            return size() > MAX_CACHED_CELLS;
+        }
+    };
+
+    @NotNull
+    TextLayout getLayout(
+        @NotNull FontMetrics fontMetrics,
+        @NotNull IGridColumn column,
+        @NotNull IGridRow row,
+        @NotNull String sourceText,
+        @NotNull Font font,
+        int width
+    ) {
+        CellKey key = new CellKey(column, row);
+        TextLayout layout = layouts.get(key);
+        if (layout == null || layout.width != width || layout.font != font || !Objects.equals(layout.sourceText, sourceText)) {
+            // Get shortened version of string and replace linefeeds with space
+            String text = CommonUtils.getSingleLineString(UITextUtils.getShortString(fontMetrics, sourceText, width));
+            layout = new TextLayout(sourceText, font, width, text);
+            layouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    void clear() {
+        layouts.clear();
+    }
+}
@@ -310,6 +310,11 @@ public abstract class LightGrid extends Canvas {
 
     private boolean columnScrolling = false;
 
+    // Scroll position of the currently painted content. Used to blit content on scroll
+    private int paintedTopIndex = -1;
+    private int paintedHScroll = -1;
+    private boolean paintPending;
+
     /**
      * Dispose listener.  This listener is removed during the dispose event to allow re-firing of
      * the event.
@@ -724,6 +729,7 @@ public abstract class LightGrid extends Canvas {
         List<IGridRow> rows = new ArrayList<>(initialElements.length);
         collectRowsFromElements(rows, initialElements);
         this.gridRows = rows.toArray(new IGridRow[0]);
+        this.cellRenderer.resetCache();
     }
 
     /**
@@ -2379,6 +2385,12 @@ public abstract class LightGrid extends Canvas {
 
         int row = firstVisibleIndex;
         final int hScrollSelectionInPixels = getHScrollSelectionInPixels();
+        paintedTopIndex = firstVisibleIndex;
+        paintedHScroll = hScrollSelectionInPixels;
+        paintPending = false;
+        // Only damaged area needs to be repainted (e.g. strip exposed by scrolling)
+        final int damageLeft = e.x, damageRight = e.x + e.width;
+        final int damageTop = e.y, damageBottom = e.y + e.height;
         final GridPos testPos = new GridPos(-1, -1);
         final Rectangle cellBounds = new Rectangle(0, 0, 0, 0);
         int pinnedColumnsWidth = getPinnedColumnsWidth();
@@ -2389,6 +2401,13 @@ public abstract class LightGrid extends Canvas {
 
             x -= hScrollSelectionInPixels;
 
+            if (y > damageBottom || y + itemHeight < damageTop) {
+                // Row is out of damaged area
+                y += itemHeight + 1;
+                row++;
+                continue;
+            }
+
             // get the item to draw
             if (row >= 0 && row < getItemCount()) {
 
@@ -2409,7 +2428,7 @@ public abstract class LightGrid extends Canvas {
 
                     int width = column.getWidth();
 
-                    if (x + width >= 0 && x < clientArea.width) {
+                    if (x + width >= damageLeft && x < damageRight) {
 
                         cellBounds.x = x;
                         cellBounds.y = y;
@@ -4103,7 +4122,73 @@ public abstract class LightGrid extends Canvas {
         bottomIndex = -1;
         refreshHoverState();
         final Rectangle clientArea = getClientArea();
-        redraw(clientArea.x, clientArea.y, clientArea.width, clientArea.height, false);
+        if (!scrollPaintedContent(clientArea)) {
+            redraw(clientArea.x, clientArea.y, clientArea.width, clientArea.height, false);
+        }
+    }
+
+    /**
+     * Moves already painted content by scroll offset. Only the exposed strip is repainted then.
+     *
+     * @return false if content can't be moved and must be repainted entirely
+     */
+    private boolean scrollPaintedContent(@NotNull Rectangle clientArea) {
+        if (paintedTopIndex < 0 || paintPending || scrollValuesObsolete) {
+            // Pending damaged areas would be moved out of their places
+            return false;
+        }
+        final int newTopIndex = getTopIndex();
+        final int newHScroll = getHScrollSelectionInPixels();
+        final int dy = (paintedTopIndex - newTopIndex) * (getItemHeight() + 1);
+        final int dx = paintedHScroll - newHScroll;
+        if (dx != 0 && dy != 0) {
+            return false;
+        }
+        if (dx == 0 && dy == 0) {
+            return true;
+        }
+        if (dy != 0) {
+            // Rows move with row headers and pinned columns. Column headers stay
+            final int areaY = columnHeadersVisible ? headerHeight : 0;
+            final int areaHeight = clientArea.height - areaY;
+            if (Math.abs(dy) >= areaHeight) {
+                return false;
+            }
+            if (dy > 0) {
+                scroll(0, areaY + dy, 0, areaY, clientArea.width, areaHeight - dy, false);
+            } else {
+                scroll(0, areaY, 0, areaY - dy, clientArea.width, areaHeight + dy, false);
+            }
+        } else {
+            // Columns move with column headers. Row headers, pinned columns and pin divider stay
+            final int pinnedColumnsWidth = getPinnedColumnsWidth();
+            final int areaX = (rowHeaderVisible ? rowHeaderWidth : 0) + pinnedColumnsWidth + (pinnedColumnsWidth > 0 ? 1 : 0);
+            final int areaWidth = clientArea.width - areaX;
+            if (Math.abs(dx) >= areaWidth) {
+                return false;
+            }
+            if (dx > 0) {
+                scroll(areaX + dx, 0, areaX, 0, areaWidth - dx, clientArea.height, false);
+            } else {
+                scroll(areaX, 0, areaX - dx, 0, areaWidth + dx, clientArea.height, false);
+            }
+        }
+        paintedTopIndex = newTopIndex;
+        paintedHScroll = newHScroll;
+        paintPending = true;
+        return true;
+    }
+
+    @Override
+    public void redraw() {
+        paintPending = true;
+        super.redraw();
+    }
+
+    @Override
+    public void redraw(int x, int y, int width, int height, boolean all) {
+        paintPending = true;
+        super.redraw(x, y, width, height, all);
     }
 
     /**
@@ -4727,6 +4812,7 @@ public abstract class LightGrid extends Canvas {
         sizingGC.setFont(font);
         fontMetrics = sizingGC.getFontMetrics();
         sizingGC.dispose();
+        cellRenderer.resetCache();
 
         normalFont = font;
         UIUtils.dispose(boldFont);
@@ -26,6 +26,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -84,6 +85,14 @@ public interface IResultSetPresentation {
      */
     void formatData(boolean refreshData);
 
+    /**
+     * Called from the data reading thread when new rows were added to the model.
+     * Presentation may prepare rendering of these rows in background.
+     * @param rows    new rows
+     */
+    default void prepareRows(@NotNull List<ResultSetRow> rows) {
+    }
+
     void clearMetaData();
 
     void updateValueView();
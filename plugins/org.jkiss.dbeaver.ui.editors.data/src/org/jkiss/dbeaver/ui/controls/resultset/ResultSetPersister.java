@@ -54,6 +54,9 @@ class ResultSetPersister {
 
     private static final Log log = Log.getLog(ResultSetPersister.class);
 
+    // Max number of rows saved (and committed) as a single unit
+    private static final int MAX_BATCH_SIZE = 1000;
+
     /**
      * Data update listener
      */
@@ -112,11 +115,13 @@ class ResultSetPersister {
     private final List<DataStatementInfo> updateStatements = new ArrayList<>();
 
     private final List<DBEPersistAction> script = new ArrayList<>();
+    private final boolean useBatches;
 
     ResultSetPersister(@NotNull ResultSetViewer viewer) {
         this.viewer = viewer;
         this.model = viewer.getModel();
         this.columns = model.getAttributes();
+        this.useBatches = viewer.getPreferenceStore().getBoolean(ResultSetPreferences.RS_EDIT_BATCH_SAVE);
 
         collectChanges();
     }
@@ -676,6 +681,7 @@ class ResultSetPersister {
         private boolean autocommit;
         private DBCStatistics updateStats, insertStats, deleteStats;
         private DBCSavepoint savepoint;
+        private ResultSetRow failedRow;
         private Throwable error;
 
         DataUpdaterJob(boolean generateScript, @NotNull ResultSetSaveSettings settings, @Nullable DataUpdateListener listener, @NotNull DBCExecutionContext executionContext) {
@@ -729,7 +735,19 @@ class ResultSetPersister {
                                         ResultSetUtils.formatRowCount(DataUpdaterJob.this.updateStats.getRowsUpdated())}));
                         } else {
                             DBWorkbench.getPlatformUI().showError("Data error", "Error synchronizing data with database", error);
-                            viewer.setStatus(GeneralUtils.getFirstMessage(error), DBPMessageType.ERROR);
+                            if (failedRow != null && model.getAllRows().contains(failedRow)) {
+                                // Point to the row which caused the error
+                                viewer.setCurrentRow(failedRow);
+                                viewer.getActivePresentation().scrollToRow(IResultSetPresentation.RowPosition.CURRENT);
+                                viewer.setStatus(
+                                    NLS.bind(
+                                        ResultSetMessages.controls_resultset_viewer_status_row_error,
+                                        failedRow.getVisualNumber() + 1,
+                                        GeneralUtils.getFirstMessage(error)),
+                                    DBPMessageType.ERROR);
+                            } else {
+                                viewer.setStatus(GeneralUtils.getFirstMessage(error), DBPMessageType.ERROR);
+                            }
                         }
                     }
                     viewer.fireResultSetChange();
@@ -783,6 +801,7 @@ class ResultSetPersister {
         private Throwable executeStatements(DBCSession session) {
             Map<String, Object> options = new LinkedHashMap<>();
             options.put(DBPScriptObject.OPTION_FULLY_QUALIFIED_NAMES, settings.isUseFullyQualifiedNames());
+            failedRow = null;
 
             DBRProgressMonitor monitor = session.getProgressMonitor();
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
@@ -806,108 +825,106 @@ class ResultSetPersister {
                     }
                 }
             }
+            // Batches are used within the current transaction only. In auto-commit mode we can't tell
+            // which rows of a failed batch were saved, and the transaction mode of the user's context is not ours to change.
+            boolean useBatches = ResultSetPersister.this.useBatches && (generateScript || !this.autocommit);
             try {
-                for (DataStatementInfo statement : ResultSetPersister.this.deleteStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.deleteData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                deleteStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                Throwable error = executeStatements(session, deleteStatements, useBatches, options, deleteStats);
+                if (error == null) {
+                    error = executeStatements(session, insertStatements, useBatches, options, insertStats);
+                }
+                if (error == null) {
+                    error = executeStatements(session, updateStatements, useBatches, options, updateStats);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.insertStatements) {
-                    if (monitor.isCanceled()) break;
+                return error;
+            } finally {
+                if (!generateScript && txnManager != null && this.savepoint != null) {
                     try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.insertData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            statement.needKeys() ? new KeyDataReceiver(statement) : null,
-                            new ExecutionSource(dataContainer),
-                            options)) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                insertStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
+                        txnManager.releaseSavepoint(monitor, this.savepoint);
+                    } catch (Throwable e) {
+                        // Maybe savepoints not supported
+                        log.debug("Can't release savepoint", e);
                     }
-                    monitor.worked(1);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.updateStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.updateData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.updateAttributes),
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            null,
-                            new ExecutionSource(dataContainer))) {
-                            // Make single array of values
-                            Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
-                            for (int i = 0; i < statement.updateAttributes.size(); i++) {
-                                attributes[i] = statement.updateAttributes.get(i).getValue();
-                            }
-                            for (int i = 0; i < statement.keyAttributes.size(); i++) {
-                                attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
-                            }
-                            // Execute
-                            batch.add(attributes);
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
+            }
+        }
 
-                                updateStats.accumulate(bs);
-                            }
-                        }
+        private Throwable executeStatements(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> statements,
+            boolean useBatches,
+            @NotNull Map<String, Object> options,
+            @NotNull DBCStatistics statistics
+        ) {
+            DBRProgressMonitor monitor = session.getProgressMonitor();
+            for (List<DataStatementInfo> group : groupStatements(statements, useBatches)) {
+                if (monitor.isCanceled()) break;
+                try {
+                    executeGroup(session, group, options, statistics);
+                    for (DataStatementInfo statement : group) {
                         processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
                     }
-                    monitor.worked(1);
+                } catch (DBException e) {
+                    processStatementError(group, e, session);
+                    return e;
                 }
+                monitor.worked(group.size());
+            }
+            return null;
+        }
 
-                return null;
-            } finally {
-                if (!generateScript && txnManager != null && this.savepoint != null) {
+        private void executeGroup(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> group,
+            @NotNull Map<String, Object> options,
+            @NotNull DBCStatistics statistics
+        ) throws DBException {
+            DataStatementInfo statement = group.get(0);
+            DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
+            DBSDataManipulator.ExecuteBatch batch;
+            if (statement.type == DBSManipulationType.DELETE) {
+                batch = dataContainer.deleteData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    new ExecutionSource(dataContainer));
+            } else if (statement.type == DBSManipulationType.INSERT) {
+                batch = dataContainer.insertData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    statement.needKeys() ? new KeyDataReceiver(statement) : null,
+                    new ExecutionSource(dataContainer),
+                    options);
+            } else if (statement.type == DBSManipulationType.UPDATE) {
+                batch = dataContainer.updateData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.updateAttributes),
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    null,
+                    new ExecutionSource(dataContainer));
+            } else {
+                throw new DBCException("Unsupported statement type: " + statement.type);
+            }
+            try (batch) {
+                for (DataStatementInfo groupStatement : group) {
+                    batch.add(groupStatement.getValues());
+                }
+                if (generateScript) {
+                    batch.generatePersistActions(session, script, options);
+                } else {
+                    DBCStatistics bs;
                     try {
-                        txnManager.releaseSavepoint(monitor, this.savepoint);
-                    } catch (Throwable e) {
-                        // Maybe savepoints not supported
-                        log.debug("Can't release savepoint", e);
+                        bs = batch.execute(session, options);
+                    } catch (DBCException e) {
+                        int failedIndex = group.size() == 1 ? 0 : batch.getFailedRowIndex();
+                        if (failedIndex >= 0 && failedIndex < group.size()) {
+                            failedRow = group.get(failedIndex).row;
+                        }
+                        throw e;
                     }
+                    // Notify rsv container about statement execute
+                    this.notifyContainer(bs);
+
+                    statistics.accumulate(bs);
                 }
             }
         }
@@ -916,8 +933,14 @@ class ResultSetPersister {
             statement.executed = true;
         }
 
-        private void processStatementError(DataStatementInfo statement, DBCSession session) {
-            statement.executed = false;
+        private void processStatementError(List<DataStatementInfo> group, DBException error, DBCSession session) {
+            // Whole group is rolled back (or wasn't executed at all)
+            for (DataStatementInfo statement : group) {
+                statement.executed = false;
+            }
+            if (failedRow == null && group.size() == 1) {
+                failedRow = group.get(0).row;
+            }
             if (!generateScript) {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
                 if (txnManager != null) {
@@ -934,6 +957,28 @@ class ResultSetPersister {
 
     }
 
+    /**
+     * Splits statements into groups which can be executed as a single batch.
+     * Only adjacent statements are grouped, so the original execution order is kept.
+     */
+    @NotNull
+    private static List<List<DataStatementInfo>> groupStatements(@NotNull List<DataStatementInfo> statements, boolean useBatches) {
+        List<List<DataStatementInfo>> groups = new ArrayList<>();
+        List<DataStatementInfo> group = null;
+        for (DataStatementInfo statement : statements) {
+            if (group == null || !useBatches || group.size() >= MAX_BATCH_SIZE ||
+                // Generated keys are read for a single row only
+                statement.needKeys() || group.get(0).needKeys() ||
+                !group.get(0).hasSameShape(statement))
+            {
+                group = new ArrayList<>();
+                groups.add(group);
+            }
+            group.add(statement);
+        }
+        return groups;
+    }
+
     /**
      * Key data receiver
      */
@@ -1028,6 +1073,41 @@ class ResultSetPersister {
             this.entity = entity;
         }
 
+        @NotNull
+        Object[] getValues() {
+            if (updateAttributes.isEmpty()) {
+                return DBDAttributeValue.getValues(keyAttributes);
+            }
+            // Make single array of values
+            Object[] values = new Object[updateAttributes.size() + keyAttributes.size()];
+            for (int i = 0; i < updateAttributes.size(); i++) {
+                values[i] = updateAttributes.get(i).getValue();
+            }
+            for (int i = 0; i < keyAttributes.size(); i++) {
+                values[updateAttributes.size() + i] = keyAttributes.get(i).getValue();
+            }
+            return values;
+        }
+
+        boolean hasSameShape(@NotNull DataStatementInfo statement) {
+            return type == statement.type &&
+                entity == statement.entity &&
+                hasSameAttributes(keyAttributes, statement.keyAttributes) &&
+                hasSameAttributes(updateAttributes, statement.updateAttributes);
+        }
+
+        private static boolean hasSameAttributes(List<DBDAttributeValue> values1, List<DBDAttributeValue> values2) {
+            if (values1.size() != values2.size()) {
+                return false;
+            }
+            for (int i = 0; i < values1.size(); i++) {
+                if (values1.get(i).getAttribute() != values2.get(i).getAttribute()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         boolean needKeys() {
             for (DBDAttributeValue col : keyAttributes) {
                 if (col.getAttribute().isAutoGenerated() && DBUtils.isNullValue(col.getValue())) {
@@ -2430,10 +2430,13 @@ public class ResultSetViewer extends Viewer
                 }
             }
         }
+        activePresentation.prepareRows(model.getAllRows());
     }
 
     void appendData(List<Object[]> rows, boolean resetOldRows) {
+        int firstNewRow = resetOldRows ? 0 : model.getRowCount();
         model.appendData(rows, resetOldRows);
+        activePresentation.prepareRows(model.getAllRows().subList(firstNewRow, model.getRowCount()));
 
         UIUtils.asyncExec(() -> {
             String message = NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(),
@@ -99,6 +99,7 @@ public class ResultSetMessages extends NLS {
     public static String controls_resultset_viewer_action_layout;
     public static String controls_resultset_viewer_monitor_aply_changes;
     public static String controls_resultset_viewer_status_inserted_;
+    public static String controls_resultset_viewer_status_row_error;
     public static String controls_resultset_viewer_status_empty;
     public static String controls_resultset_viewer_status_no_data;
     public static String controls_resultset_viewer_status_row;
@@ -263,6 +264,8 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_content_editor_checkbox_disable_editing_if_key_missing;
     public static String pref_page_content_editor_checkbox_new_rows_after;
     public static String pref_page_content_editor_checkbox_refresh_after_update;
+    public static String pref_page_content_editor_checkbox_batch_save;
+    public static String pref_page_content_editor_checkbox_batch_save_tip;
     public static String pref_page_content_editor_checkbox_use_navigator_filters;
     public static String pref_page_content_editor_checkbox_use_navigator_filters_tip;
     public static String pref_page_content_editor_group_content;
@@ -450,6 +453,12 @@ public class ResultSetMessages extends NLS {
     public static String aggregate_columns_reset_text;
     public static String aggregate_columns_copy_value_text;
     public static String aggregate_columns_copy_all_text;
+    public static String aggregate_columns_server_queries_text;
+    public static String aggregate_columns_server_queries_tip;
+    public static String aggregate_columns_server_value_label;
+    public static String aggregate_columns_fetched_value_label;
+    public static String aggregate_columns_server_error_title;
+    public static String aggregate_columns_server_error_message;
     public static String result_set_view_menu_text;
     public static String result_set_stat_columns;
     public static String result_set_stat_rows;
@@ -16,10 +16,13 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -27,21 +30,33 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.*;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIcon;
+import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPImage;
+import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryContainer;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.transformers.SQLQueryTransformerAggregate;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.DataEditorFeatures;
 import org.jkiss.dbeaver.ui.UIIcon;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.*;
 import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
+import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
@@ -61,22 +76,36 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     public static final String SETTINGS_SECTION_AGGREGATE = "panel-" + PANEL_ID;
     public static final String PARAM_GROUP_BY_COLUMNS = "groupByColumns";
     public static final String PARAM_GROUP_AS_STRINGS = "groupAsStrings";
+    public static final String PARAM_SERVER_QUERIES = "serverQueries";
 
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
 
+    // Selections with more new values are aggregated in background
+    private static final int BACKGROUND_AGGREGATE_THRESHOLD = 10_000;
+    private static final Object NOT_AGGREGATED = new Object();
+
     private IResultSetPresentation presentation;
     private Tree aggregateTable;
 
     private boolean groupByColumns;
     private boolean aggregateAsStrings;
-    //private boolean runServerQueries;
+    private boolean runServerQueries;
 
     private IDialogSettings panelSettings;
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
     private boolean featureTracked;
 
+    private AggregateState aggregateState;
+    private AggregateJob aggregateJob;
+    private ServerAggregateJob serverAggregateJob;
+    // Server values by aggregate expression. Valid until the result set is refreshed (i.e. its statistics replaced)
+    private final Map<String, Object> serverValues = new HashMap<>();
+    private DBCStatistics serverValuesStatistics;
+    // Selected attribute -> number of its selected cells
+    private final Map<DBDAttributeBinding, Integer> selectedAttributes = new LinkedHashMap<>();
+
     public AggregateColumnsPanel() {
     }
 
@@ -131,6 +160,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void loadSettings() {
         aggregateAsStrings = panelSettings.getBoolean(PARAM_GROUP_AS_STRINGS);
         groupByColumns = panelSettings.getBoolean(PARAM_GROUP_BY_COLUMNS);
+        runServerQueries = panelSettings.getBoolean(PARAM_SERVER_QUERIES);
         IDialogSettings functionsSection = panelSettings.getSection("functions");
         if (functionsSection != null) {
             final Map<AggregateFunctionDescriptor, Integer> funcIndexes = new HashMap<>();
@@ -168,6 +198,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void saveSettings() {
         panelSettings.put(PARAM_GROUP_BY_COLUMNS, groupByColumns);
         panelSettings.put(PARAM_GROUP_AS_STRINGS, aggregateAsStrings);
+        panelSettings.put(PARAM_SERVER_QUERIES, runServerQueries);
         IDialogSettings functionsSection = UIUtils.getSettingsSection(panelSettings, "functions");
 
         for (AggregateFunctionDescriptor func : FunctionsRegistry.getInstance().getAggregateFunctions()) {
@@ -199,18 +230,32 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void refresh(boolean force) {
-        aggregateTable.setRedraw(false);
-        try {
-            aggregateTable.removeAll();
-            if (this.presentation instanceof ISelectionProvider) {
-                ISelection selection = ((ISelectionProvider) presentation).getSelection();
-                if (selection instanceof IResultSetSelection) {
-                    aggregateSelection((IResultSetSelection)selection);
-                }
+        if (force) {
+            aggregateState = null;
+        }
+        if (aggregateJob != null) {
+            // Running job owns the state functions, so state can't be reused
+            aggregateJob.cancel();
+            aggregateJob = null;
+            aggregateState = null;
+        }
+        if (serverAggregateJob != null) {
+            serverAggregateJob.cancel();
+            serverAggregateJob = null;
+        }
+        selectedAttributes.clear();
+        IResultSetSelection selection = null;
+        if (this.presentation instanceof ISelectionProvider) {
+            ISelection curSelection = ((ISelectionProvider) presentation).getSelection();
+            if (curSelection instanceof IResultSetSelection) {
+                selection = (IResultSetSelection) curSelection;
             }
-            UIUtils.packColumns(aggregateTable, false, null);
-        } finally {
-            aggregateTable.setRedraw(true);
+        }
+        if (selection == null) {
+            aggregateState = null;
+            showResults(Collections.emptyMap(), Collections.emptySet());
+        } else {
+            aggregateSelection(selection);
         }
         saveSettings();
     }
@@ -230,77 +275,202 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             featureTracked = true;
         }
         ResultSetModel model = presentation.getController().getModel();
-        if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                    values.add(cellValue);
+        List<?> elements = selection.toList();
+        int elementCount = elements.size();
+        DBDAttributeBinding[] attrs = new DBDAttributeBinding[elementCount];
+        Object[] values = new Object[elementCount];
+        for (int i = 0; i < elementCount; i++) {
+            Object element = elements.get(i);
+            ResultSetRow row = selection.getElementRow(element);
+            if (row != null) {
+                attrs[i] = selection.getElementAttribute(element);
+                values[i] = model.getCellValue(attrs[i], row);
+                selectedAttributes.merge(attrs[i], 1, Integer::sum);
+            } else {
+                values[i] = NOT_AGGREGATED;
+            }
+        }
+
+        // Find out whether new selection just extends the previous one
+        AggregateState state = aggregateState;
+        if (state != null && !state.isCompatible(enabledFunctions, groupByColumns, aggregateAsStrings)) {
+            state = null;
+        }
+        if (state != null) {
+            int matched = 0;
+            for (int i = 0; i < elementCount; i++) {
+                if (values[i] == NOT_AGGREGATED) {
+                    continue;
                 }
+                Object prevValue = state.values.getOrDefault(elements.get(i), NOT_AGGREGATED);
+                if (prevValue != NOT_AGGREGATED) {
+                    if (prevValue != values[i]) {
+                        // Value was changed
+                        matched = -1;
+                        break;
+                    }
+                    matched++;
+                }
+            }
+            if (matched != state.values.size()) {
+                state = null;
             }
+        }
+        if (state == null) {
+            state = new AggregateState(enabledFunctions, groupByColumns, aggregateAsStrings);
+        }
+        aggregateState = state;
 
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
-                TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
-                attrItem.setText(entry.getKey().getName());
-                attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
-                attrItem.setExpanded(true);
+        List<DBDAttributeBinding> pendingAttrs = new ArrayList<>();
+        List<Object> pendingValues = new ArrayList<>();
+        for (int i = 0; i < elementCount; i++) {
+            if (values[i] == NOT_AGGREGATED || state.values.containsKey(elements.get(i))) {
+                continue;
             }
+            state.values.put(elements.get(i), values[i]);
+            pendingAttrs.add(attrs[i]);
+            pendingValues.add(values[i]);
+        }
+
+        if (pendingValues.size() < BACKGROUND_AGGREGATE_THRESHOLD) {
+            state.accumulate(pendingAttrs, pendingValues, null);
+            showAggregateResults(state.getResults());
         } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    allValues.add(cellValue);
+            aggregateJob = new AggregateJob(state, pendingAttrs, pendingValues);
+            aggregateJob.schedule();
+        }
+    }
+
+    private void showAggregateResults(@NotNull Map<DBDAttributeBinding, Object[]> results) {
+        showResults(results, Collections.emptySet());
+        if (runServerQueries) {
+            startServerAggregation(results);
+        }
+    }
+
+    /**
+     * Fetched rows are only a part of the query results.
+     * Evaluates aggregates supported by the database over the whole query.
+     * Only columns selected completely are evaluated, server can't aggregate a part of the fetched rows.
+     * Columns are referenced by their labels in the wrapping query, so aliased, calculated and
+     * ambiguous columns are skipped, as well as queries with parameters.
+     */
+    private void startServerAggregation(@NotNull Map<DBDAttributeBinding, Object[]> results) {
+        IResultSetController controller = presentation.getController();
+        if (!(controller instanceof ResultSetViewer) || !((ResultSetViewer) controller).isHasMoreData()) {
+            return;
+        }
+        DBCExecutionContext executionContext = controller.getExecutionContext();
+        DBCStatistics statistics = controller.getModel().getStatistics();
+        if (executionContext == null || statistics == null || CommonUtils.isEmpty(statistics.getQueryText())) {
+            return;
+        }
+        if (controller.getDataContainer() instanceof SQLQueryContainer queryContainer &&
+            queryContainer.getQuery() instanceof SQLQuery query && !CommonUtils.isEmpty(query.getParameters())
+        ) {
+            return;
+        }
+        if (serverValuesStatistics != statistics) {
+            serverValues.clear();
+            serverValuesStatistics = statistics;
+        }
+        int rowCount = controller.getModel().getRowCount();
+        Map<DBDAttributeBinding, DBDAttributeBinding> columns = new LinkedHashMap<>();
+        for (DBDAttributeBinding resultAttr : results.keySet()) {
+            DBDAttributeBinding column = resultAttr;
+            if (column == null) {
+                if (selectedAttributes.size() != 1) {
+                    // Values of different columns can't be aggregated by server together
+                    continue;
                 }
+                column = selectedAttributes.keySet().iterator().next();
+            }
+            if (column.getParentObject() == null && selectedAttributes.getOrDefault(column, 0) == rowCount &&
+                isServerColumn(controller.getModel(), column)
+            ) {
+                columns.put(resultAttr, column);
+            }
+        }
+        if (columns.isEmpty()) {
+            return;
+        }
+        serverAggregateJob = new ServerAggregateJob(
+            executionContext,
+            statistics,
+            aggregateState == null ? enabledFunctions : aggregateState.functions,
+            results,
+            columns,
+            new HashMap<>(serverValues));
+        serverAggregateJob.schedule();
+    }
+
+    private static boolean isServerColumn(@NotNull ResultSetModel model, @NotNull DBDAttributeBinding column) {
+        DBCAttributeMetaData metaAttribute = column.getMetaAttribute();
+        if (metaAttribute == null || column.getEntityAttribute() == null ||
+            !metaAttribute.getLabel().equalsIgnoreCase(metaAttribute.getName())
+        ) {
+            // Alias or expression
+            return false;
+        }
+        for (DBDAttributeBinding attr : model.getAttributes()) {
+            if (attr != column && attr.getName().equalsIgnoreCase(column.getName())) {
+                // Ambiguous in the wrapping query
+                return false;
             }
-            aggregateValues(null, allValues);
         }
+        return true;
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
+    /**
+     * @param serverAttributes attributes with values of server functions evaluated on the server
+     */
+    private void showResults(@NotNull Map<DBDAttributeBinding, Object[]> results, @NotNull Set<DBDAttributeBinding> serverAttributes) {
+        aggregateTable.setRedraw(false);
+        try {
+            aggregateTable.removeAll();
+            for (Map.Entry<DBDAttributeBinding, Object[]> entry : results.entrySet()) {
+                DBDAttributeBinding attr = entry.getKey();
+                boolean serverValues = serverAttributes.contains(attr);
+                if (attr == null) {
+                    showValues(null, entry.getValue(), serverValues);
+                } else {
+                    TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
+                    attrItem.setText(attr.getName());
+                    attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(attr)));
+                    showValues(attrItem, entry.getValue(), serverValues);
+                    attrItem.setExpanded(true);
+                }
+            }
+            UIUtils.packColumns(aggregateTable, false, null);
+        } finally {
+            aggregateTable.setRedraw(true);
+        }
+    }
+
+    private void showValues(TreeItem parentItem, Object[] results, boolean serverValues) {
+        List<AggregateFunctionDescriptor> functions = aggregateState == null ? enabledFunctions : aggregateState.functions;
+        for (int i = 0; i < functions.size(); i++) {
+            AggregateFunctionDescriptor funcDesc = functions.get(i);
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
                 new TreeItem(parentItem, SWT.NONE);
             funcItem.setData(funcDesc);
-            funcItem.setText(0, funcDesc.getLabel());
+            if (serverValues) {
+                // Functions without SQL are still evaluated on fetched rows only
+                funcItem.setText(0, NLS.bind(
+                    funcDesc.getSqlTemplate() != null ?
+                        ResultSetMessages.aggregate_columns_server_value_label :
+                        ResultSetMessages.aggregate_columns_fetched_value_label,
+                    funcDesc.getLabel()));
+            } else {
+                funcItem.setText(0, funcDesc.getLabel());
+            }
             DBPImage icon = funcDesc.getIcon();
             if (icon != null) {
                 funcItem.setImage(0, DBeaverIcons.getImage(icon));
             }
-            try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
-            } catch (DBException e) {
-                log.error(e);
-            }
-        }
-
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
-                }
-            }
-        }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
-            }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
+            Object result = results[i];
             if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
                 String strValue;
                 if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
                     strValue = DOUBLE_FORMAT.format(result);
@@ -310,7 +480,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                     strValue = result.toString();
                 }
                 if (strValue != null) {
-                    treeItem.setText(1, strValue);
+                    funcItem.setText(1, strValue);
                 }
             }
         }
@@ -329,6 +499,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         contributionManager.add(new Separator());
         contributionManager.add(new GroupByColumnsAction());
         contributionManager.add(new ValueTypeToggleAction());
+        contributionManager.add(new ServerQueriesToggleAction());
     }
 
     private class GroupByColumnsAction extends Action {
@@ -363,6 +534,22 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private class ServerQueriesToggleAction extends Action {
+        public ServerQueriesToggleAction() {
+            super(ResultSetMessages.aggregate_columns_server_queries_text, IAction.AS_CHECK_BOX);
+            setToolTipText(ResultSetMessages.aggregate_columns_server_queries_tip);
+            setImageDescriptor(DBeaverIcons.getImageDescriptor(UIIcon.SQL_EXECUTE));
+            setChecked(runServerQueries);
+        }
+
+        @Override
+        public void run() {
+            runServerQueries = !runServerQueries;
+            setChecked(runServerQueries);
+            refresh(false);
+        }
+    }
+
     private class AddFunctionAction extends Action {
         public AddFunctionAction() {
             super(ResultSetMessages.aggregate_columns_add_function_text, DBeaverIcons.getImageDescriptor(UIIcon.ADD));
@@ -488,4 +675,252 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    /**
+     * Accumulated functions of the last aggregated selection.
+     * When selection grows only new cells are accumulated.
+     */
+    private static class AggregateState {
+        private final List<AggregateFunctionDescriptor> functions;
+        private final boolean groupByColumns;
+        private final boolean aggregateAsStrings;
+        // Aggregated element -> its value
+        private final Map<Object, Object> values = new HashMap<>();
+        private final Map<DBDAttributeBinding, AggregateGroup> groups = new LinkedHashMap<>();
+
+        AggregateState(List<AggregateFunctionDescriptor> functions, boolean groupByColumns, boolean aggregateAsStrings) {
+            this.functions = new ArrayList<>(functions);
+            this.groupByColumns = groupByColumns;
+            this.aggregateAsStrings = aggregateAsStrings;
+        }
+
+        boolean isCompatible(List<AggregateFunctionDescriptor> functions, boolean groupByColumns, boolean aggregateAsStrings) {
+            return this.functions.equals(functions) &&
+                this.groupByColumns == groupByColumns &&
+                this.aggregateAsStrings == aggregateAsStrings;
+        }
+
+        boolean accumulate(List<DBDAttributeBinding> attrs, List<Object> values, DBRProgressMonitor monitor) {
+            Map<AggregateGroup, List<Object>> groupValues = new IdentityHashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                AggregateGroup group = groups.computeIfAbsent(
+                    groupByColumns ? attrs.get(i) : null,
+                    attr -> new AggregateGroup(functions));
+                groupValues.computeIfAbsent(group, g -> new ArrayList<>()).add(values.get(i));
+            }
+            if (monitor == null || groupValues.size() < 2) {
+                groupValues.forEach((group, gValues) -> group.accumulate(gValues, aggregateAsStrings, monitor));
+            } else {
+                // Groups are independent, aggregate columns in parallel
+                groupValues.entrySet().parallelStream().forEach(
+                    entry -> entry.getKey().accumulate(entry.getValue(), aggregateAsStrings, monitor));
+            }
+            return monitor == null || !monitor.isCanceled();
+        }
+
+        Map<DBDAttributeBinding, Object[]> getResults() {
+            Map<DBDAttributeBinding, Object[]> results = new LinkedHashMap<>();
+            for (Map.Entry<DBDAttributeBinding, AggregateGroup> entry : groups.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().getResults());
+            }
+            return results;
+        }
+    }
+
+    private static class AggregateGroup {
+        private final IAggregateFunction[] funcs;
+        private final int[] funcCount;
+
+        AggregateGroup(List<AggregateFunctionDescriptor> functions) {
+            funcs = new IAggregateFunction[functions.size()];
+            funcCount = new int[funcs.length];
+            for (int i = 0; i < funcs.length; i++) {
+                try {
+                    funcs[i] = functions.get(i).createFunction();
+                } catch (DBException e) {
+                    log.error(e);
+                }
+            }
+        }
+
+        void accumulate(List<Object> values, boolean aggregateAsStrings, DBRProgressMonitor monitor) {
+            for (int k = 0; k < values.size(); k++) {
+                if (monitor != null && k % 10000 == 0 && monitor.isCanceled()) {
+                    return;
+                }
+                Object value = values.get(k);
+                for (int i = 0; i < funcs.length; i++) {
+                    if (funcs[i] != null && funcs[i].accumulate(value, aggregateAsStrings)) {
+                        funcCount[i]++;
+                    }
+                }
+            }
+        }
+
+        Object[] getResults() {
+            Object[] results = new Object[funcs.length];
+            for (int i = 0; i < funcs.length; i++) {
+                if (funcs[i] != null && funcCount[i] > 0) {
+                    results[i] = funcs[i].getResult(funcCount[i]);
+                }
+            }
+            return results;
+        }
+    }
+
+    private class AggregateJob extends AbstractJob {
+        private final AggregateState state;
+        private final List<DBDAttributeBinding> attrs;
+        private final List<Object> values;
+
+        AggregateJob(AggregateState state, List<DBDAttributeBinding> attrs, List<Object> values) {
+            super("Aggregate " + values.size() + " values");
+            this.state = state;
+            this.attrs = attrs;
+            this.values = values;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (!state.accumulate(attrs, values, monitor)) {
+                return Status.CANCEL_STATUS;
+            }
+            Map<DBDAttributeBinding, Object[]> results = state.getResults();
+            UIUtils.asyncExec(() -> {
+                if (aggregateJob == this && !aggregateTable.isDisposed()) {
+                    aggregateJob = null;
+                    showAggregateResults(results);
+                }
+            });
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class ServerAggregateJob extends AbstractJob {
+        private final DBCExecutionContext executionContext;
+        private final DBCStatistics statistics;
+        private final List<AggregateFunctionDescriptor> functions;
+        private final Map<DBDAttributeBinding, Object[]> results;
+        private final Map<DBDAttributeBinding, DBDAttributeBinding> columns;
+        // Values calculated before, new values are added here
+        private final Map<String, Object> values;
+
+        ServerAggregateJob(
+            DBCExecutionContext executionContext,
+            DBCStatistics statistics,
+            List<AggregateFunctionDescriptor> functions,
+            Map<DBDAttributeBinding, Object[]> results,
+            Map<DBDAttributeBinding, DBDAttributeBinding> columns,
+            Map<String, Object> values
+        ) {
+            super("Calculate aggregates on server");
+            this.executionContext = executionContext;
+            this.statistics = statistics;
+            this.functions = functions;
+            this.results = results;
+            this.columns = columns;
+            this.values = values;
+            setUser(false);
+        }
+
+        @Nullable
+        private String getExpression(@NotNull DBPDataSource dataSource, @NotNull DBDAttributeBinding column, @NotNull AggregateFunctionDescriptor func) {
+            String sqlTemplate = func.getSqlTemplate();
+            return sqlTemplate == null ? null : sqlTemplate.replace("{column}", DBUtils.getQuotedIdentifier(dataSource, column.getName()));
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            DBPDataSource dataSource = executionContext.getDataSource();
+            List<String> expressions = new ArrayList<>();
+            for (DBDAttributeBinding column : columns.values()) {
+                for (AggregateFunctionDescriptor func : functions) {
+                    String expression = getExpression(dataSource, column, func);
+                    if (expression != null && !values.containsKey(expression) && !expressions.contains(expression)) {
+                        expressions.add(expression);
+                    }
+                }
+            }
+            Map<String, Object> newValues = new HashMap<>();
+            if (!expressions.isEmpty()) {
+                if (!calculateValues(monitor, dataSource, expressions, newValues)) {
+                    UIUtils.asyncExec(() -> {
+                        if (serverAggregateJob == this) {
+                            serverAggregateJob = null;
+                        }
+                    });
+                    return Status.OK_STATUS;
+                }
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                values.putAll(newValues);
+            }
+
+            // Replace client-side values with server ones
+            Map<DBDAttributeBinding, Object[]> serverResults = new LinkedHashMap<>();
+            for (Map.Entry<DBDAttributeBinding, Object[]> entry : results.entrySet()) {
+                Object[] attrResults = entry.getValue().clone();
+                DBDAttributeBinding column = columns.get(entry.getKey());
+                if (column != null) {
+                    for (int i = 0; i < functions.size(); i++) {
+                        String expression = getExpression(dataSource, column, functions.get(i));
+                        if (expression != null) {
+                            attrResults[i] = values.get(expression);
+                        }
+                    }
+                }
+                serverResults.put(entry.getKey(), attrResults);
+            }
+            UIUtils.asyncExec(() -> {
+                if (serverValuesStatistics == statistics) {
+                    serverValues.putAll(newValues);
+                }
+                if (serverAggregateJob == this && !aggregateTable.isDisposed()) {
+                    serverAggregateJob = null;
+                    showResults(serverResults, columns.keySet());
+                }
+            });
+            return Status.OK_STATUS;
+        }
+
+        private boolean calculateValues(
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull DBPDataSource dataSource,
+            @NotNull List<String> expressions,
+            @NotNull Map<String, Object> newValues
+        ) {
+            String queryText = statistics.getQueryText();
+            try {
+                SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+                syntaxManager.init(dataSource.getSQLDialect(), dataSource.getContainer().getPreferenceStore());
+                SQLQuery aggregateQuery = new SQLQueryTransformerAggregate(expressions)
+                    .transformQuery(dataSource, syntaxManager, new SQLQuery(dataSource, queryText));
+                try (DBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Calculate aggregates")) {
+                    try (DBCStatement dbStat = DBUtils.makeStatement(null, session, DBCStatementType.SCRIPT, aggregateQuery, 0, 0)) {
+                        if (dbStat.executeStatement()) {
+                            try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                                if (dbResult != null && dbResult.nextRow()) {
+                                    for (int i = 0; i < expressions.size(); i++) {
+                                        newValues.put(expressions.get(i), dbResult.getAttributeValue(i));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            } catch (DBException e) {
+                if (!monitor.isCanceled()) {
+                    DBWorkbench.getPlatformUI().showError(
+                        ResultSetMessages.aggregate_columns_server_error_title,
+                        ResultSetMessages.aggregate_columns_server_error_message,
+                        e);
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+
 }
@@ -111,6 +111,9 @@ public class SpreadsheetPresentation extends AbstractPresentation
 
     private static final Log log = Log.getLog(SpreadsheetPresentation.class);
 
+    // Number of rows formatted in background ahead of the visible area
+    private static final int PREPARE_ROWS_WINDOW = 200;
+
     private Spreadsheet spreadsheet;
 
     @Nullable
@@ -118,6 +121,10 @@ public class SpreadsheetPresentation extends AbstractPresentation
     private int columnOrder = SWT.DEFAULT;
 
     private final Map<SpreadsheetValueController, IValueEditorStandalone> openEditors = new HashMap<>();
+    private final SpreadsheetValueFormatCache valueFormatCache = new SpreadsheetValueFormatCache(this::getValueRenderFormat);
+    // Set when new rows are passed to prepareRows (from the fetch job) and reset by the following refresh
+    private volatile boolean newRowsPrepared;
+    private int preparedTopIndex = -1;
 
     // UI modifiers
     private Color backgroundAdded;
@@ -221,6 +228,9 @@ public class SpreadsheetPresentation extends AbstractPresentation
         this.spreadsheet.addMouseWheelListener(e -> {
 
         });
+        if (this.spreadsheet.getVerticalBar() != null) {
+            this.spreadsheet.getVerticalBar().addListener(SWT.Selection, e -> prepareNextRows());
+        }
         spreadsheet.addControlListener(new ControlAdapter() {
             @Override
             public void controlResized(ControlEvent e) {
@@ -248,6 +258,7 @@ public class SpreadsheetPresentation extends AbstractPresentation
     public void dispose() {
         closeEditors();
         clearMetaData();
+        valueFormatCache.invalidate();
 
         UIUtils.dispose(this.cellHeaderSelectionBackground);
         super.dispose();
@@ -895,6 +906,13 @@ public class SpreadsheetPresentation extends AbstractPresentation
             return;
         }
         isHighContrastTheme = UIStyles.isHighContrastTheme();
+        if (!refreshMetadata && !append && !newRowsPrepared) {
+            // Values were edited or saved.
+            // Freshly fetched rows are new objects, their strings are being prepared already.
+            valueFormatCache.invalidate();
+        }
+        newRowsPrepared = false;
+        preparedTopIndex = -1;
 
         // Cache preferences
         DBPPreferenceStore preferenceStore = getPreferenceStore();
@@ -933,11 +951,51 @@ public class SpreadsheetPresentation extends AbstractPresentation
 
     @Override
     public void formatData(boolean refreshData) {
+        // Data format settings were changed
+        valueFormatCache.invalidate();
         spreadsheet.refreshData(false, true, false);
     }
 
+    @Override
+    public void prepareRows(@NotNull List<ResultSetRow> rows) {
+        // Called by the fetch job. Attributes and display formats are read in the UI thread.
+        List<ResultSetRow> windowRows = new ArrayList<>(rows.subList(0, Math.min(rows.size(), PREPARE_ROWS_WINDOW)));
+        newRowsPrepared = true;
+        UIUtils.asyncExec(() -> {
+            if (spreadsheet.isDisposed() || gridValueFormat == null || controller.isRecordMode()) {
+                // Not initialized yet or shows a single row
+                return;
+            }
+            valueFormatCache.prepareRows(controller.getModel(), windowRows);
+        });
+    }
+
+    /**
+     * Prepares display strings of the rows below the visible area
+     */
+    private void prepareNextRows() {
+        if (controller.isRecordMode()) {
+            return;
+        }
+        int topIndex = spreadsheet.getTopIndex();
+        if (topIndex == preparedTopIndex) {
+            return;
+        }
+        preparedTopIndex = topIndex;
+        int bottomIndex = spreadsheet.getBottomIndex();
+        int lastIndex = Math.min(spreadsheet.getItemCount(), bottomIndex + 1 + (bottomIndex - topIndex + 1));
+        List<ResultSetRow> rows = new ArrayList<>();
+        for (int i = bottomIndex + 1; i < lastIndex; i++) {
+            if (spreadsheet.getRowElement(i) instanceof ResultSetRow row) {
+                rows.add(row);
+            }
+        }
+        valueFormatCache.prepareRows(controller.getModel(), rows);
+    }
+
     @Override
     public void clearMetaData() {
+        valueFormatCache.invalidate();
         this.curAttribute = null;
         if (this.columnOrder != SWT.NONE) {
             this.columnOrder = SWT.DEFAULT;
@@ -2467,10 +2525,7 @@ public class SpreadsheetPresentation extends AbstractPresentation
                 //return "[" + composite.getDataType().getName() + "]";
             }
             try {
-                return attr.getValueRenderer().getValueDisplayString(
-                    attr.getAttribute(),
-                    value,
-                    getValueRenderFormat(attr, value));
+                return valueFormatCache.getDisplayString(attr, row, value);
             } catch (Exception e) {
                 return new DBDValueError(e);
             }
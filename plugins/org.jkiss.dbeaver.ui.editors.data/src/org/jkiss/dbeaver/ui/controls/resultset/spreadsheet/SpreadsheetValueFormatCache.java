@@ -0,0 +1,241 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.spreadsheet;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Display strings of spreadsheet cells.
+ * Strings for rows which are about to become visible are formatted in background jobs,
+ * grid painting reads ready strings and formats synchronously only on cache miss.
+ * <p>
+ * Value handlers keep data formatters which are not thread-safe and are used by the UI thread
+ * without any locks. So cells and display formats are collected in the UI thread, and the background job
+ * formats them with its own value handler instances. Attributes with transformers or custom renderers
+ * are formatted by the grid only.
+ * Least recently used strings are evicted when the cache is full.
+ */
+class SpreadsheetValueFormatCache {
+
+    private static final Log log = Log.getLog(SpreadsheetValueFormatCache.class);
+
+    private static final int MAX_CACHED_VALUES = 50000;
+    // Background preparation must not evict strings of the visible rows
+    private static final int MAX_PREPARED_VALUES = MAX_CACHED_VALUES / 2;
+
+    // Access-ordered, guarded by itself
+    private final Map<CellKey, FormattedValue> values = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CellKey, FormattedValue> eldest) {
+            return size() > MAX_CACHED_VALUES;
+        }
+    };
+    private final BiFunction<DBDAttributeBinding, Object, DBDDisplayFormat> formatProvider;
+    private volatile int generation;
+    private PrepareJob prepareJob;
+
+    SpreadsheetValueFormatCache(@NotNull BiFunction<DBDAttributeBinding, Object, DBDDisplayFormat> formatProvider) {
+        this.formatProvider = formatProvider;
+    }
+
+    /**
+     * Returns display string of the cell value. Formats it in the current thread if it wasn't prepared yet.
+     */
+    @NotNull
+    String getDisplayString(@NotNull DBDAttributeBinding attr, @NotNull ResultSetRow row, @Nullable Object value) {
+        DBDDisplayFormat format = formatProvider.apply(attr, value);
+        if (row.getState() != ResultSetRow.STATE_NORMAL || row.isChanged(attr)) {
+            // Edited values may be modified in place
+            return formatValue(attr, value, format);
+        }
+        CellKey key = new CellKey(attr, row);
+        FormattedValue formatted = getValue(key);
+        if (formatted != null && formatted.value == value && formatted.format == format) {
+            return formatted.text;
+        }
+        String text = formatValue(attr, value, format);
+        putValue(key, new FormattedValue(value, format, text));
+        return text;
+    }
+
+    /**
+     * Schedules background formatting of the specified rows.
+     * Must be called in the UI thread: cell values and display formats are read here.
+     */
+    synchronized void prepareRows(@NotNull ResultSetModel model, @NotNull List<ResultSetRow> rows) {
+        List<DBDAttributeBinding> attributes = model.getVisibleAttributes();
+        if (rows.isEmpty() || attributes.isEmpty()) {
+            return;
+        }
+        if (prepareJob != null) {
+            prepareJob.cancel();
+            prepareJob = null;
+        }
+        List<PreparedCell> cells = new ArrayList<>();
+        for (ResultSetRow row : rows) {
+            if (row.getState() != ResultSetRow.STATE_NORMAL) {
+                continue;
+            }
+            for (DBDAttributeBinding attr : attributes) {
+                Object value = model.getCellValue(attr, row);
+                if (!isPreparable(value) || row.isChanged(attr)) {
+                    continue;
+                }
+                CellKey key = new CellKey(attr, row);
+                DBDDisplayFormat format = formatProvider.apply(attr, value);
+                FormattedValue formatted = getValue(key);
+                if (formatted == null || formatted.value != value || formatted.format != format) {
+                    cells.add(new PreparedCell(key, value, format));
+                }
+            }
+            if (cells.size() >= MAX_PREPARED_VALUES) {
+                break;
+            }
+        }
+        if (!cells.isEmpty()) {
+            prepareJob = new PrepareJob(cells, generation);
+            prepareJob.schedule();
+        }
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        if (prepareJob != null) {
+            prepareJob.cancel();
+            prepareJob = null;
+        }
+        synchronized (values) {
+            values.clear();
+        }
+    }
+
+    @Nullable
+    private FormattedValue getValue(@NotNull CellKey key) {
+        synchronized (values) {
+            return values.get(key);
+        }
+    }
+
+    private void putValue(@NotNull CellKey key, @NotNull FormattedValue value) {
+        synchronized (values) {
+            values.put(key, value);
+        }
+    }
+
+    @NotNull
+    private static String formatValue(@NotNull DBDAttributeBinding attr, @Nullable Object value, @NotNull DBDDisplayFormat format) {
+        return attr.getValueRenderer().getValueDisplayString(attr.getAttribute(), value, format);
+    }
+
+    /**
+     * Creates a value handler of the same type as the attribute's one, so it has its own data formatters.
+     * Handlers which are shared between attributes keep no formatters.
+     */
+    @Nullable
+    private static DBDValueRenderer createJobRenderer(@NotNull DBDAttributeBinding attr) {
+        DBDValueHandler valueHandler = attr.getValueHandler();
+        DBPDataSource dataSource = attr.getDataSource();
+        if (attr.isTransformed() || attr.getValueRenderer() != valueHandler || dataSource == null) {
+            return null;
+        }
+        DBDValueHandler jobHandler = DBUtils.findValueHandler(dataSource, dataSource.getContainer(), attr.getAttribute());
+        return jobHandler.getClass() == valueHandler.getClass() ? jobHandler : null;
+    }
+
+    private static boolean isPreparable(@Nullable Object value) {
+        // Collections, composites and errors are rendered by the presentation itself
+        return !DBUtils.isNullValue(value) &&
+            !(value instanceof DBDValueError) &&
+            !(value instanceof DBDCollection) &&
+            !(value instanceof DBDComposite);
+    }
+
+    private class PrepareJob extends AbstractJob {
+        private final List<PreparedCell> cells;
+        private final int jobGeneration;
+        // Value handlers of this job, null if the attribute can't be formatted here
+        private final Map<DBDAttributeBinding, DBDValueRenderer> renderers = new IdentityHashMap<>();
+
+        PrepareJob(List<PreparedCell> cells, int jobGeneration) {
+            super("Prepare cell values");
+            setSystem(true);
+            setUser(false);
+            this.cells = cells;
+            this.jobGeneration = jobGeneration;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (PreparedCell cell : cells) {
+                if (monitor.isCanceled() || jobGeneration != generation) {
+                    return Status.CANCEL_STATUS;
+                }
+                DBDAttributeBinding attr = cell.key.attr();
+                if (!renderers.containsKey(attr)) {
+                    renderers.put(attr, createJobRenderer(attr));
+                }
+                DBDValueRenderer renderer = renderers.get(attr);
+                if (renderer == null) {
+                    continue;
+                }
+                try {
+                    String text = renderer.getValueDisplayString(attr.getAttribute(), cell.value, cell.format);
+                    if (jobGeneration == generation) {
+                        putValue(cell.key, new FormattedValue(cell.value, cell.format, text));
+                    }
+                } catch (Throwable e) {
+                    // Leave it to the grid, it will show the error in the cell
+                    log.debug("Error formatting value of '" + attr.getName() + "': " + e.getMessage());
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private record CellKey(@NotNull DBDAttributeBinding attr, @NotNull ResultSetRow row) {
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CellKey key && key.attr == attr && key.row == row;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(attr) * 31 + System.identityHashCode(row);
+        }
+    }
+
+    private record PreparedCell(@NotNull CellKey key, @Nullable Object value, @NotNull DBDDisplayFormat format) {
+    }
+
+    private record FormattedValue(@Nullable Object value, @NotNull DBDDisplayFormat format, @NotNull String text) {
+    }
+
+}
@@ -68,6 +68,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
     private Button disableEditingOnMissingKey;
     private Button newRowsAfter;
     private Button refreshAfterUpdate;
+    private Button batchSave;
     private Button useNavigatorFilters;
 
     private Button confirmDataSave;
@@ -101,6 +102,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.contains(ResultSetPreferences.RS_EDIT_DISABLE_IF_KEY_MISSING) ||
             store.contains(ResultSetPreferences.RS_EDIT_NEW_ROWS_AFTER) ||
             store.contains(ResultSetPreferences.RS_EDIT_REFRESH_AFTER_UPDATE) ||
+            store.contains(ResultSetPreferences.RS_EDIT_BATCH_SAVE) ||
             store.contains(ResultSetPreferences.KEEP_STATEMENT_OPEN) ||
             store.contains(ResultSetPreferences.RESULT_SET_ORDERING_MODE) ||
             store.contains(ModelPreferences.RESULT_SET_USE_FETCH_SIZE) ||
@@ -175,6 +177,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             keepStatementOpenCheck = UIUtils.createCheckbox(miscGroup, ResultSetMessages.pref_page_database_general_checkbox_keep_cursor, false);
             newRowsAfter = UIUtils.createCheckbox(miscGroup, ResultSetMessages.pref_page_content_editor_checkbox_new_rows_after, false);
             refreshAfterUpdate = UIUtils.createCheckbox(miscGroup, ResultSetMessages.pref_page_content_editor_checkbox_refresh_after_update, false);
+            batchSave = UIUtils.createCheckbox(miscGroup, ResultSetMessages.pref_page_content_editor_checkbox_batch_save, ResultSetMessages.pref_page_content_editor_checkbox_batch_save_tip, false, 1);
             useNavigatorFilters = UIUtils.createCheckbox(miscGroup, ResultSetMessages.pref_page_content_editor_checkbox_use_navigator_filters, ResultSetMessages.pref_page_content_editor_checkbox_use_navigator_filters_tip, false, 1);
             useDateTimeEditor = UIUtils.createCheckbox(miscGroup, ResultSetMessages.pref_page_content_editor_checkbox_string_editor_for_datetime, ResultSetMessages.pref_page_content_editor_checkbox_string_editor_for_datetime_tip, false, 1);
         }
@@ -268,6 +271,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             disableEditingOnMissingKey.setSelection(store.getBoolean(ResultSetPreferences.RS_EDIT_DISABLE_IF_KEY_MISSING));
             newRowsAfter.setSelection(store.getBoolean(ResultSetPreferences.RS_EDIT_NEW_ROWS_AFTER));
             refreshAfterUpdate.setSelection(store.getBoolean(ResultSetPreferences.RS_EDIT_REFRESH_AFTER_UPDATE));
+            batchSave.setSelection(store.getBoolean(ResultSetPreferences.RS_EDIT_BATCH_SAVE));
             useNavigatorFilters.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS));
 
             advUseFetchSize.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE));
@@ -304,6 +308,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(ResultSetPreferences.RS_EDIT_DISABLE_IF_KEY_MISSING, disableEditingOnMissingKey.getSelection());
             store.setValue(ResultSetPreferences.RS_EDIT_NEW_ROWS_AFTER, newRowsAfter.getSelection());
             store.setValue(ResultSetPreferences.RS_EDIT_REFRESH_AFTER_UPDATE, refreshAfterUpdate.getSelection());
+            store.setValue(ResultSetPreferences.RS_EDIT_BATCH_SAVE, batchSave.getSelection());
             store.setValue(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS, useNavigatorFilters.getSelection());
 
             store.setValue(ModelPreferences.RESULT_SET_USE_FETCH_SIZE, advUseFetchSize.getSelection());
@@ -338,6 +343,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(ResultSetPreferences.RS_EDIT_DISABLE_IF_KEY_MISSING);
         store.setToDefault(ResultSetPreferences.RS_EDIT_NEW_ROWS_AFTER);
         store.setToDefault(ResultSetPreferences.RS_EDIT_REFRESH_AFTER_UPDATE);
+        store.setToDefault(ResultSetPreferences.RS_EDIT_BATCH_SAVE);
         store.setToDefault(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS);
 
         store.setToDefault(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
@@ -366,6 +372,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
         disableEditingOnMissingKey.setSelection(store.getDefaultBoolean(ResultSetPreferences.RS_EDIT_DISABLE_IF_KEY_MISSING));
         newRowsAfter.setSelection(store.getDefaultBoolean(ResultSetPreferences.RS_EDIT_NEW_ROWS_AFTER));
         refreshAfterUpdate.setSelection(store.getDefaultBoolean(ResultSetPreferences.RS_EDIT_REFRESH_AFTER_UPDATE));
+        batchSave.setSelection(store.getDefaultBoolean(ResultSetPreferences.RS_EDIT_BATCH_SAVE));
         useNavigatorFilters.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS));
         if (confirmDataSave != null) {
             confirmDataSave.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_SET_CONFIRM_BEFORE_SAVE));
@@ -144,7 +144,7 @@ class SessionTable<SESSION_TYPE extends DBAServerSession> extends DatabaseObject
                     DBCExecutionContext context = DBUtils.getDefaultContext(sessionManager.getDataSource(), false);
                     return getSessions(monitor, context);
                 } else {
-                    try (DBCExecutionContext isolatedContext = sessionManager.getDataSource().getDefaultInstance().openIsolatedContext(monitor, "View sessions", null)) {
+                    try (DBCExecutionContext isolatedContext = sessionManager.getDataSource().getDefaultInstance().openPooledContext(monitor, "View sessions", null)) {
                         return getSessions(monitor, isolatedContext);
                     }
                 }
@@ -180,7 +180,7 @@ class SessionTable<SESSION_TYPE extends DBAServerSession> extends DatabaseObject
                     DBCExecutionContext context = DBUtils.getDefaultContext(sessionManager.getDataSource(), false);
                     return killSession(monitor, context);
                 } else {
-                    try (DBCExecutionContext isolatedContext = sessionManager.getDataSource().getDefaultInstance().openIsolatedContext(monitor, "View sessions", null)) {
+                    try (DBCExecutionContext isolatedContext = sessionManager.getDataSource().getDefaultInstance().openPooledContext(monitor, "View sessions", null)) {
                         return killSession(monitor, isolatedContext);
                     }
                 }
@@ -51,7 +51,9 @@ import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableParametrized;
 import org.jkiss.dbeaver.model.sql.*;
+import org.jkiss.dbeaver.model.sql.commands.SQLCommandParallel;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
+import org.jkiss.dbeaver.model.sql.exec.SQLInsertBatch;
 import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
 import org.jkiss.dbeaver.model.sql.registry.SQLCommandsRegistry;
 import org.jkiss.dbeaver.model.sql.registry.SQLPragmaHandlerDescriptor;
@@ -72,14 +74,17 @@ import org.jkiss.dbeaver.ui.editors.sql.SQLResultsConsumer;
 import org.jkiss.dbeaver.ui.editors.sql.internal.SQLEditorActivator;
 import org.jkiss.dbeaver.ui.editors.sql.internal.SQLEditorMessages;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * SQLQueryJob
@@ -93,6 +98,9 @@ public class SQLQueryJob extends DataSourceJob
     public static final Object STATS_RESULTS = new Object();
     private static final int MAX_QUERY_PREVIEW_LENGTH = 8192;
     private static final int MAX_UPDATE_COUNT_READS = 1000;
+    private static final String[] PARALLEL_MAINTENANCE_KEYWORDS = {"VACUUM", "ANALYZE", "ANALYSE", "REINDEX"};
+    private static final Pattern CREATE_INDEX_CONCURRENTLY_PATTERN =
+        Pattern.compile("CREATE\\s+(UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\b", Pattern.CASE_INSENSITIVE);
 
     private final DBSDataContainer dataContainer;
     private final List<SQLScriptElement> queries;
@@ -107,6 +115,7 @@ public class SQLQueryJob extends DataSourceJob
     private SQLScriptCommitType commitType;
     private SQLScriptErrorHandling errorHandling;
     private boolean fetchResultSets;
+    private boolean batchInserts;
     private long rsOffset;
     private long rsMaxRows;
 
@@ -120,6 +129,13 @@ public class SQLQueryJob extends DataSourceJob
     private SQLQuery lastGoodQuery;
 
     private boolean skipConfirmation;
+    // Queries before this position are not batched, they are executed one by one after the batch error
+    private int insertBatchEnd;
+    @Nullable
+    private SQLQueryParallelExecutor parallelExecutor;
+    // Results of the queries executed concurrently, they are reported in the script order
+    private final Map<SQLScriptElement, SQLQueryResult> parallelResults = new IdentityHashMap<>();
+    private boolean parallelDisabled;
     private int fetchSize;
     private long fetchFlags;
     private SQLQueryResult curResult;
@@ -154,6 +170,7 @@ public class SQLQueryJob extends DataSourceJob
                 preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) && !isDisableFetchResultSet
             );
             this.rsMaxRows = preferenceStore.getInt(ModelPreferences.RESULT_SET_MAX_ROWS);
+            this.batchInserts = queries.size() > 1 && preferenceStore.getBoolean(ModelPreferences.SCRIPT_BATCH_INSERTS);
         }
     }
 
@@ -204,6 +221,8 @@ public class SQLQueryJob extends DataSourceJob
         RuntimeUtils.setThreadName("SQL script execution");
         statistics = new DBCStatistics();
         skipConfirmation = false;
+        insertBatchEnd = 0;
+        parallelDisabled = false;
         monitor.beginTask("Execute SQL script", queries.size());
         try {
             DBCExecutionContext context = getExecutionContext();
@@ -233,17 +252,29 @@ public class SQLQueryJob extends DataSourceJob
                 }
 
                 resultSetNumber = 0;
+                SQLDialect dialect = context.getDataSource().getSQLDialect();
+                SQLInsertBatch insertBatch = batchInserts && SQLInsertBatch.isSupported(dialect) ?
+                    new SQLInsertBatch(dialect, SQLInsertBatch.DEFAULT_MAX_ROWS) : null;
                 for (int queryNum = 0; queryNum < queries.size(); ) {
-                    // Execute query
-                    SQLScriptElement query = queries.get(queryNum);
-
-                    fetchResultSetNumber = resultSetNumber;
-                    boolean runNext = executeSingleQuery(session, query, true);
-                    if (txnManager != null && txnManager.isSupportsTransactions()
-                        && !oldAutoCommit && commitType != SQLScriptCommitType.AUTOCOMMIT
-                        && query instanceof SQLQuery sqlQuery
-                    ) {
-                        handleTransactionStatements(txnManager, session, sqlQuery);
+                    if (parallelResults.isEmpty()) {
+                        executeParallelQueries(session, queryNum);
+                    }
+                    int batchCount = insertBatch == null ? 0 : executeInsertBatch(session, txnManager, insertBatch, queryNum);
+                    boolean runNext;
+                    if (batchCount > 0) {
+                        runNext = lastError == null || errorHandling == SQLScriptErrorHandling.IGNORE;
+                    } else {
+                        // Execute query
+                        SQLScriptElement query = queries.get(queryNum);
+
+                        fetchResultSetNumber = resultSetNumber;
+                        runNext = executeSingleQuery(session, query, true);
+                        if (txnManager != null && txnManager.isSupportsTransactions()
+                            && !oldAutoCommit && commitType != SQLScriptCommitType.AUTOCOMMIT
+                            && query instanceof SQLQuery sqlQuery
+                        ) {
+                            handleTransactionStatements(txnManager, session, sqlQuery);
+                        }
                     }
                     if (!runNext) {
                         if (lastError == null) {
@@ -284,9 +315,11 @@ public class SQLQueryJob extends DataSourceJob
                     if (monitor.isCanceled()) {
                         break;
                     }
-                    monitor.worked(1);
-                    queryNum++;
+                    int executedCount = Math.max(batchCount, 1);
+                    monitor.worked(executedCount);
+                    queryNum += executedCount;
                 }
+                reportRemainingParallelResults(session);
                 if (statistics.getStatementsCount() > 0) {
                     showExecutionResult(session);
                 }
@@ -337,6 +370,11 @@ public class SQLQueryJob extends DataSourceJob
         }
         finally {
             monitor.done();
+            parallelResults.clear();
+            if (parallelExecutor != null) {
+                parallelExecutor.close();
+                parallelExecutor = null;
+            }
 
             // Notify job end
             if (listener != null) {
@@ -360,6 +398,271 @@ public class SQLQueryJob extends DataSourceJob
         }
     }
 
+    /**
+     * Executes consecutive single-row INSERTs starting from the specified query as one multi-row INSERT.
+     * Returns the number of executed queries or 0 if the query must be executed as is.
+     * <p>
+     * Listeners are notified about the original queries. If the failed batch was rolled back (by auto-commit
+     * or to a savepoint) then its queries are executed one by one, so errors are reported for the original statements.
+     * Otherwise (savepoint couldn't be set or rolled back) the error is reported for the first query of the batch.
+     */
+    private int executeInsertBatch(
+        @NotNull DBCSession session,
+        @Nullable DBCTransactionManager txnManager,
+        @NotNull SQLInsertBatch insertBatch,
+        int queryNum
+    ) {
+        if (queryNum < insertBatchEnd ||
+            !SQLInsertBatch.isSupported(txnManager) ||
+            !parallelResults.isEmpty() ||
+            !scriptContext.getPragmas().isEmpty() ||
+            (dataFilter != null && dataFilter.hasFilters()) ||
+            (!skipConfirmation && getDataSourceContainer().getConnectionConfiguration().getConnectionType().isConfirmExecute())
+        ) {
+            return 0;
+        }
+        insertBatch.clear();
+        for (int i = queryNum; i < queries.size(); i++) {
+            if (!(queries.get(i) instanceof SQLQuery query) || !insertBatch.add(query)) {
+                break;
+            }
+        }
+        List<SQLQuery> batchQueries = new ArrayList<>(insertBatch.getQueries());
+        int batchCount = batchQueries.size();
+        if (batchCount < 2) {
+            insertBatch.clear();
+            return 0;
+        }
+
+        int statementsCount = statistics.getStatementsCount();
+        long startTime = System.currentTimeMillis();
+        SQLInsertBatch.ExecuteResult result = insertBatch.execute(session, txnManager, query -> {
+            executeSingleQuery(session, query, false);
+            return lastError;
+        });
+        long queryTime = System.currentTimeMillis() - startTime;
+        insertBatch.clear();
+        switch (result) {
+            case ROLLED_BACK -> {
+                log.debug("Error executing INSERT batch, execute queries one by one: " + lastError.getMessage());
+                lastError = null;
+                insertBatchEnd = queryNum + batchCount;
+                return 0;
+            }
+            case FAILED -> {
+                // Rows of the failed batch are unknown
+                notifyBatchQueries(session, batchQueries.subList(0, 1), lastError, queryTime);
+                return batchCount;
+            }
+            default -> {
+                statistics.setStatementsCount(statementsCount + batchCount);
+                notifyBatchQueries(session, batchQueries, null, queryTime);
+                lastGoodQuery = batchQueries.get(batchCount - 1);
+                return batchCount;
+            }
+        }
+    }
+
+    private void notifyBatchQueries(
+        @NotNull DBCSession session,
+        @NotNull List<SQLQuery> batchQueries,
+        @Nullable Throwable error,
+        long queryTime
+    ) {
+        if (listener == null) {
+            return;
+        }
+        for (SQLQuery query : batchQueries) {
+            statistics.setQueryText(query.getText());
+            try {
+                listener.onStartQuery(session, query);
+            } catch (Exception e) {
+                log.error(e);
+            }
+            SQLQueryResult result = new SQLQueryResult(query);
+            result.setError(error);
+            result.setQueryTime(queryTime / batchQueries.size());
+            curResult = result;
+            notifyQueryExecutionEnd(session, result);
+        }
+    }
+
+    /**
+     * Executes consecutive independent queries starting from the specified query concurrently,
+     * if it was enabled by the {@code @parallel} command.
+     * Only INSERT, UPDATE, DELETE and MERGE statements and maintenance statements (see {@link #isMaintenanceQuery})
+     * are executed concurrently. Other statements (queries which return data, DDL, session settings like SET)
+     * and control commands are executed sequentially, so they split the script into runs of parallel queries.
+     * Workers commit each statement, so parallel execution is used only in auto-commit mode.
+     * Results are saved and reported later by {@link #executeSingleQuery}, in the script order.
+     */
+    private void executeParallelQueries(@NotNull DBCSession session, int queryNum) {
+        int connections = SQLCommandParallel.getParallelConnections(scriptContext);
+        if (connections <= 1 || parallelDisabled ||
+            !scriptContext.getPragmas().isEmpty() ||
+            (dataFilter != null && dataFilter.hasFilters()) ||
+            (!skipConfirmation && getDataSourceContainer().getConnectionConfiguration().getConnectionType().isConfirmExecute())
+        ) {
+            return;
+        }
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        try {
+            if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                log.warn("Parallel execution is available in auto-commit mode only, queries will be executed sequentially");
+                parallelDisabled = true;
+                return;
+            }
+        } catch (DBCException e) {
+            log.debug("Can't check auto-commit mode", e);
+            parallelDisabled = true;
+            return;
+        }
+        SQLDialect dialect = session.getDataSource().getSQLDialect();
+        List<SQLQuery> parallelQueries = new ArrayList<>();
+        for (int i = queryNum; i < queries.size(); i++) {
+            if (!(queries.get(i) instanceof SQLQuery query) || !isParallelQuery(dialect, query)) {
+                break;
+            }
+            parallelQueries.add(query);
+        }
+        if (parallelQueries.size() < 2) {
+            return;
+        }
+        try {
+            if (parallelExecutor == null) {
+                parallelExecutor = new SQLQueryParallelExecutor(getExecutionContext(), this::executeParallelQuery);
+            }
+            session.getProgressMonitor().subTask("Execute " + parallelQueries.size() + " queries in parallel");
+            SQLQueryResult[] results = parallelExecutor.execute(
+                session.getProgressMonitor(),
+                parallelQueries,
+                connections,
+                errorHandling != SQLScriptErrorHandling.IGNORE);
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] != null) {
+                    parallelResults.put(parallelQueries.get(i), results[i]);
+                }
+            }
+        } catch (DBException e) {
+            log.warn("Can't open connections for parallel execution, queries will be executed sequentially", e);
+            parallelDisabled = true;
+        }
+    }
+
+    private static boolean isParallelQuery(@NotNull SQLDialect dialect, @NotNull SQLQuery query) {
+        if (!CommonUtils.isEmpty(query.getParameters())) {
+            return false;
+        }
+        SQLQueryType type = query.getType();
+        if (type == SQLQueryType.INSERT || type == SQLQueryType.UPDATE || type == SQLQueryType.DELETE || type == SQLQueryType.MERGE) {
+            return !SQLSemanticProcessor.isSelectQuery(dialect, query.getText());
+        }
+        return isMaintenanceQuery(dialect, query.getText());
+    }
+
+    /**
+     * Maintenance statements which usually process independent objects (e.g. partitions) and do not lock each other:
+     * VACUUM, ANALYZE, REINDEX and CREATE INDEX CONCURRENTLY.
+     */
+    private static boolean isMaintenanceQuery(@NotNull SQLDialect dialect, @NotNull String text) {
+        String firstKeyword = SQLUtils.getFirstKeyword(dialect, text);
+        if (ArrayUtils.containsIgnoreCase(PARALLEL_MAINTENANCE_KEYWORDS, firstKeyword)) {
+            return true;
+        }
+        return CREATE_INDEX_CONCURRENTLY_PATTERN.matcher(SQLUtils.stripComments(dialect, text)).lookingAt();
+    }
+
+    /**
+     * Executes query in a parallel worker session. Called concurrently, so it doesn't change the job state.
+     */
+    @NotNull
+    private SQLQueryResult executeParallelQuery(@NotNull DBCSession session, @NotNull SQLQuery query) {
+        SQLQuery execQuery = new SQLQuery(session.getDataSource(), query.getText(), query);
+        SQLQueryResult result = new SQLQueryResult(execQuery);
+        AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), partSite.getPart(), execQuery);
+        source.setScriptContext(scriptContext);
+        long startTime = System.currentTimeMillis();
+        try (DBCStatement dbcStatement = DBUtils.makeStatement(source, session, DBCStatementType.SCRIPT, execQuery, 0, 0)) {
+            int statementTimeout = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT);
+            if (statementTimeout > 0) {
+                try {
+                    dbcStatement.setStatementTimeout(statementTimeout);
+                } catch (Throwable e) {
+                    log.debug("Can't set statement timeout:" + e.getMessage());
+                }
+            }
+            if (!dbcStatement.executeStatement()) {
+                long updateCount = dbcStatement.getUpdateRowCount();
+                SQLQueryResult.ExecuteResult executeResult = result.addExecuteResult(false);
+                if (updateCount >= 0) {
+                    executeResult.setUpdateCount(updateCount);
+                }
+            }
+        } catch (Throwable e) {
+            result.setError(e);
+        }
+        result.setQueryTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Reports result of the query executed concurrently as if it was just executed
+     */
+    private boolean reportParallelResult(
+        @NotNull DBCSession session,
+        @NotNull SQLScriptElement element,
+        @NotNull SQLQueryResult result,
+        boolean fireEvents
+    ) {
+        SQLQuery sqlQuery = result.getStatement();
+        curResult = result;
+        statistics.setQueryText(sqlQuery.getText());
+        if (fireEvents && listener != null) {
+            try {
+                listener.onStartQuery(session, sqlQuery);
+            } catch (Exception e) {
+                log.error(e);
+            }
+        }
+        if (result.getError() == null) {
+            statistics.addExecuteTime(result.getQueryTime());
+            statistics.addStatementsCount();
+            for (SQLQueryResult.ExecuteResult executeResult : result.getExecuteResults()) {
+                if (executeResult.getUpdateCount() != null) {
+                    statistics.addRowsUpdated(executeResult.getUpdateCount());
+                }
+            }
+        }
+        if (fireEvents && listener != null) {
+            notifyQueryExecutionEnd(session, result);
+        }
+        lastError = result.getError();
+        if (lastError != null && errorHandling != SQLScriptErrorHandling.IGNORE) {
+            return false;
+        }
+        lastGoodQuery = (SQLQuery) element;
+        return true;
+    }
+
+    /**
+     * Queries after the stop position could be already executed concurrently, report their results too
+     */
+    private void reportRemainingParallelResults(@NotNull DBCSession session) {
+        Throwable stopError = lastError;
+        for (SQLScriptElement element : queries) {
+            if (parallelResults.isEmpty()) {
+                break;
+            }
+            SQLQueryResult result = parallelResults.remove(element);
+            if (result != null) {
+                reportParallelResult(session, element, result, true);
+            }
+        }
+        if (stopError != null) {
+            lastError = stopError;
+        }
+    }
+
     protected void handleTransactionStatements(
         @NotNull DBCTransactionManager txnManager,
         @NotNull DBCSession session,
@@ -374,6 +677,10 @@ public class SQLQueryJob extends DataSourceJob
 
     private boolean executeSingleQuery(@NotNull DBCSession session, @NotNull SQLScriptElement element, final boolean fireEvents)
     {
+        SQLQueryResult parallelResult = parallelResults.remove(element);
+        if (parallelResult != null) {
+            return reportParallelResult(session, element, parallelResult, fireEvents);
+        }
 
         if (!scriptContext.getPragmas().isEmpty() && element instanceof SQLQuery) {
             final SQLQueryDataContainer container = new SQLQueryDataContainer(this::getExecutionContext, (SQLQuery) element, scriptContext, log);
@@ -0,0 +1,189 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.execute;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Executes independent script queries concurrently.
+ * Each worker uses its own isolated execution context in auto-commit mode.
+ * Contexts are opened on the first use and kept open until the executor is closed.
+ */
+class SQLQueryParallelExecutor implements AutoCloseable {
+
+    private static final Log log = Log.getLog(SQLQueryParallelExecutor.class);
+
+    private static final String CONTEXT_PURPOSE = "Parallel script execution";
+
+    @NotNull
+    private final DBCExecutionContext mainContext;
+    @NotNull
+    private final BiFunction<DBCSession, SQLQuery, SQLQueryResult> executor;
+    @NotNull
+    private final List<DBCExecutionContext> contexts = new ArrayList<>();
+
+    private record Task(int index, @NotNull SQLQuery query) {
+    }
+
+    /**
+     * @param executor executes the query in the specified session and returns its result, must not throw errors
+     */
+    SQLQueryParallelExecutor(
+        @NotNull DBCExecutionContext mainContext,
+        @NotNull BiFunction<DBCSession, SQLQuery, SQLQueryResult> executor
+    ) {
+        this.mainContext = mainContext;
+        this.executor = executor;
+    }
+
+    /**
+     * Executes queries using up to the specified number of connections.
+     * Returns results in the order of queries, result is null if the query was not executed because of cancel
+     * or because another query failed and {@code stopOnError} is set. Queries which were already started
+     * when the error occurred are finished.
+     */
+    @NotNull
+    SQLQueryResult[] execute(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<SQLQuery> queries,
+        int connections,
+        boolean stopOnError
+    ) throws DBException {
+        openContexts(monitor, Math.min(connections, queries.size()));
+
+        Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < queries.size(); i++) {
+            queue.add(new Task(i, queries.get(i)));
+        }
+        SQLQueryResult[] results = new SQLQueryResult[queries.size()];
+        int workersCount = Math.min(contexts.size(), queries.size());
+        CountDownLatch finished = new CountDownLatch(workersCount);
+        List<WorkerJob> workers = new ArrayList<>(workersCount);
+        for (int i = 0; i < workersCount; i++) {
+            WorkerJob worker = new WorkerJob(contexts.get(i), queue, results, stopOnError);
+            // Job may be canceled before it starts running, so count finished jobs by the completion events
+            worker.addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    finished.countDown();
+                }
+            });
+            workers.add(worker);
+            worker.schedule();
+        }
+        try {
+            boolean canceled = false;
+            while (!finished.await(100, TimeUnit.MILLISECONDS)) {
+                if (!canceled && monitor.isCanceled()) {
+                    canceled = true;
+                    queue.clear();
+                    for (WorkerJob worker : workers) {
+                        worker.cancel();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            queue.clear();
+            Thread.currentThread().interrupt();
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        for (DBCExecutionContext context : contexts) {
+            try {
+                context.close();
+            } catch (Exception e) {
+                log.debug("Error closing parallel execution context: " + e.getMessage());
+            }
+        }
+        contexts.clear();
+    }
+
+    private void openContexts(@NotNull DBRProgressMonitor monitor, int count) throws DBException {
+        while (contexts.size() < count) {
+            // User queries may change session state, so pooled contexts can't be used here
+            DBCExecutionContext context = mainContext.getOwnerInstance().openIsolatedContext(monitor, CONTEXT_PURPOSE, mainContext);
+            contexts.add(context);
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+            if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                txnManager.setAutoCommit(monitor, true);
+            }
+        }
+    }
+
+    private class WorkerJob extends AbstractJob {
+        @NotNull
+        private final DBCExecutionContext context;
+        @NotNull
+        private final Queue<Task> queue;
+        @NotNull
+        private final SQLQueryResult[] results;
+        private final boolean stopOnError;
+
+        WorkerJob(
+            @NotNull DBCExecutionContext context,
+            @NotNull Queue<Task> queue,
+            @NotNull SQLQueryResult[] results,
+            boolean stopOnError
+        ) {
+            super(CONTEXT_PURPOSE);
+            this.context = context;
+            this.queue = queue;
+            this.results = results;
+            this.stopOnError = stopOnError;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.USER_SCRIPT, CONTEXT_PURPOSE)) {
+                for (Task task = queue.poll(); task != null && !monitor.isCanceled(); task = queue.poll()) {
+                    SQLQueryResult result = executor.apply(session, task.query);
+                    results[task.index] = result;
+                    if (stopOnError && result.getError() != null) {
+                        // Other workers don't start new queries
+                        queue.clear();
+                    }
+                }
+            }
+            return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+        }
+    }
+}
@@ -257,8 +257,12 @@ public class SQLEditorMessages extends NLS {
     public static String pref_page_code_editor_label_advanced_highlighting_enabled_tip;
     public static String pref_page_code_editor_label_read_metadata_enabled;
     public static String pref_page_code_editor_label_read_metadata_enabled_tip;
+    public static String pref_page_code_editor_label_parallel_analysis_enabled;
+    public static String pref_page_code_editor_label_parallel_analysis_enabled_tip;
 
     public static String pref_page_sql_editor_checkbox_fetch_resultsets;
+    public static String pref_page_sql_editor_checkbox_batch_inserts;
+    public static String pref_page_sql_editor_checkbox_batch_inserts_tip;
     public static String pref_page_sql_editor_text_statement_delimiter;
     public static String pref_page_sql_editor_checkbox_ignore_native_delimiter;
     public static String pref_page_sql_editor_checkbox_ignore_native_delimiter_tip;
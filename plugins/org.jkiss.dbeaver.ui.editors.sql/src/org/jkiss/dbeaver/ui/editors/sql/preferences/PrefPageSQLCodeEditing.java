@@ -47,6 +47,7 @@ public class PrefPageSQLCodeEditing extends TargetPrefPage {
     private Button csProblemMarkersEnabled;
     private Button advancedHighlightingEnabled;
     private Button readMetadataForSemanticValidationEnabled;
+    private Button parallelSemanticAnalysisEnabled;
     // Auto-close
     private Button acSingleQuotesCheck;
     private Button acDoubleQuotesCheck;
@@ -99,10 +100,18 @@ public class PrefPageSQLCodeEditing extends TargetPrefPage {
                 false,
                 1
             );
+            parallelSemanticAnalysisEnabled = UIUtils.createCheckbox(
+                analysisGroup,
+                SQLEditorMessages.pref_page_code_editor_label_parallel_analysis_enabled,
+                SQLEditorMessages.pref_page_code_editor_label_parallel_analysis_enabled_tip,
+                false,
+                1
+            );
             advancedHighlightingEnabled.addSelectionListener(new SelectionAdapter() {
                 @Override
                 public void widgetSelected(SelectionEvent e) {
                     readMetadataForSemanticValidationEnabled.setEnabled(advancedHighlightingEnabled.getSelection());
+                    parallelSemanticAnalysisEnabled.setEnabled(advancedHighlightingEnabled.getSelection());
                 }
             });
         }
@@ -145,6 +154,8 @@ public class PrefPageSQLCodeEditing extends TargetPrefPage {
         advancedHighlightingEnabled.setSelection(store.getBoolean(SQLPreferenceConstants.ADVANCED_HIGHLIGHTING_ENABLE));
         readMetadataForSemanticValidationEnabled.setSelection(store.getBoolean(SQLPreferenceConstants.READ_METADATA_FOR_SEMANTIC_ANALYSIS));
         readMetadataForSemanticValidationEnabled.setEnabled(advancedHighlightingEnabled.getSelection());
+        parallelSemanticAnalysisEnabled.setSelection(store.getBoolean(SQLPreferenceConstants.PARALLEL_SEMANTIC_ANALYSIS));
+        parallelSemanticAnalysisEnabled.setEnabled(advancedHighlightingEnabled.getSelection());
         
         acSingleQuotesCheck.setSelection(store.getBoolean(SQLPreferenceConstants.SQLEDITOR_CLOSE_SINGLE_QUOTES));
         acDoubleQuotesCheck.setSelection(store.getBoolean(SQLPreferenceConstants.SQLEDITOR_CLOSE_DOUBLE_QUOTES));
@@ -163,6 +174,7 @@ public class PrefPageSQLCodeEditing extends TargetPrefPage {
         store.setValue(SQLPreferenceConstants.PROBLEM_MARKERS_ENABLED, csProblemMarkersEnabled.getSelection());
         store.setValue(SQLPreferenceConstants.ADVANCED_HIGHLIGHTING_ENABLE, advancedHighlightingEnabled.getSelection());
         store.setValue(SQLPreferenceConstants.READ_METADATA_FOR_SEMANTIC_ANALYSIS, readMetadataForSemanticValidationEnabled.getSelection());
+        store.setValue(SQLPreferenceConstants.PARALLEL_SEMANTIC_ANALYSIS, parallelSemanticAnalysisEnabled.getSelection());
         
         store.setValue(SQLPreferenceConstants.SQLEDITOR_CLOSE_SINGLE_QUOTES, acSingleQuotesCheck.getSelection());
         store.setValue(SQLPreferenceConstants.SQLEDITOR_CLOSE_DOUBLE_QUOTES, acDoubleQuotesCheck.getSelection());
@@ -181,6 +193,7 @@ public class PrefPageSQLCodeEditing extends TargetPrefPage {
         store.setToDefault(SQLPreferenceConstants.PROBLEM_MARKERS_ENABLED);
         store.setToDefault(SQLPreferenceConstants.ADVANCED_HIGHLIGHTING_ENABLE);
         store.setToDefault(SQLPreferenceConstants.READ_METADATA_FOR_SEMANTIC_ANALYSIS);
+        store.setToDefault(SQLPreferenceConstants.PARALLEL_SEMANTIC_ANALYSIS);
 
         store.setToDefault(SQLPreferenceConstants.SQLEDITOR_CLOSE_SINGLE_QUOTES);
         store.setToDefault(SQLPreferenceConstants.SQLEDITOR_CLOSE_DOUBLE_QUOTES);
@@ -200,6 +213,7 @@ public class PrefPageSQLCodeEditing extends TargetPrefPage {
         csProblemMarkersEnabled.setSelection(store.getDefaultBoolean(SQLPreferenceConstants.PROBLEM_MARKERS_ENABLED));
         advancedHighlightingEnabled.setSelection(store.getDefaultBoolean(SQLPreferenceConstants.ADVANCED_HIGHLIGHTING_ENABLE));
         readMetadataForSemanticValidationEnabled.setSelection(store.getDefaultBoolean(SQLPreferenceConstants.READ_METADATA_FOR_SEMANTIC_ANALYSIS));
+        parallelSemanticAnalysisEnabled.setSelection(store.getDefaultBoolean(SQLPreferenceConstants.PARALLEL_SEMANTIC_ANALYSIS));
         acSingleQuotesCheck.setSelection(store.getDefaultBoolean(SQLPreferenceConstants.SQLEDITOR_CLOSE_SINGLE_QUOTES));
         acDoubleQuotesCheck.setSelection(store.getDefaultBoolean(SQLPreferenceConstants.SQLEDITOR_CLOSE_DOUBLE_QUOTES));
         acBracketsCheck.setSelection(store.getDefaultBoolean(SQLPreferenceConstants.SQLEDITOR_CLOSE_BRACKETS));
@@ -218,6 +232,7 @@ public class PrefPageSQLCodeEditing extends TargetPrefPage {
             || store.contains(SQLPreferenceConstants.PROBLEM_MARKERS_ENABLED)
             || store.contains(SQLPreferenceConstants.ADVANCED_HIGHLIGHTING_ENABLE)
             || store.contains(SQLPreferenceConstants.READ_METADATA_FOR_SEMANTIC_ANALYSIS)
+            || store.contains(SQLPreferenceConstants.PARALLEL_SEMANTIC_ANALYSIS)
             || store.contains(SQLPreferenceConstants.SQLEDITOR_CLOSE_SINGLE_QUOTES)
             || store.contains(SQLPreferenceConstants.SQLEDITOR_CLOSE_DOUBLE_QUOTES)
             || store.contains(SQLPreferenceConstants.SQLEDITOR_CLOSE_BRACKETS)
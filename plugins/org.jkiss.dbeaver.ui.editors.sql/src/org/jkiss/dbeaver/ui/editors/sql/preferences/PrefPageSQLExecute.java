@@ -61,6 +61,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
     private Combo errorHandlingCombo;
     private Spinner commitLinesText;
     private Button fetchResultSetsCheck;
+    private Button batchInsertsCheck;
     private Button resetCursorCheck;
     private Button maxEditorCheck;
     private Combo showStatisticsCombo;
@@ -97,6 +98,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.contains(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING) ||
             store.contains(SQLPreferenceConstants.SCRIPT_COMMIT_LINES) ||
             store.contains(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) ||
+            store.contains(ModelPreferences.SCRIPT_BATCH_INSERTS) ||
 
             store.contains(ModelPreferences.SCRIPT_STATEMENT_DELIMITER) ||
             store.contains(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER) ||
@@ -217,6 +219,12 @@ public class PrefPageSQLExecute extends TargetPrefPage
             }
 
             fetchResultSetsCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_fetch_resultsets, null, false, 2);
+            batchInsertsCheck = UIUtils.createCheckbox(
+                scriptsGroup,
+                SQLEditorMessages.pref_page_sql_editor_checkbox_batch_inserts,
+                SQLEditorMessages.pref_page_sql_editor_checkbox_batch_inserts_tip,
+                false,
+                2);
             resetCursorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_reset_cursor, null, false, 2);
             maxEditorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_max_editor_on_script_exec, null, false, 2);
             showStatisticsCombo = UIUtils.createLabelCombo(
@@ -317,6 +325,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.setValue(SQLPreferenceConstants.SCRIPT_COMMIT_LINES, commitLinesText.getSelection());
             store.setValue(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING, CommonUtils.fromOrdinal(SQLScriptErrorHandling.class, errorHandlingCombo.getSelectionIndex()).name());
             store.setValue(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS, fetchResultSetsCheck.getSelection());
+            store.setValue(ModelPreferences.SCRIPT_BATCH_INSERTS, batchInsertsCheck.getSelection());
             store.setValue(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE, resetCursorCheck.getSelection());
             store.setValue(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE, maxEditorCheck.getSelection());
             store.setValue(
@@ -362,6 +371,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
         store.setToDefault(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_COMMIT_LINES);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS);
+        store.setToDefault(ModelPreferences.SCRIPT_BATCH_INSERTS);
 
         store.setToDefault(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE);
         store.setToDefault(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE);
@@ -447,6 +457,11 @@ public class PrefPageSQLExecute extends TargetPrefPage
                     ? store.getDefaultBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS)
                     : store.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS)
             );
+            batchInsertsCheck.setSelection(
+                useDefaults
+                    ? store.getDefaultBoolean(ModelPreferences.SCRIPT_BATCH_INSERTS)
+                    : store.getBoolean(ModelPreferences.SCRIPT_BATCH_INSERTS)
+            );
             resetCursorCheck.setSelection(
                 useDefaults
                     ? store.getDefaultBoolean(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE)
@@ -27,9 +27,14 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
@@ -49,17 +54,15 @@ import org.jkiss.dbeaver.model.stm.LSMInspections;
 import org.jkiss.dbeaver.model.stm.STMTreeNode;
 import org.jkiss.dbeaver.model.stm.STMTreeTermNode;
 import org.jkiss.dbeaver.model.stm.STMUtils;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.EditorUtils;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorUtils;
-import org.jkiss.dbeaver.utils.ListNode;
 import org.jkiss.utils.Pair;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.regex.Pattern;
 
@@ -69,7 +72,21 @@ public class SQLBackgroundParsingJob {
     private static final boolean DEBUG = false;
 
     private static final long schedulingTimeoutMilliseconds = 500;
+    private static final int MAX_CACHED_RECOGNITIONS = 500;
     
+    private record RecognitionResult(@NotNull SQLQueryModel queryModel, @NotNull List<SQLQueryRecognitionProblemInfo> problems) {
+    }
+
+    private record RecognitionSettings(
+        @Nullable DBCExecutionContext executionContext,
+        @Nullable DBSObject defaultCatalog,
+        @Nullable DBSObject defaultSchema,
+        boolean useRealMetadata,
+        @NotNull Class<?> dialectType,
+        int metadataGeneration
+    ) {
+    }
+
     private static class QueuedRegionInfo {
         public int length;
         
@@ -89,6 +106,25 @@ public class SQLBackgroundParsingJob {
     private final SQLDocumentSyntaxContext context = new SQLDocumentSyntaxContext();
     @Nullable
     private IDocument document = null;
+    /**
+     * Recognition results of the script elements by their text, so unchanged or moved elements are not analyzed again
+     */
+    @NotNull
+    private final Map<String, RecognitionResult> recognitionCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecognitionResult> eldest) {
+            return this.size() > MAX_CACHED_RECOGNITIONS;
+        }
+    };
+    @Nullable
+    private RecognitionSettings recognitionCacheSettings = null;
+    /**
+     * Incremented when metadata of the editor's data source is refreshed, so cached recognitions are dropped
+     */
+    private volatile int metadataGeneration = 0;
+    @NotNull
+    private final INavigatorListener metadataListener = this::handleNavigatorEvent;
+    private boolean metadataListenerRegistered = false;
     @NotNull
     private final AbstractJob job = new AbstractJob("Background parsing job") {
         @Override
@@ -139,6 +175,11 @@ public class SQLBackgroundParsingJob {
                 }
                 this.reset();
             }
+            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            if (!this.metadataListenerRegistered && navigatorModel != null) {
+                navigatorModel.addListener(this.metadataListener);
+                this.metadataListenerRegistered = true;
+            }
         }
     }
 
@@ -148,6 +189,11 @@ public class SQLBackgroundParsingJob {
     public void dispose() {
         synchronized (this.syncRoot) {
             this.cancel();
+            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            if (this.metadataListenerRegistered && navigatorModel != null) {
+                navigatorModel.removeListener(this.metadataListener);
+            }
+            this.metadataListenerRegistered = false;
             TextViewer textViewer = this.editor.getTextViewer();
             if (textViewer != null) {
                 textViewer.removeViewportListener(this.documentListener);
@@ -333,34 +379,20 @@ public class SQLBackgroundParsingJob {
                 }
                 this.enqueueToReparse(reparseStart, reparseLength);
             } else {
-                // TODO remove just the affected fragment and enqueue regionToReparse
-                
-                // for now removing the whole tail as its offsets are being invalidated
-                ListNode<Integer> keyOffsetsToRemove = null;
-                NodesIterator<QueuedRegionInfo> it = this.queuedForReparse.nodesIteratorAt(reparseStart);
-                int firstAffectedReparseOffset;
-                if (it.getCurrValue() != null || it.prev()) {
-                    firstAffectedReparseOffset = it.getCurrOffset();
-                    if (firstAffectedReparseOffset < reparseStart &&
-                        firstAffectedReparseOffset + it.getCurrValue().length > reparseStart + insertedLength
-                    ) {
-                        return; // modified region is a subrange of already queued for reparse 
-                    }
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, firstAffectedReparseOffset);
+                // regions queued inside the removed fragment are merged into the reparse region, the following ones are moved
+                int removedEnd = event.getOffset() + event.getLength();
+                int reparseEnd = reparseStart + reparseLength;
+                NodesIterator<QueuedRegionInfo> it = this.queuedForReparse.nodesIteratorAt(event.getOffset());
+                boolean hasRegion = it.getCurrValue() != null || it.next();
+                while (hasRegion && it.getCurrOffset() < removedEnd) {
+                    reparseEnd = Math.max(reparseEnd, it.getCurrOffset() + it.getCurrValue().length + delta);
+                    hasRegion = it.next();
                 }
-                while (it.next()) {
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
-                }
-                for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
-                    if (DEBUG) {
-                        log.debug("remove " + kn.data + "+" + this.queuedForReparse.find(kn.data).length);
-                    }
-                    this.queuedForReparse.removeAt(kn.data);
-                    if (DEBUG) {
-                        log.debug("beforeDocumentModification, delta <= 0: queuedForReparse count is " + queuedForReparse.size());
-                    }
+                this.queuedForReparse.applyOffset(event.getOffset(), delta);
+                if (DEBUG) {
+                    log.debug("beforeDocumentModification, delta <= 0: queuedForReparse count is " + queuedForReparse.size());
                 }
-                this.enqueueToReparse(reparseStart, Integer.MAX_VALUE);
+                this.enqueueToReparse(reparseStart, reparseEnd - reparseStart);
             }
             this.resetLastParsingFinishTime();
         }
@@ -456,6 +488,7 @@ public class SQLBackgroundParsingJob {
             }
             this.context.clear();
             this.queuedForReparse.clear();
+            this.recognitionCache.clear();
             this.knownRegionEnd = 0;
             this.knownRegionStart = 0;
             this.ensureVisibleRangeIsParsed();
@@ -631,50 +664,105 @@ public class SQLBackgroundParsingJob {
 
             SQLQueryRecognitionContext recognitionContext = new SQLQueryRecognitionContext(monitor, executionContext, useRealMetadata, syntaxManager, dialect);
 
-            int i = 1;
-            for (SQLScriptElement element : elements) {
-                if (monitor.isCanceled()) {
-                    break;
+            DBCExecutionContextDefaults<?, ?> contextDefaults = executionContext == null ? null : executionContext.getContextDefaults();
+            RecognitionSettings recognitionSettings = new RecognitionSettings(
+                executionContext,
+                contextDefaults == null ? null : contextDefaults.getDefaultCatalog(),
+                contextDefaults == null ? null : contextDefaults.getDefaultSchema(),
+                useRealMetadata,
+                dialect.getClass(),
+                this.metadataGeneration
+            );
+            synchronized (this.syncRoot) {
+                if (!recognitionSettings.equals(this.recognitionCacheSettings)) {
+                    this.recognitionCache.clear();
+                    this.recognitionCacheSettings = recognitionSettings;
                 }
-                try {
-                    recognitionContext.reset();
-                    SQLQueryModel queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, element.getOriginalText());
+            }
 
-                    if (queryModel != null) {
-                        if (DEBUG) {
-                            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
-                        }
-                        SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
-                            element.getOriginalText(),
-                            queryModel,
-                            element.getOffset(),
-                            element.getLength(),
-                            element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter())
-                        );
-                        itemContext.clear();
-                        List<SQLQueryRecognitionProblemInfo> problems = recognitionContext.getProblems();
-                        if (problems.size() >= SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT && queryModel.getQueryModel() != null) {
-                            problems.add(new SQLQueryRecognitionProblemInfo(
-                                SQLQueryRecognitionProblemInfo.Severity.WARNING,
-                                queryModel.getSyntaxNode(),
-                                null,
-                                "Too many errors found in one query of " + this.editor.getTitle() + "!"+
-                                    " Displaying first " + SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT + " of them.",
-                                null
-                            ));
+            // elements in the viewport go first, so they are highlighted as soon as possible
+            List<SQLScriptElement> orderedElements = prioritizeVisibleElements(elements, visibleFragment);
+            int visibleElementsCount = (int) orderedElements.stream().filter(e -> isVisible(e, visibleFragment)).count();
+
+            SQLBackgroundRecognitionWorkers<String, RecognitionResult> workers = null;
+            Map<String, CompletableFuture<RecognitionResult>> pendingResults = Collections.emptyMap();
+            int workersCount = SQLBackgroundRecognitionWorkers.getWorkersCount();
+            if (workersCount > 1 && this.editor.isParallelQueryAnalysisEnabled()) {
+                workers = new SQLBackgroundRecognitionWorkers<>(
+                    "Background query analysis",
+                    (workerMonitor, text) -> this.recognizeElement(recognitionContext.fork(workerMonitor), text)
+                );
+                pendingResults = new HashMap<>();
+                for (SQLScriptElement element : orderedElements) {
+                    String elementText = element.getOriginalText();
+                    if (!this.isElementUnchanged(element) && !pendingResults.containsKey(elementText)) {
+                        synchronized (this.syncRoot) {
+                            if (this.recognitionCache.containsKey(elementText)) {
+                                continue;
+                            }
                         }
-                        itemContext.setProblems(problems);
-                        for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
-                            itemContext.registerToken(entry.getInterval().a, entry);
+                        pendingResults.put(elementText, workers.submit(elementText));
+                    }
+                }
+                workers.start(Math.min(workersCount, pendingResults.size()));
+            }
+
+            int i = 1;
+            int reusedCount = 0;
+            try {
+                for (SQLScriptElement element : orderedElements) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    try {
+                        String elementText = element.getOriginalText();
+                        if (this.isElementUnchanged(element)) {
+                            // the element was just moved by the modifications before it
+                            reusedCount++;
+                        } else {
+                            RecognitionResult recognitionResult;
+                            synchronized (this.syncRoot) {
+                                recognitionResult = this.recognitionCache.get(elementText);
+                            }
+                            if (recognitionResult != null) {
+                                reusedCount++;
+                            } else {
+                                CompletableFuture<RecognitionResult> pendingResult = pendingResults.get(elementText);
+                                recognitionResult = pendingResult != null
+                                    ? getFutureOrCancel(pendingResult, monitor.getNestedMonitor())
+                                    : this.recognizeElement(recognitionContext, elementText);
+                                if (recognitionResult != null) {
+                                    synchronized (this.syncRoot) {
+                                        this.recognitionCache.put(elementText, recognitionResult);
+                                    }
+                                }
+                            }
+                            if (recognitionResult != null) {
+                                this.registerScriptItem(element, recognitionResult);
+                            }
                         }
-                        itemContext.refreshCompleted();
+                    } catch (CancellationException ex) {
+                        break;
+                    } catch (ExecutionException ex) {
+                        log.debug("Error while analyzing query text: " + element.getOriginalText(), ex.getCause());
+                    } catch (Throwable ex) {
+                        log.debug("Error while analyzing query text: " + element.getOriginalText(), ex);
                     }
-                } catch (Throwable ex) {
-                    log.debug("Error while analyzing query text: " + element.getOriginalText(), ex);
+                    if (i == visibleElementsCount && i < orderedElements.size()) {
+                        this.context.resetLastAccessCache();
+                        UIUtils.asyncExec(() -> viewer.invalidateTextPresentation(visibleFragment.a, visibleFragment.length()));
+                    }
+                    monitor.worked(1);
+                    monitor.subTask("Background query analysis: subtask #" + i + " of " + elements.size());
+                    i++;
+                }
+            } finally {
+                if (workers != null) {
+                    workers.cancel();
                 }
-                monitor.worked(1);
-                monitor.subTask("Background query analysis: subtask #" + i + " of " + elements.size());
-                i++;
+            }
+            if (DEBUG) {
+                log.debug("reused models of " + reusedCount + " of " + elements.size() + " elements");
             }
             this.context.resetLastAccessCache();
         } catch (Throwable ex) {
@@ -693,6 +781,105 @@ public class SQLBackgroundParsingJob {
         });
     }
 
+    private static boolean isVisible(@NotNull SQLScriptElement element, @NotNull Interval visibleFragment) {
+        return element.getOffset() <= visibleFragment.b && element.getOffset() + element.getLength() >= visibleFragment.a;
+    }
+
+    /**
+     * Reorder elements so the visible ones go first in the document order, followed by the rest in the document order
+     */
+    @NotNull
+    private static List<SQLScriptElement> prioritizeVisibleElements(
+        @NotNull List<SQLScriptElement> elements,
+        @NotNull Interval visibleFragment
+    ) {
+        List<SQLScriptElement> result = new ArrayList<>(elements.size());
+        for (SQLScriptElement element : elements) {
+            if (isVisible(element, visibleFragment)) {
+                result.add(element);
+            }
+        }
+        for (SQLScriptElement element : elements) {
+            if (!isVisible(element, visibleFragment)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasContextBoundaryAtLength(@NotNull SQLScriptElement element) {
+        return element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter());
+    }
+
+    /**
+     * Checks if the element is already registered with the same text, so its model is still valid
+     */
+    private boolean isElementUnchanged(@NotNull SQLScriptElement element) {
+        SQLDocumentScriptItemSyntaxContext existingItem = this.context.findScriptItemAt(element.getOffset());
+        return existingItem != null && !existingItem.isDirty()
+            && existingItem.length() == element.getLength()
+            && existingItem.hasContextBoundaryAtLength() == hasContextBoundaryAtLength(element)
+            && existingItem.getOriginalText().equals(element.getOriginalText());
+    }
+
+    @Nullable
+    private RecognitionResult recognizeElement(@NotNull SQLQueryRecognitionContext recognitionContext, @NotNull String elementText) {
+        recognitionContext.reset();
+        SQLQueryModel queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, elementText);
+        if (queryModel == null) {
+            return null;
+        }
+        List<SQLQueryRecognitionProblemInfo> problems = recognitionContext.getProblems();
+        if (problems.size() >= SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT && queryModel.getQueryModel() != null) {
+            problems.add(new SQLQueryRecognitionProblemInfo(
+                SQLQueryRecognitionProblemInfo.Severity.WARNING,
+                queryModel.getSyntaxNode(),
+                null,
+                "Too many errors found in one query of " + this.editor.getTitle() + "!"+
+                    " Displaying first " + SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT + " of them.",
+                null
+            ));
+        }
+        return new RecognitionResult(queryModel, problems);
+    }
+
+    private void handleNavigatorEvent(@NotNull DBNEvent event) {
+        DBNEvent.NodeChange nodeChange = event.getNodeChange();
+        if (event.getAction() == DBNEvent.Action.UPDATE &&
+            nodeChange != DBNEvent.NodeChange.REFRESH &&
+            nodeChange != DBNEvent.NodeChange.STRUCT_REFRESH &&
+            nodeChange != DBNEvent.NodeChange.UNLOAD
+        ) {
+            // Selection, lock or label change, metadata is the same
+            return;
+        }
+        if (event.getNode() instanceof DBNDatabaseNode node &&
+            node.getDataSourceContainer() == EditorUtils.getInputDataSource(this.editor.getEditorInput())
+        ) {
+            this.metadataGeneration++;
+        }
+    }
+
+    private void registerScriptItem(@NotNull SQLScriptElement element, @NotNull RecognitionResult recognitionResult) {
+        if (DEBUG) {
+            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
+        }
+        SQLQueryModel queryModel = recognitionResult.queryModel();
+        SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
+            element.getOriginalText(),
+            queryModel,
+            element.getOffset(),
+            element.getLength(),
+            hasContextBoundaryAtLength(element)
+        );
+        itemContext.clear();
+        itemContext.setProblems(recognitionResult.problems());
+        for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
+            itemContext.registerToken(entry.getInterval().a, entry);
+        }
+        itemContext.refreshCompleted();
+    }
+
     private void accomplishWork(int parsedOffset, int parsedLength) {
         synchronized (this.syncRoot) {
             this.knownRegionStart = Math.min(this.knownRegionStart, parsedOffset);
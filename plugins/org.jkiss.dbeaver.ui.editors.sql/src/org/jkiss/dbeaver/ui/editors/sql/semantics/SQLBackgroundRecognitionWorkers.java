@@ -0,0 +1,114 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.semantics;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded set of background jobs processing the submitted items concurrently.
+ * Items are taken in the order of submission, so the most important ones should be submitted first.
+ */
+class SQLBackgroundRecognitionWorkers<T, R> {
+
+    private static final int MAX_WORKERS = 4;
+
+    @NotNull
+    private final String name;
+    @NotNull
+    private final BiFunction<DBRProgressMonitor, T, R> action;
+    @NotNull
+    private final Queue<Task<T, R>> queue = new ConcurrentLinkedQueue<>();
+    @NotNull
+    private final List<WorkerJob> workers = new ArrayList<>();
+
+    private record Task<T, R>(@NotNull T item, @NotNull CompletableFuture<R> result) {
+    }
+
+    SQLBackgroundRecognitionWorkers(@NotNull String name, @NotNull BiFunction<DBRProgressMonitor, T, R> action) {
+        this.name = name;
+        this.action = action;
+    }
+
+    /**
+     * Number of workers worth to start on this machine, one processor is left for the UI
+     */
+    static int getWorkersCount() {
+        return Math.max(1, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    @NotNull
+    CompletableFuture<R> submit(@NotNull T item) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        this.queue.add(new Task<>(item, result));
+        return result;
+    }
+
+    void start(int workersCount) {
+        for (int i = 0; i < workersCount; i++) {
+            WorkerJob worker = new WorkerJob(this.name + " #" + (i + 1));
+            this.workers.add(worker);
+            worker.schedule();
+        }
+    }
+
+    /**
+     * Cancel the workers, the items which were not processed yet are completed as cancelled
+     */
+    void cancel() {
+        for (WorkerJob worker : this.workers) {
+            worker.cancel();
+        }
+        for (Task<T, R> task = this.queue.poll(); task != null; task = this.queue.poll()) {
+            task.result.cancel(false);
+        }
+    }
+
+    private class WorkerJob extends AbstractJob {
+        WorkerJob(@NotNull String name) {
+            super(name);
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (Task<T, R> task = queue.poll(); task != null; task = queue.poll()) {
+                if (monitor.isCanceled()) {
+                    task.result.cancel(false);
+                    return Status.CANCEL_STATUS;
+                }
+                try {
+                    task.result.complete(action.apply(monitor, task.item));
+                } catch (Throwable e) {
+                    task.result.completeExceptionally(e);
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -69,6 +69,8 @@ import org.jkiss.utils.CommonUtils;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 public class DatabaseNavigatorTree extends Composite implements INavigatorListener {
@@ -420,61 +422,119 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
 
     @Override
     public void nodeChanged(final DBNEvent event) {
-        switch (event.getAction()) {
-            case ADD:
-            case REMOVE: {
-                final DBNNode node = event.getNode();
-                final DBNNode parentNode = node.getParentNode();
-                if (parentNode != null) {
-                    if (!treeViewer.getControl().isDisposed()) {
-                        if (!parentNode.isDisposed()) {
-                            treeViewer.refresh(getViewerObject(parentNode));
-                            if (event.getNodeChange() == DBNEvent.NodeChange.SELECT) {
-                                treeViewer.reveal(node);
-                                treeViewer.setSelection(new StructuredSelection(node));
-                            }
+        nodesChanged(List.of(event));
+    }
+
+    /**
+     * Applies all events of the batch with one viewer update.
+     * Each node is refreshed once, nodes are not refreshed if their parent is refreshed in the same batch.
+     */
+    @Override
+    public void nodesChanged(@NotNull List<DBNEvent> events) {
+        if (treeViewer.getControl().isDisposed()) {
+            return;
+        }
+        // Nodes are refreshed with their labels, as a separate refresh of each node did before
+        Set<DBNNode> refreshNodes = new LinkedHashSet<>();
+        List<DBNNode> loadedNodes = new ArrayList<>();
+        DBNNode selectNode = null;
+        for (DBNEvent event : events) {
+            final DBNNode node = event.getNode();
+            switch (event.getAction()) {
+                case ADD:
+                case REMOVE: {
+                    final DBNNode parentNode = node.getParentNode();
+                    if (parentNode != null && !parentNode.isDisposed()) {
+                        refreshNodes.add(parentNode);
+                        if (event.getNodeChange() == DBNEvent.NodeChange.SELECT) {
+                            selectNode = node;
                         }
                     }
+                    break;
                 }
-                break;
-            }
-            case UPDATE:
-                if (!treeViewer.getControl().isDisposed() && !treeViewer.isBusy()) {
-                    switch (event.getNodeChange()) {
-                        case BEFORE_LOAD:
-                            startNodeLoadingVisualization(event.getNode());
-                            break;
-                        case AFTER_LOAD:
-                            stopNodeLoadingVisualization(event.getNode());
-                            break;
-                        case LOAD:
-                            treeViewer.refresh(getViewerObject(event.getNode()));
-                            expandNodeOnLoad(event.getNode());
-                            break;
-                        case UNLOAD:
-                            stopNodeLoadingVisualization(event.getNode());
-                            treeViewer.collapseToLevel(event.getNode(), -1);
-                            treeViewer.update(getViewerObject(event.getNode()), null);
-                            treeViewer.collapseToLevel(event.getNode(), -1);
-                            break;
-                        case REFRESH:
-//                                Widget item = treeViewer.testFindItem(event.getNode());
-//                                if (item != null) {
-//                                    item.setData(TREE_DATA_STAT_MAX_SIZE, null);
-//                                }
-                            treeViewer.refresh(getViewerObject(event.getNode()), true);
-                            break;
-                        case LOCK:
-                        case UNLOCK:
-                        case STRUCT_REFRESH:
-                            treeViewer.refresh(getViewerObject(event.getNode()));
-                            break;
+                case UPDATE:
+                    if (!treeViewer.isBusy()) {
+                        switch (event.getNodeChange()) {
+                            case BEFORE_LOAD:
+                                startNodeLoadingVisualization(node);
+                                break;
+                            case AFTER_LOAD:
+                                stopNodeLoadingVisualization(node);
+                                break;
+                            case LOAD:
+                                refreshNodes.add(node);
+                                loadedNodes.add(node);
+                                break;
+                            case UNLOAD:
+                                stopNodeLoadingVisualization(node);
+                                treeViewer.collapseToLevel(node, -1);
+                                treeViewer.update(getViewerObject(node), null);
+                                treeViewer.collapseToLevel(node, -1);
+                                break;
+                            case REFRESH:
+                            case LOCK:
+                            case UNLOCK:
+                            case STRUCT_REFRESH:
+                                refreshNodes.add(node);
+                                break;
+                        }
                     }
-                }
-                break;
-            default:
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Object input = treeViewer.getInput();
+        DBNNode rootNode = input instanceof DatabaseNavigatorContent dnc ? dnc.getRootNode() : null;
+        List<DBNNode> refreshList = new ArrayList<>();
+        for (DBNNode node : refreshNodes) {
+            if (!isRefreshedByParent(refreshNodes, rootNode, node)) {
+                refreshList.add(node);
+            }
+        }
+        if (refreshList.size() > 1) {
+            treeViewer.getControl().setRedraw(false);
+        }
+        try {
+            for (DBNNode node : refreshList) {
+                treeViewer.refresh(getViewerObject(node), true);
+            }
+        } finally {
+            if (refreshList.size() > 1) {
+                treeViewer.getControl().setRedraw(true);
+            }
+        }
+
+        if (selectNode != null) {
+            showNode(selectNode);
+        }
+        for (DBNNode node : loadedNodes) {
+            expandNodeOnLoad(node);
+        }
+    }
+
+    /**
+     * Viewer refresh updates the whole subtree, so node refresh is not needed if some of its parents is refreshed.
+     * Nodes above the tree root are not shown, so their refresh does nothing.
+     */
+    private static boolean isRefreshedByParent(
+        @NotNull Set<DBNNode> refreshNodes,
+        @Nullable DBNNode rootNode,
+        @NotNull DBNNode node
+    ) {
+        if (node == rootNode) {
+            return false;
+        }
+        for (DBNNode parent = node.getParentNode(); parent != null; parent = parent.getParentNode()) {
+            if (refreshNodes.contains(parent)) {
+                return true;
+            }
+            if (parent == rootNode) {
                 break;
+            }
         }
+        return false;
     }
 
     private void startNodeLoadingVisualization(DBNNode node) {
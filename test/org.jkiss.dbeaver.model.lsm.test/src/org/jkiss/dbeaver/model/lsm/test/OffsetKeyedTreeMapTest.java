@@ -152,6 +152,50 @@ public class OffsetKeyedTreeMapTest {
         }
     }
 
+    @Test
+    public void testNegativeOffsetRemovesFragment() {
+        Random rnd = new Random(12345);
+        for (int round = 0; round < 1000; round++) {
+            OffsetKeyedTreeMap<Integer> treeMap = new OffsetKeyedTreeMap<>();
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < 50; i++) {
+                int key = rnd.nextInt(500);
+                treeMap.put(key, key);
+                expected.put(key, key);
+            }
+            for (int i = 0; i < 10; i++) {
+                // produce some tombstones as well
+                Integer key = expected.ceilingKey(rnd.nextInt(500));
+                if (key != null) {
+                    treeMap.removeAt(key);
+                    expected.remove(key);
+                }
+            }
+
+            int position = rnd.nextInt(500);
+            int length = rnd.nextInt(1, 50);
+            treeMap.applyOffset(position, -length);
+
+            TreeMap<Integer, Integer> shifted = new TreeMap<>();
+            expected.forEach((key, value) -> {
+                if (key < position) {
+                    shifted.put(key, value);
+                } else if (key >= position + length) {
+                    shifted.put(key - length, value);
+                }
+            });
+
+            List<Integer> actualKeys = new ArrayList<>();
+            OffsetKeyedTreeMap.NodesIterator<Integer> it = treeMap.nodesIteratorAt(Integer.MIN_VALUE);
+            while (it.next()) {
+                Assert.assertEquals(it.getCurrOffset() + length * (it.getCurrOffset() >= position ? 1 : 0), (int) it.getCurrValue());
+                actualKeys.add(it.getCurrOffset());
+            }
+            Assert.assertEquals(new ArrayList<>(shifted.keySet()), actualKeys);
+            Assert.assertEquals(shifted.size(), treeMap.size());
+        }
+    }
+
     @FunctionalInterface
     private interface ObjObjIntIntConsumer<A, B> {
         void accept(A a, B b, int n, int m);
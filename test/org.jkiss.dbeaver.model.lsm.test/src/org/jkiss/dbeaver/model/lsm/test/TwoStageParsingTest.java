@@ -0,0 +1,110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.Trees;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Checks that SLL-then-LL parsing of the analyzer gives the same trees as plain LL parsing.
+ * Run with -Dlsm.benchmark=true to measure parsing time of both strategies.
+ */
+public class TwoStageParsingTest {
+
+    private static final LSMAnalyzerParameters PARAMETERS = new LSMAnalyzerParameters(
+        Map.of("\"", "\""), false, false, '?', List.of(), false);
+
+    private static final List<String> INVALID_STATEMENTS = List.of(
+        "select from where",
+        "select a, from t",
+        "selec * from t",
+        "select * from t where a = ",
+        "select a from t1 join t2 on t1.id = t2.id order",
+        "select \"unterminated from t"
+    );
+
+    @Test
+    public void testSameTreeAsLL() {
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer(PARAMETERS);
+        for (String text : getStatements()) {
+            // Twice to check pooled parser reuse
+            for (int i = 0; i < 2; i++) {
+                STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(text), new STMSkippingErrorListener());
+                Assert.assertNotNull(text, tree);
+                Assert.assertEquals(text, parseLL(text), Trees.toStringTree(tree, Arrays.asList(SQLStandardParser.ruleNames)));
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkParsing() {
+        Assume.assumeTrue(Boolean.getBoolean("lsm.benchmark"));
+
+        List<String> statements = getStatements();
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer(PARAMETERS);
+        for (int round = 0; round < 5; round++) {
+            long llTime = measure(statements, text -> parseLL(text));
+            long twoStageTime = measure(statements, text ->
+                analyzer.parseSqlQueryTree(STMSource.fromString(text), new STMSkippingErrorListener()));
+            System.out.println("Round " + round + ": LL " + llTime + "ms, SLL/LL " + twoStageTime + "ms");
+        }
+    }
+
+    private static long measure(List<String> statements, Consumer<String> parser) {
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 50; i++) {
+            for (String text : statements) {
+                parser.accept(text);
+            }
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    private static String parseLL(String text) {
+        SQLStandardLexer lexer = new SQLStandardLexer(CharStreams.fromString(text), PARAMETERS);
+        SQLStandardParser parser = new SQLStandardParser(new CommonTokenStream(lexer), PARAMETERS);
+        lexer.removeErrorListeners();
+        parser.removeErrorListeners();
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        return Trees.toStringTree(parser.sqlQuery(), parser);
+    }
+
+    private static List<String> getStatements() {
+        List<String> statements = new ArrayList<>(ParseSelectStmtTest.readStatements(
+            TwoStageParsingTest.class.getResourceAsStream("SelectStatements.sql.txt")));
+        statements.addAll(INVALID_STATEMENTS);
+        return statements;
+    }
+}
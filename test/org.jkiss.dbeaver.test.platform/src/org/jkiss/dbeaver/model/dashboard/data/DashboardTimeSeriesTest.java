@@ -0,0 +1,116 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dashboard.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+
+public class DashboardTimeSeriesTest {
+
+    private static final long START_TIME = 1_700_000_000_000L;
+
+    @Test
+    public void rawValuesAreKeptInRing() {
+        DashboardTimeSeries series = new DashboardTimeSeries(10, 10, 10);
+        for (int i = 0; i < 25; i++) {
+            series.add(START_TIME + i * 1000L, i);
+        }
+        // Older value is ignored, the same time replaces the last value
+        series.add(START_TIME, 100);
+        series.add(START_TIME + 24 * 1000L, 24.5);
+
+        DashboardTimeSeries.Samples samples = series.getSamples(START_TIME + 15 * 1000L, START_TIME + 24 * 1000L, 100);
+        Assert.assertEquals(10, samples.size());
+        Assert.assertEquals(START_TIME + 15 * 1000L, samples.times()[0]);
+        Assert.assertEquals(15, samples.avg()[0], 0);
+        Assert.assertEquals(24.5, samples.avg()[9], 0);
+    }
+
+    @Test
+    public void replacedValueIsNotAddedToRollups() {
+        DashboardTimeSeries series = new DashboardTimeSeries(10, 10, 10);
+        series.add(START_TIME, 10);
+        series.add(START_TIME + 1000L, 20);
+        series.add(START_TIME + 1000L, 50);
+
+        // The whole history is in raw values, merge it into one point
+        DashboardTimeSeries.Samples samples = series.getSamples(START_TIME, START_TIME + 1000L, 1);
+        Assert.assertEquals(30, samples.avg()[0], 0);
+
+        // Raw values are overwritten, so the minutes ring is used
+        for (int i = 2; i < 12; i++) {
+            series.add(START_TIME + i * 1000L, 20);
+        }
+        samples = series.getSamples(START_TIME, START_TIME + 11 * 1000L, 1);
+        Assert.assertEquals(1, samples.size());
+        Assert.assertEquals(10, samples.min()[0], 0);
+        Assert.assertEquals(50, samples.max()[0], 0);
+        Assert.assertEquals((10 + 50 + 10 * 20) / 12.0, samples.avg()[0], 0.000001);
+    }
+
+    @Test
+    public void longRangesUseRollups() {
+        DashboardTimeSeries series = new DashboardTimeSeries(60, 120, 10);
+        // Two hours of values every second
+        for (int i = 0; i < 2 * 3600; i++) {
+            series.add(START_TIME + i * 1000L, i % 60);
+        }
+        long endTime = START_TIME + 2 * 3600 * 1000L;
+        DashboardTimeSeries.Samples samples = series.getSamples(endTime - 3600 * 1000L, endTime, 1000);
+        Assert.assertTrue(samples.size() >= 59 && samples.size() <= 61);
+        for (int i = 1; i < samples.size() - 1; i++) {
+            Assert.assertEquals(DashboardTimeSeries.MINUTE, samples.times()[i] - samples.times()[i - 1]);
+        }
+        Assert.assertEquals(0, samples.min()[1], 0);
+        Assert.assertEquals(59, samples.max()[1], 0);
+        Assert.assertEquals(29.5, samples.avg()[1], 0.001);
+
+        // Whole history does not fit the minutes ring, hours are merged down to the requested count
+        samples = series.getSamples(START_TIME - 1, endTime, 1);
+        Assert.assertEquals(1, samples.size());
+        Assert.assertEquals(0, samples.min()[0], 0);
+        Assert.assertEquals(59, samples.max()[0], 0);
+        Assert.assertEquals(29.5, samples.avg()[0], 0.001);
+    }
+
+    @Test
+    public void seriesIsSavedAndLoaded() throws IOException {
+        DashboardTimeSeries series = new DashboardTimeSeries(100, 100, 100);
+        for (int i = 0; i < 500; i++) {
+            series.add(START_TIME + i * 10_000L, Math.sin(i));
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        series.write(new DataOutputStream(buffer));
+
+        DashboardTimeSeries loaded = new DashboardTimeSeries(100, 100, 100);
+        loaded.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+        Assert.assertEquals(series.getLastTime(), loaded.getLastTime());
+        for (long range : new long[] {1000_000L, 5000_000L}) {
+            long fromTime = series.getLastTime() - range;
+            DashboardTimeSeries.Samples expected = series.getSamples(fromTime, series.getLastTime(), 50);
+            DashboardTimeSeries.Samples actual = loaded.getSamples(fromTime, series.getLastTime(), 50);
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertEquals(expected.times()[i], actual.times()[i]);
+                Assert.assertEquals(expected.avg()[i], actual.avg()[i], 0);
+            }
+        }
+    }
+}
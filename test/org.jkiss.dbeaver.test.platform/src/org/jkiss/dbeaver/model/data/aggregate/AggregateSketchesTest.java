@@ -0,0 +1,87 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class AggregateSketchesTest {
+
+    @Test
+    public void testDigestMedian() {
+        QuantileDigest digest = new QuantileDigest();
+        double[] values = new double[500_000];
+        Random random = new Random(1);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 1000;
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+        Assert.assertEquals(values.length, digest.size());
+        Assert.assertEquals(values[values.length / 2], digest.quantile(0.5), 5.0);
+        Assert.assertEquals(values[values.length / 100], digest.quantile(0.01), 20.0);
+    }
+
+    @Test
+    public void testCardinalityEstimate() {
+        CardinalityEstimator estimator = new CardinalityEstimator();
+        for (int i = 0; i < 1_000_000; i++) {
+            estimator.add(i % 300_000);
+        }
+        Assert.assertEquals(300_000, estimator.estimate(), 300_000 * 0.03);
+    }
+
+    @Test
+    public void testMedianSwitchesToDigest() {
+        FunctionMedian median = new FunctionMedian();
+        int count = FunctionMedian.EXACT_THRESHOLD * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            median.accumulate((i * 7919L) % count, false);
+        }
+        Assert.assertEquals(count / 2, ((Number) median.getResult(count)).doubleValue(), count * 0.01);
+    }
+
+    @Test
+    public void testCountDistinctSwitchesToEstimator() {
+        FunctionCountDistinct distinct = new FunctionCountDistinct();
+        for (int i = 0; i < 10; i++) {
+            distinct.accumulate(i, false);
+            distinct.accumulate(i, false);
+        }
+        Assert.assertEquals(10, distinct.getResult(20));
+
+        int count = FunctionCountDistinct.EXACT_THRESHOLD * 3;
+        for (int i = 0; i < count; i++) {
+            distinct.accumulate("value" + i, false);
+        }
+        long estimate = ((Number) distinct.getResult(count)).longValue();
+        Assert.assertEquals(count + 10, estimate, count * 0.03);
+    }
+
+    @Test
+    public void testModeKeepsFirstOnTie() {
+        FunctionMode mode = new FunctionMode();
+        for (Object value : new Object[] {"a", "b", "b", "a", "c"}) {
+            mode.accumulate(value, true);
+        }
+        Assert.assertEquals("a", mode.getResult(5));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class JDBCStatementCacheTest {
+
+    @Test
+    public void cachedStatementIsReused() throws SQLException {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        JDBCStatementCache.StatementKey key = key("SELECT 1");
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+
+        Assert.assertNull(cache.acquire(key));
+        cache.release(key, statement, cache.getGeneration());
+        Assert.assertSame(statement, cache.acquire(key));
+        // Statement is in use
+        Assert.assertNull(cache.acquire(key));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Mockito.verify(statement, Mockito.never()).close();
+
+        Assert.assertNull(cache.acquire(new JDBCStatementCache.StatementKey(
+            "SELECT 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY, null)));
+    }
+
+    @Test
+    public void leastRecentlyUsedStatementIsClosed() throws SQLException {
+        JDBCStatementCache cache = new JDBCStatementCache(2);
+        PreparedStatement statement1 = Mockito.mock(PreparedStatement.class);
+        PreparedStatement statement2 = Mockito.mock(PreparedStatement.class);
+        PreparedStatement statement3 = Mockito.mock(PreparedStatement.class);
+        cache.release(key("SELECT 1"), statement1, cache.getGeneration());
+        cache.release(key("SELECT 2"), statement2, cache.getGeneration());
+        cache.release(key("SELECT 1"), cache.acquire(key("SELECT 1")), cache.getGeneration());
+        cache.release(key("SELECT 3"), statement3, cache.getGeneration());
+
+        Assert.assertEquals(2, cache.getSize());
+        Mockito.verify(statement2).close();
+        Mockito.verify(statement1, Mockito.never()).close();
+        Assert.assertSame(statement3, cache.acquire(key("SELECT 3")));
+    }
+
+    @Test
+    public void invalidatedStatementsAreClosed() throws SQLException {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        PreparedStatement idleStatement = Mockito.mock(PreparedStatement.class);
+        PreparedStatement usedStatement = Mockito.mock(PreparedStatement.class);
+        cache.release(key("SELECT 1"), idleStatement, cache.getGeneration());
+        int generation = cache.getGeneration();
+
+        cache.invalidate();
+        Mockito.verify(idleStatement).close();
+        Assert.assertNull(cache.acquire(key("SELECT 1")));
+
+        // Statement acquired before invalidation is not returned to the cache
+        cache.release(key("SELECT 2"), usedStatement, generation);
+        Mockito.verify(usedStatement).close();
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    private static JDBCStatementCache.StatementKey key(String sql) {
+        return new JDBCStatementCache.StatementKey(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, "db/public");
+    }
+}
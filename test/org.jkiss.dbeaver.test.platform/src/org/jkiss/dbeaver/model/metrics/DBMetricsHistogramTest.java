@@ -0,0 +1,71 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class DBMetricsHistogramTest {
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        DBMetricsHistogram histogram = new DBMetricsHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        Assert.assertEquals(100_000, histogram.getCount());
+        Assert.assertEquals(100_000, histogram.getMax());
+        Assert.assertEquals(5_000_050_000L, histogram.getSum());
+        assertWithinPrecision(50_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(99_000, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(99_900, histogram.getValueAtPercentile(99.9));
+        Assert.assertEquals(100_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void bucketsCoverValues() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 1000, 123_456_789, 1L << 40}) {
+            int index = DBMetricsHistogram.getBucketIndex(value);
+            Assert.assertTrue(String.valueOf(value), DBMetricsHistogram.getBucketUpperBound(index) >= value);
+            if (index > 0) {
+                Assert.assertTrue(String.valueOf(value), DBMetricsHistogram.getBucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void registryExportsPrometheusText() throws IOException {
+        DBMetricsRegistry registry = new DBMetricsRegistry();
+        registry.getCounter("test_rows_total", "Rows", "datasource", "a\"b").add(5);
+        registry.getCounter("test_rows_total", "Rows", "datasource", "a\"b").increment();
+        registry.getHistogram("test_seconds", "Time", 0.001, "datasource", "c").record(2000);
+
+        StringBuilder text = new StringBuilder();
+        registry.writePrometheus(text);
+        String result = text.toString();
+        Assert.assertTrue(result, result.contains("# TYPE test_rows_total counter\n"));
+        Assert.assertTrue(result, result.contains("test_rows_total{datasource=\"a\\\"b\"} 6"));
+        Assert.assertTrue(result, result.contains("# TYPE test_seconds summary\n"));
+        Assert.assertTrue(result, result.contains("test_seconds_count{datasource=\"c\"} 1"));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        Assert.assertTrue("Expected " + expected + ", got " + actual, Math.abs(actual - expected) <= expected / DBMetricsHistogram.SUB_BUCKET_COUNT);
+    }
+}
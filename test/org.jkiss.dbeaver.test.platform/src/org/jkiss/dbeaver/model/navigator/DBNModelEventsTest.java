@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DBNModelEventsTest {
+
+    @Mock
+    private DBNNode node1;
+    @Mock
+    private DBNNode node2;
+
+    @Test
+    public void duplicateEventsAreRemoved() {
+        DBNEvent load1 = new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.LOAD, node1);
+        DBNEvent add2 = new DBNEvent(this, DBNEvent.Action.ADD, DBNEvent.NodeChange.LOAD, node2);
+        DBNEvent remove2 = new DBNEvent(this, DBNEvent.Action.REMOVE, DBNEvent.NodeChange.UNLOAD, node2);
+        DBNEvent load1Again = new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.LOAD, node1);
+        DBNEvent forcedLoad1 = new DBNEvent(DBNEvent.FORCE_REFRESH, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.LOAD, node1);
+
+        List<DBNEvent> events = DBNModel.coalesceEvents(List.of(load1, add2, remove2, load1Again, forcedLoad1));
+        // The last occurrence is kept, events with other source are not duplicates
+        Assert.assertEquals(List.of(add2, remove2, load1Again, forcedLoad1), events);
+    }
+
+    @Test
+    public void stateEventsKeepFinalOrder() {
+        DBNEvent beforeLoad = new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.BEFORE_LOAD, node1);
+        DBNEvent afterLoad = new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.AFTER_LOAD, node1);
+        DBNEvent beforeLoadAgain = new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.BEFORE_LOAD, node1);
+
+        List<DBNEvent> events = DBNModel.coalesceEvents(List.of(beforeLoad, afterLoad, beforeLoadAgain));
+        Assert.assertEquals(List.of(afterLoad, beforeLoadAgain), events);
+    }
+}
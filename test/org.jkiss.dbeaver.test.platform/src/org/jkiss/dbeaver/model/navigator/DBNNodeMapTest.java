@@ -0,0 +1,161 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Checks {@link DBNNodeMap} registration of nodes.
+ * Run with -Dnavigator.benchmark=true to compare it with a synchronized map under mixed read/write load.
+ */
+public class DBNNodeMapTest {
+
+    @Test
+    public void testMultipleNodes() {
+        DBSObject object = Mockito.mock(DBSObject.class);
+        DBNDatabaseNode node1 = createNode(object);
+        DBNDatabaseNode node2 = createNode(object);
+        DBNDatabaseItem item = Mockito.mock(DBNDatabaseItem.class);
+        DBXTreeNode itemMeta = Mockito.mock(DBXTreeNode.class);
+        Mockito.when(item.getObject()).thenReturn(object);
+        Mockito.when(item.getMeta()).thenReturn(itemMeta);
+
+        DBNNodeMap map = new DBNNodeMap();
+        Assert.assertNull(map.get(object));
+        map.add(node1);
+        Assert.assertSame(node1, map.get(object));
+        map.add(node2);
+        Assert.assertSame(node1, map.get(object));
+        map.add(item);
+        // Non-virtual item is preferred
+        Assert.assertSame(item, map.get(object));
+
+        Assert.assertTrue(map.remove(item));
+        Assert.assertFalse(map.remove(item));
+        Assert.assertSame(node1, map.get(object));
+        Assert.assertTrue(map.remove(node1));
+        Assert.assertSame(node2, map.get(object));
+        Assert.assertFalse(map.remove(node1));
+        Assert.assertTrue(map.remove(node2));
+        Assert.assertNull(map.get(object));
+    }
+
+    @Test
+    public void benchmarkMixedLoad() throws InterruptedException {
+        Assume.assumeTrue(Boolean.getBoolean("navigator.benchmark"));
+
+        int objectCount = 20_000;
+        DBSObject[] objects = new DBSObject[objectCount];
+        DBNDatabaseNode[] nodes = new DBNDatabaseNode[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            objects[i] = Mockito.mock(DBSObject.class, Mockito.withSettings().stubOnly());
+            nodes[i] = createNode(objects[i]);
+        }
+
+        DBNNodeMap nodeMap = new DBNNodeMap();
+        Map<DBSObject, Object> lockedMap = new HashMap<>();
+        for (int i = 0; i < objectCount; i++) {
+            nodeMap.add(nodes[i]);
+            lockedMap.put(objects[i], nodes[i]);
+        }
+        Function<DBSObject, Object> lockedGet = object -> {
+            synchronized (lockedMap) {
+                return lockedMap.get(object);
+            }
+        };
+        Function<DBNDatabaseNode, Object> lockedUpdate = node -> {
+            synchronized (lockedMap) {
+                lockedMap.remove(node.getObject());
+                return lockedMap.put(node.getObject(), node);
+            }
+        };
+        Function<DBNDatabaseNode, Object> nodeMapUpdate = node -> {
+            nodeMap.remove(node);
+            nodeMap.add(node);
+            return null;
+        };
+
+        for (int round = 0; round < 3; round++) {
+            long nodeMapReads = runMixedLoad(objects, nodes, nodeMap::get, nodeMapUpdate);
+            long lockedReads = runMixedLoad(objects, nodes, lockedGet, lockedUpdate);
+            System.out.println("Round " + round + ": synchronized map " + lockedReads + " reads/s, node map " + nodeMapReads + " reads/s");
+        }
+    }
+
+    /**
+     * Reader threads look up random objects while one writer re-registers random nodes.
+     * Returns number of reads per second.
+     */
+    private static long runMixedLoad(
+        DBSObject[] objects,
+        DBNDatabaseNode[] nodes,
+        Function<DBSObject, Object> reader,
+        Function<DBNDatabaseNode, Object> writer
+    ) throws InterruptedException {
+        int readerCount = Math.max(Runtime.getRuntime().availableProcessors() - 1, 2);
+        long durationMs = 2000;
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        Thread[] threads = new Thread[readerCount + 1];
+        for (int i = 0; i < readerCount; i++) {
+            threads[i] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    for (int k = 0; k < 1000; k++) {
+                        reader.apply(objects[random.nextInt(objects.length)]);
+                    }
+                    count += 1000;
+                }
+                reads.add(count);
+            });
+        }
+        threads[readerCount] = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running.get()) {
+                writer.apply(nodes[random.nextInt(nodes.length)]);
+            }
+        });
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(durationMs);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return reads.sum() * 1000 / durationMs;
+    }
+
+    private static DBNDatabaseNode createNode(DBSObject object) {
+        DBNDatabaseNode node = Mockito.mock(DBNDatabaseNode.class, Mockito.withSettings().stubOnly());
+        Mockito.when(node.getObject()).thenReturn(object);
+        return node;
+    }
+}
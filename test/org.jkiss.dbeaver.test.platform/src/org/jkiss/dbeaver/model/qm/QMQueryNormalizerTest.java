@@ -0,0 +1,84 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QMQueryNormalizerTest {
+
+    @Test
+    public void literalsAreReplaced() {
+        assertFingerprint(
+            "select * from t where id = ? and name = ? and price > ?",
+            "SELECT * FROM t WHERE id = 10 AND name = 'it''s' AND price > -1.5e3");
+        assertFingerprint(
+            "select a - ? from t where b = ? and c = ?",
+            "select a - 1 from t where b = N'x' and c = $1");
+        assertFingerprint(
+            "select t1.col, x::int from \"My Table\" t1 where y = ?",
+            "select T1.Col, x::INT from \"My Table\" t1 where y = :param");
+    }
+
+    @Test
+    public void commentsAndWhitespaceAreIgnored() {
+        String expected = "select count(*) from t where a = ?";
+        assertFingerprint(expected, "select count(*) from t where a = 1");
+        assertFingerprint(expected, "SELECT  count( * )\n FROM t -- comment\n WHERE a=/* value */2");
+    }
+
+    @Test
+    public void listsAreCollapsed() {
+        String expected = "select * from t where id in (...)";
+        assertFingerprint(expected, "select * from t where id in (1)");
+        assertFingerprint(expected, "select * from t where id IN (1, 2, 3, 'x')");
+        assertFingerprint(
+            "select * from t where id in (select id from s)",
+            "select * from t where id in (select id from s)");
+        assertFingerprint(
+            "insert into t(a, b) values (?, ?), ...",
+            "insert into t(a, b) values (1, 'a'), (2, 'b'), (3, 'c')");
+        assertFingerprint(
+            "insert into t(a, b) values (?, ?)",
+            "insert into t(a, b) values (1, 'a')");
+    }
+
+    @Test
+    public void dollarQuotesAreLiterals() {
+        assertFingerprint("select ?", "select $$ a ' b $$");
+        assertFingerprint("select ? from t", "select $tag$ x; $tag$ from t");
+    }
+
+    @Test
+    public void longQueriesAreTruncated() {
+        StringBuilder query = new StringBuilder("select * from t where ");
+        for (int i = 0; i < 10000; i++) {
+            query.append("col").append(i).append(" = ").append(i).append(" and ");
+        }
+        query.append("1 = 1");
+        String fingerprint = QMQueryNormalizer.getFingerprint(query.toString());
+        Assert.assertEquals(QMQueryNormalizer.MAX_FINGERPRINT_LENGTH, fingerprint.length());
+        Assert.assertTrue(fingerprint.startsWith("select * from t where col0 = ? and col1 = ?"));
+        Assert.assertTrue(
+            QMQueryNormalizer.tokenize(query.toString(), QMQueryNormalizer.MAX_FINGERPRINT_LENGTH).size() <
+                QMQueryNormalizer.MAX_FINGERPRINT_LENGTH);
+    }
+
+    private static void assertFingerprint(String expected, String query) {
+        Assert.assertEquals(expected, QMQueryNormalizer.getFingerprint(query));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * Checks {@link SQLWordTable} lookups against a plain hash map.
+ * Run with -Dsql.benchmark=true to measure the per-token lookup cost of both.
+ */
+public class SQLWordTableTest {
+
+    @Test
+    public void testLookup() {
+        Map<String, Integer> expected = new HashMap<>();
+        SQLWordTable.Builder<Integer> builder = SQLWordTable.builder();
+        int value = 0;
+        for (String[] words : new String[][]{SQLConstants.SQL2003_RESERVED_KEYWORDS, SQLConstants.SQL2003_FUNCTIONS, SQLConstants.DEFAULT_TYPES}) {
+            for (String word : words) {
+                builder.put(word.toLowerCase(Locale.ENGLISH), value);
+                expected.put(word.toUpperCase(Locale.ENGLISH), value);
+                value++;
+            }
+        }
+        builder.merge("select", 1000, Integer::sum);
+        expected.merge("SELECT", 1000, Integer::sum);
+        SQLWordTable<Integer> table = builder.build();
+        Assert.assertEquals(expected.size(), table.size());
+
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            String word = entry.getKey();
+            Assert.assertEquals(word, entry.getValue(), table.get(word));
+            Assert.assertEquals(word, entry.getValue(), table.get(word.toLowerCase(Locale.ENGLISH)));
+            String text = "(" + word + ")";
+            Assert.assertEquals(word, entry.getValue(), table.get(text, 1, text.length() - 1));
+            Assert.assertNull(word, table.get(text, 0, text.length() - 1));
+            Assert.assertNull(word, table.get(word + "_X"));
+        }
+        Assert.assertNull(table.get(""));
+        Assert.assertNull(table.get("not_a_keyword"));
+        Assert.assertNull(SQLWordTable.<Integer>builder().build().get("select"));
+    }
+
+    @Test
+    public void benchmarkLookup() {
+        Assume.assumeTrue(Boolean.getBoolean("sql.benchmark"));
+
+        Map<String, Integer> map = new HashMap<>();
+        SQLWordTable.Builder<Integer> builder = SQLWordTable.builder();
+        for (String word : SQLConstants.SQL2003_RESERVED_KEYWORDS) {
+            map.put(word.toLowerCase(), 1);
+            builder.put(word, 1);
+        }
+        SQLWordTable<Integer> table = builder.build();
+
+        // Mix of keywords and identifiers in different cases
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder();
+        List<int[]> tokens = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            String word = random.nextBoolean() ?
+                SQLConstants.SQL2003_RESERVED_KEYWORDS[random.nextInt(SQLConstants.SQL2003_RESERVED_KEYWORDS.length)] :
+                "column_" + random.nextInt(1000);
+            if (random.nextBoolean()) {
+                word = word.toLowerCase(Locale.ENGLISH);
+            }
+            tokens.add(new int[]{text.length(), text.length() + word.length()});
+            text.append(word).append(' ');
+        }
+
+        for (int round = 0; round < 5; round++) {
+            long startTime = System.nanoTime();
+            int mapHits = 0;
+            for (int[] token : tokens) {
+                if (map.get(text.substring(token[0], token[1]).toLowerCase()) != null) {
+                    mapHits++;
+                }
+            }
+            long mapTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            int tableHits = 0;
+            for (int[] token : tokens) {
+                if (table.get(text, token[0], token[1]) != null) {
+                    tableHits++;
+                }
+            }
+            long tableTime = System.nanoTime() - startTime;
+            Assert.assertEquals(mapHits, tableHits);
+            System.out.println("Round " + round + ": map " + mapTime / tokens.size() + "ns/token, table " + tableTime / tokens.size() + "ns/token");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class SQLCompletionNameIndexTest {
+
+    @Test
+    public void findByPrefix() {
+        Random random = new Random(42);
+        List<DBSObject> children = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int k = 0; k < length; k++) {
+                name.append("abAB_1".charAt(random.nextInt(6)));
+            }
+            children.add(createObject(name.toString()));
+        }
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(children);
+        for (String prefix : new String[]{null, "", "A", "AB", "B_", "_1A", "ABABAB", "ZZZ", "1"}) {
+            List<DBSObject> expected = new ArrayList<>();
+            for (DBSObject child : children) {
+                if (CommonUtils.isEmpty(prefix) || child.getName().toUpperCase(Locale.ENGLISH).startsWith(prefix)) {
+                    expected.add(child);
+                }
+            }
+            Assert.assertEquals(prefix, expected, index.findByPrefix(prefix, true));
+
+            List<DBSObject> sorted = index.findByPrefix(prefix, false);
+            Assert.assertEquals(prefix, expected.size(), sorted.size());
+            Assert.assertTrue(sorted.containsAll(expected));
+            for (int i = 1; i < sorted.size(); i++) {
+                Assert.assertTrue(sorted.get(i - 1).getName().compareToIgnoreCase(sorted.get(i).getName()) <= 0);
+            }
+        }
+    }
+
+    @Test
+    public void indexIsRebuiltForChangedChildren() {
+        List<DBSObject> children = new ArrayList<>();
+        for (int i = 0; i < SQLCompletionNameIndex.MIN_INDEXED_CHILDREN; i++) {
+            children.add(createObject("table" + i));
+        }
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(children);
+        Assert.assertTrue(index.isValidFor(children));
+        // Containers may return a copy of their children on each call
+        Assert.assertTrue(index.isValidFor(new ArrayList<>(children)));
+
+        children.add(createObject("table_new"));
+        Assert.assertFalse(index.isValidFor(children));
+
+        children.remove(children.size() - 1);
+        children.set(10, createObject("table10"));
+        Assert.assertFalse(index.isValidFor(children));
+    }
+
+    private static DBSObject createObject(String name) {
+        DBSObject object = Mockito.mock(DBSObject.class);
+        Mockito.when(object.getName()).thenReturn(name);
+        return object;
+    }
+}
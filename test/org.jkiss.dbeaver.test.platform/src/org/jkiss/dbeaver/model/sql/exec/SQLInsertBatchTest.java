@@ -0,0 +1,104 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.exec;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSavepoint;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class SQLInsertBatchTest {
+
+    @Test
+    public void detectSingleRowInserts() {
+        Assert.assertEquals(21, SQLInsertBatch.getValuesStart("INSERT INTO t VALUES (1, 'a')", (char) 0));
+        Assert.assertEquals(23, SQLInsertBatch.getValuesStart("insert into t(a) values(1)", (char) 0));
+        Assert.assertTrue(SQLInsertBatch.getValuesStart("INSERT INTO t VALUES ('it''s (', \")\")  ", (char) 0) > 0);
+        Assert.assertTrue(SQLInsertBatch.getValuesStart("INSERT INTO t VALUES ('a\\')', 1)", '\\') > 0);
+
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("INSERT INTO t VALUES (1), (2)", (char) 0));
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("INSERT INTO t VALUES (1) RETURNING (id)", (char) 0));
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("INSERT INTO t SELECT * FROM (VALUES (1))", (char) 0));
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("INSERTED INTO t VALUES (1)", (char) 0));
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("UPDATE t SET a = (1)", (char) 0));
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("INSERT INTO t VALUES ('a)", (char) 0));
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("INSERT INTO t VALUES ((SELECT max(id)+1 FROM t))", (char) 0));
+        Assert.assertEquals(-1, SQLInsertBatch.getValuesStart("INSERT INTO t VALUES (1, (select a from t2))", (char) 0));
+        Assert.assertTrue(SQLInsertBatch.getValuesStart("INSERT INTO t VALUES ('select', selected)", (char) 0) > 0);
+    }
+
+    @Test
+    public void joinInsertsOfSameShape() {
+        SQLInsertBatch batch = new SQLInsertBatch(BasicSQLDialect.INSTANCE, 3);
+        Assert.assertTrue(batch.add(new SQLQuery(null, "INSERT INTO t (a) VALUES (1)", 0, 28)));
+        Assert.assertTrue(batch.add(new SQLQuery(null, "INSERT INTO t (a) VALUES (2)", 30, 28)));
+        Assert.assertFalse(batch.add(new SQLQuery(null, "INSERT INTO t2 (a) VALUES (3)", 60, 29)));
+        Assert.assertFalse(batch.add(new SQLQuery(null, "DELETE FROM t", 60, 13)));
+        Assert.assertTrue(batch.add(new SQLQuery(null, "INSERT INTO t (a) VALUES (3)", 60, 28)));
+        Assert.assertTrue(batch.isFull());
+        Assert.assertFalse(batch.add(new SQLQuery(null, "INSERT INTO t (a) VALUES (4)", 90, 28)));
+
+        SQLQuery query = batch.createQuery(null);
+        Assert.assertEquals("INSERT INTO t (a) VALUES (1),\n(2),\n(3)", query.getText());
+        Assert.assertEquals(0, query.getOffset());
+        Assert.assertEquals(88, query.getLength());
+        Assert.assertEquals(3, batch.getQueries().size());
+
+        batch.clear();
+        Assert.assertTrue(batch.isEmpty());
+        Assert.assertTrue(batch.add(new SQLQuery(null, "INSERT INTO t2 (a) VALUES (3)", 60, 29)));
+    }
+
+    @Test
+    public void repeatFailedBatchOnlyIfRolledBack() throws DBCException {
+        DBCSession session = Mockito.mock(DBCSession.class);
+        DBCTransactionManager txnManager = Mockito.mock(DBCTransactionManager.class);
+        DBCSavepoint savepoint = Mockito.mock(DBCSavepoint.class);
+        Mockito.when(txnManager.isSupportsTransactions()).thenReturn(true);
+        Mockito.when(txnManager.supportsSavepoints()).thenReturn(true);
+        Mockito.when(txnManager.setSavepoint(Mockito.any(), Mockito.any())).thenReturn(savepoint);
+        SQLInsertBatch batch = new SQLInsertBatch(BasicSQLDialect.INSTANCE, 10);
+        batch.add(new SQLQuery(null, "INSERT INTO t (a) VALUES (1)", 0, 28));
+        batch.add(new SQLQuery(null, "INSERT INTO t (a) VALUES (2)", 30, 28));
+        Throwable error = new Exception("Duplicate key");
+
+        // Auto-commit: failed statement is rolled back as a whole
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(true);
+        Assert.assertTrue(SQLInsertBatch.isSupported(txnManager));
+        Assert.assertEquals(SQLInsertBatch.ExecuteResult.ROLLED_BACK, batch.execute(session, txnManager, query -> error));
+        Assert.assertEquals(SQLInsertBatch.ExecuteResult.SUCCESS, batch.execute(session, txnManager, query -> null));
+        Mockito.verify(txnManager, Mockito.never()).setSavepoint(Mockito.any(), Mockito.any());
+
+        // Manual commit: batch is rolled back to savepoint
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(false);
+        Assert.assertEquals(SQLInsertBatch.ExecuteResult.ROLLED_BACK, batch.execute(session, txnManager, query -> error));
+        Mockito.verify(txnManager).rollback(session, savepoint);
+        Assert.assertEquals(SQLInsertBatch.ExecuteResult.SUCCESS, batch.execute(session, txnManager, query -> null));
+        Mockito.verify(txnManager).releaseSavepoint(Mockito.any(), Mockito.eq(savepoint));
+
+        // Manual commit without savepoints: queries can't be batched
+        Mockito.when(txnManager.supportsSavepoints()).thenReturn(false);
+        Assert.assertFalse(SQLInsertBatch.isSupported(txnManager));
+        Assert.assertEquals(SQLInsertBatch.ExecuteResult.FAILED, batch.execute(session, txnManager, query -> error));
+        Assert.assertEquals(2, batch.getQueries().size());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.format.tokenized;
+
+import org.jkiss.dbeaver.model.DBPIdentifierCase;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.format.SQLFormatterConfiguration;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class FormatterTokenListTest {
+
+    @Test
+    public void randomModificationsMatchArrayList() {
+        Random random = new Random(20241019);
+        for (int round = 0; round < 50; round++) {
+            List<FormatterToken> expected = new ArrayList<>();
+            List<FormatterToken> actual = new FormatterTokenList(random.nextInt(4));
+            for (int i = 0; i < 1000; i++) {
+                int size = expected.size();
+                int operation = random.nextInt(4);
+                if (operation < 2 || size == 0) {
+                    int index = random.nextInt(size + 1);
+                    FormatterToken token = new FormatterToken(TokenType.NAME, "t" + i);
+                    expected.add(index, token);
+                    actual.add(index, token);
+                } else if (operation == 2) {
+                    int index = random.nextInt(size);
+                    Assert.assertSame(expected.remove(index), actual.remove(index));
+                } else {
+                    int index = random.nextInt(size);
+                    FormatterToken token = new FormatterToken(TokenType.SPACE, " ");
+                    Assert.assertSame(expected.set(index, token), actual.set(index, token));
+                }
+                Assert.assertEquals(expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Run with -Dsql.benchmark=true
+     */
+    @Test
+    public void benchmarkLargeScriptFormat() {
+        Assume.assumeTrue(Boolean.getBoolean("sql.benchmark"));
+
+        SQLFormatterConfiguration configuration = Mockito.mock(SQLFormatterConfiguration.class);
+        SQLSyntaxManager syntaxManager = Mockito.mock(SQLSyntaxManager.class);
+        Mockito.when(configuration.getSyntaxManager()).thenReturn(syntaxManager);
+        Mockito.when(configuration.getPreferenceStore()).thenReturn(Mockito.mock(DBPPreferenceStore.class));
+        Mockito.when(configuration.getKeywordCase()).thenReturn(DBPIdentifierCase.UPPER);
+        Mockito.when(configuration.getIndentString()).thenReturn("\t");
+        Mockito.when(syntaxManager.getStatementDelimiters()).thenReturn(new String[]{";"});
+        Mockito.when(syntaxManager.getDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        Mockito.when(syntaxManager.getCatalogSeparator()).thenReturn(".");
+        Mockito.when(syntaxManager.getStructSeparator()).thenReturn('.');
+
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            script.append("-- row ").append(i).append('\n');
+            script.append("INSERT INTO t (id, name, amount) VALUES (").append(i).append(", 'name").append(i).append("', 1.5e3);\n");
+            script.append("SELECT a, b FROM t WHERE id IN (1, 2) AND name = 'x' ORDER BY a;\n");
+            script.append("UPDATE t SET amount = (amount + 1) WHERE id = ").append(i).append(";\n\n");
+        }
+        for (int i = 0; i < 3; i++) {
+            long start = System.currentTimeMillis();
+            String result = new SQLFormatterTokenized().format(script.toString(), configuration);
+            System.out.println("Formatted " + script.length() + " chars into " + result.length() + " chars in " +
+                (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+}
@@ -42,6 +42,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -742,6 +744,36 @@ public class SQLScriptParserTest {
             WHERE 1=1""", element.getText());
     }
 
+    @Test
+    public void parseScriptStream() throws DBException, IOException {
+        String script = """
+            CREATE TABLE t (id int, name varchar(10));
+            INSERT INTO t VALUES (1, 'a;b');
+            -- comment;
+            @set x = 1
+            CREATE FUNCTION f() RETURNS int AS $$
+            BEGIN
+                RETURN 1;
+            END;
+            $$ LANGUAGE plpgsql;
+            SELECT ${x}, :param FROM t WHERE name IN ('a', 'b');
+
+            SELECT 2""";
+        setDialect("postgresql");
+        List<SQLScriptElement> expected = SQLScriptParser.parseScript(dataSource, script);
+        for (int chunkSize : new int[]{1, 7, 64, SQLScriptStreamParser.DEFAULT_CHUNK_SIZE}) {
+            try (SQLScriptStreamParser parser = new SQLScriptStreamParser(dataSource, new StringReader(script), chunkSize)) {
+                for (SQLScriptElement expectedElement : expected) {
+                    SQLScriptElement element = parser.nextElement();
+                    Assert.assertNotNull(element);
+                    Assert.assertEquals(expectedElement.getText(), element.getText());
+                    Assert.assertEquals(expectedElement.getOffset(), parser.getElementOffset());
+                }
+                Assert.assertNull(parser.nextElement());
+            }
+        }
+    }
+
 
     private void assertParse(String dialectName, String[] expected) throws DBException {
         String source = Arrays.stream(expected).filter(Objects::nonNull).collect(Collectors.joining());
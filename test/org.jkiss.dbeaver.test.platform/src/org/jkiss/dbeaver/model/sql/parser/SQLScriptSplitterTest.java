@@ -0,0 +1,268 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ext.generic.model.GenericDataSource;
+import org.jkiss.dbeaver.ext.generic.model.meta.GenericMetaModel;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLDialectMetadataRegistry;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares script elements produced by {@link SQLScriptSplitter} with the rule-based parser ones.
+ * Dialects which can't be split without the scanner must give the same elements through the parser fallback.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLScriptSplitterTest {
+
+    private static final String[] FRAGMENTS = {
+        "SELECT 1", "select * from t where a = 'x;y'", "'it''s'", "\"quoted;name\"", "-- comment; here\n",
+        "/* block; comment */", "(1; 2)", "[a;b]", "{call p(1)}", "1.5e3", "0x1F", "12.", "abc$1", "$$ body; $$",
+        "$tag$ x; $tag$", "?", ":param", "@set x = 1\n", "BEGIN\n  x := 1;\nEND", "CREATE TABLE t (id int)",
+        "INSERT INTO t VALUES (1, 'a')", "count(*)", "go", "GO\n", "\n", "  ", "\t", ";", ";;", " ;\n", ",", "=",
+        "'unterminated", "/* unterminated", "delimiter $$\n", "e", "E+", "--", "/", "\r\n",
+    };
+
+    @Mock
+    private GenericDataSource dataSource;
+    @Mock
+    private GenericMetaModel metaModel;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+    @Mock
+    private JDBCSession session;
+    @Mock
+    private JDBCDatabaseMetaData databaseMetaData;
+    @Mock
+    private DBPDriver driver;
+
+    @Before
+    public void init() {
+        DBPConnectionConfiguration connectionConfiguration = new DBPConnectionConfiguration();
+        DBPPreferenceStore preferenceStore = DBWorkbench.getPlatform().getPreferenceStore();
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.lenient().when(dataSourceContainer.getConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.lenient().when(dataSourceContainer.getActualConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.when(dataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.lenient().when(dataSourceContainer.getDriver()).thenReturn(driver);
+        Mockito.lenient().when(dataSource.getMetaModel()).thenReturn(metaModel);
+    }
+
+    @Test
+    public void splitterIsCreatedForScannerFreeDialects() throws DBException {
+        Assert.assertNotNull(SQLScriptSplitter.create(createParserContext(setDialect("postgresql"), "SELECT 1")));
+        Assert.assertNotNull(SQLScriptSplitter.create(createParserContext(setDialect("snowflake"), "SELECT 1")));
+    }
+
+    @Test
+    public void splitSimpleScript() throws DBException {
+        assertSameElements("postgresql",
+            "CREATE TABLE t (id int, name varchar(10));\n" +
+            "INSERT INTO t VALUES (1, 'a;b');\n\n" +
+            "-- comment;\n" +
+            "INSERT INTO t VALUES (2, 'it''s') ;;\n" +
+            "/* multi\n line; */ SELECT count(*) FROM t WHERE id IN (1; 2)\n" +
+            "SELECT 1.5e3, 0x1F FROM t");
+    }
+
+    @Test
+    public void splitScriptWithBlocks() throws DBException {
+        assertSameElements("postgresql",
+            "SELECT 1;\n" +
+            "CREATE FUNCTION f() RETURNS int AS $$\nBEGIN\n  RETURN 1;\nEND;\n$$ LANGUAGE plpgsql;\n" +
+            "DO $body$ BEGIN PERFORM 1; END $body$;\n" +
+            "SELECT :param, ? FROM t;\n" +
+            "@set x = 1\n" +
+            "SELECT ${x};\n" +
+            "SELECT 2");
+        assertSameElements("snowflake",
+            "BEGIN\n  SELECT 1;\nEND;\n" +
+            "SELECT 'x;y' FROM t;\n" +
+            "CREATE PROCEDURE p() RETURNS int LANGUAGE SQL AS $$ SELECT 1; $$;");
+    }
+
+    @Test
+    public void splitStatementsStartingWithBracket() throws DBException {
+        assertSameElements("postgresql", "(SELECT 1");
+        assertSameElements("postgresql", "(SELECT 1) UNION (SELECT 2);\n((SELECT 3)");
+        assertSameElements("generic", "(SELECT 1;\nSELECT 2");
+
+        SQLParserContext context = createParserContext(setDialect("postgresql"), "  (SELECT 1");
+        SQLScriptSplitter splitter = SQLScriptSplitter.create(context);
+        Assert.assertNotNull(splitter);
+        context.startScriptEvaluation();
+        try {
+            SQLScriptElement element = splitter.parseQuery(0, context.getDocument().getLength(), false);
+            Assert.assertNotNull(element);
+            Assert.assertEquals("(SELECT 1", element.getText());
+        } finally {
+            context.endScriptEvaluation();
+        }
+    }
+
+    @Test
+    public void splitGenericScript() throws DBException {
+        assertSameElements("generic",
+            "CREATE TABLE t (id int, name varchar(10));\n" +
+            "INSERT INTO t VALUES (1, 'a;b');\n" +
+            "-- comment;\n" +
+            "SELECT \"quoted;name\" FROM t WHERE id IN (1, 2);\n" +
+            "/* block; comment */ SELECT 1\n" +
+            "SELECT 2");
+    }
+
+    @Test
+    public void splitOracleScript() throws DBException {
+        assertSameElements("oracle",
+            "SELECT 1 FROM dual;\n" +
+            "DECLARE\n  x NUMBER := 1;\nBEGIN\n  x := x + 1;\n  INSERT INTO t VALUES (x);\nEND;\n/\n" +
+            "CREATE OR REPLACE PROCEDURE p AS\nBEGIN\n  NULL;\nEND;\n/\n" +
+            "BEGIN\n  p;\nEND;\n" +
+            "SELECT q'[a;b]' FROM dual;\n" +
+            "(SELECT 1 FROM dual)");
+    }
+
+    @Test
+    public void splitSQLServerScript() throws DBException {
+        assertSameElements("sqlserver",
+            "SELECT 1\nGO\n" +
+            "CREATE PROCEDURE p AS\nBEGIN\n  SELECT [a;b] FROM t;\nEND\nGO\n" +
+            "INSERT INTO t VALUES (1, 'go;');\n" +
+            "SELECT 2;\n" +
+            "SELECT good FROM t\ngo\n" +
+            "(SELECT 3)");
+    }
+
+    @Test
+    public void splitRandomScripts() throws DBException {
+        Random random = new Random(20241019);
+        for (String dialect : new String[]{"postgresql", "snowflake", "generic", "oracle", "sqlserver"}) {
+            for (int i = 0; i < 200; i++) {
+                StringBuilder script = new StringBuilder();
+                int fragmentCount = 1 + random.nextInt(30);
+                for (int k = 0; k < fragmentCount; k++) {
+                    script.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                    if (random.nextBoolean()) {
+                        script.append(' ');
+                    }
+                }
+                assertSameElements(dialect, script.toString());
+            }
+        }
+    }
+
+    private void assertSameElements(String dialectName, String script) throws DBException {
+        SQLDialect dialect = setDialect(dialectName);
+        for (boolean keepDelimiters : new boolean[]{false, true}) {
+            SQLParserContext parserContext = createParserContext(dialect, script);
+            List<SQLScriptElement> expected = new ArrayList<>();
+            parserContext.startScriptEvaluation();
+            try {
+                for (int offset = 0; ; ) {
+                    SQLScriptElement element = SQLScriptParser.parseQueryImpl(
+                        parserContext, offset, script.length(), offset, true, keepDelimiters);
+                    if (element == null) {
+                        break;
+                    }
+                    expected.add(element);
+                    offset = element.getOffset() + element.getLength();
+                }
+            } finally {
+                parserContext.endScriptEvaluation();
+            }
+
+            // Uses the splitter if the dialect allows it
+            SQLParserContext splitterContext = createParserContext(dialect, script);
+            SQLScriptSplitter splitter = SQLScriptSplitter.create(splitterContext);
+            List<SQLScriptElement> actual = new ArrayList<>();
+            splitterContext.startScriptEvaluation();
+            try {
+                SQLScriptParser.splitScriptQueries(splitterContext, splitter, 0, script.length(), true, keepDelimiters, actual);
+            } finally {
+                splitterContext.endScriptEvaluation();
+            }
+
+            String message = dialectName + ": " + script;
+            Assert.assertEquals(message, expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                SQLScriptElement expectedElement = expected.get(i);
+                SQLScriptElement actualElement = actual.get(i);
+                Assert.assertEquals(message, expectedElement.getClass(), actualElement.getClass());
+                Assert.assertEquals(message, expectedElement.getOffset(), actualElement.getOffset());
+                Assert.assertEquals(message, expectedElement.getLength(), actualElement.getLength());
+                Assert.assertEquals(message, expectedElement.getText(), actualElement.getText());
+                if (expectedElement instanceof SQLQuery expectedQuery) {
+                    Assert.assertEquals(message, expectedQuery.isEndsWithDelimiter(), ((SQLQuery) actualElement).isEndsWithDelimiter());
+                }
+            }
+        }
+    }
+
+    private SQLParserContext createParserContext(SQLDialect dialect, String query) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dialect, dataSourceContainer.getPreferenceStore());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+        return new SQLParserContext(dataSource, syntaxManager, ruleManager, new Document(query));
+    }
+
+    private SQLDialect setDialect(String name) throws DBException {
+        SQLDialectMetadataRegistry registry = DBWorkbench.getPlatform().getSQLDialectRegistry();
+        switch (name) {
+            case "generic" -> {
+                try {
+                    Mockito.lenient().when(databaseMetaData.getIdentifierQuoteString()).thenReturn("\"");
+                } catch (SQLException e) {
+                    throw new DBException("Can't initialize identifier quote string for dialect " + name, e);
+                }
+            }
+            case "oracle" -> Mockito.lenient().when(dataSource.isServerVersionAtLeast(12, 1)).thenReturn(true);
+            case "sqlserver" -> Mockito.lenient().when(driver.getSampleURL())
+                .thenReturn("jdbc:sqlserver://localhost;user=MyUserName;password=*****;");
+            default -> {
+            }
+        }
+        SQLDialect dialect = registry.getDialect(name).createInstance();
+        ((JDBCSQLDialect) dialect).initDriverSettings(session, dataSource, databaseMetaData);
+        Mockito.lenient().when(dataSource.getSQLDialect()).thenReturn(dialect);
+        return dialect;
+    }
+}
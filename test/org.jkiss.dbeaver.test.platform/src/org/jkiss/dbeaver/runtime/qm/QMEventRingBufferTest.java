@@ -0,0 +1,103 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class QMEventRingBufferTest {
+
+    @Test
+    public void fullBufferDropsNewItems() {
+        QMEventRingBuffer<Integer> buffer = new QMEventRingBuffer<>(3);
+        Assert.assertEquals(4, buffer.getCapacity());
+        for (int i = 0; i < 6; i++) {
+            Assert.assertEquals(i < 4, buffer.offer(i));
+        }
+        Assert.assertEquals(2, buffer.getDroppedCount());
+
+        List<Integer> items = new ArrayList<>();
+        Assert.assertEquals(3, buffer.drainTo(items, 3));
+        Assert.assertTrue(buffer.offer(10));
+        Assert.assertEquals(2, buffer.drainTo(items, 10));
+        Assert.assertEquals(List.of(0, 1, 2, 3, 10), items);
+        Assert.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void tryAddDoesNotCountDroppedItems() {
+        QMEventRingBuffer<Integer> buffer = new QMEventRingBuffer<>(2);
+        Assert.assertTrue(buffer.tryAdd(1));
+        Assert.assertEquals(1, buffer.size());
+        Assert.assertTrue(buffer.tryAdd(2));
+        Assert.assertFalse(buffer.tryAdd(3));
+        Assert.assertEquals(2, buffer.size());
+        Assert.assertEquals(0, buffer.getDroppedCount());
+
+        List<Integer> items = new ArrayList<>();
+        buffer.drainTo(items, 1);
+        Assert.assertEquals(1, buffer.size());
+        Assert.assertEquals(List.of(1), items);
+    }
+
+    @Test
+    public void concurrentProducersKeepOrder() throws InterruptedException {
+        final int producerCount = 4;
+        final int itemCount = 100000;
+        QMEventRingBuffer<long[]> buffer = new QMEventRingBuffer<>(256);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < itemCount; i++) {
+                    buffer.offer(new long[]{producer, i});
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+
+        long[] lastItems = new long[producerCount];
+        Arrays.fill(lastItems, -1);
+        long received = 0;
+        List<long[]> items = new ArrayList<>();
+        boolean finished = false;
+        while (!finished) {
+            finished = producers.stream().noneMatch(Thread::isAlive);
+            items.clear();
+            buffer.drainTo(items, 100);
+            if (finished) {
+                buffer.drainTo(items, Integer.MAX_VALUE);
+            }
+            for (long[] item : items) {
+                int producer = (int) item[0];
+                Assert.assertTrue(item[1] > lastItems[producer]);
+                lastItems[producer] = item[1];
+                received++;
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        Assert.assertTrue(buffer.isEmpty());
+        Assert.assertEquals((long) producerCount * itemCount, received + buffer.getDroppedCount());
+    }
+}
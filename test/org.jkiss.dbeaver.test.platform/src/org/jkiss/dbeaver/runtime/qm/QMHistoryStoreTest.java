@@ -0,0 +1,143 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.filters.QMEventStatus;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMTransactionInfo;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class QMHistoryStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void eventsAreReadAfterReopen() throws IOException, DBException {
+        Path directory = folder.getRoot().toPath();
+        long time = System.currentTimeMillis() - 10000;
+        try (QMHistoryStore store = new QMHistoryStore(directory, 30, Long.MAX_VALUE)) {
+            QMMConnectionInfo connection1 = createConnection("ds1", time);
+            QMMConnectionInfo connection2 = createConnection("ds2", time);
+            store.append(List.of(
+                new QMMetaEvent(connection1, QMEventAction.BEGIN, null),
+                new QMMetaEvent(createQuery(connection1, "SELECT 1", time + 1, null), QMEventAction.END, "s1"),
+                // Not stored
+                new QMMetaEvent(createQuery(connection1, "SELECT 2", time + 2, null), QMEventAction.BEGIN, "s1")));
+            store.append(List.of(
+                new QMMetaEvent(createQuery(connection2, "select 3", time + 3, "Error"), QMEventAction.END, "s1"),
+                new QMMetaEvent(new QMMTransactionInfo(connection2, time + 4, time + 5, true), QMEventAction.END, "s1")));
+        }
+
+        try (QMHistoryStore store = new QMHistoryStore(directory, 30, Long.MAX_VALUE)) {
+            List<QMMetaEventEntity> events = readEvents(store, new QMEventCriteria());
+            Assert.assertEquals(4, events.size());
+            // Newest first
+            Assert.assertTrue(events.get(0).getObject() instanceof QMMTransactionInfo);
+            Assert.assertTrue(((QMMTransactionInfo) events.get(0).getObject()).isCommitted());
+            QMMStatementExecuteInfo execute = (QMMStatementExecuteInfo) events.get(1).getObject();
+            Assert.assertEquals("select 3", execute.getQueryString());
+            Assert.assertEquals("Error", execute.getErrorMessage());
+            Assert.assertEquals(DBCExecutionPurpose.USER, execute.getStatement().getPurpose());
+            Assert.assertEquals("ds2", execute.getConnection().getContainerId());
+            Assert.assertEquals(QMEventAction.BEGIN, events.get(3).getAction());
+            Assert.assertEquals(1, events.get(3).getId());
+
+            QMEventCriteria criteria = new QMEventCriteria();
+            criteria.setContainerId("ds1");
+            Assert.assertEquals(2, readEvents(store, criteria).size());
+
+            criteria = new QMEventCriteria();
+            criteria.setSearchString("SELECT");
+            criteria.setEventStatuses(Set.of(QMEventStatus.SUCCESS));
+            criteria.setObjectTypes(new QMObjectType[]{QMObjectType.query});
+            events = readEvents(store, criteria);
+            Assert.assertEquals(1, events.size());
+            Assert.assertEquals("SELECT 1", events.get(0).getObject().getText());
+
+            // Next page
+            criteria = new QMEventCriteria();
+            criteria.setLastEventId(3L);
+            Assert.assertEquals(2, readEvents(store, criteria).size());
+
+            // New events get next ids
+            QMMConnectionInfo connection = createConnection("ds1", time);
+            store.append(List.of(new QMMetaEvent(connection, QMEventAction.END, null)));
+            Assert.assertEquals(5, readEvents(store, new QMEventCriteria()).get(0).getId());
+        }
+    }
+
+    @Test
+    public void oldSegmentsArePurgedBySize() throws IOException, DBException {
+        Path directory = folder.getRoot().toPath();
+        long time = System.currentTimeMillis();
+        try (QMHistoryStore store = new QMHistoryStore(directory, 30, Long.MAX_VALUE)) {
+            store.append(List.of(new QMMetaEvent(createConnection("ds1", time), QMEventAction.BEGIN, null)));
+        }
+        try (QMHistoryStore store = new QMHistoryStore(directory, 30, Long.MAX_VALUE)) {
+            store.append(List.of(new QMMetaEvent(createConnection("ds2", time), QMEventAction.BEGIN, null)));
+        }
+        try (QMHistoryStore store = new QMHistoryStore(directory, 30, 1)) {
+            List<QMMetaEventEntity> events = readEvents(store, new QMEventCriteria());
+            Assert.assertEquals(1, events.size());
+            Assert.assertEquals("ds2", events.get(0).getObject().getConnection().getContainerId());
+        }
+    }
+
+    private static List<QMMetaEventEntity> readEvents(QMHistoryStore store, QMEventCriteria criteria) throws DBException {
+        List<QMMetaEventEntity> events = new ArrayList<>();
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        try (QMEventCursor cursor = store.getQueryHistoryCursor(new QMCursorFilter(null, criteria, null))) {
+            while (cursor.hasNextEvent(monitor)) {
+                events.add(cursor.nextEvent(monitor));
+            }
+        }
+        return events;
+    }
+
+    private static QMMConnectionInfo createConnection(String containerId, long time) {
+        return QMMConnectionInfo.builder()
+            .setContainerId(containerId)
+            .setContainerName(containerId.toUpperCase())
+            .setDriverId("generic:test")
+            .setContextName("Main")
+            .setOpenTime(time)
+            .build();
+    }
+
+    private static QMMStatementExecuteInfo createQuery(QMMConnectionInfo connection, String query, long time, String error) {
+        QMMStatementInfo statement = new QMMStatementInfo(time, time, connection, DBCExecutionPurpose.USER);
+        return new QMMStatementExecuteInfo(time, time, statement, query, 1, 0, error, 0, 0, false, null, null);
+    }
+}